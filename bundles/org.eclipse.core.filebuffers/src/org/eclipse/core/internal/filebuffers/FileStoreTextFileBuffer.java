@@ -512,6 +512,9 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 
 			try {
 				String content= new String(contentStream.readAllBytes(), encoding);
+				if (document instanceof SynchronizableDocument synchronizableDocument) {
+					synchronizableDocument.prepareForContent(content.length());
+				}
 				document.set(content);
 			} catch (OutOfMemoryError e) {
 				throw new IOException(NLS.bind(FileBuffersMessages.ResourceTextFileBuffer_oom_on_file_read, file.toURI()), e);
@@ -489,6 +489,9 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 
 			try {
 				String content= new String(contentStream.readAllBytes(), encoding);
+				if (document instanceof SynchronizableDocument synchronizableDocument) {
+					synchronizableDocument.prepareForContent(content.length());
+				}
 				if (document instanceof IDocumentExtension4 ext4) {
 					ext4.set(content, fFile.getModificationStamp());
 				} else {
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.filebuffers;
 
+import org.eclipse.jface.text.AbstractLineTracker;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPartitioningException;
 import org.eclipse.jface.text.BadPositionCategoryException;
@@ -23,6 +24,7 @@ import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.PieceTableTextStore;
 import org.eclipse.jface.text.Position;
 
 
@@ -36,8 +38,33 @@ import org.eclipse.jface.text.Position;
  */
 public class SynchronizableDocument extends Document implements ISynchronizable {
 
+	/**
+	 * The content length from which a document read from a file stores its content in a
+	 * {@link PieceTableTextStore} and keeps its lines in a compact line index. Can be changed with
+	 * the system property
+	 * <code>org.eclipse.core.filebuffers.largeDocumentThreshold</code>, a negative value disables
+	 * the piece table.
+	 */
+	static final int LARGE_DOCUMENT_THRESHOLD= Integer.getInteger("org.eclipse.core.filebuffers.largeDocumentThreshold", 8 * 1024 * 1024).intValue(); //$NON-NLS-1$
+
 	private Object fLockObject;
 
+	/**
+	 * Prepares this empty document for being set to content of the given length. Large content is
+	 * kept in a {@link PieceTableTextStore}, so that edits don't move the content and setting it
+	 * doesn't copy it, and its lines in a {@link AbstractLineTracker#setCompactLineIndex(boolean)
+	 * compact line index}, so that they don't need an object per line.
+	 *
+	 * @param length the length of the content that will be set
+	 */
+	void prepareForContent(int length) {
+		if (LARGE_DOCUMENT_THRESHOLD >= 0 && length >= LARGE_DOCUMENT_THRESHOLD && getLength() == 0) {
+			setTextStore(new PieceTableTextStore());
+			if (getTracker() instanceof AbstractLineTracker tracker)
+				tracker.setCompactLineIndex(true);
+		}
+	}
+
 	@Override
 	public synchronized void setLockObject(Object lockObject) {
 		fLockObject= lockObject;
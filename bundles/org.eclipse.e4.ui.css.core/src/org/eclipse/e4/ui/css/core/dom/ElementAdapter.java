@@ -421,4 +421,16 @@ public abstract class ElementAdapter implements Element, CSSStylableElement {
 			engine.handleExceptions(ex);
 		}
 	}
+
+	/**
+	 * Restyle the elements whose styles may depend on the given pseudo class
+	 * of the native widget after it changed.
+	 */
+	protected void pseudoClassChanged(String pseudoClass) {
+		try {
+			engine.attributeChanged(getNativeWidget(), ":" + pseudoClass, null, null);
+		} catch (Exception ex) {
+			engine.handleExceptions(ex);
+		}
+	}
 }
@@ -146,6 +146,19 @@ public interface CSSEngine {
 	 */
 	void applyStyles(Object node, boolean applyStylesToChildNodes, boolean computeDefaultStyle);
 
+	/**
+	 * Restyle the nodes whose styles may depend on an attribute of the Object
+	 * node after it changed. The <code>attribute</code> is the name of the
+	 * attribute, "class", "id", or the name of a pseudo class prefixed with
+	 * ":" (ex : ":focus"). The styles are applied before this method returns,
+	 * so callers observe the new styles immediately; engines may restyle fewer
+	 * nodes than the whole subtree. The default implementation applies styles
+	 * to the node and its child nodes.
+	 */
+	default void attributeChanged(Object node, String attribute, String oldValue, String newValue) {
+		applyStyles(node, true);
+	}
+
 	/*--------------- Apply style declaration -----------------*/
 
 	/**
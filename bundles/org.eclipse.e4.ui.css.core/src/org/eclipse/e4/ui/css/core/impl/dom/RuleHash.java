@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSStyleRule;
+
+/**
+ * The selectors of a list of style rules, bucketed by the id, CSS class or
+ * element name required by their rightmost simple selector. An element then
+ * only needs to be matched against the selectors of the buckets of its id,
+ * classes and name and against the selectors which require none of them.
+ */
+final class RuleHash {
+
+	/**
+	 * A selector of a style rule.
+	 */
+	static final class Entry {
+
+		/** The position of the selector in all selectors of the rules */
+		final int order;
+		final CSSStyleRule rule;
+		final ExtendedSelector selector;
+
+		Entry(int order, CSSStyleRule rule, ExtendedSelector selector) {
+			this.order = order;
+			this.rule = rule;
+			this.selector = selector;
+		}
+	}
+
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+
+	private final Map<String, Entry[]> idEntries;
+	private final Map<String, Entry[]> classEntries;
+	private final Map<String, Entry[]> nameEntries;
+	private final Entry[] universalEntries;
+
+	/**
+	 * Creates the hash of the selectors of the given rules. Only style rules
+	 * which are {@link ExtendedCSSRule}s are considered.
+	 *
+	 * @param rules the rules in the order of the style sheets
+	 */
+	RuleHash(List<CSSRule> rules) {
+		Map<String, List<Entry>> ids = new HashMap<>();
+		Map<String, List<Entry>> classes = new HashMap<>();
+		Map<String, List<Entry>> names = new HashMap<>();
+		List<Entry> universal = new ArrayList<>();
+		int order = 0;
+		for (CSSRule rule : rules) {
+			if (rule.getType() != CSSRule.STYLE_RULE || (!(rule instanceof ExtendedCSSRule))) {
+				continue;
+			}
+			SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+			int l = selectorList.getLength();
+			for (int j = 0; j < l; j++) {
+				Selector selector = selectorList.item(j);
+				if (!(selector instanceof ExtendedSelector)) {
+					continue;
+				}
+				Entry entry = new Entry(order++, (CSSStyleRule) rule, (ExtendedSelector) selector);
+				Selector rightmost = getRightmostSelector(selector);
+				String key;
+				if ((key = getKey(rightmost, CSSIdConditionImpl.class)) != null) {
+					ids.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+				} else if ((key = getKey(rightmost, CSSClassConditionImpl.class)) != null) {
+					classes.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+				} else if ((key = getElementName(rightmost)) != null) {
+					names.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+				} else {
+					universal.add(entry);
+				}
+			}
+		}
+		idEntries = toArrays(ids);
+		classEntries = toArrays(classes);
+		nameEntries = toArrays(names);
+		universalEntries = universal.toArray(NO_ENTRIES);
+	}
+
+	/**
+	 * Returns the selectors which may match the given element, in the order of
+	 * the rules.
+	 *
+	 * @param elt the element
+	 * @return the selectors to match against the element
+	 */
+	List<Entry> getCandidates(Element elt) {
+		List<Entry> candidates = new ArrayList<>();
+		int buckets = add(candidates, universalEntries);
+		if (!idEntries.isEmpty()) {
+			String id = (elt instanceof CSSStylableElement) ? ((CSSStylableElement) elt).getCSSId()
+					: elt.getAttribute("id");
+			if (id != null) {
+				buckets += add(candidates, idEntries.get(id));
+			}
+		}
+		if (!classEntries.isEmpty()) {
+			String classes = (elt instanceof CSSStylableElement) ? ((CSSStylableElement) elt).getCSSClass()
+					: elt.getAttribute("class");
+			if (classes != null) {
+				buckets += addClasses(candidates, classes);
+			}
+		}
+		if (!nameEntries.isEmpty()) {
+			// the element name as matched by CSSElementSelectorImpl
+			String name = (elt.getPrefix() == null) ? elt.getNodeName() : elt.getLocalName();
+			if (name != null) {
+				buckets += add(candidates, nameEntries.get(name));
+			}
+		}
+		if (buckets > 1) {
+			candidates.sort((entry1, entry2) -> Integer.compare(entry1.order, entry2.order));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Adds the selectors of the buckets of the space separated classes, each
+	 * class only once.
+	 */
+	private int addClasses(List<Entry> candidates, String classes) {
+		int buckets = 0;
+		int length = classes.length();
+		int start = 0;
+		while (start < length) {
+			while (start < length && Character.isSpaceChar(classes.charAt(start))) {
+				start++;
+			}
+			int end = start;
+			while (end < length && !Character.isSpaceChar(classes.charAt(end))) {
+				end++;
+			}
+			if (end > start) {
+				String cssClass = classes.substring(start, end);
+				if (!containsClass(classes, start, cssClass)) {
+					buckets += add(candidates, classEntries.get(cssClass));
+				}
+			}
+			start = end;
+		}
+		return buckets;
+	}
+
+	/**
+	 * Returns whether the given class occurs before the given index in the
+	 * space separated classes.
+	 */
+	private static boolean containsClass(String classes, int before, String cssClass) {
+		int length = cssClass.length();
+		for (int i = classes.indexOf(cssClass); i != -1 && i < before; i = classes.indexOf(cssClass, i + length)) {
+			if ((i == 0 || Character.isSpaceChar(classes.charAt(i - 1)))
+					&& Character.isSpaceChar(classes.charAt(i + length))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int add(List<Entry> candidates, Entry[] entries) {
+		if (entries == null || entries.length == 0) {
+			return 0;
+		}
+		for (Entry entry : entries) {
+			candidates.add(entry);
+		}
+		return 1;
+	}
+
+	/**
+	 * Returns the simple selector which has to match the element itself.
+	 */
+	private static Selector getRightmostSelector(Selector selector) {
+		if (selector instanceof DescendantSelector) {
+			return getRightmostSelector(((DescendantSelector) selector).getSimpleSelector());
+		}
+		if (selector instanceof SiblingSelector) {
+			return getRightmostSelector(((SiblingSelector) selector).getSiblingSelector());
+		}
+		return selector;
+	}
+
+	/**
+	 * Returns the value of a condition of the given type required by the
+	 * selector, or <code>null</code> if there is none.
+	 */
+	private static String getKey(Selector selector, Class<? extends Condition> type) {
+		if (selector instanceof ConditionalSelector) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			String key = getKey(conditionalSelector.getCondition(), type);
+			return (key != null) ? key : getKey(conditionalSelector.getSimpleSelector(), type);
+		}
+		return null;
+	}
+
+	private static String getKey(Condition condition, Class<? extends Condition> type) {
+		if (condition.getConditionType() == Condition.SAC_AND_CONDITION
+				&& condition instanceof CombinatorCondition) {
+			CombinatorCondition combinator = (CombinatorCondition) condition;
+			String key = getKey(combinator.getFirstCondition(), type);
+			return (key != null) ? key : getKey(combinator.getSecondCondition(), type);
+		}
+		if (condition instanceof CSSIdConditionImpl && type == CSSIdConditionImpl.class) {
+			return ((CSSIdConditionImpl) condition).getValue();
+		}
+		if (condition instanceof CSSClassConditionImpl && type == CSSClassConditionImpl.class) {
+			return ((CSSClassConditionImpl) condition).getValue();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the element name required by the selector, or <code>null</code>
+	 * if it matches any element name.
+	 */
+	private static String getElementName(Selector selector) {
+		if (selector instanceof ConditionalSelector) {
+			return getElementName(((ConditionalSelector) selector).getSimpleSelector());
+		}
+		if (selector instanceof CSSElementSelectorImpl) {
+			return ((CSSElementSelectorImpl) selector).getLocalName();
+		}
+		return null;
+	}
+
+	private static Map<String, Entry[]> toArrays(Map<String, List<Entry>> buckets) {
+		Map<String, Entry[]> result = new HashMap<>(buckets.size() * 4 / 3 + 1);
+		for (Map.Entry<String, List<Entry>> bucket : buckets.entrySet()) {
+			result.put(bucket.getKey(), bucket.getValue().toArray(NO_ENTRIES));
+		}
+		return result;
+	}
+}
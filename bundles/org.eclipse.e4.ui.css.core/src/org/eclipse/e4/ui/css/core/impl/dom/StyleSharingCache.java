@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAndConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSChildSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSConditionalSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSDescendantSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSLangConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoElementSelectorImpl;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSStyleDeclaration;
+
+/**
+ * Shares the computed styles of elements which the selectors of a list of
+ * style rules cannot tell apart.
+ * <p>
+ * The key of an element holds everything the selectors can match on: the
+ * pseudo element, and for the element and each of its ancestors the name,
+ * namespace, CSS class, id, the attributes used by the selectors and whether
+ * it is an instance of the pseudo classes used by the selectors. Elements with
+ * equal keys have the same computed style. Selectors whose matching depends
+ * on anything else, like sibling selectors, disable the sharing.
+ * </p>
+ */
+final class StyleSharingCache {
+
+	/** The maximal number of cached styles, the cache is cleared when full */
+	private static final int MAX_SIZE = 4096;
+
+	/** The key part of a missing attribute, which differs from any value */
+	private static final Object NO_ATTRIBUTE = new Object();
+
+	/** The style of keys no rule matches, as <code>null</code> values are not kept */
+	private static final Object NO_STYLE = new Object();
+
+	private final boolean enabled;
+	private final boolean hasAncestorSelectors;
+	private final String[] attributes;
+	private final String[] pseudoClasses;
+	private final Map<List<Object>, Object> styles = new HashMap<>();
+
+	/**
+	 * Creates the cache for the given rules.
+	 *
+	 * @param rules the rules in the order of the style sheets
+	 */
+	StyleSharingCache(List<CSSRule> rules) {
+		Set<String> attributeSet = new LinkedHashSet<>();
+		Set<String> pseudoClassSet = new LinkedHashSet<>();
+		boolean supported = true;
+		boolean ancestors = false;
+		for (CSSRule rule : rules) {
+			if (rule.getType() != CSSRule.STYLE_RULE || (!(rule instanceof ExtendedCSSRule))) {
+				continue;
+			}
+			SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+			int l = selectorList.getLength();
+			for (int j = 0; j < l && supported; j++) {
+				Selector selector = selectorList.item(j);
+				ancestors |= selector instanceof CSSDescendantSelectorImpl || selector instanceof CSSChildSelectorImpl;
+				supported = collect(selector, attributeSet, pseudoClassSet);
+			}
+		}
+		enabled = supported;
+		hasAncestorSelectors = ancestors;
+		attributes = attributeSet.toArray(new String[attributeSet.size()]);
+		pseudoClasses = pseudoClassSet.toArray(new String[pseudoClassSet.size()]);
+	}
+
+	/**
+	 * Returns the key of an element.
+	 *
+	 * @param elt the element
+	 * @param pseudoElt the pseudo element, may be <code>null</code>
+	 * @return the key, or <code>null</code> if the style of the element must
+	 *         not be shared
+	 */
+	List<Object> getKey(Element elt, String pseudoElt) {
+		if (!enabled) {
+			return null;
+		}
+		List<Object> key = new ArrayList<>();
+		key.add(pseudoElt);
+		addElement(key, elt);
+		if (hasAncestorSelectors) {
+			for (Node n = elt.getParentNode(); n != null; n = n.getParentNode()) {
+				if (n.getNodeType() == Node.ELEMENT_NODE) {
+					addElement(key, (Element) n);
+				} else {
+					key.add(Short.valueOf(n.getNodeType()));
+				}
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Returns whether a style is cached for the given key.
+	 */
+	boolean contains(List<Object> key) {
+		return styles.containsKey(key);
+	}
+
+	/**
+	 * Returns the style cached for the given key.
+	 *
+	 * @return the style, <code>null</code> if none is cached or no rule matches
+	 */
+	CSSStyleDeclaration get(List<Object> key) {
+		Object style = styles.get(key);
+		return (style instanceof CSSStyleDeclaration) ? (CSSStyleDeclaration) style : null;
+	}
+
+	void put(List<Object> key, CSSStyleDeclaration style) {
+		if (styles.size() >= MAX_SIZE) {
+			styles.clear();
+		}
+		styles.put(key, (style != null) ? style : NO_STYLE);
+	}
+
+	private void addElement(List<Object> key, Element elt) {
+		// the element name as matched by CSSElementSelectorImpl
+		key.add((elt.getPrefix() == null) ? elt.getNodeName() : elt.getLocalName());
+		key.add(elt.getNamespaceURI());
+		if (elt instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) elt;
+			key.add(stylableElement.getCSSClass());
+			key.add(stylableElement.getCSSId());
+			for (String attribute : attributes) {
+				key.add(elt.hasAttribute(attribute) ? elt.getAttribute(attribute) : NO_ATTRIBUTE);
+			}
+			int pseudoInstances = 0;
+			for (int i = 0; i < pseudoClasses.length; i++) {
+				if (stylableElement.isPseudoInstanceOf(pseudoClasses[i])) {
+					pseudoInstances |= 1 << (2 * (i & 15));
+					if (stylableElement.isStaticPseudoInstance(pseudoClasses[i])) {
+						pseudoInstances |= 2 << (2 * (i & 15));
+					}
+				}
+				if ((i & 15) == 15 || i == pseudoClasses.length - 1) {
+					key.add(Integer.valueOf(pseudoInstances));
+					pseudoInstances = 0;
+				}
+			}
+		} else {
+			key.add(elt.getAttribute("class"));
+			key.add(elt.getAttribute("id"));
+			for (String attribute : attributes) {
+				key.add(elt.hasAttribute(attribute) ? elt.getAttribute(attribute) : NO_ATTRIBUTE);
+			}
+		}
+	}
+
+	/**
+	 * Collects the attributes and pseudo classes used by a selector.
+	 *
+	 * @return whether the matching of the selector only depends on the parts
+	 *         of the key
+	 */
+	private static boolean collect(Selector selector, Set<String> attributes, Set<String> pseudoClasses) {
+		if (selector instanceof CSSElementSelectorImpl || selector instanceof CSSPseudoElementSelectorImpl) {
+			return true;
+		}
+		if (selector instanceof CSSConditionalSelectorImpl) {
+			CSSConditionalSelectorImpl conditionalSelector = (CSSConditionalSelectorImpl) selector;
+			return collect(conditionalSelector.getSimpleSelector(), attributes, pseudoClasses)
+					&& collect(conditionalSelector.getCondition(), attributes, pseudoClasses);
+		}
+		if (selector instanceof CSSDescendantSelectorImpl || selector instanceof CSSChildSelectorImpl) {
+			DescendantSelector descendantSelector = (DescendantSelector) selector;
+			return collect(descendantSelector.getAncestorSelector(), attributes, pseudoClasses)
+					&& collect(descendantSelector.getSimpleSelector(), attributes, pseudoClasses);
+		}
+		return false;
+	}
+
+	private static boolean collect(Condition condition, Set<String> attributes, Set<String> pseudoClasses) {
+		if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl andCondition = (CSSAndConditionImpl) condition;
+			return collect(andCondition.getFirstCondition(), attributes, pseudoClasses)
+					&& collect(andCondition.getSecondCondition(), attributes, pseudoClasses);
+		}
+		if (condition instanceof CSSClassConditionImpl || condition instanceof CSSIdConditionImpl) {
+			return true;
+		}
+		if (condition instanceof CSSAttributeConditionImpl) {
+			attributes.add(((CSSAttributeConditionImpl) condition).getLocalName());
+			return true;
+		}
+		if (condition instanceof CSSLangConditionImpl) {
+			attributes.add("lang");
+			return true;
+		}
+		if (condition instanceof CSSPseudoClassConditionImpl) {
+			pseudoClasses.add(((CSSPseudoClassConditionImpl) condition).getValue());
+			return true;
+		}
+		return false;
+	}
+}
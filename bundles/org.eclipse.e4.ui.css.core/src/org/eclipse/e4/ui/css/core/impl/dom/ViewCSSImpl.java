@@ -19,17 +19,13 @@ package org.eclipse.e4.ui.css.core.impl.dom;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
 import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
 import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
-import org.w3c.css.sac.Selector;
-import org.w3c.css.sac.SelectorList;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.css.CSSRule;
 import org.w3c.dom.css.CSSRuleList;
 import org.w3c.dom.css.CSSStyleDeclaration;
-import org.w3c.dom.css.CSSStyleRule;
 import org.w3c.dom.css.CSSStyleSheet;
 import org.w3c.dom.css.DocumentCSS;
 import org.w3c.dom.css.ViewCSS;
@@ -47,6 +43,10 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	private boolean ruleCachingEnabled;
 	/** Cached state of combined CSS rules for the current stylesheets */
 	private List<CSSRule> currentCombinedRules;
+	/** Cached hash of the selectors of {@link #currentCombinedRules} */
+	private RuleHash currentRuleHash;
+	/** Cached computed styles shared by elements the current rules cannot tell apart */
+	private StyleSharingCache currentStyleCache;
 
 	/**
 	 * Creates a new ViewCSS.
@@ -73,7 +73,24 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
-		return getComputedStyle(getCombinedRules(), elt, pseudoElt);
+		RuleHash ruleHash = getRuleHash();
+		if (!this.ruleCachingEnabled) {
+			return getComputedStyle(ruleHash, elt, pseudoElt);
+		}
+
+		if (this.currentStyleCache == null) {
+			this.currentStyleCache = new StyleSharingCache(getCombinedRules());
+		}
+		List<Object> key = this.currentStyleCache.getKey(elt, pseudoElt);
+		if (key == null) {
+			return getComputedStyle(ruleHash, elt, pseudoElt);
+		}
+		if (this.currentStyleCache.contains(key)) {
+			return this.currentStyleCache.get(key);
+		}
+		CSSStyleDeclaration style = getComputedStyle(ruleHash, elt, pseudoElt);
+		this.currentStyleCache.put(key, style);
+		return style;
 	}
 
 	/**
@@ -111,7 +128,30 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 		return cssRules;
 	}
 
-	private CSSStyleDeclaration getComputedStyle(List<CSSRule> ruleList, Element elt, String pseudoElt) {
+	/**
+	 * Retrieves the hash of the selectors of the combined CSS rules, which is
+	 * cached together with the rules.
+	 *
+	 * @return the selectors of all style sheets by their rightmost simple
+	 *         selector
+	 */
+	private RuleHash getRuleHash() {
+		if (this.ruleCachingEnabled && this.currentRuleHash != null) {
+			return this.currentRuleHash;
+		}
+		RuleHash ruleHash = new RuleHash(getCombinedRules());
+		if (this.ruleCachingEnabled) {
+			this.currentRuleHash = ruleHash;
+		}
+		return ruleHash;
+	}
+
+	private CSSStyleDeclaration getComputedStyle(RuleHash ruleHash, Element elt, String pseudoElt) {
+		List<RuleHash.Entry> candidates = ruleHash.getCandidates(elt);
+		if (candidates.isEmpty()) {
+			return null;
+		}
+
 		Node parent = elt.getParentNode();
 
 		Node[] hierarchy = null;
@@ -126,35 +166,23 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 		List<StyleWrapper> styleDeclarations = null;
 		StyleWrapper firstStyleDeclaration = null;
 		int position = 0;
-		for (CSSRule rule : ruleList) {
-			if (rule.getType() != CSSRule.STYLE_RULE || (!(rule instanceof ExtendedCSSRule)) ) {
-				continue; // we only handle the CSSRule.STYLE_RULE and ExtendedCSSRule case
-			}
-			CSSStyleRule styleRule = (CSSStyleRule) rule;
-			ExtendedCSSRule r = (ExtendedCSSRule) rule;
-			SelectorList selectorList = r.getSelectorList();
-			// Loop for SelectorList
-			int l = selectorList.getLength();
-			for (int j = 0; j < l; j++) {
-				Selector selector = selectorList.item(j);
-				if (selector instanceof ExtendedSelector) {
-					ExtendedSelector extendedSelector = (ExtendedSelector) selector;
-					if (extendedSelector.match(elt, hierarchy, 0, pseudoElt)) {
-						CSSStyleDeclaration style = styleRule.getStyle();
-						int specificity = extendedSelector.getSpecificity();
-						StyleWrapper wrapper = new StyleWrapper(style, specificity, position++);
-						if (firstStyleDeclaration == null) {
-							firstStyleDeclaration = wrapper;
-						} else {
-							// There is several Style Declarations which
-							// match the current element
-							if (styleDeclarations == null) {
-								styleDeclarations = new ArrayList<>();
-								styleDeclarations.add(firstStyleDeclaration);
-							}
-							styleDeclarations.add(wrapper);
-						}
+		// The candidates are in the order of the rules and their selector lists
+		for (RuleHash.Entry candidate : candidates) {
+			ExtendedSelector extendedSelector = candidate.selector;
+			if (extendedSelector.match(elt, hierarchy, 0, pseudoElt)) {
+				CSSStyleDeclaration style = candidate.rule.getStyle();
+				int specificity = extendedSelector.getSpecificity();
+				StyleWrapper wrapper = new StyleWrapper(style, specificity, position++);
+				if (firstStyleDeclaration == null) {
+					firstStyleDeclaration = wrapper;
+				} else {
+					// There is several Style Declarations which
+					// match the current element
+					if (styleDeclarations == null) {
+						styleDeclarations = new ArrayList<>();
+						styleDeclarations.add(firstStyleDeclaration);
 					}
+					styleDeclarations.add(wrapper);
 				}
 			}
 		}
@@ -172,10 +200,14 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	@Override
 	public void styleSheetAdded(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentRuleHash = null;
+		currentStyleCache = null;
 	}
 
 	@Override
 	public void styleSheetRemoved(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentRuleHash = null;
+		currentStyleCache = null;
 	}
 }
@@ -32,6 +32,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -156,6 +157,99 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private ResourceRegistryKeyFactory keyFactory;
 
+	/**
+	 * Key of the {@link AppliedValues} in the context of an element.
+	 */
+	private static final String APPLIED_VALUES_KEY = "org.eclipse.e4.ui.css.core.appliedValues";
+
+	/**
+	 * The generation of the {@link AppliedValues} which are valid, increased
+	 * when the style sheets change.
+	 */
+	private int appliedValuesGeneration;
+
+	/**
+	 * The last stamp given to {@link AppliedValues}.
+	 */
+	private int appliedValuesStamp;
+
+	/**
+	 * The CSS property values {@link #applyStyles(Object, boolean, boolean)}
+	 * applied to an element, by pseudo instance.
+	 */
+	private static class AppliedValues {
+
+		final int generation;
+
+		/**
+		 * Changes whenever property handlers are called for the element
+		 */
+		int stamp;
+
+		/**
+		 * The stamp of the applied values of the parent element when the values
+		 * were applied, or -1
+		 */
+		final int parentStamp;
+
+		final Map<String, Map<String, String>> values = new HashMap<>(4);
+
+		AppliedValues(int generation, int stamp, int parentStamp) {
+			this.generation = generation;
+			this.stamp = stamp;
+			this.parentStamp = parentStamp;
+		}
+	}
+
+	/**
+	 * The dependencies of the selectors of the style sheets on the attributes
+	 * of the elements, computed on demand.
+	 */
+	private StyleDependencies styleDependencies;
+
+	/**
+	 * The native widgets {@link #applyDirtyStyles()} restyles, in the order
+	 * they were marked dirty.
+	 */
+	private final Map<Object, DirtyElement> dirtyElements = new LinkedHashMap<>();
+
+	/**
+	 * The number of enclosing {@link #batchAttributeChanges(Runnable)} calls.
+	 */
+	private int batchDepth;
+
+	/**
+	 * The number of elements {@link #applyStyles(Object, boolean, boolean)}
+	 * styled so far.
+	 */
+	private int styledElements;
+
+	/**
+	 * The number of elements restyled by {@link #applyDirtyStyles()}, by the
+	 * attribute whose change marked them dirty.
+	 */
+	private final Map<String, Integer> restyleStatistics = new HashMap<>();
+
+	/**
+	 * A native widget to restyle.
+	 */
+	private static class DirtyElement {
+
+		final Object widget;
+
+		/** The attribute whose change marked the widget dirty first */
+		final String trigger;
+
+		boolean applyStylesToChildNodes;
+
+		boolean computeDefaultStyle;
+
+		DirtyElement(Object widget, String trigger) {
+			this.widget = widget;
+			this.trigger = trigger;
+		}
+	}
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -164,6 +258,20 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		this.documentCSS = documentCSS;
 		this.viewCSS = new ViewCSSImpl(documentCSS);
 		keyFactory = new ResourceRegistryKeyFactory();
+		documentCSS.addStyleSheetChangeListener(new ExtendedDocumentCSS.StyleSheetChangeListener() {
+
+			@Override
+			public void styleSheetAdded(StyleSheet styleSheet) {
+				invalidateAppliedValues();
+				styleDependencies = null;
+			}
+
+			@Override
+			public void styleSheetRemoved(StyleSheet styleSheet) {
+				invalidateAppliedValues();
+				styleDependencies = null;
+			}
+		});
 	}
 
 	/*--------------- Parse style sheet -----------------*/
@@ -375,6 +483,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		if (elt == null || !isVisible(elt)) {
 			return;
 		}
+		styledElements++;
 
 		/*
 		 * Compute new Style to apply.
@@ -409,16 +518,17 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				if (styleWithPseudoInstance != null) {
 					CSSRule parentRule = styleWithPseudoInstance.getParentRule();
 					if (parentRule instanceof ExtendedCSSRule) {
-						applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
+						applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, elt,
+								styleWithPseudoInstance, computeDefaultStyle);
 					} else {
-						applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
+						applyComputedStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance, computeDefaultStyle);
 					}
 				}
 			}
 		}
 
 		if (style != null) {
-			applyStyleDeclaration(elt, style, null);
+			applyComputedStyleDeclaration(elt, style, null, computeDefaultStyle);
 		}
 		try {
 			// Apply inline style
@@ -441,6 +551,145 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		}
 	}
 
+	/**
+	 * Marks the elements whose styles may depend on the changed attribute
+	 * dirty, according to where the selectors of the style sheets use it, and
+	 * restyles them before returning, or at the end of the enclosing
+	 * {@link #batchAttributeChanges(Runnable)}. A change of a pseudo class
+	 * always computes the default style of the dirty elements, as the rules
+	 * applied before may no longer match.
+	 */
+	@Override
+	public void attributeChanged(Object element, String attribute, String oldValue, String newValue) {
+		Element elt = getElement(element);
+		if (elt == null) {
+			return;
+		}
+		if (styleDependencies == null) {
+			styleDependencies = new StyleDependencies(documentCSS.getStyleSheets());
+		}
+		int scope = styleDependencies.getScope(attribute, oldValue, newValue);
+		if (scope == 0) {
+			return;
+		}
+		boolean pseudoClass = attribute.startsWith(StyleDependencies.PSEUDO_CLASS_PREFIX);
+		if ((scope & StyleDependencies.SIBLINGS) != 0) {
+			Node parent = elt.getParentNode();
+			if (parent instanceof Element) {
+				// restyle the parent with all siblings
+				markDirty((Element) parent, attribute, true, pseudoClass);
+				return;
+			}
+		}
+		boolean applyStylesToChildNodes = (scope & ~StyleDependencies.SELF) != 0;
+		markDirty(elt, attribute, applyStylesToChildNodes, pseudoClass);
+	}
+
+	private void markDirty(Element elt, String trigger, boolean applyStylesToChildNodes,
+			boolean computeDefaultStyle) {
+		Object widget = getDirtyKey(elt);
+		DirtyElement dirtyElement = dirtyElements.get(widget);
+		if (dirtyElement == null) {
+			dirtyElement = new DirtyElement(widget, trigger);
+			dirtyElements.put(widget, dirtyElement);
+		}
+		dirtyElement.applyStylesToChildNodes |= applyStylesToChildNodes;
+		dirtyElement.computeDefaultStyle |= computeDefaultStyle || this.computeDefaultStyle;
+		if (batchDepth == 0) {
+			applyDirtyStyles();
+		}
+	}
+
+	private Object getDirtyKey(Node node) {
+		Object widget = getNativeWidget(node);
+		return (widget != null) ? widget : node;
+	}
+
+	/**
+	 * Runs the given runnable and restyles the elements marked dirty by the
+	 * attribute changes it reports in one pass before returning, instead of
+	 * once per change. Batches may be nested; the outermost one restyles.
+	 *
+	 * @param runnable
+	 *            the runnable changing attributes
+	 */
+	public void batchAttributeChanges(Runnable runnable) {
+		batchDepth++;
+		try {
+			runnable.run();
+		} finally {
+			if (--batchDepth == 0) {
+				applyDirtyStyles();
+			}
+		}
+	}
+
+	/**
+	 * Applies the styles of the elements marked dirty by
+	 * {@link #attributeChanged(Object, String, String, String)}. Elements
+	 * inside the dirty subtree of another element are restyled only once.
+	 */
+	public void applyDirtyStyles() {
+		if (dirtyElements.isEmpty()) {
+			return;
+		}
+		List<DirtyElement> dirty = new ArrayList<>(dirtyElements.values());
+		dirtyElements.clear();
+		Set<Object> dirtySubtrees = new HashSet<>();
+		for (DirtyElement dirtyElement : dirty) {
+			if (dirtyElement.applyStylesToChildNodes) {
+				dirtySubtrees.add(dirtyElement.widget);
+			}
+		}
+		for (DirtyElement dirtyElement : dirty) {
+			Element elt = getElement(dirtyElement.widget);
+			if (elt == null || isInDirtySubtree(elt, dirtySubtrees)) {
+				continue;
+			}
+			int styled = styledElements;
+			// applyStyles keeps computing the default style for the child nodes
+			boolean computeDefault = this.computeDefaultStyle;
+			try {
+				applyStyles(elt, dirtyElement.applyStylesToChildNodes, dirtyElement.computeDefaultStyle);
+			} catch (Exception e) {
+				handleExceptions(e);
+			} finally {
+				this.computeDefaultStyle = computeDefault;
+			}
+			restyleStatistics.merge(dirtyElement.trigger, Integer.valueOf(styledElements - styled),
+					(count1, count2) -> Integer.valueOf(count1.intValue() + count2.intValue()));
+		}
+	}
+
+	private boolean isInDirtySubtree(Element elt, Set<Object> dirtySubtrees) {
+		for (Node node = elt.getParentNode(); node != null; node = node.getParentNode()) {
+			if (dirtySubtrees.contains(getDirtyKey(node))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of elements {@link #applyDirtyStyles()} restyled so
+	 * far, by the attribute whose change marked them dirty: "class", "id", the
+	 * name of a pseudo class prefixed with ":" or the name of another
+	 * attribute.
+	 *
+	 * @return the number of restyled elements by attribute
+	 */
+	public Map<String, Integer> getRestyleStatistics() {
+		return Collections.unmodifiableMap(new HashMap<>(restyleStatistics));
+	}
+
+	/**
+	 * Clears the numbers of restyled elements returned by
+	 * {@link #getRestyleStatistics()}.
+	 */
+	public void resetRestyleStatistics() {
+		restyleStatistics.clear();
+	}
+
 	/**
 	 * Allow the CSS engine to skip particular elements if they are not visible.
 	 * Elements need to be restyled when they become visible.
@@ -468,7 +717,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return true;
 	}
 
-	private void applyConditionalPseudoStyle(ExtendedCSSRule parentRule, String pseudoInstance, Object element, CSSStyleDeclaration styleWithPseudoInstance) {
+	private void applyConditionalPseudoStyle(ExtendedCSSRule parentRule, String pseudoInstance, Element element,
+			CSSStyleDeclaration styleWithPseudoInstance, boolean computeDefaultStyle) {
 		SelectorList selectorList = parentRule.getSelectorList();
 		for (int j = 0; j < selectorList.getLength(); j++) {
 			Selector item = selectorList.item(j);
@@ -500,7 +750,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 					String value = attr.getValue();
 					if (value.equals(pseudoInstance)) {
 						// if we match the pseudo, apply the style
-						applyStyleDeclaration(element, styleWithPseudoInstance, pseudoInstance);
+						applyComputedStyleDeclaration(element, styleWithPseudoInstance, pseudoInstance,
+								computeDefaultStyle);
 						return;
 					}
 				}
@@ -528,19 +779,106 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	/*--------------- Apply style declaration -----------------*/
 
+	/**
+	 * Applies the computed style of an element. The handlers of the properties
+	 * whose values equal the ones applied the last time are skipped, unless the
+	 * default style was applied before or the handlers of the parent element
+	 * were called since. The handlers of some elements apply their values to
+	 * the parent widget, e.g. the colors of a CTabItem are set on its
+	 * CTabFolder, so the parent may have overwritten them.
+	 */
+	private void applyComputedStyleDeclaration(Element elt, CSSStyleDeclaration style, String pseudo,
+			boolean computeDefaultStyle) {
+		CSSElementContext context = (getNativeWidget(elt) != null) ? getCSSElementContext(elt) : null;
+		if (context == null) {
+			applyStyleDeclaration(elt, style, pseudo);
+			return;
+		}
+		Object data = context.getData(APPLIED_VALUES_KEY);
+		int parentStamp = getAppliedValuesStamp(elt.getParentNode());
+		AppliedValues appliedValues;
+		if (data instanceof AppliedValues && ((AppliedValues) data).generation == appliedValuesGeneration
+				&& ((AppliedValues) data).parentStamp == parentStamp) {
+			appliedValues = (AppliedValues) data;
+		} else {
+			appliedValues = new AppliedValues(appliedValuesGeneration, ++appliedValuesStamp, parentStamp);
+			context.setData(APPLIED_VALUES_KEY, appliedValues);
+		}
+		Map<String, String> previousValues = computeDefaultStyle ? null : appliedValues.values.get(pseudo);
+		Map<String, String> values = new HashMap<>();
+		if (applyStyleDeclaration(elt, style, pseudo, previousValues, values)) {
+			appliedValues.stamp = ++appliedValuesStamp;
+		}
+		appliedValues.values.put(pseudo, values);
+	}
+
+	/**
+	 * Returns the stamp of the values applied to the given element, or -1 if
+	 * they are not known.
+	 */
+	private int getAppliedValuesStamp(Node node) {
+		CSSElementContext context = (node != null) ? getCSSElementContext(node) : null;
+		Object data = (context != null) ? context.getData(APPLIED_VALUES_KEY) : null;
+		return (data instanceof AppliedValues) ? ((AppliedValues) data).stamp : -1;
+	}
+
+	/**
+	 * Forgets the CSS property values applied to all elements, so that the
+	 * next {@link #applyStyles(Object, boolean, boolean)} calls the handlers of
+	 * all properties again. Called when the style sheets change and when the
+	 * styles are reapplied.
+	 */
+	protected void invalidateAppliedValues() {
+		appliedValuesGeneration++;
+	}
+
 	@Override
 	public void applyStyleDeclaration(Object element, CSSStyleDeclaration style, String pseudo) {
+		// The element may change in ways not recorded in its applied values,
+		// the new stamp makes its children apply all their values again
+		CSSElementContext context = getCSSElementContext(element);
+		if (context != null) {
+			context.setData(APPLIED_VALUES_KEY, new AppliedValues(appliedValuesGeneration, ++appliedValuesStamp, -1));
+		}
+		applyStyleDeclaration(element, style, pseudo, null, null);
+	}
+
+	/**
+	 * Applies a style declaration.
+	 *
+	 * @param previousValues
+	 *            the property values applied to the element the last time,
+	 *            whose handlers are skipped, may be <code>null</code>
+	 * @param values
+	 *            the map to record the applied property values in, may be
+	 *            <code>null</code>
+	 * @return <code>true</code> if a property handler was called
+	 */
+	private boolean applyStyleDeclaration(Object element, CSSStyleDeclaration style, String pseudo,
+			Map<String, String> previousValues, Map<String, String> values) {
 		// Apply style
 		boolean avoidanceCacheInstalled = currentCSSPropertiesApplied == null;
 		if (avoidanceCacheInstalled) {
 			currentCSSPropertiesApplied = new HashMap<>();
 		}
 		List<ICSSPropertyHandler2> handlers2 = Collections.emptyList();
+		boolean applied = false;
 		for (int i = 0; i < style.getLength(); i++) {
 			String property = style.item(i);
 			CSSValue value = style.getPropertyCSSValue(property);
+			String cssText = (values != null) ? value.getCssText() : null;
+			if (previousValues != null && cssText != null && cssText.equals(previousValues.get(property))
+					&& !"inherit".equals(cssText)) {
+				// the value was already applied
+				values.put(property, cssText);
+				continue;
+			}
+			applied = true;
 			try {
 				ICSSPropertyHandler handler = this.applyCSSProperty(element, property, value, pseudo);
+				if (handler != null && values != null) {
+					values.put(property, cssText);
+				}
 				ICSSPropertyHandler2 propertyHandler2 = null;
 				if (handler instanceof ICSSPropertyHandler2) {
 					propertyHandler2 = (ICSSPropertyHandler2) handler;
@@ -579,7 +917,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		if (avoidanceCacheInstalled) {
 			currentCSSPropertiesApplied = null;
 		}
-
+		return applied;
 	}
 
 	@Override
@@ -896,6 +1234,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		if (elementsContext != null) {
 			elementsContext.remove(widget);
 		}
+		dirtyElements.remove(widget);
 	}
 
 	@Override
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAndConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSLangConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoClassConditionImpl;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Which attributes of an element the selectors of the style sheets depend on,
+ * and which elements may match differently when such an attribute changes.
+ * <p>
+ * An attribute used in the rightmost simple selector of a selector affects the
+ * element itself, one used in an ancestor part of a selector affects the
+ * descendants of the element and one used in a sibling part affects the
+ * following siblings of the element and their descendants.
+ * </p>
+ */
+final class StyleDependencies {
+
+	/** The element itself may match differently */
+	static final int SELF = 1;
+
+	/** The descendants of the element may match differently */
+	static final int DESCENDANTS = 2;
+
+	/**
+	 * The following siblings of the element and their descendants may match
+	 * differently
+	 */
+	static final int SIBLINGS = 4;
+
+	/** The name of the class attribute */
+	static final String CLASS = "class";
+
+	/** The name of the id attribute */
+	static final String ID = "id";
+
+	/** The prefix of the name of a pseudo class */
+	static final String PSEUDO_CLASS_PREFIX = ":";
+
+	private final Map<String, Integer> classes = new HashMap<>();
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final Map<String, Integer> attributes = new HashMap<>();
+	private final Map<String, Integer> pseudoClasses = new HashMap<>();
+
+	/** The scope of selectors which may depend on any attribute */
+	private int unknown;
+
+	/**
+	 * Analyzes the style rules of the given style sheets.
+	 *
+	 * @param styleSheets the style sheets
+	 */
+	StyleDependencies(StyleSheetList styleSheets) {
+		int l = styleSheets.getLength();
+		for (int i = 0; i < l; i++) {
+			CSSRuleList rules = ((CSSStyleSheet) styleSheets.item(i)).getCssRules();
+			int rulesSize = rules.getLength();
+			for (int j = 0; j < rulesSize; j++) {
+				CSSRule rule = rules.item(j);
+				if (rule.getType() != CSSRule.STYLE_RULE || (!(rule instanceof ExtendedCSSRule))) {
+					continue;
+				}
+				SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+				int length = selectorList.getLength();
+				for (int k = 0; k < length; k++) {
+					collect(selectorList.item(k), SELF);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns which elements may match differently after an attribute of an
+	 * element changed.
+	 *
+	 * @param attribute
+	 *            the name of the attribute, {@link #CLASS}, {@link #ID}, or the
+	 *            name of a pseudo class prefixed with
+	 *            {@link #PSEUDO_CLASS_PREFIX}
+	 * @param oldValue
+	 *            the previous value of the attribute, may be <code>null</code>
+	 * @param newValue
+	 *            the new value of the attribute, may be <code>null</code>
+	 * @return a combination of {@link #SELF}, {@link #DESCENDANTS} and
+	 *         {@link #SIBLINGS}, or 0 if no selector depends on the change
+	 */
+	int getScope(String attribute, String oldValue, String newValue) {
+		int scope = unknown;
+		if (attribute.startsWith(PSEUDO_CLASS_PREFIX)) {
+			String pseudoClass = attribute.substring(PSEUDO_CLASS_PREFIX.length());
+			return scope | get(pseudoClasses, pseudoClass.toLowerCase(Locale.ROOT));
+		}
+		scope |= get(attributes, attribute);
+		if (CLASS.equals(attribute)) {
+			Set<String> oldClasses = split(oldValue);
+			Set<String> newClasses = split(newValue);
+			for (String cssClass : oldClasses) {
+				if (!newClasses.contains(cssClass)) {
+					scope |= get(classes, cssClass);
+				}
+			}
+			for (String cssClass : newClasses) {
+				if (!oldClasses.contains(cssClass)) {
+					scope |= get(classes, cssClass);
+				}
+			}
+		} else if (ID.equals(attribute)) {
+			if (oldValue != null) {
+				scope |= get(ids, oldValue);
+			}
+			if (newValue != null) {
+				scope |= get(ids, newValue);
+			}
+		}
+		return scope;
+	}
+
+	private void collect(Selector selector, int scope) {
+		if (selector instanceof ConditionalSelector) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			collect(conditionalSelector.getSimpleSelector(), scope);
+			collect(conditionalSelector.getCondition(), scope);
+		} else if (selector instanceof DescendantSelector) {
+			DescendantSelector descendantSelector = (DescendantSelector) selector;
+			collect(descendantSelector.getAncestorSelector(), DESCENDANTS);
+			collect(descendantSelector.getSimpleSelector(), scope);
+		} else if (selector instanceof SiblingSelector) {
+			SiblingSelector siblingSelector = (SiblingSelector) selector;
+			collect(siblingSelector.getSelector(), SIBLINGS);
+			collect(siblingSelector.getSiblingSelector(), scope);
+		} else if (!(selector instanceof ElementSelector)) {
+			unknown |= scope;
+		}
+	}
+
+	private void collect(Condition condition, int scope) {
+		if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl andCondition = (CSSAndConditionImpl) condition;
+			collect(andCondition.getFirstCondition(), scope);
+			collect(andCondition.getSecondCondition(), scope);
+		} else if (condition instanceof CSSClassConditionImpl) {
+			add(classes, ((CSSClassConditionImpl) condition).getValue(), scope);
+		} else if (condition instanceof CSSIdConditionImpl) {
+			add(ids, ((CSSIdConditionImpl) condition).getValue(), scope);
+		} else if (condition instanceof CSSAttributeConditionImpl) {
+			add(attributes, ((CSSAttributeConditionImpl) condition).getLocalName(), scope);
+		} else if (condition instanceof CSSLangConditionImpl) {
+			add(attributes, "lang", scope);
+		} else if (condition instanceof CSSPseudoClassConditionImpl) {
+			String pseudoClass = ((CSSPseudoClassConditionImpl) condition).getValue();
+			add(pseudoClasses, pseudoClass.toLowerCase(Locale.ROOT), scope);
+		} else {
+			unknown |= scope;
+		}
+	}
+
+	private static void add(Map<String, Integer> dependencies, String name, int scope) {
+		dependencies.merge(name, Integer.valueOf(scope),
+				(scope1, scope2) -> Integer.valueOf(scope1.intValue() | scope2.intValue()));
+	}
+
+	private static int get(Map<String, Integer> dependencies, String name) {
+		Integer scope = dependencies.get(name);
+		return (scope != null) ? scope.intValue() : 0;
+	}
+
+	/**
+	 * Returns the space separated classes.
+	 */
+	private static Set<String> split(String classes) {
+		Set<String> result = new HashSet<>();
+		if (classes == null) {
+			return result;
+		}
+		int length = classes.length();
+		int start = 0;
+		while (start < length) {
+			while (start < length && Character.isSpaceChar(classes.charAt(start))) {
+				start++;
+			}
+			int end = start;
+			while (end < length && !Character.isSpaceChar(classes.charAt(end))) {
+				end++;
+			}
+			if (end > start) {
+				result.add(classes.substring(start, end));
+			}
+			start = end;
+		}
+		return result;
+	}
+}
@@ -35,7 +35,7 @@ public class ButtonElement extends ControlElement {
 		public void widgetSelected(SelectionEvent e) {
 			if (!e.widget.isDisposed()) {
 				ButtonElement.this.isSelected = getButton().getSelection();
-				doApplyStyles();
+				pseudoClassChanged("checked");
 			}
 		}
 	};
@@ -45,13 +45,13 @@ public class ControlElement extends WidgetElement {
 		@Override
 		public void focusGained(FocusEvent e) {
 			ControlElement.this.hasFocus = true;
-			doApplyStyles();
+			pseudoClassChanged("focus");
 		}
 
 		@Override
 		public void focusLost(FocusEvent e) {
 			ControlElement.this.hasFocus = false;
-			doApplyStyles();
+			pseudoClassChanged("focus");
 		}
 	};
 
@@ -62,14 +62,14 @@ public class ControlElement extends WidgetElement {
 			// mouse hover, apply styles
 			// into the SWT control
 			ControlElement.this.hasMouseHover = true;
-			doApplyStyles();
+			pseudoClassChanged("hover");
 		}
 
 		@Override
 		public void mouseExit(MouseEvent e) {
 			// mouse hover, apply styles
 			ControlElement.this.hasMouseHover = false;
-			doApplyStyles();
+			pseudoClassChanged("hover");
 
 		}
 	};
@@ -115,6 +115,26 @@ public class WidgetElement extends ElementAdapter implements NodeList {
 		}
 	}
 
+	/**
+	 * Convenience method for requesting the CSS engine to restyle the widgets
+	 * whose styles may depend on an attribute of a widget after it changed.
+	 *
+	 * @param widget
+	 *            widget whose attribute changed
+	 * @param attribute
+	 *            "class", "id", or the name of a pseudo class prefixed with ":"
+	 * @param oldValue
+	 *            the previous value of the attribute
+	 * @param newValue
+	 *            the new value of the attribute
+	 */
+	public static void attributeChanged(Widget widget, String attribute, String oldValue, String newValue) {
+		CSSEngine engine = getEngine(widget);
+		if (engine != null) {
+			engine.attributeChanged(widget, attribute, oldValue, newValue);
+		}
+	}
+
 	/**
 	 * Convenience method for setting the CSS engine responsible for a display.
 	 *
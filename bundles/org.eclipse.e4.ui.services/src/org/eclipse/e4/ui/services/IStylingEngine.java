@@ -33,8 +33,22 @@ public interface IStylingEngine {
 	@Deprecated
 	public static final String SERVICE_NAME = IStylingEngine.class.getName();
 
+	/**
+	 * Sets the CSS class of the widget. The styles depending on it are applied
+	 * before this method returns.
+	 */
 	public void setClassname(Object widget, String classname);
+
+	/**
+	 * Sets the CSS id of the widget. The styles depending on it are applied
+	 * before this method returns.
+	 */
 	public void setId(Object widget, String id);
+
+	/**
+	 * Sets the CSS class and id of the widget. The styles depending on them
+	 * are applied before this method returns.
+	 */
 	public void setClassnameAndId(Object widget, String classname, String id);
 	public void style(Object widget);
 	public CSSStyleDeclaration getStyle(Object widget);
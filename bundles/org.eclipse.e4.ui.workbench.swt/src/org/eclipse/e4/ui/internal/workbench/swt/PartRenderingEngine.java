@@ -1289,14 +1289,16 @@ public class PartRenderingEngine implements IPresentationEngine {
 			appContext.set(IStylingEngine.class, new IStylingEngine() {
 				@Override
 				public void setClassname(Object widget, String classname) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					themeEngine.applyStyles(widget, true);
+					WidgetElement.attributeChanged((Widget) widget, "class", oldClassname, classname); //$NON-NLS-1$
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					WidgetElement.attributeChanged((Widget) widget, "id", oldId, id); //$NON-NLS-1$
 				}
 
 				@Override
@@ -1311,9 +1313,12 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 				@Override
 				public void setClassnameAndId(Object widget, String classname, String id) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					WidgetElement.attributeChanged((Widget) widget, "class", oldClassname, classname); //$NON-NLS-1$
+					WidgetElement.attributeChanged((Widget) widget, "id", oldId, id); //$NON-NLS-1$
 				}
 			});
 
@@ -1332,14 +1337,16 @@ public class PartRenderingEngine implements IPresentationEngine {
 			appContext.set(IStylingEngine.class, new IStylingEngine() {
 				@Override
 				public void setClassname(Object widget, String classname) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.attributeChanged(widget, "class", oldClassname, classname); //$NON-NLS-1$
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.attributeChanged(widget, "id", oldId, id); //$NON-NLS-1$
 				}
 
 				@Override
@@ -1358,9 +1365,14 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 				@Override
 				public void setClassnameAndId(Object widget, String classname, String id) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.batchAttributeChanges(() -> {
+						cssEngine.attributeChanged(widget, "class", oldClassname, classname); //$NON-NLS-1$
+						cssEngine.attributeChanged(widget, "id", oldId, id); //$NON-NLS-1$
+					});
 				}
 			});
 
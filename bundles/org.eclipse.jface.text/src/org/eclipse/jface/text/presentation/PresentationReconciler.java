@@ -19,6 +19,9 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.events.ControlEvent;
+import org.eclipse.swt.events.ControlListener;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -40,6 +43,8 @@ import org.eclipse.jface.text.ITextListener;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.ITextViewerExtension5;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextEvent;
 import org.eclipse.jface.text.TextPresentation;
@@ -54,7 +59,8 @@ import org.eclipse.jface.text.TypedPosition;
  * and repairers are lightweight and of low cost. This presentation reconciler
  * runs in the UI thread and always repairs the complete damage caused by a
  * document change rather than just the portion overlapping with the viewer's
- * viewport.
+ * viewport, unless {@link #setViewportPrefetch(int)} restricts repairing to the
+ * visible lines.
  * <p>
  * Usually, clients instantiate this class and configure it before using it.
  * </p>
@@ -63,6 +69,10 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 
 	/** Prefix of the name of the position category for tracking damage regions. */
 	protected final static String TRACKED_PARTITION= "__reconciler_tracked_partition"; //$NON-NLS-1$
+	/**
+	 * Prefix of the name of the position category for tracking damage not yet repaired.
+	 */
+	private final static String PENDING_DAMAGE= "__reconciler_pending_damage"; //$NON-NLS-1$
 
 
 	/**
@@ -70,7 +80,8 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 */
 	class InternalListener implements
 			ITextInputListener, IDocumentListener, ITextListener,
-			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2 {
+			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2,
+			IViewportListener, ControlListener {
 
 		/** Set to <code>true</code> if between a document about to be changed and a changed event. */
 		private boolean fDocumentChanging= false;
@@ -92,6 +103,11 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 					oldDocument.removePositionUpdater(fPositionUpdater);
 					oldDocument.removePositionCategory(fPositionCategory);
 
+					if (isViewportBounded()) {
+						oldDocument.removePositionUpdater(fPendingDamageUpdater);
+						oldDocument.removePositionCategory(fPendingDamageCategory);
+					}
+
 				} catch (BadPositionCategoryException x) {
 					// should not happened for former input documents;
 				}
@@ -112,6 +128,11 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 				newDocument.addPositionCategory(fPositionCategory);
 				newDocument.addPositionUpdater(fPositionUpdater);
 
+				if (isViewportBounded()) {
+					newDocument.addPositionCategory(fPendingDamageCategory);
+					newDocument.addPositionUpdater(fPendingDamageUpdater);
+				}
+
 				newDocument.addDocumentPartitioningListener(this);
 				newDocument.addDocumentListener(this);
 				fViewer.addTextListener(this);
@@ -240,6 +261,22 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			IRegion region= new Region(e.getOffset() + visible.getOffset(), length);
 			return region;
 		}
+
+		@Override
+		public void viewportChanged(int verticalOffset) {
+			if (fCachedRedrawState)
+				repairVisibleDamage();
+		}
+
+		@Override
+		public void controlResized(ControlEvent e) {
+			if (fCachedRedrawState)
+				repairVisibleDamage();
+		}
+
+		@Override
+		public void controlMoved(ControlEvent e) {
+		}
 	}
 
 	/** The map of presentation damagers. */
@@ -265,6 +302,19 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 * @since 3.0
 	 */
 	private String fPartitioning;
+	/**
+	 * The number of lines above and below the viewport which are repaired together with the
+	 * visible lines, or <code>-1</code> if the complete damage is repaired.
+	 */
+	private int fViewportPrefetch= -1;
+	/**
+	 * The name of the position category tracking damage not yet repaired.
+	 */
+	private String fPendingDamageCategory;
+	/**
+	 * The position updater for the pending damage position category.
+	 */
+	private IPositionUpdater fPendingDamageUpdater;
 
 	/**
 	 * Creates a new presentation reconciler. There are no damagers or repairers
@@ -276,6 +326,8 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		fPartitioning= IDocumentExtension3.DEFAULT_PARTITIONING;
 		fPositionCategory= TRACKED_PARTITION + hashCode();
 		fPositionUpdater= new DefaultPositionUpdater(fPositionCategory);
+		fPendingDamageCategory= PENDING_DAMAGE + hashCode();
+		fPendingDamageUpdater= new DefaultPositionUpdater(fPendingDamageCategory);
 	}
 
 	/**
@@ -289,6 +341,37 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		fPartitioning= partitioning;
 	}
 
+	/**
+	 * Restricts repairing to the lines visible in the viewer plus the given number of lines above
+	 * and below them. Damage outside of these lines is remembered and repaired as soon as it is
+	 * scrolled into view. This avoids computing the presentation for text the user cannot see, for
+	 * example the rest of the document after a partitioning change. By default the complete
+	 * damage is repaired.
+	 * <p>
+	 * Must be called before the reconciler is installed.
+	 * </p>
+	 *
+	 * @param lines the number of lines to repair above and below the viewport, or <code>-1</code>
+	 *            to always repair the complete damage
+	 * @since 3.26
+	 */
+	public void setViewportPrefetch(int lines) {
+		Assert.isLegal(lines >= -1);
+		Assert.isTrue(fViewer == null);
+		fViewportPrefetch= lines;
+	}
+
+	/**
+	 * Returns whether repairing is restricted to the lines around the viewport.
+	 *
+	 * @return <code>true</code> if only the lines around the viewport are repaired
+	 * @see #setViewportPrefetch(int)
+	 * @since 3.26
+	 */
+	public boolean isViewportBounded() {
+		return fViewportPrefetch >= 0;
+	}
+
 	/*
 	 * @see org.eclipse.jface.text.presentation.IPresentationReconcilerExtension#geDocumenttPartitioning()
 	 * @since 3.0
@@ -347,6 +430,13 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		fViewer= viewer;
 		fViewer.addTextInputListener(fInternalListener);
 
+		if (isViewportBounded()) {
+			fViewer.addViewportListener(fInternalListener);
+			StyledText textWidget= fViewer.getTextWidget();
+			if (textWidget != null)
+				textWidget.addControlListener(fInternalListener);
+		}
+
 		IDocument document= viewer.getDocument();
 		if (document != null)
 			fInternalListener.inputDocumentChanged(null, document);
@@ -356,6 +446,13 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	public void uninstall() {
 		fViewer.removeTextInputListener(fInternalListener);
 
+		if (isViewportBounded()) {
+			fViewer.removeViewportListener(fInternalListener);
+			StyledText textWidget= fViewer.getTextWidget();
+			if (textWidget != null && !textWidget.isDisposed())
+				textWidget.removeControlListener(fInternalListener);
+		}
+
 		// Ensure we uninstall all listeners
 		fInternalListener.inputDocumentAboutToBeChanged(fViewer.getDocument(), null);
 	}
@@ -540,15 +637,122 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	}
 
 	/**
-	 * Processes the given damage.
+	 * Processes the given damage. If repairing is restricted to the viewport, the damage is
+	 * remembered and only its visible part is repaired.
 	 * @param damage the damage to be repaired
 	 * @param document the document whose presentation must be repaired
 	 */
 	private void processDamage(IRegion damage, IDocument document) {
 		if (damage != null && damage.getLength() > 0) {
-			TextPresentation p= createPresentation(damage, document);
-			if (p != null)
-				applyTextRegionCollection(p);
+			if (isViewportBounded()) {
+				IRegion window= getViewportWindow(document);
+				if (window != null) {
+					try {
+						addPendingDamage(damage, document);
+						repairPendingDamage(window, document);
+						return;
+					} catch (BadLocationException | BadPositionCategoryException x) {
+						// repair the complete damage
+					}
+				}
+			}
+			repair(damage, document);
+		}
+	}
+
+	/**
+	 * Repairs the given damage.
+	 * @param damage the damage to be repaired
+	 * @param document the document whose presentation must be repaired
+	 */
+	private void repair(IRegion damage, IDocument document) {
+		TextPresentation p= createPresentation(damage, document);
+		if (p != null)
+			applyTextRegionCollection(p);
+	}
+
+	/**
+	 * Repairs the remembered damage which has been scrolled into the viewport.
+	 */
+	private void repairVisibleDamage() {
+		IDocument document= fViewer.getDocument();
+		if (document == null)
+			return;
+		IRegion window= getViewportWindow(document);
+		if (window == null)
+			return;
+		try {
+			repairPendingDamage(window, document);
+		} catch (BadLocationException | BadPositionCategoryException x) {
+			// the document is not connected
+		}
+	}
+
+	/**
+	 * Returns the range of the lines visible in the viewer, extended by the prefetched lines.
+	 * @param document the document
+	 * @return the lines to repair or <code>null</code> if the viewer does not know its viewport
+	 */
+	private IRegion getViewportWindow(IDocument document) {
+		int top= fViewer.getTopIndexStartOffset();
+		if (top < 0)
+			return null;
+		int bottom= Math.max(top, fViewer.getBottomIndexEndOffset());
+		try {
+			int firstLine= Math.max(0, document.getLineOfOffset(top) - fViewportPrefetch);
+			int lastLine= Math.min(document.getNumberOfLines() - 1, document.getLineOfOffset(Math.min(bottom, document.getLength())) + fViewportPrefetch);
+			int start= document.getLineOffset(firstLine);
+			int end= document.getLineOffset(lastLine) + document.getLineLength(lastLine);
+			return new Region(start, end - start);
+		} catch (BadLocationException x) {
+			return null;
+		}
+	}
+
+	/**
+	 * Remembers the given damage, merged with the overlapping damage not yet repaired.
+	 * @param damage the damage
+	 * @param document the document
+	 * @throws BadLocationException if the damage is invalid in the given document
+	 * @throws BadPositionCategoryException if the document is not connected
+	 */
+	private void addPendingDamage(IRegion damage, IDocument document) throws BadLocationException, BadPositionCategoryException {
+		int start= damage.getOffset();
+		int end= start + damage.getLength();
+		for (Position p : document.getPositions(fPendingDamageCategory)) {
+			if (p.getLength() == 0) {
+				document.removePosition(fPendingDamageCategory, p);
+			} else if (p.getOffset() <= end && start <= p.getOffset() + p.getLength()) {
+				start= Math.min(start, p.getOffset());
+				end= Math.max(end, p.getOffset() + p.getLength());
+				document.removePosition(fPendingDamageCategory, p);
+			}
+		}
+		document.addPosition(fPendingDamageCategory, new Position(start, end - start));
+	}
+
+	/**
+	 * Repairs the part of the remembered damage which lies in the given window.
+	 * @param window the range to repair
+	 * @param document the document
+	 * @throws BadLocationException if the window is invalid in the given document
+	 * @throws BadPositionCategoryException if the document is not connected
+	 */
+	private void repairPendingDamage(IRegion window, IDocument document) throws BadLocationException, BadPositionCategoryException {
+		int windowEnd= window.getOffset() + window.getLength();
+		for (Position p : document.getPositions(fPendingDamageCategory)) {
+			int offset= p.getOffset();
+			int end= offset + p.getLength();
+			int start= Math.max(offset, window.getOffset());
+			int stop= Math.min(end, windowEnd);
+			if (start >= stop)
+				continue;
+			document.removePosition(fPendingDamageCategory, p);
+			if (offset < start)
+				document.addPosition(fPendingDamageCategory, new Position(offset, start - offset));
+			if (stop < end)
+				document.addPosition(fPendingDamageCategory, new Position(stop, end - stop));
+			repair(new Region(start, stop - start), document);
 		}
 	}
 
@@ -13,6 +13,13 @@
  *******************************************************************************/
 package org.eclipse.jface.text.reconciler;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -39,6 +46,13 @@ import org.eclipse.jface.text.ITextViewer;
  * It is the clients responsibility to stop a reconciler using its {@link #uninstall()}
  * method. Unstopped reconcilers do not free their resources.
  * <p>
+ * By default each reconciler runs its background activity in a dedicated thread. With
+ * {@link #setExecutor(ScheduledExecutorService)}, for example with the
+ * {@linkplain #getSharedExecutor() shared executor}, the activity is instead run as a sequence of
+ * short tasks on the executor, and the reconciler does not occupy a thread while it waits for
+ * changes or for the delay to elapse.
+ * </p>
+ * <p>
  * It is subclass responsibility to specify how dirty regions are processed.
  * </p>
  *
@@ -49,11 +63,42 @@ import org.eclipse.jface.text.ITextViewer;
  */
 abstract public class AbstractReconciler implements IReconciler {
 
+	/**
+	 * Whether reconcilers use the {@linkplain #getSharedExecutor() shared executor} unless
+	 * configured otherwise.
+	 * @since 3.26
+	 */
+	private static final boolean USE_SHARED_EXECUTOR= Boolean.getBoolean("org.eclipse.jface.text.reconciler.useSharedExecutor"); //$NON-NLS-1$
 
 	/**
-	 * Background thread for the reconciling activity.
+	 * Holder of the lazily created shared executor.
+	 * @since 3.26
 	 */
-	class BackgroundThread extends Thread {
+	private static class SharedExecutor {
+		static final ScheduledExecutorService INSTANCE= createSharedExecutor();
+
+		private static ScheduledExecutorService createSharedExecutor() {
+			AtomicInteger count= new AtomicInteger();
+			ThreadFactory factory= runnable -> {
+				Thread thread= new Thread(runnable, "Reconciler Worker-" + count.incrementAndGet()); //$NON-NLS-1$
+				thread.setPriority(Thread.MIN_PRIORITY);
+				thread.setDaemon(true);
+				return thread;
+			};
+			int threads= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+			ScheduledThreadPoolExecutor executor= new ScheduledThreadPoolExecutor(threads, factory);
+			// each document change reschedules the next step
+			executor.setRemoveOnCancelPolicy(true);
+			return executor;
+		}
+	}
+
+
+	/**
+	 * Background activity of the reconciler. It runs either in a dedicated thread or, if the
+	 * reconciler has an executor, as a sequence of steps scheduled on the executor.
+	 */
+	class BackgroundThread implements Runnable {
 
 		/** Has the reconciler been canceled. */
 		private boolean fCanceled= false;
@@ -64,16 +109,99 @@ abstract public class AbstractReconciler implements IReconciler {
 		/** Is a reconciling strategy active. */
 		private boolean fIsActive= false;
 
+		/** The name of the dedicated thread. */
+		private final String fName;
+		/**
+		 * The executor running the steps, or <code>null</code> if the activity runs in a dedicated
+		 * thread.
+		 * @since 3.26
+		 */
+		private final ScheduledExecutorService fStepExecutor;
+		/**
+		 * The dedicated thread, or <code>null</code> if not started.
+		 * @since 3.26
+		 */
+		private Thread fDedicatedThread;
+		/**
+		 * The thread currently running a step, or <code>null</code>.
+		 * @since 3.26
+		 */
+		private volatile Thread fStepThread;
+		/**
+		 * The state of the steps, guarded by this: started, the next scheduled step and its
+		 * generation, whether a step is running, whether it has been woken up while running, and
+		 * whether the activity has died. Only the step of the current generation runs, a step that
+		 * could not be canceled in time is ignored.
+		 * @since 3.26
+		 */
+		private boolean fStarted= false;
+		private ScheduledFuture<?> fNextStep;
+		private int fStepGeneration;
+		private long fNextStepDueTime;
+		private boolean fIsStepRunning= false;
+		private boolean fIsWoken= false;
+		private boolean fIsTerminated= false;
+		/**
+		 * Whether the initial process has been run, only accessed by the steps.
+		 * @since 3.26
+		 */
+		private boolean fInitialProcessDone= false;
+
 		/**
-		 * Creates a new background thread. The thread
-		 * runs with minimal priority.
+		 * Creates a new background activity. The dedicated thread runs with minimal priority.
 		 *
 		 * @param name the thread's name
+		 * @param executor the executor to run the activity on, or <code>null</code> to run it in a
+		 *            dedicated thread
+		 */
+		public BackgroundThread(String name, ScheduledExecutorService executor) {
+			fName= name;
+			fStepExecutor= executor;
+		}
+
+		/**
+		 * Starts the background activity. Does nothing if it has already been started.
+		 *
+		 * @since 3.26
+		 */
+		public synchronized void start() {
+			if (fStepExecutor == null) {
+				if (fDedicatedThread != null)
+					return;
+				fDedicatedThread= new Thread(this, fName);
+				fDedicatedThread.setPriority(Thread.MIN_PRIORITY);
+				fDedicatedThread.setDaemon(true);
+				fDedicatedThread.start();
+			} else {
+				if (fStarted)
+					return;
+				fStarted= true;
+				scheduleStep(waitFinish ? 0 : fDelay);
+			}
+		}
+
+		/**
+		 * Returns whether the background activity has been started and neither been canceled
+		 * nor died.
+		 *
+		 * @return <code>true</code> if the activity is alive
+		 * @since 3.26
 		 */
-		public BackgroundThread(String name) {
-			super(name);
-			setPriority(Thread.MIN_PRIORITY);
-			setDaemon(true);
+		public synchronized boolean isAlive() {
+			if (fStepExecutor == null)
+				return fDedicatedThread != null && fDedicatedThread.isAlive();
+			return fStarted && !fCanceled && !fIsTerminated;
+		}
+
+		/**
+		 * Tells whether the caller runs in this background activity.
+		 *
+		 * @return <code>true</code> if the current thread runs the activity
+		 * @since 3.26
+		 */
+		public boolean isCurrentThread() {
+			Thread current= Thread.currentThread();
+			return current == fStepThread || current == fDedicatedThread;
 		}
 
 		/**
@@ -106,6 +234,14 @@ abstract public class AbstractReconciler implements IReconciler {
 			synchronized (fDirtyRegionQueue) {
 				fDirtyRegionQueue.notifyAll();
 			}
+			if (fStepExecutor != null) {
+				synchronized (this) {
+					if (fNextStep != null) {
+						fNextStep.cancel(false);
+						fNextStep= null;
+					}
+				}
+			}
 		}
 
 		/**
@@ -153,6 +289,7 @@ abstract public class AbstractReconciler implements IReconciler {
 					fDirtyRegionQueue.notifyAll();
 				}
 			}
+			wakeUp();
 
 			informNotFinished();
 			reconcilerReset();
@@ -218,6 +355,129 @@ abstract public class AbstractReconciler implements IReconciler {
 				fIsActive= false;
 			}
 		}
+
+		/**
+		 * Ends the current delay of the steps early, like a notification of the dirty region queue
+		 * ends the delay of the dedicated thread.
+		 *
+		 * @since 3.26
+		 */
+		void wakeUp() {
+			if (fStepExecutor == null)
+				return;
+			synchronized (this) {
+				if (!fStarted || fCanceled || fIsTerminated)
+					return;
+				if (fIsStepRunning) {
+					fIsWoken= true;
+					return;
+				}
+				if (fNextStep != null)
+					fNextStep.cancel(false);
+				scheduleStep(0);
+			}
+		}
+
+		/**
+		 * Schedules the next step. Must be called while holding the lock of this activity.
+		 *
+		 * @param delay the delay in milliseconds
+		 */
+		private void scheduleStep(long delay) {
+			int generation= ++fStepGeneration;
+			fNextStepDueTime= System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+			fNextStep= fStepExecutor.schedule(() -> step(generation), delay, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * One iteration of the loop of {@link #run()}, after the delay. Instead of waiting for the
+		 * next delay, the step schedules the next step, or none if the reconciler is not dirty.
+		 *
+		 * @param generation the generation of the step
+		 * @since 3.26
+		 */
+		private void step(int generation) {
+			synchronized (this) {
+				if (fCanceled || fIsStepRunning || generation != fStepGeneration)
+					return;
+				fIsStepRunning= true;
+				fIsWoken= false;
+				fNextStep= null;
+				recordQueueLatency(System.nanoTime() - fNextStepDueTime);
+			}
+			fStepThread= Thread.currentThread();
+			boolean scheduleNext= false;
+			try {
+				scheduleNext= doStep();
+			} catch (RuntimeException | Error e) {
+				// like an exception ending the dedicated thread
+				synchronized (this) {
+					fIsTerminated= true;
+				}
+				Thread thread= Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			} finally {
+				fStepThread= null;
+				synchronized (this) {
+					fIsStepRunning= false;
+					if (!fCanceled && !fIsTerminated && (scheduleNext || fIsWoken || fIsDirty))
+						scheduleStep(fIsWoken || waitFinish ? 0 : fDelay);
+				}
+			}
+		}
+
+		/**
+		 * Runs one step.
+		 *
+		 * @return <code>true</code> if the next step has to be scheduled
+		 */
+		private boolean doStep() {
+			if (fCanceled)
+				return false;
+
+			if (!fInitialProcessDone) {
+				fInitialProcessDone= true;
+				initialProcess();
+				return true;
+			}
+
+			if (!isDirty()) {
+				waitFinish= false; //signalWaitForFinish() was called but nothing todo
+				return false;
+			}
+
+			synchronized (this) {
+				if (fReset) {
+					fReset= false;
+					return true;
+				}
+			}
+
+			DirtyRegion r= null;
+			synchronized (fDirtyRegionQueue) {
+				r= fDirtyRegionQueue.removeNextDirtyRegion();
+			}
+
+			fIsActive= true;
+
+			fProgressMonitor.setCanceled(false);
+
+			try {
+				process(r);
+
+				synchronized (fDirtyRegionQueue) {
+					if (0 == fDirtyRegionQueue.getSize()) {
+						synchronized (this) {
+							fIsDirty= fProgressMonitor.isCanceled();
+						}
+						fDirtyRegionQueue.notifyAll();
+					}
+				}
+			} finally {
+				fIsActive= false;
+			}
+			return true;
+		}
 	}
 
 	/**
@@ -233,7 +493,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		public void documentChanged(DocumentEvent e) {
 
 			if (fThread.isActive() || !fThread.isDirty() && fThread.isAlive()) {
-				if (!fIsAllowedToModifyDocument && Thread.currentThread() == fThread)
+				if (!fIsAllowedToModifyDocument && fThread.isCurrentThread())
 					throw new UnsupportedOperationException("The reconciler thread is not allowed to modify the document"); //$NON-NLS-1$
 				aboutToBeReconciledInternal();
 			}
@@ -299,6 +559,18 @@ abstract public class AbstractReconciler implements IReconciler {
 	private DirtyRegionQueue fDirtyRegionQueue;
 	/** The background thread. */
 	private BackgroundThread fThread;
+	/**
+	 * The executor for the background activity, or <code>null</code> for a dedicated thread.
+	 * @since 3.26
+	 */
+	private ScheduledExecutorService fExecutor= USE_SHARED_EXECUTOR ? getSharedExecutor() : null;
+	/**
+	 * The latency of the last step and the maximal latency in nanoseconds, see
+	 * {@link #getQueueLatency()}.
+	 * @since 3.26
+	 */
+	private volatile long fQueueLatency;
+	private volatile long fMaxQueueLatency;
 	/** Internal document and text input listener. */
 	private Listener fListener;
 	/** The background thread delay. */
@@ -360,6 +632,69 @@ abstract public class AbstractReconciler implements IReconciler {
 		fDelay= delay;
 	}
 
+	/**
+	 * Sets the executor on which the background activity of this reconciler runs. The activity
+	 * is run as a sequence of short tasks, which are scheduled with the reconciler's delay and
+	 * processes one dirty region each, so the executor can be shared by many reconcilers. The
+	 * dirty regions are coalesced and delayed exactly like in a dedicated thread.
+	 * <p>
+	 * Must be called before the reconciler is installed. By default a reconciler runs in a
+	 * dedicated thread, unless the system property
+	 * <code>org.eclipse.jface.text.reconciler.useSharedExecutor</code> is <code>true</code>, in
+	 * which case the {@linkplain #getSharedExecutor() shared executor} is used.
+	 * </p>
+	 *
+	 * @param executor the executor, or <code>null</code> to run in a dedicated thread
+	 * @since 3.26
+	 */
+	public void setExecutor(ScheduledExecutorService executor) {
+		fExecutor= executor;
+	}
+
+	/**
+	 * Returns the executor shared by reconcilers. It has a small, bounded number of daemon
+	 * threads running with minimal priority.
+	 *
+	 * @return the shared executor
+	 * @see #setExecutor(ScheduledExecutorService)
+	 * @since 3.26
+	 */
+	public static ScheduledExecutorService getSharedExecutor() {
+		return SharedExecutor.INSTANCE;
+	}
+
+	/**
+	 * Returns how long the last step of the background activity waited for a thread of the
+	 * executor after it was due. A high latency means the executor is too busy. The latency is
+	 * always 0 if the reconciler runs in a dedicated thread.
+	 *
+	 * @return the latency in milliseconds
+	 * @see #setExecutor(ScheduledExecutorService)
+	 * @since 3.26
+	 */
+	public long getQueueLatency() {
+		return TimeUnit.NANOSECONDS.toMillis(fQueueLatency);
+	}
+
+	/**
+	 * Returns the maximal latency of the steps of the background activity since the reconciler
+	 * was installed.
+	 *
+	 * @return the maximal latency in milliseconds
+	 * @see #getQueueLatency()
+	 * @since 3.26
+	 */
+	public long getMaxQueueLatency() {
+		return TimeUnit.NANOSECONDS.toMillis(fMaxQueueLatency);
+	}
+
+	private void recordQueueLatency(long latency) {
+		latency= Math.max(0, latency);
+		fQueueLatency= latency;
+		if (latency > fMaxQueueLatency)
+			fMaxQueueLatency= latency;
+	}
+
 	/**
 	 * Tells the reconciler whether any of the available reconciling strategies
 	 * is interested in getting detailed dirty region information or just in the
@@ -449,7 +784,9 @@ abstract public class AbstractReconciler implements IReconciler {
 		synchronized (this) {
 			if (fThread != null)
 				return;
-			fThread= new BackgroundThread(getClass().getName());
+			fThread= new BackgroundThread(getClass().getName(), fExecutor);
+			fQueueLatency= 0;
+			fMaxQueueLatency= 0;
 		}
 
 		fDirtyRegionQueue= new DirtyRegionQueue();
@@ -550,6 +887,9 @@ abstract public class AbstractReconciler implements IReconciler {
 			waitFinish= true;
 			fDirtyRegionQueue.notifyAll(); // notify AbstractReconciler#delay about waitFinish
 		}
+		BackgroundThread thread= fThread;
+		if (thread != null)
+			thread.wakeUp();
 	}
 
 	private void informNotFinished() {
@@ -614,14 +954,11 @@ abstract public class AbstractReconciler implements IReconciler {
 			return;
 
 		if (!fThread.isAlive()) {
-			try {
-				fThread.start();
-			} catch (IllegalThreadStateException e) {
-				// see https://bugs.eclipse.org/bugs/show_bug.cgi?id=40549
-				// This is the only instance where the thread is started; since
-				// we checked that it is not alive, it must be dead already due
-				// to a run-time exception or error. Exit.
-			}
+			// see https://bugs.eclipse.org/bugs/show_bug.cgi?id=40549
+			// This is the only instance where the thread is started; if it
+			// has already been started, it must be dead already due to a
+			// run-time exception or error, and start() does nothing.
+			fThread.start();
 		} else {
 			fThread.reset();
 		}
@@ -641,6 +978,7 @@ abstract public class AbstractReconciler implements IReconciler {
 	 * @since 3.4
 	 */
 	protected boolean isRunningInReconcilerThread() {
-		return Thread.currentThread() == fThread;
+		BackgroundThread thread= fThread;
+		return thread != null && thread.isCurrentThread();
 	}
 }
@@ -203,6 +203,12 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 
 	private VirtualManager virtualManager;
 
+	/**
+	 * Whether the pending background refresh must update the labels of
+	 * unchanged elements, see {@link #setUseBackgroundRefresh(boolean)}.
+	 */
+	private boolean backgroundRefreshUpdateLabels;
+
 	/**
 	 * Create the new viewer for table like widgets
 	 */
@@ -251,6 +257,9 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		assertElementsNotNull(elements);
 		if (checkBusy())
 			return;
+		if (restartBackgroundRefresh()) {
+			return;
+		}
 		Object[] filtered = filter(elements);
 
 		final int itemsLimit = getItemsLimit();
@@ -600,6 +609,9 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		}
 		if (checkBusy())
 			return;
+		if (restartBackgroundRefresh()) {
+			return;
+		}
 		createItem(element, position);
 	}
 
@@ -613,7 +625,9 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		applyEditorValue();
 		if (element == null || equals(element, getRoot())) {
 			if (virtualManager == null) {
-				internalRefreshAll(updateLabels);
+				if (!internalBackgroundRefreshAll(updateLabels)) {
+					internalRefreshAll(updateLabels);
+				}
 			} else {
 				internalVirtualRefreshAll();
 			}
@@ -669,6 +683,14 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		if (children == null) {
 			children = getSortedChildren(getRoot());
 		}
+		internalRefreshAll(children, items, updateLabels);
+	}
+
+	/**
+	 * Refresh the items of the table to show the given elements. update the
+	 * labels of unchanged elements if updateLabels is true.
+	 */
+	private void internalRefreshAll(Object[] children, Item[] items, boolean updateLabels) {
 		int min = Math.min(children.length, items.length);
 		for (int i = 0; i < min; ++i) {
 
@@ -727,6 +749,49 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Filters and sorts the elements of the table on a background thread, if
+	 * background refresh is enabled, and refreshes the items once they are
+	 * computed.
+	 *
+	 * @return <code>true</code> if the refresh has been scheduled,
+	 *         <code>false</code> if it must be done on the UI thread
+	 */
+	private boolean internalBackgroundRefreshAll(boolean updateLabels) {
+		if (getItemsLimit() > 0) {
+			return false;
+		}
+		// a refresh superseding a pending one updates the labels it would have updated
+		boolean updateAllLabels = updateLabels || (isBackgroundRefreshPending() && backgroundRefreshUpdateLabels);
+		boolean scheduled = refreshInBackground(getRoot(), children -> {
+			Control control = getControl();
+			control.setRedraw(false);
+			try {
+				preservingSelection(() -> internalRefreshAll(children, doGetItems(), updateAllLabels));
+			} finally {
+				control.setRedraw(true);
+			}
+		});
+		if (scheduled) {
+			backgroundRefreshUpdateLabels = updateAllLabels;
+		}
+		return scheduled;
+	}
+
+	/**
+	 * Restarts the pending background refresh, if any, as the model changed
+	 * since its elements were obtained from the content provider. The
+	 * restarted refresh includes the change.
+	 *
+	 * @return <code>true</code> if a background refresh has been restarted
+	 */
+	private boolean restartBackgroundRefresh() {
+		if (!isBackgroundRefreshPending()) {
+			return false;
+		}
+		return internalBackgroundRefreshAll(backgroundRefreshUpdateLabels);
+	}
+
 	/**
 	 * Removes the given elements from this table viewer.
 	 *
@@ -831,6 +896,9 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		if (elements.length == 0) {
 			return;
 		}
+		if (restartBackgroundRefresh()) {
+			return;
+		}
 		preservingSelection(() -> internalRemove(elements));
 	}
 
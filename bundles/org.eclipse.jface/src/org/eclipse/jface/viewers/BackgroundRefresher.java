@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Runs the filters and the comparator of a viewer over a snapshot of the
+ * children of its root on a background thread, and hands the result back to
+ * the UI thread.
+ * <p>
+ * Only the most recently scheduled refresh is computed and applied. Scheduling
+ * a new refresh cancels the one in progress: the filters are run over chunks of
+ * the elements, and the computation stops at the next chunk or before sorting
+ * once it has been superseded. A result computed for an older refresh is never
+ * applied. If a filter or the comparator fails on the background thread, the
+ * refresh is computed again on the UI thread.
+ * </p>
+ */
+/* package */final class BackgroundRefresher {
+
+	/** The number of elements filtered between two checks for cancellation */
+	private static final int CHUNK_SIZE = 1024;
+
+	private static final String SORTING = JFaceResources.getString("Sorting"); //$NON-NLS-1$
+
+	private static final class Request {
+		final int generation;
+		final Display display;
+		final Object parent;
+		final Object[] elements;
+		final ViewerFilter[] filters;
+		final ViewerComparator comparator;
+		final Consumer<Object[]> applyCode;
+
+		Request(int generation, Display display, Object parent, Object[] elements, ViewerFilter[] filters,
+				ViewerComparator comparator, Consumer<Object[]> applyCode) {
+			this.generation = generation;
+			this.display = display;
+			this.parent = parent;
+			this.elements = elements;
+			this.filters = filters;
+			this.comparator = comparator;
+			this.applyCode = applyCode;
+		}
+	}
+
+	private final StructuredViewer viewer;
+
+	/**
+	 * This lock protects request and refreshThreadStarted.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * The refresh to compute next, or <code>null</code>
+	 */
+	private Request request;
+
+	/**
+	 * true if the refresh thread is running
+	 */
+	private boolean refreshThreadStarted;
+
+	/**
+	 * The generation of the most recently scheduled refresh. Incremented on the
+	 * UI thread, read by the refresh thread to detect cancellation.
+	 */
+	private volatile int generation;
+
+	/**
+	 * true if a scheduled refresh has not been applied yet. Only accessed on
+	 * the UI thread.
+	 */
+	private boolean pending;
+
+	/**
+	 * Creates a refresher for the given viewer.
+	 *
+	 * @param viewer the viewer passed to the filters and the comparator
+	 */
+	BackgroundRefresher(StructuredViewer viewer) {
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Schedules the filtering and sorting of the given elements, cancelling
+	 * any refresh in progress. Must be called on the UI thread.
+	 *
+	 * @param display   the display of the viewer
+	 * @param parent    the parent of the elements
+	 * @param elements  the unfiltered children of the parent, not modified
+	 * @param filters   the filters to apply, in order
+	 * @param comparator the comparator to sort with, or <code>null</code>
+	 * @param applyCode called on the UI thread with the filtered and sorted
+	 *                  elements, unless a newer refresh has been scheduled
+	 *                  or the refresh has been cancelled in the meantime
+	 */
+	void schedule(Display display, Object parent, Object[] elements, ViewerFilter[] filters,
+			ViewerComparator comparator, Consumer<Object[]> applyCode) {
+		pending = true;
+		synchronized (lock) {
+			request = new Request(++generation, display, parent, elements, filters, comparator, applyCode);
+			if (!refreshThreadStarted) {
+				refreshThreadStarted = true;
+				Thread refreshThread = new Thread(this::run, SORTING);
+				refreshThread.setDaemon(true);
+				refreshThread.setPriority(Thread.NORM_PRIORITY - 1);
+				refreshThread.start();
+			}
+		}
+	}
+
+	/**
+	 * Cancels the refresh in progress, if any. Must be called on the UI thread.
+	 */
+	void cancel() {
+		if (pending) {
+			pending = false;
+			synchronized (lock) {
+				generation++;
+				request = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether a scheduled refresh has not been applied yet. Must be
+	 * called on the UI thread.
+	 *
+	 * @return <code>true</code> if a refresh is pending
+	 */
+	boolean isPending() {
+		return pending;
+	}
+
+	private void run() {
+		while (true) {
+			Request next;
+			synchronized (lock) {
+				next = request;
+				request = null;
+				if (next == null) {
+					refreshThreadStarted = false;
+					return;
+				}
+			}
+			Object[] result;
+			try {
+				result = compute(next);
+			} catch (RuntimeException | Error e) {
+				Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE, e.getLocalizedMessage(), e));
+				recover(next);
+				continue;
+			}
+			if (result != null) {
+				apply(next, result);
+			}
+		}
+	}
+
+	/**
+	 * Returns the filtered and sorted elements of the given request, or
+	 * <code>null</code> if the request has been superseded.
+	 */
+	private Object[] compute(Request r) {
+		Object[] result = r.elements;
+		for (ViewerFilter filter : r.filters) {
+			List<Object> filtered = new ArrayList<>(result.length);
+			for (int start = 0; start < result.length; start += CHUNK_SIZE) {
+				if (r.generation != generation) {
+					return null;
+				}
+				Object[] chunk = Arrays.copyOfRange(result, start, Math.min(start + CHUNK_SIZE, result.length));
+				filtered.addAll(Arrays.asList(filter.filter(viewer, r.parent, chunk)));
+			}
+			result = filtered.toArray();
+		}
+		if (r.comparator != null) {
+			if (r.generation != generation) {
+				return null;
+			}
+			// be sure we're not modifying the snapshot
+			if (result == r.elements) {
+				result = result.clone();
+			}
+			r.comparator.sort(viewer, result);
+		}
+		return r.generation == generation ? result : null;
+	}
+
+	private void apply(Request r, Object[] result) {
+		if (r.display.isDisposed()) {
+			return;
+		}
+		r.display.asyncExec(() -> {
+			if (r.generation != generation) {
+				return;
+			}
+			pending = false;
+			if (!viewer.getControl().isDisposed()) {
+				r.applyCode.accept(result);
+			}
+		});
+	}
+
+	/**
+	 * Computes the given request again on the UI thread after it failed on
+	 * the refresh thread, unless it has been superseded. The refresh is no
+	 * longer pending afterwards, even if it fails on the UI thread as well.
+	 */
+	private void recover(Request r) {
+		if (r.display.isDisposed()) {
+			return;
+		}
+		r.display.asyncExec(() -> {
+			if (r.generation != generation) {
+				return;
+			}
+			pending = false;
+			if (!viewer.getControl().isDisposed()) {
+				// generation can't change while the UI thread computes
+				r.applyCode.accept(compute(r));
+			}
+		});
+	}
+}
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+/**
+ * ElementHashMap associates keys with values like {@link CustomHashtable},
+ * but stores its entries in open addressing instead of chaining them. Each
+ * key is kept next to its value in one array and its hash code in a parallel
+ * <code>int</code> array, so adding a key allocates no entry object and the
+ * hash codes, which may be expensive to compute with a custom comparer, are
+ * computed once per key.
+ * <p>
+ * Keys and values cannot be null. The capacity is a power of two and is
+ * doubled when the map is three quarters full. Collisions are resolved by
+ * linear probing and removed keys are filled up by shifting the following
+ * keys back, so lookups never have to skip deleted slots.
+ * </p>
+ * <p>
+ * ElementHashMap allows a custom comparator and hash code provider.
+ * </p>
+ */
+/* package */class ElementHashMap {
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/** The golden ratio multiplier spreading the hash codes over the slots */
+	private static final int SPREAD = 0x9E3779B9;
+
+	/** The keys at even and their values at the following odd indices */
+	private Object[] table;
+
+	private int[] hashes;
+
+	private int elementCount;
+
+	private int threshold;
+
+	/** 32 minus the number of bits of the slot indices */
+	private int shift;
+
+	private final IElementComparer comparer;
+
+	/**
+	 * Constructs a new map able to hold the given number of keys without
+	 * growing.
+	 *
+	 * @param expectedSize the number of keys the map is expected to hold
+	 * @param comparer the element comparer to use to compare keys and obtain
+	 *   hash codes for keys, or <code>null</code>  to use the normal
+	 *   <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementHashMap(int expectedSize, IElementComparer comparer) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.comparer = comparer;
+		int capacity = 4;
+		while (capacity < MAXIMUM_CAPACITY && capacity - (capacity >> 2) < expectedSize) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/**
+	 * Constructs a new map with enough capacity to hold all keys in the given
+	 * map, then adds all key/value pairs in the given map to the new one, using
+	 * the given element comparer.
+	 *
+	 * @param map the original map to copy from
+	 * @param comparer the element comparer to use to compare keys and obtain
+	 *   hash codes for keys, or <code>null</code>  to use the normal
+	 *   <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementHashMap(ElementHashMap map, IElementComparer comparer) {
+		this(map.size(), comparer);
+		Object[] oldTable = map.table;
+		for (int i = 0; i < oldTable.length; i += 2) {
+			if (oldTable[i] != null) {
+				put(oldTable[i], oldTable[i + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the element comparer used to compare keys and to obtain hash
+	 * codes for keys, or <code>null</code> if no comparer has been provided.
+	 *
+	 * @return the element comparer or <code>null</code>
+	 */
+	IElementComparer getComparer() {
+		return comparer;
+	}
+
+	/**
+	 * Answers if this map contains the specified object as a key of one of the
+	 * key/value pairs.
+	 *
+	 * @param key the object to look for as a key in this map
+	 * @return true if object is a key in this map, false otherwise
+	 */
+	boolean containsKey(Object key) {
+		return indexOf(key, hashCode(key)) >= 0;
+	}
+
+	/**
+	 * Answers the value associated with the specified key in this map.
+	 *
+	 * @param key the key of the value returned
+	 * @return the value associated with the specified key, null if the
+	 *         specified key does not exist
+	 */
+	Object get(Object key) {
+		int index = indexOf(key, hashCode(key));
+		return index >= 0 ? table[2 * index + 1] : null;
+	}
+
+	/**
+	 * Associate the specified value with the specified key in this map. If the
+	 * key already exists, the old key and value are replaced. The key and value
+	 * cannot be null.
+	 *
+	 * @param key the key to add
+	 * @param value the value to add
+	 * @return the old value associated with the specified key, null if the key
+	 *         did not exist
+	 */
+	Object put(Object key, Object value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		int hash = hashCode(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			return set(index, key, value);
+		}
+		insert(-index - 1, key, hash, value);
+		return null;
+	}
+
+	/**
+	 * Remove the key/value pair with the specified key from this map.
+	 *
+	 * @param key the key to remove
+	 * @return the value associated with the specified key, null if the
+	 *         specified key did not exist
+	 */
+	Object remove(Object key) {
+		int index = indexOf(key, hashCode(key));
+		if (index < 0) {
+			return null;
+		}
+		Object result = table[2 * index + 1];
+		delete(index);
+		return result;
+	}
+
+	/**
+	 * Answers the number of key/value pairs in this map.
+	 *
+	 * @return the number of key/value pairs in this map
+	 */
+	int size() {
+		return elementCount;
+	}
+
+	/**
+	 * Answers the hash code for the given key.
+	 */
+	final int hashCode(Object key) {
+		if (comparer == null) {
+			return key.hashCode();
+		}
+		return comparer.hashCode(key);
+	}
+
+	/**
+	 * Answers the slot of the given key, or <code>-(insertion slot) - 1</code>
+	 * if the key does not exist.
+	 */
+	final int indexOf(Object key, int hash) {
+		int mask = hashes.length - 1;
+		int index = slot(hash);
+		Object candidate;
+		while ((candidate = table[2 * index]) != null) {
+			if (candidate == key || (hashes[index] == hash && keyEquals(key, candidate))) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -index - 1;
+	}
+
+	/**
+	 * Answers the value in the given slot.
+	 */
+	final Object valueAt(int index) {
+		return table[2 * index + 1];
+	}
+
+	/**
+	 * Replaces the key and value in the given occupied slot.
+	 *
+	 * @return the old value
+	 */
+	final Object set(int index, Object key, Object value) {
+		Object result = table[2 * index + 1];
+		table[2 * index] = key; // important to avoid hanging onto keys that are equal but "old" -- see bug 30607
+		table[2 * index + 1] = value;
+		return result;
+	}
+
+	/**
+	 * Adds a key that does not exist to the given insertion slot, as answered
+	 * by {@link #indexOf(Object, int)}.
+	 */
+	final void insert(int index, Object key, int hash, Object value) {
+		if (elementCount >= threshold && hashes.length < MAXIMUM_CAPACITY) {
+			rehash();
+			index = -indexOf(key, hash) - 1;
+		}
+		table[2 * index] = key;
+		table[2 * index + 1] = value;
+		hashes[index] = hash;
+		elementCount++;
+	}
+
+	/**
+	 * Removes the key/value pair in the given occupied slot and moves the keys
+	 * following it in the same cluster back where they can be found again.
+	 */
+	final void delete(int index) {
+		int mask = hashes.length - 1;
+		int gap = index;
+		int next = (gap + 1) & mask;
+		while (table[2 * next] != null) {
+			int home = slot(hashes[next]);
+			// the key may move to the gap if its home slot is not between the gap and itself
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				table[2 * gap] = table[2 * next];
+				table[2 * gap + 1] = table[2 * next + 1];
+				hashes[gap] = hashes[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		table[2 * gap] = null;
+		table[2 * gap + 1] = null;
+		hashes[gap] = 0;
+		elementCount--;
+	}
+
+	/**
+	 * Compares two keys for equality.
+	 */
+	private boolean keyEquals(Object a, Object b) {
+		if (comparer == null) {
+			return a.equals(b);
+		}
+		return comparer.equals(a, b);
+	}
+
+	private int slot(int hash) {
+		return (hash * SPREAD) >>> shift;
+	}
+
+	private void allocate(int capacity) {
+		table = new Object[2 * capacity];
+		hashes = new int[capacity];
+		threshold = capacity - (capacity >> 2);
+		shift = Integer.numberOfLeadingZeros(capacity) + 1;
+	}
+
+	/**
+	 * Doubles the capacity of this map, reusing the stored hash codes.
+	 */
+	private void rehash() {
+		Object[] oldTable = table;
+		int[] oldHashes = hashes;
+		allocate(oldHashes.length << 1);
+		int mask = hashes.length - 1;
+		for (int i = 0; i < oldHashes.length; i++) {
+			if (oldTable[2 * i] != null) {
+				int index = slot(oldHashes[i]);
+				while (table[2 * index] != null) {
+					index = (index + 1) & mask;
+				}
+				table[2 * index] = oldTable[2 * i];
+				table[2 * index + 1] = oldTable[2 * i + 1];
+				hashes[index] = oldHashes[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		if (size() == 0) {
+			return "{}"; //$NON-NLS-1$
+		}
+
+		StringBuilder buffer = new StringBuilder();
+		buffer.append('{');
+		for (int i = 0; i < table.length; i += 2) {
+			if (table[i] != null) {
+				buffer.append(table[i]);
+				buffer.append('=');
+				buffer.append(table[i + 1]);
+				buffer.append(", "); //$NON-NLS-1$
+			}
+		}
+		// Remove the last ", "
+		buffer.setLength(buffer.length() - 2);
+		buffer.append('}');
+		return buffer.toString();
+	}
+}
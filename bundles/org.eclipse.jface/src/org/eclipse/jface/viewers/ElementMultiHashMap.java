@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * ElementMultiHashMap maps the elements of a viewer to the items showing them.
+ * An element shown once, the common case, maps to its <code>Widget</code>,
+ * an element shown at several tree paths maps to a <code>Widget[]</code>.
+ * Adding and removing an item looks the element up once.
+ */
+/* package */final class ElementMultiHashMap extends ElementHashMap {
+
+	/**
+	 * Constructs a new map able to hold the given number of elements without
+	 * growing.
+	 *
+	 * @param expectedSize the number of elements the map is expected to hold
+	 * @param comparer the element comparer to use to compare elements and
+	 *   obtain hash codes for elements, or <code>null</code>  to use the
+	 *   normal <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementMultiHashMap(int expectedSize, IElementComparer comparer) {
+		super(expectedSize, comparer);
+	}
+
+	/**
+	 * Constructs a new map holding the mappings of the given map, using the
+	 * given element comparer.
+	 *
+	 * @param map the original map to copy from
+	 * @param comparer the element comparer to use to compare elements and
+	 *   obtain hash codes for elements, or <code>null</code>  to use the
+	 *   normal <code>equals</code> and <code>hashCode</code> methods
+	 */
+	ElementMultiHashMap(ElementMultiHashMap map, IElementComparer comparer) {
+		super(map, comparer);
+	}
+
+	/**
+	 * Adds the given item to the items of the given element, unless it is
+	 * already one of them.
+	 *
+	 * @param element the element
+	 * @param item the item showing the element
+	 */
+	void add(Object element, Widget item) {
+		if (element == null || item == null) {
+			throw new NullPointerException();
+		}
+		int hash = hashCode(element);
+		int index = indexOf(element, hash);
+		if (index < 0) {
+			insert(-index - 1, element, hash, item);
+			return;
+		}
+		Object widgetOrWidgets = valueAt(index);
+		if (widgetOrWidgets instanceof Widget) {
+			if (widgetOrWidgets != item) {
+				set(index, element, new Widget[] { (Widget) widgetOrWidgets, item });
+			}
+		} else {
+			Widget[] widgets = (Widget[]) widgetOrWidgets;
+			if (indexOf(widgets, item) == -1) {
+				int length = widgets.length;
+				System.arraycopy(widgets, 0, widgets = new Widget[length + 1], 0, length);
+				widgets[length] = item;
+				set(index, element, widgets);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given item from the items of the given element. Does nothing
+	 * if the element is not shown by the item.
+	 *
+	 * @param element the element
+	 * @param item the item to remove
+	 */
+	void remove(Object element, Widget item) {
+		int index = indexOf(element, hashCode(element));
+		if (index < 0) {
+			return;
+		}
+		Object widgetOrWidgets = valueAt(index);
+		if (widgetOrWidgets instanceof Widget) {
+			if (widgetOrWidgets == item) {
+				delete(index);
+			}
+			return;
+		}
+		Widget[] widgets = (Widget[]) widgetOrWidgets;
+		int indexOfItem = indexOf(widgets, item);
+		if (indexOfItem == -1) {
+			return;
+		}
+		int length = widgets.length;
+		if (length == 1) {
+			delete(index);
+			return;
+		}
+		Widget[] updatedWidgets = new Widget[length - 1];
+		System.arraycopy(widgets, 0, updatedWidgets, 0, indexOfItem);
+		System.arraycopy(widgets, indexOfItem + 1, updatedWidgets, indexOfItem, length - indexOfItem - 1);
+		set(index, element, updatedWidgets);
+	}
+
+	private static int indexOf(Widget[] widgets, Widget item) {
+		for (int i = 0; i < widgets.length; i++) {
+			if (widgets[i] == null ? item == null : widgets[i].equals(item)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
@@ -69,7 +70,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * <code>Object</code>, value type: <code>Widget</code>, or <code>Widget[]</code>).
 	 * <code>null</code> means that the element map is disabled.
 	 */
-	private CustomHashtable elementMap;
+	private ElementMultiHashMap elementMap;
 
 	/**
 	 * The comparer to use for comparing elements, or <code>null</code> to use
@@ -152,6 +153,12 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	private StructuredViewerInternals.AssociateListener associateListener;
 
+	/**
+	 * Filters and sorts the elements of a refresh on a background thread, or
+	 * <code>null</code> if refreshes are computed on the UI thread.
+	 */
+	private BackgroundRefresher backgroundRefresher;
+
 	/**
 	 * Empty array of widgets.
 	 */
@@ -1264,25 +1271,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void mapElement(Object element, Widget item) {
 		if (elementMap != null) {
-			Object widgetOrWidgets = elementMap.get(element);
-			if (widgetOrWidgets == null) {
-				elementMap.put(element, item);
-			} else if (widgetOrWidgets instanceof Widget) {
-				if (widgetOrWidgets != item) {
-					elementMap.put(element, new Widget[] {
-							(Widget) widgetOrWidgets, item });
-				}
-			} else {
-				Widget[] widgets = (Widget[]) widgetOrWidgets;
-				int indexOfItem = Arrays.asList(widgets).indexOf(item);
-				if (indexOfItem == -1) {
-					int length = widgets.length;
-					System.arraycopy(widgets, 0,
-							widgets = new Widget[length + 1], 0, length);
-					widgets[length] = item;
-					elementMap.put(element, widgets);
-				}
-			}
+			elementMap.add(element, item);
 		}
 	}
 
@@ -1328,6 +1317,17 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		return new CustomHashtable(capacity, getComparer());
 	}
 
+	/**
+	 * Returns a new element map using the given capacity and this viewer's
+	 * element comparer.
+	 *
+	 * @param capacity the number of elements the map can hold without growing
+	 * @return a new element map
+	 */
+	private ElementMultiHashMap newElementMap(int capacity) {
+		return new ElementMultiHashMap(capacity, getComparer());
+	}
+
 	/**
 	 * Attempts to preserves the current selection across a run of the given code.
 	 * This method should not preserve the selection if {link
@@ -1766,12 +1766,84 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		Assert.isTrue(getInput() == null,
 				"Can only enable the hash look up before input has been set");//$NON-NLS-1$
 		if (enable) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = newElementMap(CustomHashtable.DEFAULT_CAPACITY);
 		} else {
 			elementMap = null;
 		}
 	}
 
+	/**
+	 * Configures whether this structured viewer filters and sorts its elements
+	 * on a background thread when it is refreshed, for example after its
+	 * filters or its comparator changed.
+	 * <p>
+	 * When enabled, the children of the root are obtained from the content
+	 * provider on the UI thread. The filters and the comparator then run over
+	 * this snapshot on a background thread, and only the result is applied to
+	 * the widget, on the UI thread, after the refresh method returned. A
+	 * refresh scheduled before the result of the previous one is applied
+	 * cancels the previous one.
+	 * </p>
+	 * <p>
+	 * Note: enabling background refresh requires from client code that the
+	 * filters and the comparator of the viewer, and the label providers they
+	 * use, can be called from a thread other than the UI thread. The
+	 * background refresh does not call {@link #getFilteredChildren(Object)}
+	 * and {@link #getSortedChildren(Object)}, so it does not honor overrides
+	 * of these methods. Viewers whose refresh cannot be computed in the
+	 * background, for example virtual viewers or viewers showing their items
+	 * incrementally, ignore this setting. Currently only table viewers
+	 * support it.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to filter and sort in the background,
+	 *               and <code>false</code> to do it on the UI thread
+	 * @since 3.35
+	 */
+	public void setUseBackgroundRefresh(boolean enable) {
+		if (enable) {
+			if (backgroundRefresher == null) {
+				backgroundRefresher = new BackgroundRefresher(this);
+			}
+		} else if (backgroundRefresher != null) {
+			backgroundRefresher.cancel();
+			backgroundRefresher = null;
+		}
+	}
+
+	/**
+	 * Filters and sorts the children of the given parent on a background
+	 * thread if background refresh is enabled.
+	 *
+	 * @param parent    the parent element
+	 * @param applyCode called on the UI thread with the filtered and sorted
+	 *                  children
+	 * @return <code>true</code> if the refresh has been scheduled,
+	 *         <code>false</code> if it must be computed on the UI thread
+	 * @see #setUseBackgroundRefresh(boolean)
+	 */
+	boolean refreshInBackground(Object parent, Consumer<Object[]> applyCode) {
+		if (backgroundRefresher == null || associateListener != null) {
+			return false;
+		}
+		Object[] elements = getRawChildren(parent).clone();
+		ViewerFilter[] viewerFilters = filters != null ? filters.toArray(new ViewerFilter[filters.size()])
+				: new ViewerFilter[0];
+		backgroundRefresher.schedule(getControl().getDisplay(), parent, elements, viewerFilters, sorter,
+				applyCode);
+		return true;
+	}
+
+	/**
+	 * Returns whether the result of a background refresh has not been applied
+	 * yet.
+	 *
+	 * @return <code>true</code> if a background refresh is pending
+	 */
+	boolean isBackgroundRefreshPending() {
+		return backgroundRefresher != null && backgroundRefresher.isPending();
+	}
+
 	/**
 	 * Sets the comparer to use for comparing elements, or <code>null</code>
 	 * to use the default <code>equals</code> and <code>hashCode</code>
@@ -1784,7 +1856,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	public void setComparer(IElementComparer comparer) {
 		this.comparer = comparer;
 		if (elementMap != null) {
-			elementMap = new CustomHashtable(elementMap, comparer);
+			elementMap = new ElementMultiHashMap(elementMap, comparer);
 		}
 	}
 
@@ -1855,7 +1927,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void unmapAllElements() {
 		if (elementMap != null) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = newElementMap(CustomHashtable.DEFAULT_CAPACITY);
 		}
 	}
 
@@ -1895,36 +1967,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		// double-check that the element actually maps to the given item before
 		// unmapping it
 		if (elementMap != null) {
-			Object widgetOrWidgets = elementMap.get(element);
-			if (widgetOrWidgets == null) {
-				// item was not mapped, return
-				return;
-			} else if (widgetOrWidgets instanceof Widget) {
-				if (item == widgetOrWidgets) {
-					elementMap.remove(element);
-				}
-			} else {
-				Widget[] widgets = (Widget[]) widgetOrWidgets;
-				int indexOfItem = Arrays.asList(widgets).indexOf(item);
-				if (indexOfItem == -1) {
-					return;
-				}
-				int length = widgets.length;
-				if (indexOfItem == 0) {
-					if(length == 1) {
-						elementMap.remove(element);
-					} else {
-						Widget[] updatedWidgets = new Widget[length - 1];
-						System.arraycopy(widgets, 1, updatedWidgets, 0, length -1 );
-						elementMap.put(element, updatedWidgets);
-					}
-				} else {
-					Widget[] updatedWidgets = new Widget[length - 1];
-					System.arraycopy(widgets, 0, updatedWidgets, 0, indexOfItem);
-					System.arraycopy(widgets, indexOfItem + 1, updatedWidgets, indexOfItem, length - indexOfItem - 1);
-					elementMap.put(element, updatedWidgets);
-				}
-			}
+			elementMap.remove(element, item);
 		}
 	}
 
@@ -2273,7 +2316,10 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		comparer = null;
 		if (filters != null)
 			filters.clear();
-		elementMap = newHashtable(1);
+		elementMap = newElementMap(1);
+		if (backgroundRefresher != null) {
+			backgroundRefresher.cancel();
+		}
 		openListeners.clear();
 		doubleClickListeners.clear();
 		colorAndFontCollector.clear();
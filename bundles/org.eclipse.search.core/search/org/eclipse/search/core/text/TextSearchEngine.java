@@ -25,6 +25,7 @@ import org.eclipse.search.internal.core.SearchCorePlugin;
 import org.eclipse.search.internal.core.text.DirtyFileProvider;
 import org.eclipse.search.internal.core.text.PatternConstructor;
 import org.eclipse.search.internal.core.text.TextSearchVisitor;
+import org.eclipse.search.internal.core.text.TrigramIndex;
 
 
 /**
@@ -49,8 +50,9 @@ public abstract class TextSearchEngine {
 	}
 
 	/**
-	 * Creates the default, built-in, text search engine that implements a brute-force search, not using
-	 * any search index.
+	 * Creates the default, built-in, text search engine that implements a brute-force search. If the
+	 * optional trigram index is enabled, it is consulted to skip files that can not contain a match;
+	 * this never changes the search results.
 	 * Note that clients should always use the search engine provided by {@link #create()}.
 	 * @return an instance of the default text search engine {@link TextSearchEngine}.
 	 */
@@ -59,12 +61,14 @@ public abstract class TextSearchEngine {
 		return new TextSearchEngine() {
 			@Override
 			public IStatus search(TextSearchScope scope, TextSearchRequestor requestor, Pattern searchPattern, IProgressMonitor monitor) {
-				return new TextSearchVisitor(requestor, searchPattern, discovery).search(scope, monitor);
+				TrigramIndex index = SearchCorePlugin.getDefault().getTrigramIndex();
+				return new TextSearchVisitor(requestor, searchPattern, discovery, index).search(scope, monitor);
 			}
 
 			@Override
 			public IStatus search(IFile[] scope, TextSearchRequestor requestor, Pattern searchPattern, IProgressMonitor monitor) {
-				return new TextSearchVisitor(requestor, searchPattern, discovery).search(scope, monitor);
+				TrigramIndex index = SearchCorePlugin.getDefault().getTrigramIndex();
+				return new TextSearchVisitor(requestor, searchPattern, discovery, index).search(scope, monitor);
 			}
 		};
 	}
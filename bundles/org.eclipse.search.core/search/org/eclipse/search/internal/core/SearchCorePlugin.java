@@ -17,11 +17,13 @@ import org.osgi.framework.BundleContext;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 
 import org.eclipse.search.internal.core.text.DirtyFileProvider;
 import org.eclipse.search.internal.core.text.TextSearchEngineRegistry;
+import org.eclipse.search.internal.core.text.TrigramIndex;
 
 public class SearchCorePlugin extends Plugin {
 	/**
@@ -36,6 +38,7 @@ public class SearchCorePlugin extends Plugin {
 	private TextSearchEngineRegistry fTextSearchEngineRegistry;
 	private DirtyFileProvider fDirtyFileSearchParticipant;
 	private DirtyFileSearchParticipantServiceTracker fDirtyFileSearchParticipantTracker;
+	private TrigramIndex fTrigramIndex;
 
 	/**
 	 * @return Returns the search plugin instance.
@@ -58,7 +61,12 @@ public class SearchCorePlugin extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
-		// do nothing
+		synchronized (this) {
+			if (fTrigramIndex != null) {
+				fTrigramIndex.shutdown();
+				fTrigramIndex= null;
+			}
+		}
 	}
 
 	public TextSearchEngineRegistry getTextSearchEngineRegistry() {
@@ -76,6 +84,29 @@ public class SearchCorePlugin extends Plugin {
 		return fDirtyFileSearchParticipant;
 	}
 
+	/**
+	 * Returns the trigram index used to prune files before a text search, if it is enabled with
+	 * the {@link TrigramIndex#PREFERENCE_ENABLED_KEY} preference.
+	 *
+	 * @return the index or <code>null</code> if it is disabled
+	 */
+	public synchronized TrigramIndex getTrigramIndex() {
+		boolean enabled= Platform.getPreferencesService().getBoolean(PLUGIN_ID, TrigramIndex.PREFERENCE_ENABLED_KEY, false, null);
+		if (!enabled) {
+			if (fTrigramIndex != null) {
+				fTrigramIndex.shutdown();
+				fTrigramIndex.clear();
+				fTrigramIndex= null;
+			}
+			return null;
+		}
+		if (fTrigramIndex == null) {
+			fTrigramIndex= new TrigramIndex(getStateLocation());
+			fTrigramIndex.startup();
+		}
+		return fTrigramIndex;
+	}
+
 	/**
 	 * Log status to platform log
 	 * 
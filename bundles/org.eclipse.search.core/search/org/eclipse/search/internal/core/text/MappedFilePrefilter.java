@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Decides at byte level whether a file can contain a match, without decoding
+ * it to characters.
+ * <p>
+ * Every match of the search pattern contains a required literal (see
+ * {@link TrigramQuery#requiredLiterals(Pattern)}). For files encoded in UTF-8,
+ * US-ASCII or ISO-8859-1 the encoded bytes of that literal must occur in the
+ * file if the decoded text contains the literal, so a file whose bytes don't
+ * contain it can be skipped. The file is read in chunks into a direct buffer
+ * that each thread reuses; it is not memory mapped, as a mapping keeps the file
+ * locked on Windows until the buffer is garbage collected. Files that pass the
+ * filter are decoded and matched exactly as before, so the reported matches and
+ * their offsets don't change.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared by all search workers.
+ * </p>
+ */
+public final class MappedFilePrefilter {
+
+	/**
+	 * Whether the prefilter is used at all, can be switched off with
+	 * <code>-Dorg.eclipse.search.mappedScan=false</code>.
+	 */
+	private static final boolean ENABLED= !"false".equalsIgnoreCase(System.getProperty("org.eclipse.search.mappedScan")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Shorter literals are not selective enough to pay off. */
+	private static final int MIN_LITERAL_LENGTH= 3;
+
+	/** The number of bytes read from a file at once. */
+	private static final int BUFFER_SIZE= 128 * 1024;
+
+	/** The read buffer of each thread. */
+	private static final ThreadLocal<ByteBuffer> BUFFER= ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+	/**
+	 * For each ASCII character, <code>true</code> if a non-ASCII character folds
+	 * to it under {@link Pattern#UNICODE_CASE} (like the Kelvin sign and 'k').
+	 */
+	private static final boolean[] AMBIGUOUS_UNICODE_CASE= new boolean[128];
+
+	static {
+		for (char ch= 0x80; ch < 0xFFFF; ch++) {
+			char folded= TrigramQuery.fold(ch);
+			if (folded < 0x80) {
+				AMBIGUOUS_UNICODE_CASE[folded]= true;
+			}
+		}
+		for (char ch= 'A'; ch <= 'Z'; ch++) {
+			AMBIGUOUS_UNICODE_CASE[ch]|= AMBIGUOUS_UNICODE_CASE[ch + ('a' - 'A')];
+		}
+	}
+
+	private static final Charset[] BYTE_COMPATIBLE_CHARSETS= { StandardCharsets.UTF_8, StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1 };
+
+	private final boolean fIgnoreAsciiCase;
+	/** The literal encoded in each of the {@link #BYTE_COMPATIBLE_CHARSETS}, <code>null</code> if not encodable */
+	private final byte[][] fNeedles;
+	/** The Horspool shift tables for {@link #fNeedles} */
+	private final int[][] fShifts;
+
+	private MappedFilePrefilter(String literal, boolean ignoreAsciiCase) {
+		fIgnoreAsciiCase= ignoreAsciiCase;
+		fNeedles= new byte[BYTE_COMPATIBLE_CHARSETS.length][];
+		fShifts= new int[BYTE_COMPATIBLE_CHARSETS.length][];
+		for (int i= 0; i < BYTE_COMPATIBLE_CHARSETS.length; i++) {
+			Charset charset= BYTE_COMPATIBLE_CHARSETS[i];
+			if (charset.newEncoder().canEncode(literal)) {
+				byte[] needle= literal.getBytes(charset);
+				if (ignoreAsciiCase) {
+					for (int j= 0; j < needle.length; j++) {
+						needle[j]= foldAscii(needle[j]);
+					}
+				}
+				fNeedles[i]= needle;
+				fShifts[i]= computeShifts(needle, ignoreAsciiCase);
+			}
+		}
+	}
+
+	/**
+	 * Creates a prefilter for the given pattern.
+	 *
+	 * @param pattern the search pattern
+	 * @return the prefilter or <code>null</code> if the pattern has no required
+	 *         literal that can be searched for at byte level
+	 */
+	public static MappedFilePrefilter create(Pattern pattern) {
+		if (!ENABLED) {
+			return null;
+		}
+		List<String> literals= TrigramQuery.requiredLiterals(pattern);
+		if (literals == null) {
+			return null;
+		}
+		int flags= pattern.flags();
+		boolean inlineFlags= (flags & Pattern.LITERAL) == 0 && TrigramQuery.hasInlineFlags(pattern.pattern());
+		boolean ignoreCase= inlineFlags || (flags & Pattern.CASE_INSENSITIVE) != 0;
+		boolean unicodeCase= inlineFlags || (flags & Pattern.UNICODE_CASE) != 0;
+		String best= null;
+		for (String literal : literals) {
+			if (!ignoreCase) {
+				best= longer(best, literal);
+				continue;
+			}
+			// only ASCII characters with ASCII-only case variants can be compared byte-wise
+			int start= 0;
+			for (int i= 0; i <= literal.length(); i++) {
+				if (i == literal.length() || !isCaseComparable(literal.charAt(i), unicodeCase)) {
+					best= longer(best, literal.substring(start, i));
+					start= i + 1;
+				}
+			}
+		}
+		if (best == null || best.length() < MIN_LITERAL_LENGTH || best.indexOf('\uFFFD') >= 0) {
+			return null;
+		}
+		return new MappedFilePrefilter(best, ignoreCase);
+	}
+
+	private static String longer(String best, String candidate) {
+		return best == null || candidate.length() > best.length() ? candidate : best;
+	}
+
+	private static boolean isCaseComparable(char ch, boolean unicodeCase) {
+		return ch < 0x80 && !(unicodeCase && AMBIGUOUS_UNICODE_CASE[ch]);
+	}
+
+	/**
+	 * Tests whether the file can contain a match.
+	 *
+	 * @param file the file to test
+	 * @return <code>false</code> only if the file is known not to contain a
+	 *         match; <code>true</code> if it may contain one or if the file
+	 *         can't be handled at byte level
+	 */
+	public boolean mayContainMatch(IFile file) {
+		IPath location= file.getLocation();
+		if (location == null) {
+			return true;
+		}
+		int charset;
+		try {
+			charset= charsetIndex(file.getCharset());
+		} catch (CoreException e) {
+			return true;
+		}
+		if (charset < 0 || fNeedles[charset] == null || fNeedles[charset].length >= BUFFER_SIZE) {
+			return true;
+		}
+		byte[] needle= fNeedles[charset];
+		ByteBuffer buffer= BUFFER.get();
+		buffer.clear();
+		try (FileChannel channel= FileChannel.open(Path.of(location.toOSString()), StandardOpenOption.READ)) {
+			while (true) {
+				int read= channel.read(buffer);
+				buffer.flip();
+				if (indexOf(buffer, needle, fShifts[charset]) >= 0) {
+					return true;
+				}
+				if (read < 0) {
+					return false;
+				}
+				// a match may start in the last bytes of the chunk
+				buffer.position(Math.max(0, buffer.limit() - (needle.length - 1)));
+				buffer.compact();
+			}
+		} catch (IOException | UnsupportedOperationException e) {
+			// let the regular read report the problem
+			return true;
+		}
+	}
+
+	private int charsetIndex(String charsetName) {
+		for (int i= 0; i < BYTE_COMPATIBLE_CHARSETS.length; i++) {
+			if (BYTE_COMPATIBLE_CHARSETS[i].name().equals(charsetName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int[] computeShifts(byte[] needle, boolean ignoreAsciiCase) {
+		int n= needle.length;
+		int[] shift= new int[256];
+		Arrays.fill(shift, n);
+		for (int i= 0; i < n - 1; i++) {
+			shift[needle[i] & 0xFF]= n - 1 - i;
+			if (ignoreAsciiCase && needle[i] >= 'a' && needle[i] <= 'z') {
+				shift[(needle[i] - ('a' - 'A')) & 0xFF]= n - 1 - i;
+			}
+		}
+		return shift;
+	}
+
+	private static byte foldAscii(byte b) {
+		return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+	}
+
+	/**
+	 * Boyer-Moore-Horspool search of the needle in the buffer, folding ASCII
+	 * case if required.
+	 */
+	private int indexOf(ByteBuffer haystack, byte[] needle, int[] shift) {
+		int n= needle.length;
+		int limit= haystack.limit();
+		if (n > limit) {
+			return -1;
+		}
+		int last= n - 1;
+		int pos= 0;
+		while (pos <= limit - n) {
+			byte b= haystack.get(pos + last);
+			byte folded= fIgnoreAsciiCase ? foldAscii(b) : b;
+			if (folded == needle[last]) {
+				int i= last - 1;
+				while (i >= 0) {
+					byte c= haystack.get(pos + i);
+					if ((fIgnoreAsciiCase ? foldAscii(c) : c) != needle[i]) {
+						break;
+					}
+					i--;
+				}
+				if (i < 0) {
+					return pos;
+				}
+			}
+			pos+= shift[b & 0xFF];
+		}
+		return -1;
+	}
+}
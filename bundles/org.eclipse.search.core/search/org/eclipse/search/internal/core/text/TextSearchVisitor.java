@@ -22,11 +22,14 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +49,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobGroup;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.resources.ResourcesPlugin;
 
@@ -72,10 +76,27 @@ public class TextSearchVisitor {
 	private static final int NUMBER_OF_LOGICAL_THREADS= Runtime.getRuntime().availableProcessors();
 
 	/**
-	 * Queue of files to be searched. IFile pointing to the same local file are
-	 * grouped together
+	 * Files pointing to the same local file, searched together.
+	 *
+	 * @param files the files, the first one is searched and the others reuse its matches
+	 * @param size the size of the file in bytes, {@link Long#MAX_VALUE} if unknown
+	 */
+	private record FileBatch(List<IFile> files, long size) {
+	}
+
+	/**
+	 * One queue of files to be searched per worker, largest files first. Each worker sizes and
+	 * sorts its own share of the files before it starts searching, so that no file is accessed on
+	 * the calling thread. A worker takes files from the head of its own queue and, once that is
+	 * empty, steals single files from the tail of the other workers' queues.
 	 **/
-	private final Queue<List<IFile>> fileBatches;
+	private volatile List<Deque<FileBatch>> fWorkQueues= Collections.emptyList();
+
+	/**
+	 * Counted down by each worker once its queue is filled. Until then an empty queue doesn't mean
+	 * that all of its files have been taken.
+	 */
+	private volatile CountDownLatch fWorkQueuesFilled= new CountDownLatch(0);
 
 	public static class ReusableMatchAccess extends TextSearchMatchAccess {
 
@@ -144,6 +165,11 @@ public class TextSearchVisitor {
 		private final Map<IFile, IDocument> fDocumentsInEditors;
 		private FileCharSequenceProvider fileCharSequenceProvider;
 		private final int jobCount;
+		private final int fWorkerIndex;
+		private final List<Deque<FileBatch>> fQueues= fWorkQueues;
+		private final CountDownLatch fQueuesFilled= fWorkQueuesFilled;
+		private final List<List<IFile>> fShare;
+		private int fStolenBatches;
 
 		/**
 		 * Searches for matches in the files.
@@ -152,24 +178,94 @@ public class TextSearchVisitor {
 		 *            a map from IFile to IDocument for all open, dirty editors
 		 * @param jobCount
 		 *            number of Jobs
+		 * @param workerIndex
+		 *            index of this job's queue in {@link TextSearchVisitor#fWorkQueues}
+		 * @param share
+		 *            the files to fill this job's queue with
 		 */
-		public TextSearchJob(Map<IFile, IDocument> documentsInEditors, int jobCount) {
+		public TextSearchJob(Map<IFile, IDocument> documentsInEditors, int jobCount, int workerIndex, List<List<IFile>> share) {
 			super("File Search Worker"); //$NON-NLS-1$
 			this.jobCount = jobCount;
+			fWorkerIndex= workerIndex;
+			fShare= share;
 			setSystem(true);
 			fDocumentsInEditors= documentsInEditors;
 		}
 
+		/**
+		 * Sizes the files of this worker's share and adds them to its queue, largest first. Large
+		 * files are started early so that they don't delay the end of the search, and the queue
+		 * ends with small files that are cheap to steal.
+		 */
+		private void fillQueue() {
+			try {
+				List<FileBatch> batches= new ArrayList<>(fShare.size());
+				for (List<IFile> sameFiles : fShare) {
+					batches.add(new FileBatch(sameFiles, getSize(sameFiles.get(0))));
+				}
+				batches.sort(Comparator.comparingLong(FileBatch::size).reversed());
+				fQueues.get(fWorkerIndex).addAll(batches);
+			} finally {
+				fQueuesFilled.countDown();
+			}
+		}
+
+		/**
+		 * @return the next batch from this worker's own queue or, if that is empty, one stolen from
+		 *         another worker; <code>null</code> if all files have been taken or the search was
+		 *         canceled while waiting for the other workers to fill their queues
+		 */
+		private FileBatch nextBatch() {
+			FileBatch batch= pollBatch();
+			try {
+				while (batch == null && !fQueuesFilled.await(100, TimeUnit.MILLISECONDS)) {
+					if (fFatalError || fProgressMonitor.isCanceled()) {
+						return null;
+					}
+					batch= pollBatch();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			return batch != null ? batch : pollBatch();
+		}
+
+		private FileBatch pollBatch() {
+			List<Deque<FileBatch>> queues= fQueues;
+			FileBatch batch= queues.get(fWorkerIndex).pollFirst();
+			if (batch != null) {
+				return batch;
+			}
+			int count= queues.size();
+			for (int i= 1; i < count; i++) {
+				batch= queues.get((fWorkerIndex + i) % count).pollLast();
+				if (batch != null) {
+					fStolenBatches++;
+					return batch;
+				}
+			}
+			return null;
+		}
+
 		@Override
 		protected IStatus run(IProgressMonitor inner) {
 			MultiStatus multiStatus=
 					new MultiStatus(SearchCorePlugin.PLUGIN_ID, IStatus.OK,
 							SearchCoreMessages.TextSearchEngine_statusMessage, null);
-			SubMonitor subMonitor = SubMonitor.convert(inner, fileBatches.size() / jobCount); // approximate
+			SubMonitor subMonitor = SubMonitor.convert(inner, fShare.size()); // approximate
+			long startTime= TRACING ? System.currentTimeMillis() : 0;
+			fillQueue();
 			this.fileCharSequenceProvider= new FileCharSequenceProvider();
-			List<IFile> sameFiles;
-			while (((sameFiles = fileBatches.poll()) != null) && !fFatalError && !fProgressMonitor.isCanceled()) {
-				IStatus status = processFile(sameFiles, subMonitor.split(1));
+			int processedBatches= 0;
+			long processedBytes= 0;
+			FileBatch batch;
+			while (!fFatalError && !fProgressMonitor.isCanceled() && (batch= nextBatch()) != null) {
+				IStatus status = processFile(batch.files(), subMonitor.split(1));
+				processedBatches++;
+				if (batch.size() != Long.MAX_VALUE) {
+					processedBytes+= batch.size();
+				}
 				// Only accumulate interesting status
 				if (!status.isOK())
 					multiStatus.add(status);
@@ -177,6 +273,13 @@ public class TextSearchVisitor {
 				// Stop processing and return the status for the completed jobs.
 			}
 			fileCharSequenceProvider= null;
+			if (TRACING) {
+				long duration= Math.max(1, System.currentTimeMillis() - startTime);
+				Object[] args= { Integer.valueOf(fWorkerIndex), Integer.valueOf(processedBatches), Integer.valueOf(fStolenBatches),
+						Long.valueOf(processedBytes / 1024), Long.valueOf(duration), Long.valueOf(processedBytes / duration) };
+				System.out.println(MessageFormat.format(
+						"[TextSearch] Worker {0}: {1} files ({2} stolen), {3} KB in {4}ms ({5} KB/s)", args)); //$NON-NLS-1$
+			}
 			synchronized (fLock) {
 				fLock.notify();
 			}
@@ -209,6 +312,11 @@ public class TextSearchVisitor {
 							// fail fast for binary file types without opening the file
 							return Status.OK_STATUS;
 						}
+						if (fPrefilter != null && !fPrefilter.mayContainMatch(file)
+								&& (fIsLightweightAutoRefresh || file.isSynchronized(IResource.DEPTH_ZERO))) {
+							// the required literal is not in the file's bytes, skip decoding it
+							return Status.OK_STATUS;
+						}
 						charsequence = fileCharSequenceProvider.newCharSequence(file);
 						if (reportTextOnly && hasBinaryContent(charsequence)) {
 							return Status.OK_STATUS;
@@ -300,17 +408,31 @@ public class TextSearchVisitor {
 
 	private volatile boolean fIsLightweightAutoRefresh;
 	private DirtyFileProvider fDirtyDiscovery;
+	private final TrigramIndex fTrigramIndex;
+	private final MappedFilePrefilter fPrefilter;
 
 	public TextSearchVisitor(TextSearchRequestor collector, Pattern searchPattern, DirtyFileProvider dirtyDiscovery) {
+		this(collector, searchPattern, dirtyDiscovery, null);
+	}
+
+	/**
+	 * @param collector the requestor that gets the search results
+	 * @param searchPattern the search pattern
+	 * @param dirtyDiscovery provides the documents of dirty editors, can be <code>null</code>
+	 * @param trigramIndex the index used to prune files that can't match, or <code>null</code> to
+	 *            scan all files
+	 */
+	public TextSearchVisitor(TextSearchRequestor collector, Pattern searchPattern, DirtyFileProvider dirtyDiscovery, TrigramIndex trigramIndex) {
 		fCollector= collector;
 		fDirtyDiscovery = dirtyDiscovery;
+		fTrigramIndex= trigramIndex;
 		fStatus = new MultiStatus(SearchCorePlugin.PLUGIN_ID, IStatus.OK,
 				SearchCoreMessages.TextSearchEngine_statusMessage, null);
 
 		fSearchPattern= searchPattern;
+		fPrefilter= searchPattern.pattern().isEmpty() ? null : MappedFilePrefilter.create(searchPattern);
 
 		fIsLightweightAutoRefresh= Platform.getPreferencesService().getBoolean(ResourcesPlugin.PI_RESOURCES, ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH, false, null);
-		fileBatches = new ConcurrentLinkedQueue<>();
 	}
 
 	public IStatus search(IFile[] files, IProgressMonitor monitor) {
@@ -338,6 +460,11 @@ public class TextSearchVisitor {
 				}
 
 				Map<IFile, IDocument> documentsInEditors = findDirtyFiles();
+				if (fTrigramIndex != null && !fSearchPattern.pattern().isEmpty()) {
+					// editor buffers may differ from the indexed content on disk
+					files = fTrigramIndex.filterCandidates(files, fSearchPattern,
+							file -> getOpenDocument(file, documentsInEditors) != null);
+				}
 
 				// group files with same content together:
 				Map<String, List<IFile>> localFilesByLocation = new LinkedHashMap<>();
@@ -351,9 +478,17 @@ public class TextSearchVisitor {
 					filesByLocation.computeIfAbsent(key, k -> new ArrayList<>()).add(file);
 
 				}
-				localFilesByLocation.values().forEach(fileBatches::offer);
-				remoteFilesByLocation.values().forEach(fileBatches::offer);
-				int numberOfFilesToScan = fileBatches.size();
+				List<List<IFile>> batches = new ArrayList<>(localFilesByLocation.size() + remoteFilesByLocation.size());
+				batches.addAll(localFilesByLocation.values());
+				batches.addAll(remoteFilesByLocation.values());
+				int numberOfFilesToScan = batches.size();
+				List<List<List<IFile>>> shares = distribute(batches, jobCount);
+				List<Deque<FileBatch>> queues = new ArrayList<>(jobCount);
+				for (int i = 0; i < jobCount; i++) {
+					queues.add(new ConcurrentLinkedDeque<>());
+				}
+				fWorkQueues = queues;
+				fWorkQueuesFilled = new CountDownLatch(jobCount);
 				fProgressMonitor.beginTask(taskName, numberOfFilesToScan);
 
 				// Seed count over 1 can cause endless waits, see bug 543629
@@ -364,7 +499,7 @@ public class TextSearchVisitor {
 				final int seed = 1;
 				final JobGroup jobGroup = new TextSearchJobGroup("Text Search", jobCount, seed); //$NON-NLS-1$
 				for (int i = 0; i < jobCount; i++) {
-					Job job = new TextSearchJob(documentsInEditors, jobCount);
+					Job job = new TextSearchJob(documentsInEditors, jobCount, i, shares.get(i));
 					job.setJobGroup(jobGroup);
 					job.schedule();
 				}
@@ -413,7 +548,7 @@ public class TextSearchVisitor {
 			} catch (InterruptedException e) {
 				throw new OperationCanceledException(SearchCoreMessages.TextSearchVisitor_canceled);
 			} finally {
-				fileBatches.clear();
+				fWorkQueues = Collections.emptyList();
 			}
 		} finally {
 			fProgressMonitor.done();
@@ -426,6 +561,35 @@ public class TextSearchVisitor {
 		}
 	}
 
+	/**
+	 * Deals the batches out to one share per worker. The files are not sized here, which would
+	 * access every file on the calling thread before any worker starts. Each worker sizes and
+	 * sorts its own share instead, see {@link TextSearchJob#fillQueue()}.
+	 */
+	private static List<List<List<IFile>>> distribute(List<List<IFile>> batches, int workerCount) {
+		List<List<List<IFile>>> shares = new ArrayList<>(workerCount);
+		for (int i = 0; i < workerCount; i++) {
+			shares.add(new ArrayList<>(batches.size() / workerCount + 1));
+		}
+		for (int i = 0; i < batches.size(); i++) {
+			shares.get(i % workerCount).add(batches.get(i));
+		}
+		return shares;
+	}
+
+	/**
+	 * @return the size of a local file in bytes, or {@link Long#MAX_VALUE} if it can't be
+	 *         determined cheaply so that it is treated like a large file
+	 */
+	private static long getSize(IFile file) {
+		IPath location = file.getLocation();
+		if (location == null) {
+			return Long.MAX_VALUE;
+		}
+		long size = location.toFile().length();
+		return size == 0 && !location.toFile().exists() ? Long.MAX_VALUE : size;
+	}
+
 	private Map<IFile, IDocument> findDirtyFiles() {
 		if (fDirtyDiscovery != null) {
 			Map<IFile, IDocument> ret = fDirtyDiscovery.dirtyFiles();
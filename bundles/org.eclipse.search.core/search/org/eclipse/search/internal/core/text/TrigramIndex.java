@@ -0,0 +1,481 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.search.internal.core.SearchCorePlugin;
+import org.eclipse.search.internal.core.text.TrigramQuery.TrigramSet;
+
+/**
+ * An optional, persistent trigram index over the text files of the workspace.
+ * <p>
+ * For every (case folded) trigram the index remembers the files whose content
+ * contains it, and for every indexed file the modification and local time stamps
+ * the content was read at. The bulk of the index is an immutable
+ * {@link TrigramSegment} with compact posting lists; files indexed or removed
+ * since it was built are kept in a small map that is merged into a new segment
+ * once it grows. {@link #filterCandidates(IFile[], Pattern, Predicate)} uses it to drop
+ * files that can not contain a match before the regular expression runs.
+ * </p>
+ * <p>
+ * The index never changes search results: a file is only pruned if it has an
+ * up-to-date entry whose trigrams prove that no match is possible. Files that
+ * are not indexed yet, have changed since they were indexed, are too large or
+ * binary, or are open in an editor are always searched. Stale and unknown files
+ * are queued and indexed in the background; the index is updated incrementally
+ * from resource deltas.
+ * </p>
+ */
+public class TrigramIndex implements IResourceChangeListener {
+
+	/**
+	 * Preference key in the <code>org.eclipse.search.core</code> node that enables
+	 * the index (value <code>"org.eclipse.search.trigramIndex"</code>).
+	 */
+	public static final String PREFERENCE_ENABLED_KEY= "org.eclipse.search.trigramIndex"; //$NON-NLS-1$
+
+	private static final String INDEX_FILE_NAME= "trigram.index"; //$NON-NLS-1$
+	private static final int MAGIC= 0x54524947; // 'TRIG'
+	private static final int VERSION= 2;
+
+	/** Files larger than this (in bytes) are not indexed and always searched. */
+	private static final long MAX_INDEXED_FILE_SIZE= 16 * 1024 * 1024;
+
+	/** Number of characters inspected to detect binary content. */
+	private static final int BINARY_PROBE_LENGTH= 1024;
+
+	/**
+	 * Minimum number of recent entries before they are merged into a new segment. Above it,
+	 * they are merged once they reach a quarter of the segment size.
+	 */
+	private static final int MIN_RECENT_ENTRIES= 1024;
+
+	private static final int[] NOT_INDEXABLE= new int[0];
+
+	/** The recent entry of a file that was removed from the index. */
+	static final Entry REMOVED= new Entry(IResource.NULL_STAMP, IResource.NULL_STAMP, null);
+
+	/**
+	 * A file indexed since the segment was built.
+	 *
+	 * @param modificationStamp the {@link IResource#getModificationStamp()} at index time
+	 * @param localTimeStamp the {@link IResource#getLocalTimeStamp()} at index time
+	 * @param trigrams the sorted trigrams, or {@link #NOT_INDEXABLE} if the file must always be
+	 *            searched
+	 */
+	record Entry(long modificationStamp, long localTimeStamp, int[] trigrams) {
+
+		boolean isCurrent(IFile file) {
+			return modificationStamp == file.getModificationStamp() && localTimeStamp == file.getLocalTimeStamp();
+		}
+
+		boolean isIndexable() {
+			return trigrams != NOT_INDEXABLE;
+		}
+	}
+
+	private final File fIndexFile;
+	private volatile TrigramSegment fSegment= TrigramSegment.EMPTY;
+
+	/** The files indexed or removed since {@link #fSegment} was built, by full path. */
+	private final Map<IPath, Entry> fRecent= new ConcurrentHashMap<>();
+	private final Queue<IFile> fPending= new ConcurrentLinkedQueue<>();
+	private final Map<IPath, Boolean> fPendingPaths= new ConcurrentHashMap<>();
+	private final Job fUpdateJob;
+
+	private volatile boolean fLoaded;
+	private volatile boolean fDirty;
+
+	/**
+	 * Creates an index that is persisted in the given directory.
+	 *
+	 * @param storageDirectory the directory for the index file, typically the state location of
+	 *            the plug-in
+	 */
+	public TrigramIndex(IPath storageDirectory) {
+		fIndexFile= storageDirectory.append(INDEX_FILE_NAME).toFile();
+		fUpdateJob= new Job("Updating File Search index") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (!fLoaded) {
+					load();
+				}
+				processPending(monitor);
+				if (fRecent.size() >= Math.max(MIN_RECENT_ENTRIES, fSegment.size() / 4)) {
+					compact();
+				}
+				return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return family == TrigramIndex.this;
+			}
+		};
+		fUpdateJob.setSystem(true);
+		fUpdateJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Registers the resource change listener and starts loading the persisted index.
+	 */
+	public void startup() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		fUpdateJob.schedule();
+	}
+
+	/**
+	 * Stops background updates and persists the index.
+	 */
+	public void shutdown() {
+		IWorkspace workspace= ResourcesPlugin.getWorkspace();
+		workspace.removeResourceChangeListener(this);
+		fUpdateJob.cancel();
+		try {
+			fUpdateJob.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		save();
+	}
+
+	/**
+	 * @return <code>true</code> once the persisted state has been read and the index can be
+	 *         consulted
+	 */
+	public boolean isReady() {
+		return fLoaded;
+	}
+
+	/**
+	 * Returns the files that may contain a match of the given pattern, in their original order.
+	 * Files without an up-to-date index entry are kept and queued for (re)indexing.
+	 *
+	 * @param files the files in scope
+	 * @param pattern the search pattern
+	 * @param mustSearch files for which this predicate answers <code>true</code> are never pruned,
+	 *            e.g. files open in editors whose buffer differs from the file on disk
+	 * @return the candidate files, <code>files</code> itself if nothing was pruned
+	 */
+	public IFile[] filterCandidates(IFile[] files, Pattern pattern, Predicate<IFile> mustSearch) {
+		if (!fLoaded) {
+			// fall back to a full scan until the persisted state is available
+			return files;
+		}
+		TrigramQuery query= TrigramQuery.create(pattern);
+		TrigramSegment segment= fSegment;
+		BitSet segmentCandidates= query.isUnconstrained() ? null : segment.getFilesContainingAll(query.getTrigrams());
+		List<IFile> candidates= new ArrayList<>(files.length);
+		for (IFile file : files) {
+			Boolean mayMatch= mayMatch(file, query, segment, segmentCandidates);
+			if (mayMatch == null) {
+				enqueue(file);
+				candidates.add(file);
+			} else if (mayMatch.booleanValue() || mustSearch.test(file)) {
+				candidates.add(file);
+			} else if (!file.isSynchronized(IResource.DEPTH_ZERO)) {
+				// changed on disk without a refresh, the workspace stamps can't tell
+				enqueue(file);
+				candidates.add(file);
+			}
+		}
+		if (candidates.size() == files.length) {
+			return files;
+		}
+		if (TextSearchVisitor.TRACING) {
+			Object[] args= { Integer.valueOf(files.length - candidates.size()), Integer.valueOf(files.length) };
+			System.out.println(MessageFormat.format("[TextSearch] Trigram index pruned {0} of {1} files", args)); //$NON-NLS-1$
+		}
+		return candidates.toArray(new IFile[candidates.size()]);
+	}
+
+	/**
+	 * Tests whether a file can contain a match according to its up-to-date entry.
+	 *
+	 * @param file the file
+	 * @param query the query
+	 * @param segment the segment to look the file up in if it has no recent entry
+	 * @param segmentCandidates the files of the segment that contain all trigrams of the
+	 *            query, or <code>null</code> if the query is unconstrained
+	 * @return <code>null</code> if the file has no up-to-date entry, otherwise whether the file
+	 *         may contain a match
+	 */
+	private Boolean mayMatch(IFile file, TrigramQuery query, TrigramSegment segment, BitSet segmentCandidates) {
+		IPath path= file.getFullPath();
+		Entry entry= fRecent.get(path);
+		if (entry != null) {
+			if (entry == REMOVED || !entry.isCurrent(file)) {
+				return null;
+			}
+			return Boolean.valueOf(query.isUnconstrained() || !entry.isIndexable() || query.matches(entry.trigrams()));
+		}
+		int id= segment.getId(path);
+		if (id < 0 || !segment.isCurrent(id, file)) {
+			// a file merged into a newer segment meanwhile is just searched
+			return null;
+		}
+		return Boolean.valueOf(segmentCandidates == null || !segment.isIndexable(id) || segmentCandidates.get(id));
+	}
+
+	/**
+	 * Synchronously brings the entries of the given files up to date.
+	 *
+	 * @param files the files to index
+	 * @param monitor the progress monitor, can be <code>null</code>
+	 */
+	public void update(Collection<IFile> files, IProgressMonitor monitor) {
+		if (!fLoaded) {
+			load();
+		}
+		files.forEach(this::enqueue);
+		processPending(monitor);
+		compact();
+	}
+
+	/**
+	 * Removes all entries, both in memory and on disk.
+	 */
+	public synchronized void clear() {
+		fRecent.clear();
+		fSegment= TrigramSegment.EMPTY;
+		fIndexFile.delete();
+		fDirty= false;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta= event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		try {
+			delta.accept(d -> {
+				IResource resource= d.getResource();
+				if (resource.getType() != IResource.FILE) {
+					return true;
+				}
+				switch (d.getKind()) {
+					case IResourceDelta.REMOVED:
+						removeEntry(resource.getFullPath());
+						break;
+					case IResourceDelta.ADDED:
+						enqueue((IFile) resource);
+						break;
+					case IResourceDelta.CHANGED:
+						if ((d.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING)) != 0) {
+							removeEntry(resource.getFullPath());
+							enqueue((IFile) resource);
+						}
+						break;
+					default:
+						break;
+				}
+				return false;
+			});
+		} catch (CoreException e) {
+			SearchCorePlugin.log(e);
+		}
+		if (!fPending.isEmpty()) {
+			fUpdateJob.schedule(500);
+		}
+	}
+
+	private void enqueue(IFile file) {
+		if (fPendingPaths.putIfAbsent(file.getFullPath(), Boolean.TRUE) == null) {
+			fPending.add(file);
+			if (fLoaded) {
+				fUpdateJob.schedule(500);
+			}
+		}
+	}
+
+	private void processPending(IProgressMonitor monitor) {
+		FileCharSequenceProvider provider= new FileCharSequenceProvider();
+		TrigramSet trigrams= new TrigramSet();
+		IFile file;
+		while ((monitor == null || !monitor.isCanceled()) && (file= fPending.poll()) != null) {
+			fPendingPaths.remove(file.getFullPath());
+			if (!file.isAccessible()) {
+				removeEntry(file.getFullPath());
+				continue;
+			}
+			if (hasCurrentEntry(file) && file.isSynchronized(IResource.DEPTH_ZERO)) {
+				continue;
+			}
+			Entry entry;
+			try {
+				entry= computeEntry(file, provider, trigrams);
+			} catch (CoreException | IOException | FileCharSequenceProvider.FileCharSequenceException e) {
+				// unreadable now: keep searching it the normal way
+				entry= null;
+			}
+			if (entry != null) {
+				fRecent.put(file.getFullPath(), entry);
+				fDirty= true;
+			} else {
+				removeEntry(file.getFullPath());
+			}
+		}
+	}
+
+	private boolean hasCurrentEntry(IFile file) {
+		Entry entry= fRecent.get(file.getFullPath());
+		if (entry != null) {
+			return entry != REMOVED && entry.isCurrent(file);
+		}
+		TrigramSegment segment= fSegment;
+		int id= segment.getId(file.getFullPath());
+		return id >= 0 && segment.isCurrent(id, file);
+	}
+
+	private void removeEntry(IPath path) {
+		// a tombstone even if the path is not in the segment: it may be merged into it right now
+		Entry previous= fRecent.put(path, REMOVED);
+		if (previous != REMOVED && (previous != null || fSegment.getId(path) >= 0)) {
+			fDirty= true;
+		}
+	}
+
+	/**
+	 * Merges the recent entries into a new segment.
+	 */
+	private synchronized void compact() {
+		if (fRecent.isEmpty()) {
+			return;
+		}
+		Map<IPath, Entry> changes= new HashMap<>(fRecent);
+		fSegment= fSegment.merge(changes);
+		// entries updated meanwhile stay recent
+		changes.forEach(fRecent::remove);
+	}
+
+	private Entry computeEntry(IFile file, FileCharSequenceProvider provider, TrigramSet trigrams) throws CoreException, IOException {
+		// read the stamps first: a concurrent modification then shows up as a stale entry
+		long modificationStamp= file.getModificationStamp();
+		long localTimeStamp= file.getLocalTimeStamp();
+		if (modificationStamp == IResource.NULL_STAMP || !file.isSynchronized(IResource.DEPTH_ZERO)) {
+			return null;
+		}
+		IFileInfo info= EFS.getStore(file.getLocationURI()).fetchInfo();
+		if (info.getLength() > MAX_INDEXED_FILE_SIZE) {
+			return new Entry(modificationStamp, localTimeStamp, NOT_INDEXABLE);
+		}
+		CharSequence content= provider.newCharSequence(file);
+		try {
+			int length= content.length();
+			int probe= Math.min(length, BINARY_PROBE_LENGTH);
+			for (int i= 0; i < probe; i++) {
+				if (content.charAt(i) == '\0') {
+					return new Entry(modificationStamp, localTimeStamp, NOT_INDEXABLE);
+				}
+			}
+			trigrams.clear();
+			if (length >= 3) {
+				char c0= TrigramQuery.fold(content.charAt(0));
+				char c1= TrigramQuery.fold(content.charAt(1));
+				for (int i= 2; i < length; i++) {
+					char c2= TrigramQuery.fold(content.charAt(i));
+					trigrams.add(TrigramQuery.trigram(c0, c1, c2));
+					c0= c1;
+					c1= c2;
+				}
+			}
+			return new Entry(modificationStamp, localTimeStamp, trigrams.toSortedArray());
+		} finally {
+			provider.releaseCharSequence(content);
+		}
+	}
+
+	private synchronized void load() {
+		if (fLoaded) {
+			return;
+		}
+		if (fIndexFile.isFile()) {
+			try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(fIndexFile)))) {
+				if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+					fSegment= TrigramSegment.read(in);
+				}
+			} catch (IOException | RuntimeException e) {
+				// a corrupt index is simply rebuilt
+				fSegment= TrigramSegment.EMPTY;
+				SearchCorePlugin.log(e);
+			}
+		}
+		fLoaded= true;
+		if (!fPending.isEmpty()) {
+			fUpdateJob.schedule();
+		}
+	}
+
+	private synchronized void save() {
+		if (!fDirty || !fLoaded) {
+			return;
+		}
+		File tmp= new File(fIndexFile.getPath() + ".tmp"); //$NON-NLS-1$
+		try {
+			fIndexFile.getParentFile().mkdirs();
+			compact();
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				fSegment.write(out);
+			}
+			Files.move(tmp.toPath(), fIndexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			fDirty= false;
+		} catch (IOException e) {
+			tmp.delete();
+			SearchCorePlugin.log(e);
+		}
+	}
+}
@@ -0,0 +1,573 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The set of trigrams every match of a search pattern is guaranteed to contain.
+ * <p>
+ * The analysis is deliberately conservative: only literal character runs that
+ * are required on every path through the pattern contribute trigrams. Whenever
+ * a construct is not understood (alternations, comment mode, back references
+ * ...) the query degrades to {@link #isUnconstrained() unconstrained} and the
+ * index must not be used to prune any file.
+ * </p>
+ * <p>
+ * Characters are case folded (see {@link #fold(char)}) so that the same
+ * trigrams can serve case sensitive and case insensitive searches.
+ * </p>
+ */
+public final class TrigramQuery {
+
+	private static final int[] NO_TRIGRAMS= new int[0];
+
+	/** A query that does not constrain the candidate files at all. */
+	public static final TrigramQuery UNCONSTRAINED= new TrigramQuery(NO_TRIGRAMS);
+
+	private final int[] fTrigrams;
+
+	private TrigramQuery(int[] trigrams) {
+		fTrigrams= trigrams;
+	}
+
+	/**
+	 * Computes the trigrams required by the given pattern.
+	 *
+	 * @param pattern the search pattern
+	 * @return the query, never <code>null</code>
+	 */
+	public static TrigramQuery create(Pattern pattern) {
+		List<String> literals= requiredLiterals(pattern);
+		if (literals == null) {
+			return UNCONSTRAINED;
+		}
+		TrigramSet trigrams= new TrigramSet();
+		for (String literal : literals) {
+			addTrigrams(literal, trigrams);
+		}
+		if (trigrams.size() == 0) {
+			return UNCONSTRAINED;
+		}
+		return new TrigramQuery(trigrams.toSortedArray());
+	}
+
+	/**
+	 * Returns the literal strings that every match of the given pattern contains.
+	 * The literals are not case folded; whether they have to be compared case
+	 * insensitively depends on the pattern flags and on
+	 * {@link #hasInlineFlags(String)}.
+	 *
+	 * @param pattern the search pattern
+	 * @return the required literals, possibly empty, or <code>null</code> if the
+	 *         pattern can not be analyzed
+	 */
+	public static List<String> requiredLiterals(Pattern pattern) {
+		if ((pattern.flags() & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+			return null;
+		}
+		String regex= pattern.pattern();
+		List<String> literals= new ArrayList<>();
+		if ((pattern.flags() & Pattern.LITERAL) != 0) {
+			literals.add(regex);
+		} else if (!collectLiterals(regex, literals)) {
+			return null;
+		}
+		return literals;
+	}
+
+	/**
+	 * Tests whether the regular expression contains embedded flags like
+	 * <code>(?i)</code> that change how its literals are matched.
+	 *
+	 * @param regex the regular expression
+	 * @return <code>true</code> if embedded flags may be present
+	 */
+	public static boolean hasInlineFlags(String regex) {
+		int i= regex.indexOf("(?"); //$NON-NLS-1$
+		while (i >= 0) {
+			int j= i + 2;
+			while (j < regex.length() && (Character.isLetter(regex.charAt(j)) || regex.charAt(j) == '-')) {
+				j++;
+			}
+			if (j > i + 2 && j < regex.length() && (regex.charAt(j) == ')' || regex.charAt(j) == ':')) {
+				return true;
+			}
+			i= regex.indexOf("(?", i + 2); //$NON-NLS-1$
+		}
+		return false;
+	}
+
+	/**
+	 * @return <code>true</code> if every file is a candidate for this query
+	 */
+	public boolean isUnconstrained() {
+		return fTrigrams.length == 0;
+	}
+
+	/**
+	 * Tests whether a file with the given (sorted) trigrams can contain a match.
+	 *
+	 * @param sortedFileTrigrams the trigrams of the file as sorted by
+	 *            {@link TrigramSet#toSortedArray()}
+	 * @return <code>false</code> only if the file can not contain a match
+	 */
+	public boolean matches(int[] sortedFileTrigrams) {
+		for (int trigram : fTrigrams) {
+			if (Arrays.binarySearch(sortedFileTrigrams, trigram) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the required trigrams, sorted ascending. Must not be modified.
+	 */
+	int[] getTrigrams() {
+		return fTrigrams;
+	}
+
+	/**
+	 * Folds a character the same way {@link Pattern#CASE_INSENSITIVE} together
+	 * with {@link Pattern#UNICODE_CASE} compares characters.
+	 *
+	 * @param ch the character
+	 * @return the folded character
+	 */
+	static char fold(char ch) {
+		if (ch < 0x80) {
+			return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+		}
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	}
+
+	/**
+	 * Encodes three folded characters into one trigram value.
+	 *
+	 * @param c0 first character
+	 * @param c1 second character
+	 * @param c2 third character
+	 * @return the trigram value
+	 */
+	static int trigram(char c0, char c1, char c2) {
+		// Collisions are harmless: they only make the index answer "maybe".
+		return (c0 * 31 + c1) * 31 + c2 ^ (c0 << 21);
+	}
+
+	private static void addTrigrams(CharSequence literal, TrigramSet trigrams) {
+		int length= literal.length();
+		if (length < 3) {
+			return;
+		}
+		char c0= fold(literal.charAt(0));
+		char c1= fold(literal.charAt(1));
+		for (int i= 2; i < length; i++) {
+			char c2= fold(literal.charAt(i));
+			// supplementary characters are folded per code point by the matcher
+			if (!Character.isSurrogate(c0) && !Character.isSurrogate(c1) && !Character.isSurrogate(c2)) {
+				trigrams.add(trigram(c0, c1, c2));
+			}
+			c0= c1;
+			c1= c2;
+		}
+	}
+
+	/**
+	 * Walks the top level of the regular expression and collects all literal
+	 * runs that every match must contain.
+	 *
+	 * @param regex the regular expression
+	 * @param literals the list to add the literal runs to
+	 * @return <code>false</code> if the expression can not be analyzed
+	 */
+	private static boolean collectLiterals(String regex, List<String> literals) {
+		StringBuilder run= new StringBuilder();
+		int length= regex.length();
+		int i= 0;
+		while (i < length) {
+			char ch= regex.charAt(i);
+			switch (ch) {
+				case '|':
+					// an alternative makes none of the runs mandatory
+					return false;
+				case '\\': {
+					if (i + 1 >= length) {
+						return false;
+					}
+					char next= regex.charAt(i + 1);
+					if (next == 'Q') {
+						int end= regex.indexOf("\\E", i + 2); //$NON-NLS-1$
+						if (end < 0) {
+							end= length;
+						}
+						int runStart= run.length();
+						run.append(regex, i + 2, end);
+						i= end + 2;
+						if (run.length() > runStart && isQuantifier(regex, i)) {
+							run.setLength(run.length() - 1);
+							i= flush(run, literals, regex, i);
+						}
+						continue;
+					}
+					if (Character.isLetterOrDigit(next)) {
+						// character classes, anchors, back references, escapes
+						int end= skipEscape(regex, i);
+						if (end < 0) {
+							return false;
+						}
+						flush(run, literals);
+						i= skipQuantifier(regex, end);
+						continue;
+					}
+					i= appendLiteral(run, next, regex, i + 2, literals);
+					continue;
+				}
+				case '[':
+					flush(run, literals);
+					i= skipQuantifier(regex, skipClass(regex, i));
+					continue;
+				case '(': {
+					flush(run, literals);
+					if (regex.startsWith("(?", i) && hasCommentsFlag(regex, i + 2)) { //$NON-NLS-1$
+						return false;
+					}
+					int end= skipGroup(regex, i);
+					if (end < 0) {
+						return false;
+					}
+					i= skipQuantifier(regex, end);
+					continue;
+				}
+				case ')':
+				case '{':
+				case '}':
+				case '*':
+				case '+':
+				case '?':
+					// unbalanced or dangling meta characters: don't guess
+					return false;
+				case '.':
+				case '^':
+				case '$':
+					flush(run, literals);
+					i= skipQuantifier(regex, i + 1);
+					continue;
+				default:
+					i= appendLiteral(run, ch, regex, i + 1, literals);
+					continue;
+			}
+		}
+		flush(run, literals);
+		return true;
+	}
+
+	/**
+	 * Appends a literal character to the current run, taking a following
+	 * quantifier into account.
+	 */
+	private static int appendLiteral(StringBuilder run, char ch, String regex, int next, List<String> literals) {
+		if (!isQuantifier(regex, next)) {
+			run.append(ch);
+			return next;
+		}
+		char quantifier= regex.charAt(next);
+		if (quantifier == '+' || quantifier == '{' && isMandatoryRepetition(regex, next)) {
+			// the character is required at least once, but the run can't continue across it
+			run.append(ch);
+			flush(run, literals);
+			run.append(ch);
+		} else {
+			flush(run, literals);
+		}
+		return skipQuantifier(regex, next);
+	}
+
+	private static int flush(StringBuilder run, List<String> literals, String regex, int next) {
+		flush(run, literals);
+		return skipQuantifier(regex, next);
+	}
+
+	private static void flush(StringBuilder run, List<String> literals) {
+		if (run.length() > 0) {
+			literals.add(run.toString());
+			run.setLength(0);
+		}
+	}
+
+	/**
+	 * Skips an escape of a backslash followed by a letter or digit as a whole,
+	 * so that none of the characters of the escape end up in a literal run.
+	 *
+	 * @return the index after the escape, or -1 if the escape is not known
+	 */
+	private static int skipEscape(String regex, int backslash) {
+		int length= regex.length();
+		int i= backslash + 2;
+		char ch= regex.charAt(backslash + 1);
+		switch (ch) {
+			case '0': {
+				// up to three octal digits, the first one of three at most '3'
+				int max= i < length && regex.charAt(i) <= '3' ? 3 : 2;
+				int end= i;
+				while (end < length && end - i < max && regex.charAt(end) >= '0' && regex.charAt(end) <= '7') {
+					end++;
+				}
+				return end > i ? end : -1;
+			}
+			case 'x':
+				if (i < length && regex.charAt(i) == '{') {
+					return skipBraces(regex, i);
+				}
+				return skipHexDigits(regex, i, 2);
+			case 'u':
+				return skipHexDigits(regex, i, 4);
+			case 'c':
+				return i < length ? i + 1 : -1;
+			case 'k': {
+				if (i >= length || regex.charAt(i) != '<') {
+					return -1;
+				}
+				int end= regex.indexOf('>', i);
+				return end < 0 ? -1 : end + 1;
+			}
+			case 'p':
+			case 'P':
+				if (i < length && regex.charAt(i) == '{') {
+					return skipBraces(regex, i);
+				}
+				return i < length && Character.isLetter(regex.charAt(i)) ? i + 1 : -1;
+			case 'N':
+				return i < length && regex.charAt(i) == '{' ? skipBraces(regex, i) : -1;
+			case 'b':
+				return regex.startsWith("{g}", i) ? i + 3 : i; //$NON-NLS-1$
+			default:
+				if (ch >= '1' && ch <= '9') {
+					// a back reference may take the following digits as well
+					return i < length && Character.isDigit(regex.charAt(i)) ? -1 : i;
+				}
+				// character classes, anchors and control characters
+				return "dDsSwWBAGZztnrfaehHvVRX".indexOf(ch) >= 0 ? i : -1; //$NON-NLS-1$
+		}
+	}
+
+	private static int skipHexDigits(String regex, int i, int count) {
+		if (i + count > regex.length()) {
+			return -1;
+		}
+		for (int end= i + count; i < end; i++) {
+			if (Character.digit(regex.charAt(i), 16) < 0) {
+				return -1;
+			}
+		}
+		return i;
+	}
+
+	private static int skipBraces(String regex, int open) {
+		int end= regex.indexOf('}', open);
+		return end < 0 ? -1 : end + 1;
+	}
+
+	private static boolean isQuantifier(String regex, int i) {
+		if (i >= regex.length()) {
+			return false;
+		}
+		char ch= regex.charAt(i);
+		return ch == '*' || ch == '+' || ch == '?' || ch == '{';
+	}
+
+	private static boolean isMandatoryRepetition(String regex, int open) {
+		int i= open + 1;
+		int min= 0;
+		boolean digits= false;
+		while (i < regex.length() && Character.isDigit(regex.charAt(i))) {
+			min= Math.min(min * 10 + regex.charAt(i) - '0', 1000);
+			digits= true;
+			i++;
+		}
+		return digits && min > 0;
+	}
+
+	private static int skipQuantifier(String regex, int i) {
+		if (!isQuantifier(regex, i)) {
+			return i;
+		}
+		if (regex.charAt(i) == '{') {
+			int end= regex.indexOf('}', i);
+			i= end < 0 ? regex.length() : end + 1;
+		} else {
+			i++;
+		}
+		// lazy and possessive modifiers
+		if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int skipClass(String regex, int open) {
+		int depth= 0;
+		int i= open;
+		while (i < regex.length()) {
+			char ch= regex.charAt(i);
+			if (ch == '\\') {
+				i+= 2;
+				continue;
+			}
+			if (ch == '[') {
+				depth++;
+				// a ']' directly after '[' or '[^' is a literal
+				if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+					i++;
+				}
+				if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+					i++;
+				}
+			} else if (ch == ']') {
+				depth--;
+				if (depth == 0) {
+					return i + 1;
+				}
+			}
+			i++;
+		}
+		return regex.length();
+	}
+
+	/**
+	 * @return the index after the closing parenthesis, or -1 if the group isn't
+	 *         closed
+	 */
+	private static int skipGroup(String regex, int open) {
+		int depth= 0;
+		int i= open;
+		while (i < regex.length()) {
+			char ch= regex.charAt(i);
+			switch (ch) {
+				case '\\':
+					if (regex.startsWith("\\Q", i)) { //$NON-NLS-1$
+						int end= regex.indexOf("\\E", i + 2); //$NON-NLS-1$
+						i= end < 0 ? regex.length() : end + 2;
+					} else {
+						i+= 2;
+					}
+					continue;
+				case '[':
+					i= skipClass(regex, i);
+					continue;
+				case '(':
+					depth++;
+					break;
+				case ')':
+					depth--;
+					if (depth == 0) {
+						return i + 1;
+					}
+					break;
+				default:
+					break;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	private static boolean hasCommentsFlag(String regex, int i) {
+		while (i < regex.length()) {
+			char ch= regex.charAt(i);
+			if (ch == ')' || ch == ':') {
+				return false;
+			}
+			if (ch == 'x') {
+				return true;
+			}
+			i++;
+		}
+		return false;
+	}
+
+	/**
+	 * A minimal open-addressing set of trigram values.
+	 */
+	static final class TrigramSet {
+		private static final int FREE= 0;
+
+		private int[] fTable= new int[64];
+		private int fSize;
+		private boolean fContainsFree;
+
+		void add(int trigram) {
+			if (trigram == FREE) {
+				fContainsFree= true;
+				return;
+			}
+			int mask= fTable.length - 1;
+			int i= mix(trigram) & mask;
+			while (fTable[i] != FREE) {
+				if (fTable[i] == trigram) {
+					return;
+				}
+				i= (i + 1) & mask;
+			}
+			fTable[i]= trigram;
+			if (++fSize * 2 > fTable.length) {
+				rehash();
+			}
+		}
+
+		int size() {
+			return fContainsFree ? fSize + 1 : fSize;
+		}
+
+		void clear() {
+			Arrays.fill(fTable, FREE);
+			fSize= 0;
+			fContainsFree= false;
+		}
+
+		int[] toSortedArray() {
+			int[] result= new int[size()];
+			int j= 0;
+			if (fContainsFree) {
+				result[j++]= FREE;
+			}
+			for (int value : fTable) {
+				if (value != FREE) {
+					result[j++]= value;
+				}
+			}
+			Arrays.sort(result);
+			return result;
+		}
+
+		private void rehash() {
+			int[] old= fTable;
+			fTable= new int[old.length * 2];
+			fSize= 0;
+			for (int value : old) {
+				if (value != FREE) {
+					add(value);
+				}
+			}
+		}
+
+		private static int mix(int value) {
+			int h= value * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+}
@@ -0,0 +1,386 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.search.internal.core.text.TrigramIndex.Entry;
+
+/**
+ * An immutable inverted trigram index over a set of files: for every trigram the
+ * ascending ids of the files that contain it.
+ * <p>
+ * The posting lists of all trigrams are stored gap and variable length encoded in
+ * a single byte array, so a trigram that occurs in most files costs about one byte
+ * per file, and no per file trigram arrays are kept. Segments are never modified,
+ * {@link #merge(Map)} builds a new one.
+ * </p>
+ */
+final class TrigramSegment {
+
+	/** A segment without files. */
+	static final TrigramSegment EMPTY= new TrigramSegment(new IPath[0], new long[0], new long[0], new BitSet(), new int[0], new int[1], new byte[0]);
+
+	private final IPath[] fPaths;
+	private final long[] fModificationStamps;
+	private final long[] fLocalTimeStamps;
+	private final BitSet fNotIndexable;
+
+	/** The sorted trigrams that occur in at least one file. */
+	private final int[] fTrigrams;
+
+	/** The start of the posting list of each trigram in {@link #fPostings}, followed by its end. */
+	private final int[] fPostingOffsets;
+	private final byte[] fPostings;
+
+	private final Map<IPath, Integer> fIds;
+
+	private TrigramSegment(IPath[] paths, long[] modificationStamps, long[] localTimeStamps, BitSet notIndexable,
+			int[] trigrams, int[] postingOffsets, byte[] postings) {
+		fPaths= paths;
+		fModificationStamps= modificationStamps;
+		fLocalTimeStamps= localTimeStamps;
+		fNotIndexable= notIndexable;
+		fTrigrams= trigrams;
+		fPostingOffsets= postingOffsets;
+		fPostings= postings;
+		fIds= new HashMap<>(paths.length * 4 / 3 + 1);
+		for (int id= 0; id < paths.length; id++) {
+			fIds.put(paths[id], Integer.valueOf(id));
+		}
+	}
+
+	/**
+	 * @return the number of files in this segment
+	 */
+	int size() {
+		return fPaths.length;
+	}
+
+	/**
+	 * @param path the full path of a file
+	 * @return the id of the file, or -1 if the file is not in this segment
+	 */
+	int getId(IPath path) {
+		Integer id= fIds.get(path);
+		return id == null ? -1 : id.intValue();
+	}
+
+	/**
+	 * @param id the id of a file
+	 * @param file the file
+	 * @return <code>true</code> if the file did not change since it was indexed
+	 */
+	boolean isCurrent(int id, IFile file) {
+		return fModificationStamps[id] == file.getModificationStamp() && fLocalTimeStamps[id] == file.getLocalTimeStamp();
+	}
+
+	/**
+	 * @param id the id of a file
+	 * @return <code>true</code> if the trigrams of the file are known, <code>false</code> if it
+	 *         must always be searched
+	 */
+	boolean isIndexable(int id) {
+		return !fNotIndexable.get(id);
+	}
+
+	/**
+	 * Returns the files that contain all of the given trigrams.
+	 *
+	 * @param trigrams the trigrams, not empty
+	 * @return the ids of the files
+	 */
+	BitSet getFilesContainingAll(int[] trigrams) {
+		BitSet result= null;
+		for (int trigram : trigrams) {
+			int index= Arrays.binarySearch(fTrigrams, trigram);
+			if (index < 0) {
+				return new BitSet();
+			}
+			BitSet files= new BitSet(fPaths.length);
+			forEachFile(index, files::set);
+			if (result == null) {
+				result= files;
+			} else {
+				result.and(files);
+			}
+			if (result.isEmpty()) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a segment with the files of this segment updated by the given changes. Files
+	 * whose entry is {@link TrigramIndex#REMOVED} are dropped.
+	 *
+	 * @param changes the new entries by full path
+	 * @return the new segment
+	 */
+	TrigramSegment merge(Map<IPath, Entry> changes) {
+		int capacity= fPaths.length + changes.size();
+		IPath[] paths= new IPath[capacity];
+		long[] modificationStamps= new long[capacity];
+		long[] localTimeStamps= new long[capacity];
+		BitSet notIndexable= new BitSet();
+		// surviving files keep their order, so their ids stay ascending in the posting lists
+		int[] newIds= new int[fPaths.length];
+		int count= 0;
+		for (int id= 0; id < fPaths.length; id++) {
+			if (changes.containsKey(fPaths[id])) {
+				newIds[id]= -1;
+				continue;
+			}
+			newIds[id]= count;
+			paths[count]= fPaths[id];
+			modificationStamps[count]= fModificationStamps[id];
+			localTimeStamps[count]= fLocalTimeStamps[id];
+			if (fNotIndexable.get(id)) {
+				notIndexable.set(count);
+			}
+			count++;
+		}
+		// the changed files follow with higher ids: invert them as (trigram, id) pairs
+		List<Map.Entry<IPath, Entry>> changed= new ArrayList<>(changes.entrySet());
+		int pairCount= 0;
+		for (Map.Entry<IPath, Entry> e : changed) {
+			Entry entry= e.getValue();
+			if (entry != TrigramIndex.REMOVED && entry.isIndexable()) {
+				pairCount+= entry.trigrams().length;
+			}
+		}
+		long[] pairs= new long[pairCount];
+		pairCount= 0;
+		for (Map.Entry<IPath, Entry> e : changed) {
+			Entry entry= e.getValue();
+			if (entry == TrigramIndex.REMOVED) {
+				continue;
+			}
+			paths[count]= e.getKey();
+			modificationStamps[count]= entry.modificationStamp();
+			localTimeStamps[count]= entry.localTimeStamp();
+			if (!entry.isIndexable()) {
+				notIndexable.set(count);
+			} else {
+				for (int trigram : entry.trigrams()) {
+					pairs[pairCount++]= (long) trigram << 32 | count;
+				}
+			}
+			count++;
+		}
+		Arrays.sort(pairs);
+
+		PostingsBuilder postings= new PostingsBuilder(fPostings.length + pairs.length);
+		int i= 0;
+		int p= 0;
+		while (i < fTrigrams.length || p < pairs.length) {
+			int trigram= p == pairs.length || i < fTrigrams.length && fTrigrams[i] <= (int) (pairs[p] >> 32)
+					? fTrigrams[i]
+					: (int) (pairs[p] >> 32);
+			postings.startTrigram(trigram);
+			if (i < fTrigrams.length && fTrigrams[i] == trigram) {
+				forEachFile(i, id -> {
+					if (newIds[id] >= 0) {
+						postings.addFile(newIds[id]);
+					}
+				});
+				i++;
+			}
+			while (p < pairs.length && (int) (pairs[p] >> 32) == trigram) {
+				postings.addFile((int) pairs[p++]);
+			}
+		}
+		return new TrigramSegment(Arrays.copyOf(paths, count), Arrays.copyOf(modificationStamps, count),
+				Arrays.copyOf(localTimeStamps, count), notIndexable, postings.getTrigrams(), postings.getOffsets(),
+				postings.getPostings());
+	}
+
+	private void forEachFile(int index, IntConsumer consumer) {
+		int end= fPostingOffsets[index + 1];
+		int id= -1;
+		for (int i= fPostingOffsets[index]; i < end;) {
+			int gap= 0;
+			int shift= 0;
+			byte b;
+			do {
+				b= fPostings[i++];
+				gap|= (b & 0x7F) << shift;
+				shift+= 7;
+			} while (b < 0);
+			id+= gap;
+			consumer.accept(id);
+		}
+	}
+
+	/**
+	 * Writes this segment to the given stream.
+	 *
+	 * @param out the stream
+	 * @throws IOException if writing fails
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(fPaths.length);
+		for (int id= 0; id < fPaths.length; id++) {
+			out.writeUTF(fPaths[id].toPortableString());
+			out.writeLong(fModificationStamps[id]);
+			out.writeLong(fLocalTimeStamps[id]);
+			out.writeBoolean(fNotIndexable.get(id));
+		}
+		out.writeInt(fTrigrams.length);
+		// sorted values: store the (unsigned) gaps, which are mostly small
+		long previous= Integer.MIN_VALUE;
+		for (int i= 0; i < fTrigrams.length; i++) {
+			writeVarLong(out, fTrigrams[i] - previous);
+			writeVarLong(out, fPostingOffsets[i + 1] - fPostingOffsets[i]);
+			previous= fTrigrams[i];
+		}
+		out.write(fPostings, 0, fPostingOffsets[fTrigrams.length]);
+	}
+
+	/**
+	 * Reads a segment written by {@link #write(DataOutputStream)}.
+	 *
+	 * @param in the stream
+	 * @return the segment
+	 * @throws IOException if reading fails
+	 */
+	static TrigramSegment read(DataInputStream in) throws IOException {
+		int count= in.readInt();
+		IPath[] paths= new IPath[count];
+		long[] modificationStamps= new long[count];
+		long[] localTimeStamps= new long[count];
+		BitSet notIndexable= new BitSet();
+		for (int id= 0; id < count; id++) {
+			paths[id]= IPath.fromPortableString(in.readUTF());
+			modificationStamps[id]= in.readLong();
+			localTimeStamps[id]= in.readLong();
+			if (in.readBoolean()) {
+				notIndexable.set(id);
+			}
+		}
+		int trigramCount= in.readInt();
+		int[] trigrams= new int[trigramCount];
+		int[] offsets= new int[trigramCount + 1];
+		int previous= Integer.MIN_VALUE;
+		for (int i= 0; i < trigramCount; i++) {
+			previous+= (int) readVarLong(in);
+			trigrams[i]= previous;
+			offsets[i + 1]= Math.addExact(offsets[i], (int) readVarLong(in));
+		}
+		byte[] postings= new byte[offsets[trigramCount]];
+		in.readFully(postings);
+		return new TrigramSegment(paths, modificationStamps, localTimeStamps, notIndexable, trigrams, offsets, postings);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value>>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value= 0;
+		int shift= 0;
+		int b;
+		do {
+			b= in.readUnsignedByte();
+			value|= (long) (b & 0x7F) << shift;
+			shift+= 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Collects the posting lists of a new segment in ascending trigram order.
+	 */
+	private static final class PostingsBuilder {
+		private int[] fTrigrams= new int[1024];
+		private int[] fOffsets= new int[1025];
+		private int fTrigramCount;
+		private byte[] fPostings;
+		private int fLength;
+		private int fPreviousFile;
+
+		PostingsBuilder(int expectedLength) {
+			fPostings= new byte[Math.max(expectedLength, 16)];
+		}
+
+		void startTrigram(int trigram) {
+			// the previous trigram may have lost all its files
+			finish();
+			if (fTrigramCount == fTrigrams.length) {
+				fTrigrams= Arrays.copyOf(fTrigrams, fTrigramCount * 2);
+				fOffsets= Arrays.copyOf(fOffsets, fTrigramCount * 2 + 1);
+			}
+			fTrigrams[fTrigramCount]= trigram;
+			fOffsets[fTrigramCount]= fLength;
+			fTrigramCount++;
+			fOffsets[fTrigramCount]= fLength;
+			fPreviousFile= -1;
+		}
+
+		void addFile(int id) {
+			int gap= id - fPreviousFile;
+			fPreviousFile= id;
+			if (fLength + 5 > fPostings.length) {
+				fPostings= Arrays.copyOf(fPostings, Math.max(fPostings.length * 2, fLength + 5));
+			}
+			while ((gap & ~0x7F) != 0) {
+				fPostings[fLength++]= (byte) (gap & 0x7F | 0x80);
+				gap>>>= 7;
+			}
+			fPostings[fLength++]= (byte) gap;
+			fOffsets[fTrigramCount]= fLength;
+		}
+
+		int[] getTrigrams() {
+			finish();
+			return Arrays.copyOf(fTrigrams, fTrigramCount);
+		}
+
+		int[] getOffsets() {
+			finish();
+			return Arrays.copyOf(fOffsets, fTrigramCount + 1);
+		}
+
+		byte[] getPostings() {
+			return Arrays.copyOf(fPostings, fLength);
+		}
+
+		/**
+		 * Drops the last trigram if it has no files.
+		 */
+		private void finish() {
+			if (fTrigramCount > 0 && fOffsets[fTrigramCount - 1] == fLength) {
+				fTrigramCount--;
+			}
+		}
+	}
+}
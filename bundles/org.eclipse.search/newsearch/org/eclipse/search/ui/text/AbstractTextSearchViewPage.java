@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -152,7 +153,10 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 			}
 			runBatchedClear();
 			runBatchedUpdates();
-			if (hasMoreUpdates() || isQueryRunning()) {
+			if (fBatchedUpdates.size() >= UPDATE_CHUNK_SIZE) {
+				// more than one chunk is waiting: keep up with the search, but let the UI breathe
+				schedule(50);
+			} else if (hasMoreUpdates() || isQueryRunning()) {
 				schedule(500);
 			} else {
 				fIsUIUpdateScheduled= false;
@@ -231,6 +235,20 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 	private ISearchResultViewPart fViewPart;
 	private final LinkedBlockingDeque<Object> fBatchedUpdates = new LinkedBlockingDeque<>();
 	private volatile boolean fBatchedClearAll;
+	/** Notified whenever the UI has consumed pending updates. */
+	private final Object fBatchedUpdatesConsumed = new Object();
+
+	/**
+	 * Maximum number of changed elements passed to {@link #elementsChanged(Object[])} in one UI
+	 * update.
+	 */
+	private static final int UPDATE_CHUNK_SIZE = 2000;
+
+	/**
+	 * Number of pending changed elements above which a search reporting matches from a background
+	 * thread is throttled until the UI has caught up.
+	 */
+	private static final int MAX_PENDING_UPDATES = 10 * UPDATE_CHUNK_SIZE;
 
 	private ISearchResultListener fListener;
 	private IQueryListener fQueryListener;
@@ -1251,11 +1269,40 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 		collect.removeIf(Objects::isNull);
 		fBatchedUpdates.addAll(collect);
 		scheduleUIUpdate(); // still synchronized
+		awaitBatchedUpdates();
+	}
+
+	/**
+	 * Blocks a producer thread while too many updates are pending, so that a search reporting
+	 * millions of matches can't flood the UI. Never blocks the UI thread, and gives up as soon as
+	 * the page is disposed.
+	 */
+	private void awaitBatchedUpdates() {
+		if (fBatchedUpdates.size() < MAX_PENDING_UPDATES || Display.getCurrent() != null) {
+			return;
+		}
+		synchronized (fBatchedUpdatesConsumed) {
+			while (fBatchedUpdates.size() >= MAX_PENDING_UPDATES) {
+				Control control = getControl();
+				if (control == null || control.isDisposed()) {
+					return;
+				}
+				try {
+					fBatchedUpdatesConsumed.wait(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
 	}
 
 	private void runBatchedUpdates() {
-		Collection<Object> drain = new ArrayList<>();
-		fBatchedUpdates.drainTo(drain);
+		Collection<Object> drain = new LinkedHashSet<>();
+		fBatchedUpdates.drainTo(drain, UPDATE_CHUNK_SIZE);
+		synchronized (fBatchedUpdatesConsumed) {
+			fBatchedUpdatesConsumed.notifyAll();
+		}
 		elementsChanged(drain.toArray());
 		updateBusyLabel();
 	}
@@ -1263,6 +1310,9 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 	private void postClear() {
 		fBatchedClearAll= true;
 		fBatchedUpdates.clear();
+		synchronized (fBatchedUpdatesConsumed) {
+			fBatchedUpdatesConsumed.notifyAll();
+		}
 		scheduleUIUpdate(); // still synchronized
 	}
 
@@ -0,0 +1,421 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.ui.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.LocationKind;
+
+/**
+ * Stores the matches of a file search in primitive arrays, one set of columns
+ * per file, instead of one {@link FileMatch} object per hit.
+ * <p>
+ * {@link FileMatch} objects are only created when the matches of a file are
+ * requested, typically for the rows the Search view shows. The most recently
+ * requested files keep their match objects so that their identity is stable
+ * while they are shown; when a file is evicted from that cache, changes made to
+ * the match objects (offsets updated by the position tracker, filter state)
+ * are written back to the columns.
+ * </p>
+ * <p>
+ * The position tracker follows the match objects of files with a connected
+ * file buffer by identity. For these files the added match objects themselves
+ * are kept, and they are never evicted.
+ * </p>
+ * <p>
+ * {@link LineElement}s are kept as objects, one per line with matches, because
+ * the viewers use them as elements. They are shared by all matches on a line.
+ * </p>
+ */
+public class CompactMatchStore {
+
+	/** Number of files whose match objects are kept. */
+	private static final int MATERIALIZED_FILES_LIMIT= 64;
+
+	private static final FileMatch[] NO_MATCHES= new FileMatch[0];
+
+	/**
+	 * The matches of one file, sorted by offset and length.
+	 */
+	private static final class FileColumns {
+		int fSize;
+		int[] fOffsets= new int[4];
+		int[] fLengths= new int[4];
+		/** Index into {@link #fLines}, -1 for the match of a file name search */
+		int[] fLineIndexes= new int[4];
+		final BitSet fFiltered= new BitSet();
+
+		int fLineCount;
+		LineElement[] fLines= new LineElement[2];
+
+		int lineIndex(LineElement line) {
+			if (line == null) {
+				return -1;
+			}
+			for (int i= fLineCount - 1; i >= 0 && i >= fLineCount - 8; i--) {
+				if (fLines[i] == line) {
+					return i;
+				}
+			}
+			if (fLineCount == fLines.length) {
+				fLines= Arrays.copyOf(fLines, fLineCount * 2);
+			}
+			fLines[fLineCount]= line;
+			return fLineCount++;
+		}
+
+		/**
+		 * @return the index of the added match, or -1 if it is already present
+		 */
+		int add(int offset, int length, int lineIndex, boolean filtered) {
+			int pos= search(offset, length);
+			if (pos >= 0 && fLineIndexes[pos] == lineIndex) {
+				return -1; // already present
+			}
+			int insert= pos >= 0 ? pos : -pos - 1;
+			if (fSize == fOffsets.length) {
+				int capacity= fSize + (fSize >> 1) + 1;
+				fOffsets= Arrays.copyOf(fOffsets, capacity);
+				fLengths= Arrays.copyOf(fLengths, capacity);
+				fLineIndexes= Arrays.copyOf(fLineIndexes, capacity);
+			}
+			if (insert < fSize) {
+				System.arraycopy(fOffsets, insert, fOffsets, insert + 1, fSize - insert);
+				System.arraycopy(fLengths, insert, fLengths, insert + 1, fSize - insert);
+				System.arraycopy(fLineIndexes, insert, fLineIndexes, insert + 1, fSize - insert);
+				for (int i= fFiltered.previousSetBit(fSize - 1); i >= insert; i= fFiltered.previousSetBit(i - 1)) {
+					fFiltered.clear(i);
+					fFiltered.set(i + 1);
+				}
+			}
+			fOffsets[insert]= offset;
+			fLengths[insert]= length;
+			fLineIndexes[insert]= lineIndex;
+			fFiltered.set(insert, filtered);
+			fSize++;
+			return insert;
+		}
+
+		void remove(int pos) {
+			int tail= fSize - pos - 1;
+			System.arraycopy(fOffsets, pos + 1, fOffsets, pos, tail);
+			System.arraycopy(fLengths, pos + 1, fLengths, pos, tail);
+			System.arraycopy(fLineIndexes, pos + 1, fLineIndexes, pos, tail);
+			for (int i= fFiltered.nextSetBit(pos); i >= 0 && i < fSize; i= fFiltered.nextSetBit(i + 1)) {
+				fFiltered.clear(i);
+				if (i > pos) {
+					fFiltered.set(i - 1);
+				}
+			}
+			fSize--;
+		}
+
+		boolean isSorted() {
+			for (int i= 1; i < fSize; i++) {
+				if (compare(fOffsets[i - 1], fLengths[i - 1], fOffsets[i], fLengths[i]) > 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Sorts the matches by offset and length again, together with their match objects.
+		 */
+		void sort(FileMatch[] matches) {
+			Integer[] order= new Integer[fSize];
+			for (int i= 0; i < fSize; i++) {
+				order[i]= Integer.valueOf(i);
+			}
+			Arrays.sort(order, (a, b) -> compare(fOffsets[a.intValue()], fLengths[a.intValue()], fOffsets[b.intValue()], fLengths[b.intValue()]));
+			int[] offsets= fOffsets.clone();
+			int[] lengths= fLengths.clone();
+			int[] lineIndexes= fLineIndexes.clone();
+			BitSet filtered= (BitSet) fFiltered.clone();
+			FileMatch[] objects= matches.clone();
+			for (int i= 0; i < fSize; i++) {
+				int from= order[i].intValue();
+				fOffsets[i]= offsets[from];
+				fLengths[i]= lengths[from];
+				fLineIndexes[i]= lineIndexes[from];
+				fFiltered.set(i, filtered.get(from));
+				matches[i]= objects[from];
+			}
+		}
+
+		/**
+		 * Binary search for a match with the given offset and length; appending in order is the
+		 * common case and checked first.
+		 */
+		int search(int offset, int length) {
+			if (fSize == 0 || compare(fOffsets[fSize - 1], fLengths[fSize - 1], offset, length) < 0) {
+				return -fSize - 1;
+			}
+			int low= 0;
+			int high= fSize - 1;
+			while (low <= high) {
+				int mid= (low + high) >>> 1;
+				int cmp= compare(fOffsets[mid], fLengths[mid], offset, length);
+				if (cmp < 0) {
+					low= mid + 1;
+				} else if (cmp > 0) {
+					high= mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -low - 1;
+		}
+
+		private static int compare(int offset1, int length1, int offset2, int length2) {
+			int diff= Integer.compare(offset1, offset2);
+			return diff != 0 ? diff : Integer.compare(length1, length2);
+		}
+
+		long footprint() {
+			return 3L * 4 * fOffsets.length + 4L * fLines.length + fFiltered.size() / 8;
+		}
+	}
+
+	private final Map<IFile, FileColumns> fColumns= new ConcurrentHashMap<>();
+
+	/** Materialized matches, in access order. Guarded by <code>this</code>. */
+	private final LinkedHashMap<IFile, FileMatch[]> fMaterialized= new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Adds a match.
+	 *
+	 * @param match the match to add
+	 * @return <code>true</code> if the match was not yet present
+	 */
+	public synchronized boolean add(FileMatch match) {
+		return add(match, isTracked(match.getFile()));
+	}
+
+	/**
+	 * Adds matches. Whether a file is open in a text file buffer is looked up once for each run
+	 * of matches of the same file, so the matches should be grouped by file.
+	 *
+	 * @param matches the matches to add
+	 * @return the matches that were not yet present
+	 */
+	public synchronized List<FileMatch> addAll(List<FileMatch> matches) {
+		List<FileMatch> added= new ArrayList<>(matches.size());
+		IFile file= null;
+		boolean tracked= false;
+		for (FileMatch match : matches) {
+			if (!match.getFile().equals(file)) {
+				file= match.getFile();
+				tracked= isTracked(file);
+			}
+			if (add(match, tracked)) {
+				added.add(match);
+			}
+		}
+		return added;
+	}
+
+	private boolean add(FileMatch match, boolean tracked) {
+		IFile file= match.getFile();
+		FileColumns columns= fColumns.computeIfAbsent(file, f -> new FileColumns());
+		FileMatch[] materialized= fMaterialized.get(file);
+		if (materialized != null) {
+			writeBack(columns, materialized);
+		} else if (tracked) {
+			// the position tracker will update the added object, keep it
+			materialized= materialize(file, columns);
+		}
+		int lineIndex= columns.lineIndex(match.getLineElement());
+		int index= columns.add(match.getOffset(), match.getLength(), lineIndex, match.isFiltered());
+		if (index < 0) {
+			return false;
+		}
+		if (materialized != null) {
+			FileMatch[] matches= new FileMatch[materialized.length + 1];
+			System.arraycopy(materialized, 0, matches, 0, index);
+			matches[index]= match;
+			System.arraycopy(materialized, index, matches, index + 1, materialized.length - index);
+			fMaterialized.put(file, matches);
+			evict();
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the given match object, or a match with the same file, offset and length.
+	 *
+	 * @param match the match to remove
+	 * @return <code>true</code> if the match was present
+	 */
+	public synchronized boolean remove(FileMatch match) {
+		IFile file= match.getFile();
+		FileColumns columns= fColumns.get(file);
+		if (columns == null) {
+			return false;
+		}
+		FileMatch[] materialized= fMaterialized.get(file);
+		int index= -1;
+		if (materialized != null) {
+			writeBack(columns, materialized);
+			index= indexOf(materialized, match);
+		}
+		if (index < 0) {
+			index= columns.search(match.getOffset(), match.getLength());
+			if (index < 0) {
+				return false;
+			}
+		}
+		columns.remove(index);
+		if (columns.fSize == 0) {
+			fColumns.remove(file);
+			fMaterialized.remove(file);
+		} else if (materialized != null) {
+			FileMatch[] matches= new FileMatch[materialized.length - 1];
+			System.arraycopy(materialized, 0, matches, 0, index);
+			System.arraycopy(materialized, index + 1, matches, index, matches.length - index);
+			fMaterialized.put(file, matches);
+		}
+		return true;
+	}
+
+	private static int indexOf(FileMatch[] matches, FileMatch match) {
+		for (int i= 0; i < matches.length; i++) {
+			if (matches[i] == match) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the matches of a file, creating match objects if needed.
+	 *
+	 * @param file the file
+	 * @return the matches sorted by offset and length
+	 */
+	public synchronized FileMatch[] getMatches(IFile file) {
+		FileMatch[] matches= fMaterialized.get(file);
+		if (matches != null) {
+			return matches;
+		}
+		FileColumns columns= fColumns.get(file);
+		if (columns == null) {
+			return NO_MATCHES;
+		}
+		matches= materialize(file, columns);
+		fMaterialized.put(file, matches);
+		evict();
+		return matches;
+	}
+
+	private static FileMatch[] materialize(IFile file, FileColumns columns) {
+		FileMatch[] matches= new FileMatch[columns.fSize];
+		for (int i= 0; i < columns.fSize; i++) {
+			int lineIndex= columns.fLineIndexes[i];
+			FileMatch match= lineIndex < 0 ? new FileMatch(file)
+					: new FileMatch(file, columns.fOffsets[i], columns.fLengths[i], columns.fLines[lineIndex]);
+			match.setFiltered(columns.fFiltered.get(i));
+			matches[i]= match;
+		}
+		return matches;
+	}
+
+	public int getMatchCount(IFile file) {
+		FileColumns columns= fColumns.get(file);
+		return columns != null ? columns.fSize : 0;
+	}
+
+	public int getMatchCount() {
+		int count= 0;
+		for (FileColumns columns : fColumns.values()) {
+			count+= columns.fSize;
+		}
+		return count;
+	}
+
+	public Set<IFile> getFiles() {
+		return fColumns.keySet();
+	}
+
+	public synchronized void clear() {
+		fColumns.clear();
+		fMaterialized.clear();
+	}
+
+	/**
+	 * @return the approximate number of bytes used by the columns, not counting the shared
+	 *         line elements
+	 */
+	public long getFootprint() {
+		long footprint= 0;
+		for (FileColumns columns : fColumns.values()) {
+			footprint+= columns.footprint();
+		}
+		return footprint;
+	}
+
+	private void evict() {
+		if (fMaterialized.size() <= MATERIALIZED_FILES_LIMIT) {
+			return;
+		}
+		Iterator<Map.Entry<IFile, FileMatch[]>> iterator= fMaterialized.entrySet().iterator();
+		while (fMaterialized.size() > MATERIALIZED_FILES_LIMIT && iterator.hasNext()) {
+			Map.Entry<IFile, FileMatch[]> entry= iterator.next();
+			if (isTracked(entry.getKey())) {
+				continue;
+			}
+			FileColumns columns= fColumns.get(entry.getKey());
+			if (columns != null) {
+				writeBack(columns, entry.getValue());
+			}
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the file is open in a text file buffer, the position tracker
+	 *         then holds on to the match objects and updates them
+	 */
+	private static boolean isTracked(IFile file) {
+		return FileBuffers.getTextFileBufferManager().getTextFileBuffer(file.getFullPath(), LocationKind.IFILE) != null;
+	}
+
+	/**
+	 * Copies offsets and filter state from the match objects to the columns, which stay sorted.
+	 */
+	private static void writeBack(FileColumns columns, FileMatch[] matches) {
+		for (int i= 0; i < matches.length; i++) {
+			FileMatch match= matches[i];
+			if (!match.isFileSearch()) {
+				columns.fOffsets[i]= match.getOffset();
+				columns.fLengths[i]= match.getLength();
+			}
+			columns.fFiltered.set(i, match.isFiltered());
+		}
+		if (!columns.isSorted()) {
+			columns.sort(matches);
+		}
+	}
+}
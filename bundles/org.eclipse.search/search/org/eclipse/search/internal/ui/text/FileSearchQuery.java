@@ -50,12 +50,20 @@ public class FileSearchQuery implements ISearchQuery {
 
 	private final static class TextSearchResultCollector extends TextSearchRequestor {
 
+		/**
+		 * Number of matches in a single file after which they are published to the search result
+		 * without waiting for the end of the file.
+		 */
+		private static final int MATCH_CHUNK_SIZE= 1000;
+
 		private final AbstractTextSearchResult fResult;
 		private final boolean fIsFileSearchOnly;
 		private final boolean fSearchInBinaries;
 
 		private final boolean fIsLightweightAutoRefresh;
 		private final ConcurrentHashMap<IFile, ArrayList<FileMatch>> fCachedMatches;
+		/** The last match of a file that was already published with a chunk but is still cached. */
+		private final ConcurrentHashMap<IFile, FileMatch> fPublishedMatches;
 		private volatile boolean stop;
 
 		private TextSearchResultCollector(AbstractTextSearchResult result, boolean isFileSearchOnly, boolean searchInBinaries) {
@@ -64,6 +72,7 @@ public class FileSearchQuery implements ISearchQuery {
 			fSearchInBinaries= searchInBinaries;
 			fIsLightweightAutoRefresh= Platform.getPreferencesService().getBoolean(ResourcesPlugin.PI_RESOURCES, ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH, false, null);
 			fCachedMatches = new ConcurrentHashMap<>();
+			fPublishedMatches = new ConcurrentHashMap<>();
 		}
 
 		@Override
@@ -106,9 +115,34 @@ public class FileSearchQuery implements ISearchQuery {
 				}
 				return matches;
 			});
+			ArrayList<FileMatch> matches= fCachedMatches.get(matchRequestor.getFile());
+			if (matches != null && matches.size() >= MATCH_CHUNK_SIZE) {
+				publishChunk(matchRequestor.getFile(), matches);
+			}
 			return true;
 		}
 
+		/**
+		 * Publishes the cached matches of a file with many matches. This may block while the
+		 * search view catches up. The last match is kept because the line information of the
+		 * following matches is computed from it, but it is not published a second time.
+		 */
+		private void publishChunk(IFile file, ArrayList<FileMatch> matches) {
+			// each file is processed by at most one job, so no one else modifies the list
+			fResult.addMatches(unpublished(file, matches));
+			FileMatch last= matches.get(matches.size() - 1);
+			matches.clear();
+			matches.add(last);
+			fPublishedMatches.put(file, last);
+		}
+
+		private Match[] unpublished(IFile file, List<FileMatch> matches) {
+			FileMatch published= fPublishedMatches.remove(file);
+			int start= published != null && matches.get(0) == published ? 1 : 0;
+			List<FileMatch> toPublish= matches.subList(start, matches.size());
+			return toPublish.toArray(new Match[toPublish.size()]);
+		}
+
 		private LineElement getLineElement(int offset, TextSearchMatchAccess matchRequestor, ArrayList<FileMatch> matches) {
 			int lineNumber= 1;
 			int lineStart= 0;
@@ -180,18 +214,20 @@ public class FileSearchQuery implements ISearchQuery {
 		public void flushMatches(IFile file) {
 			List<FileMatch> matches = fCachedMatches.remove(file);
 			if (matches != null && !matches.isEmpty()) {
-				fResult.addMatches(matches.toArray(new Match[matches.size()]));
+				fResult.addMatches(unpublished(file, matches));
 			}
 		}
 
 		private void flushMatches() {
-			fCachedMatches.values().removeIf(matches -> {
+			fCachedMatches.entrySet().removeIf(entry -> {
+				List<FileMatch> matches = entry.getValue();
 				if (matches != null && !matches.isEmpty()) {
-					fResult.addMatches(matches.toArray(new Match[matches.size()]));
+					fResult.addMatches(unpublished(entry.getKey(), matches));
 					return true;
 				}
 				return false;
 			});
+			fPublishedMatches.clear();
 		}
 	}
 
@@ -14,7 +14,12 @@
  *******************************************************************************/
 package org.eclipse.search.internal.ui.text;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.StringTokenizer;
 
 import org.eclipse.core.resources.IFile;
@@ -28,22 +33,176 @@ import org.eclipse.ui.IFileEditorInput;
 import org.eclipse.search.internal.ui.SearchPlugin;
 import org.eclipse.search.internal.ui.SearchPluginImages;
 import org.eclipse.search.ui.ISearchQuery;
+import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
 import org.eclipse.search.ui.text.IEditorMatchAdapter;
 import org.eclipse.search.ui.text.IFileMatchAdapter;
 import org.eclipse.search.ui.text.Match;
+import org.eclipse.search.ui.text.MatchEvent;
 import org.eclipse.search.ui.text.MatchFilter;
 
 public class FileSearchResult extends AbstractTextSearchResult implements IEditorMatchAdapter, IFileMatchAdapter {
+	/**
+	 * Whether new results keep their matches in a {@link CompactMatchStore}, can be switched on
+	 * with <code>-Dorg.eclipse.search.compactResults=true</code>.
+	 */
+	private static final boolean COMPACT_RESULTS= Boolean.getBoolean("org.eclipse.search.compactResults"); //$NON-NLS-1$
+
 	private final Match[] EMPTY_ARR= new Match[0];
 
 	private FileSearchQuery fQuery;
 
+	/** The compact match storage, <code>null</code> if the matches are kept by the super class */
+	private final CompactMatchStore fCompactStore;
+
+	private static class CompactMatchEvent extends MatchEvent {
+		private static final long serialVersionUID= 1L;
+
+		CompactMatchEvent(ISearchResult searchResult, int kind, Match[] matches) {
+			super(searchResult);
+			setKind(kind);
+			setMatches(matches);
+		}
+	}
+
 	public FileSearchResult(FileSearchQuery job) {
+		this(job, COMPACT_RESULTS);
+	}
+
+	/**
+	 * @param job the query
+	 * @param compact if <code>true</code>, matches are kept in a {@link CompactMatchStore} and
+	 *            match objects are only created for the files whose matches are requested
+	 */
+	public FileSearchResult(FileSearchQuery job, boolean compact) {
 		fQuery= job;
+		fCompactStore= compact ? new CompactMatchStore() : null;
 		setActiveMatchFilters(getLastUsedFilters());
 	}
 
+	@Override
+	public void addMatch(Match match) {
+		if (fCompactStore == null) {
+			super.addMatch(match);
+		} else {
+			addMatches(new Match[] { match });
+		}
+	}
+
+	@Override
+	public void addMatches(Match[] matches) {
+		if (fCompactStore == null) {
+			super.addMatches(matches);
+			return;
+		}
+		MatchFilter[] filters= getActiveMatchFilters();
+		List<FileMatch> fileMatches= new ArrayList<>(matches.length);
+		for (Match match : matches) {
+			if (filters != null) {
+				match.setFiltered(isFiltered(match, filters));
+			}
+			fileMatches.add((FileMatch) match);
+		}
+		List<FileMatch> added= fCompactStore.addAll(fileMatches);
+		if (!added.isEmpty()) {
+			fireChange(new CompactMatchEvent(this, MatchEvent.ADDED, added.toArray(new Match[added.size()])));
+		}
+	}
+
+	private static boolean isFiltered(Match match, MatchFilter[] filters) {
+		for (MatchFilter filter : filters) {
+			if (filter.filters(match)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void removeMatch(Match match) {
+		if (fCompactStore == null) {
+			super.removeMatch(match);
+		} else {
+			removeMatches(new Match[] { match });
+		}
+	}
+
+	@Override
+	public void removeMatches(Match[] matches) {
+		if (fCompactStore == null) {
+			super.removeMatches(matches);
+			return;
+		}
+		List<Match> removed= new ArrayList<>(matches.length);
+		for (Match match : matches) {
+			if (fCompactStore.remove((FileMatch) match)) {
+				removed.add(match);
+			}
+		}
+		if (!removed.isEmpty()) {
+			fireChange(new CompactMatchEvent(this, MatchEvent.REMOVED, removed.toArray(new Match[removed.size()])));
+		}
+	}
+
+	@Override
+	public void removeAll() {
+		if (fCompactStore != null) {
+			fCompactStore.clear();
+		}
+		super.removeAll();
+	}
+
+	@Override
+	public Match[] getMatches(Object element) {
+		if (fCompactStore == null) {
+			return super.getMatches(element);
+		}
+		if (!(element instanceof IFile)) {
+			return EMPTY_ARR;
+		}
+		FileMatch[] matches= fCompactStore.getMatches((IFile) element);
+		return matches.length == 0 ? EMPTY_ARR : matches.clone();
+	}
+
+	@Override
+	public Enumeration<Match> getMatchSet(Object element) {
+		if (fCompactStore == null) {
+			return super.getMatchSet(element);
+		}
+		if (!(element instanceof IFile)) {
+			return Collections.emptyEnumeration();
+		}
+		return Collections.enumeration(Arrays.<Match>asList(fCompactStore.getMatches((IFile) element)));
+	}
+
+	@Override
+	public int getMatchCount() {
+		return fCompactStore == null ? super.getMatchCount() : fCompactStore.getMatchCount();
+	}
+
+	@Override
+	public int getMatchCount(Object element) {
+		if (fCompactStore == null) {
+			return super.getMatchCount(element);
+		}
+		return element instanceof IFile ? fCompactStore.getMatchCount((IFile) element) : 0;
+	}
+
+	@Override
+	public boolean hasMatches() {
+		return fCompactStore == null ? super.hasMatches() : !fCompactStore.getFiles().isEmpty();
+	}
+
+	@Override
+	public Object[] getElements() {
+		return fCompactStore == null ? super.getElements() : fCompactStore.getFiles().toArray();
+	}
+
+	@Override
+	public int getElementsCount() {
+		return fCompactStore == null ? super.getElementsCount() : fCompactStore.getFiles().size();
+	}
+
 	@Override
 	public ImageDescriptor getImageDescriptor() {
 		return SearchPluginImages.DESC_OBJ_TSEARCH_DPDN;
@@ -14,7 +14,6 @@ package org.eclipse.text.quicksearch.internal.core;
 
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.util.Iterator;
 import java.util.Set;
@@ -36,7 +35,9 @@ import org.eclipse.text.quicksearch.internal.core.pathmatch.ResourceMatcher;
 import org.eclipse.text.quicksearch.internal.core.pathmatch.ResourceMatchers;
 import org.eclipse.text.quicksearch.internal.core.priority.PriorityFunction;
 import org.eclipse.text.quicksearch.internal.ui.Messages;
+import org.eclipse.text.quicksearch.internal.util.FileLineCache;
 import org.eclipse.text.quicksearch.internal.util.LightSchedulingRule;
+import org.eclipse.text.quicksearch.internal.util.LineIndex;
 import org.eclipse.text.quicksearch.internal.util.LineReader;
 
 public class QuickTextSearcher {
@@ -160,6 +161,29 @@ public class QuickTextSearcher {
 			if (canceled.getAsBoolean()) {
 				return false;
 			}
+			long modificationStamp = f.getModificationStamp();
+			String charset;
+			try {
+				charset = f.getCharset();
+			} catch (CoreException e) {
+				charset = null;
+			}
+			FileLineCache cache = FileLineCache.getDefault();
+			FileLineCache.Lines cached = charset == null ? null : cache.get(f, modificationStamp, charset, maxLineLength);
+			if (cached != null) {
+				return search(f, cached.lines(), canceled, pattern, add);
+			}
+			String shortString = toShortString(f);
+			if (shortString != null) {
+				LineIndex lines = LineIndex.create(shortString, maxLineLength);
+				if (!search(f, lines, canceled, pattern, add)) {
+					return false;
+				}
+				if (charset != null) {
+					cache.put(f, new FileLineCache.Lines(modificationStamp, charset, maxLineLength, shortString, lines));
+				}
+				return true;
+			}
 			try (LineReader lr = new LineReader(getReader(f),
 					maxLineLength)) {
 				String line;
@@ -184,13 +208,25 @@ public class QuickTextSearcher {
 			return true;
 		}
 
-		private static Reader getReader(IFile f) throws UnsupportedEncodingException, CoreException {
-			String shortString = toShortString(f);
-			if (shortString != null) {
-				return new StringReader(shortString);
-			} else {
-				return new InputStreamReader(f.getContents(true), f.getCharset());
+		/**
+		 * Searches the lines of a file held in memory. Lines are matched in place, a String is
+		 * only created for the lines that match.
+		 */
+		private static boolean search(IFile f, LineIndex lines, BooleanSupplier canceled, Pattern pattern, Consumer<LineItem> add) {
+			Matcher matcher = lines.matcher(pattern);
+			for (int i = 0; i < lines.getLineCount(); i++) {
+				if (canceled.getAsBoolean()) {
+					return false;
+				}
+				if (lines.find(matcher, i)) {
+					add.accept(new LineItem(f, lines.getLine(i), i + 1, lines.getLineStart(i)));
+				}
 			}
+			return true;
+		}
+
+		private static Reader getReader(IFile f) throws UnsupportedEncodingException, CoreException {
+			return new InputStreamReader(f.getContents(true), f.getCharset());
 		}
 
 		@Override
@@ -293,9 +329,15 @@ public class QuickTextSearcher {
 	}
 
 	private void add(LineItem line) {
-		if (!isActive()) {
-			walker.suspend();
-		} else if (matches.add(line)) {
+		boolean added;
+		// workers add concurrently, check and add atomically to not exceed maxResults
+		synchronized (matches) {
+			added = isActive() && matches.add(line);
+			if (!isActive()) {
+				walker.suspend();
+			}
+		}
+		if (added) {
 			requestor.add(line);
 		}
 	}
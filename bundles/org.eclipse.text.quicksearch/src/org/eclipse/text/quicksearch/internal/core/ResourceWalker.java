@@ -13,12 +13,14 @@
 package org.eclipse.text.quicksearch.internal.core;
 
 import java.util.Collection;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 
 import org.eclipse.core.resources.IContainer;
@@ -46,6 +48,27 @@ import org.eclipse.text.quicksearch.internal.ui.QuickSearchActivator;
  */
 public abstract class ResourceWalker extends Job {
 
+	/**
+	 * Number of threads reading and matching files in parallel.
+	 */
+	private static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	/**
+	 * How often the job checks whether the search was canceled or suspended while the workers run.
+	 */
+	private static final long CANCEL_POLL_MS = 20;
+
+	private static final ThreadFactory WORKER_THREAD_FACTORY = new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "Quick Search Worker-" + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
 	private static record QItem(double priority, IResource resource) implements Comparable<QItem> {
 		@Override
 		public int compareTo(QItem other) {
@@ -138,38 +161,40 @@ public abstract class ResourceWalker extends Job {
 
 	@Override
 	public IStatus run(IProgressMonitor monitor) {
-		int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
-		ExecutorService executorService = Executors.newFixedThreadPool(workers);
-		// copy the filesToSearch, to only remove a file after search completed
-		PriorityQueue<QItem> queue = new PriorityQueue<>();
+		BooleanSupplier canceled = () -> monitor.isCanceled() || suspend;
+		// copy the filesToSearch, to only remove a file after search completed.
+		// The workers share one thread-safe queue, so files are still started in priority order.
+		PriorityBlockingQueue<QItem> queue = new PriorityBlockingQueue<>(Math.max(1, filesToSearch.size()));
 		queue.addAll(filesToSearch);
+		int workers = Math.min(queue.size(), MAX_WORKERS);
+		if (workers == 0) {
+			filesToSearch.clear();
+			return Status.OK_STATUS;
+		}
+		ExecutorService executorService = Executors.newFixedThreadPool(workers, WORKER_THREAD_FACTORY);
 		for (int worker = 0; worker < workers; worker++) {
-			executorService.submit(() -> {
+			executorService.execute(() -> {
 				QItem item;
-				while ((item = queue.poll()) != null) {
-					if (monitor.isCanceled() || suspend) {
-						break;
-					} else {
-						IResource r = item.resource;
-						IFile f = (IFile) r;
-						boolean searched = searchIn(f, () -> monitor.isCanceled() || suspend);
-						if (searched) {
-							filesToSearch.remove(item);
-						}
+				while (!canceled.getAsBoolean() && (item = queue.poll()) != null) {
+					IFile f = (IFile) item.resource;
+					boolean searched = searchIn(f, canceled);
+					if (searched) {
+						filesToSearch.remove(item);
 					}
 				}
 			});
 		}
+		executorService.shutdown();
 		try {
-			while (!executorService.awaitTermination(1, TimeUnit.MILLISECONDS)) {
-				executorService.shutdown();
-				if (monitor.isCanceled() || suspend) {
+			// workers check the cancel state for every line, no need to interrupt them
+			while (!executorService.awaitTermination(CANCEL_POLL_MS, TimeUnit.MILLISECONDS)) {
+				if (canceled.getAsBoolean()) {
 					queue.clear();
-					executorService.shutdownNow();
 				}
 			}
 		} catch (InterruptedException e) {
-			// ignore
+			executorService.shutdownNow();
+			Thread.currentThread().interrupt();
 		}
 		// on suspend keep unsearched files for later
 		if (!suspend) {
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.quicksearch.internal.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Keeps the decoded lines of recently searched files in memory, so that a restarted search
+ * (a query change that can't be handled by filtering the current matches, or the dialog
+ * being opened again) doesn't have to read and decode the same files again.
+ * <p>
+ * Entries are only valid for the modification stamp and charset of the file at the time it was
+ * read. The least recently used entries are dropped when the estimated size of all entries
+ * exceeds the capacity.
+ */
+public class FileLineCache {
+
+	private static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+	private static final FileLineCache DEFAULT = new FileLineCache(DEFAULT_CAPACITY);
+
+	/**
+	 * The decoded content of a file and its lines as read by {@link LineReader}. If the reader
+	 * stopped because of a too long line, the index only contains the lines before it.
+	 *
+	 * @param modificationStamp the modification stamp of the file when it was read
+	 * @param charset the charset used to decode the file
+	 * @param maxLineLength the maximum line length the lines were split with
+	 * @param lines the line index of the decoded content
+	 * @param estimatedSize the estimated number of bytes used by the content and the index
+	 */
+	public static record Lines(long modificationStamp, String charset, int maxLineLength, LineIndex lines, long estimatedSize) {
+
+		public Lines(long modificationStamp, String charset, int maxLineLength, String content, LineIndex lines) {
+			this(modificationStamp, charset, maxLineLength, lines, 2L * content.length() + lines.getEstimatedSize());
+		}
+	}
+
+	private final long capacity;
+
+	private final LinkedHashMap<IFile, Lines> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+	private long size;
+
+	public FileLineCache(long capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * @return the cache shared by all Quick Search dialogs
+	 */
+	public static FileLineCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the cached lines of the file if they are still valid.
+	 *
+	 * @return the lines or <code>null</code> if the file is not cached or has changed since
+	 */
+	public synchronized Lines get(IFile file, long modificationStamp, String charset, int maxLineLength) {
+		Lines cached = entries.get(file);
+		if (cached == null) {
+			return null;
+		}
+		if (cached.modificationStamp() != modificationStamp || !Objects.equals(cached.charset(), charset)) {
+			remove(file);
+			return null;
+		}
+		return cached.maxLineLength() == maxLineLength ? cached : null;
+	}
+
+	public synchronized void put(IFile file, Lines lines) {
+		long entrySize = lines.estimatedSize();
+		if (entrySize > capacity / 4) {
+			return; // would evict too much
+		}
+		remove(file);
+		entries.put(file, lines);
+		size += entrySize;
+		Iterator<Map.Entry<IFile, Lines>> iterator = entries.entrySet().iterator();
+		while (size > capacity && iterator.hasNext()) {
+			size -= iterator.next().getValue().estimatedSize();
+			iterator.remove();
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return the estimated number of bytes used by the cached lines
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	private void remove(IFile file) {
+		Lines removed = entries.remove(file);
+		if (removed != null) {
+			size -= removed.estimatedSize();
+		}
+	}
+}
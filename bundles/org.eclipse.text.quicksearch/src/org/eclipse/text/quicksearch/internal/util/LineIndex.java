@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.quicksearch.internal.util;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The line boundaries of a text held in memory. Lines are split exactly like {@link LineReader}
+ * does, so that searching the lines of the index gives the same result as reading them with a
+ * {@link LineReader}, but no String is created for a line unless it is requested.
+ * <p>
+ * Like {@link LineReader#readLine()}, the index ends before the first line that is
+ * <code>maxLineLength</code> characters or longer.
+ */
+public final class LineIndex {
+
+	private final CharSequence text;
+	private final int[] starts;
+	private final int[] ends;
+	private final int count;
+
+	private LineIndex(CharSequence text, int[] starts, int[] ends, int count) {
+		this.text = text;
+		this.starts = starts;
+		this.ends = ends;
+		this.count = count;
+	}
+
+	/**
+	 * Splits the text into lines.
+	 *
+	 * @param text the text
+	 * @param maxLineLength the maximum line length as passed to {@link LineReader}
+	 * @return the line index
+	 */
+	public static LineIndex create(CharSequence text, int maxLineLength) {
+		int length = text.length();
+		int capacity = Math.max(16, length / 40);
+		int[] starts = new int[capacity];
+		int[] ends = new int[capacity];
+		int count = 0;
+		int pos = 0;
+		while (pos < length) {
+			int start = pos;
+			char c = 0;
+			while (pos < length && (c = text.charAt(pos)) != '\r' && c != '\n') {
+				pos++;
+			}
+			if (pos > start && pos - start >= maxLineLength) {
+				break; // very long line, minified file? LineReader stops here as well
+			}
+			if (count == starts.length) {
+				starts = Arrays.copyOf(starts, count * 2);
+				ends = Arrays.copyOf(ends, count * 2);
+			}
+			starts[count] = start;
+			ends[count] = pos;
+			count++;
+			if (pos < length) {
+				pos++;
+				if (c == '\r' && pos < length && text.charAt(pos) == '\n') {
+					pos++;
+				}
+			}
+		}
+		return new LineIndex(text, starts, ends, count);
+	}
+
+	public int getLineCount() {
+		return count;
+	}
+
+	/**
+	 * @return the offset of the line in the text
+	 */
+	public int getLineStart(int line) {
+		return starts[line];
+	}
+
+	/**
+	 * @return the offset after the last character of the line, excluding the line delimiter
+	 */
+	public int getLineEnd(int line) {
+		return ends[line];
+	}
+
+	/**
+	 * @return the text of the line, without line delimiter
+	 */
+	public String getLine(int line) {
+		return text.subSequence(starts[line], ends[line]).toString();
+	}
+
+	/**
+	 * Returns a matcher for the text to be used with {@link #find(Matcher, int)}.
+	 *
+	 * @param pattern the pattern
+	 * @return the matcher, with opaque and anchoring bounds
+	 */
+	public Matcher matcher(Pattern pattern) {
+		return pattern.matcher(text).useTransparentBounds(false).useAnchoringBounds(true);
+	}
+
+	/**
+	 * Searches the pattern in a line, without creating a String for the line. The result is the
+	 * same as for searching the line's String: the region bounds are opaque and anchoring, so
+	 * look-arounds, boundaries and anchors don't see the adjacent lines.
+	 *
+	 * @param matcher a matcher created with {@link #matcher(Pattern)}
+	 * @param line the line
+	 * @return <code>true</code> if the pattern is found in the line
+	 */
+	public boolean find(Matcher matcher, int line) {
+		return matcher.region(starts[line], ends[line]).find();
+	}
+
+	/**
+	 * @return the estimated number of bytes used by the index, excluding the text
+	 */
+	public long getEstimatedSize() {
+		return 8L * starts.length + 32;
+	}
+}
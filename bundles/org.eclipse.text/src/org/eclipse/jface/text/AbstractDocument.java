@@ -181,6 +181,11 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 * @since 3.1
 	 */
 	private String fInitialLineDelimiter;
+	/**
+	 * Whether positions are kept in {@link BlockPositionList}s.
+	 * @since 3.15
+	 */
+	private boolean fIndexedPositionStore;
 
 
 	/**
@@ -369,11 +374,110 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 			return;
 
 		if (!containsPositionCategory(category)) {
-			fPositions.put(category, new ArrayList<>());
-			fEndPositions.put(category, new ArrayList<>());
+			fPositions.put(category, createPositionList());
+			fEndPositions.put(category, createPositionList());
+		}
+	}
+
+	/**
+	 * Sets whether this document uses a position store for large numbers of positions.
+	 * <p>
+	 * When enabled, the positions of each category are kept in lists of bounded blocks, so that
+	 * adding and removing a position does not move all positions behind it, and a
+	 * {@link DefaultPositionUpdater} only visits the positions that end at or after the offset of a
+	 * change, instead of all positions of its category. Positions ending before a change are not
+	 * affected by the default updater, so the resulting positions are the same as without the
+	 * store. The positions ordered by their end offset are kept sorted after each update.
+	 * </p>
+	 * <p>
+	 * This relies on the positions of a category updated by a <code>DefaultPositionUpdater</code>
+	 * not being moved by other position updaters. Disabled by default.
+	 * </p>
+	 *
+	 * @param enabled <code>true</code> to enable the store
+	 * @since 3.15
+	 */
+	public void setIndexedPositionStore(boolean enabled) {
+		if (fIndexedPositionStore == enabled)
+			return;
+		fIndexedPositionStore= enabled;
+		for (Entry<String, List<Position>> entry : fPositions.entrySet()) {
+			List<Position> positions= createPositionList();
+			positions.addAll(entry.getValue());
+			entry.setValue(positions);
+		}
+		for (Entry<String, List<Position>> entry : fEndPositions.entrySet()) {
+			List<Position> positions= createPositionList();
+			positions.addAll(entry.getValue());
+			if (enabled)
+				positions.sort((p1, p2) -> Integer.compare(getOffset(false, p1), getOffset(false, p2)));
+			entry.setValue(positions);
 		}
 	}
 
+	/**
+	 * Returns whether this document uses a position store for large numbers of positions.
+	 *
+	 * @return <code>true</code> if the store is enabled
+	 * @see #setIndexedPositionStore(boolean)
+	 * @since 3.15
+	 */
+	public boolean isIndexedPositionStore() {
+		return fIndexedPositionStore;
+	}
+
+	private List<Position> createPositionList() {
+		return fIndexedPositionStore ? new BlockPositionList() : new ArrayList<>();
+	}
+
+	/**
+	 * Returns the index of the first position of the category, in the order of their end
+	 * offsets, that ends at or after the given offset.
+	 *
+	 * @param category the position category
+	 * @param offset the offset
+	 * @return the index in the positions ordered by end offset
+	 * @throws BadPositionCategoryException if category is undefined in this document
+	 */
+	int computeEndIndex(String category, int offset) throws BadPositionCategoryException {
+		List<Position> positions= fEndPositions.get(category);
+		if (positions == null)
+			throw new BadPositionCategoryException();
+		return computeIndexInPositionList(positions, offset, false);
+	}
+
+	/**
+	 * Returns the positions of the category from the given index on, in the order of their end
+	 * offsets.
+	 *
+	 * @param category the position category
+	 * @param index the index as computed by {@link #computeEndIndex(String, int)}
+	 * @return the positions
+	 * @throws BadPositionCategoryException if category is undefined in this document
+	 */
+	Position[] getEndPositions(String category, int index) throws BadPositionCategoryException {
+		List<Position> positions= fEndPositions.get(category);
+		if (positions == null)
+			throw new BadPositionCategoryException();
+		List<Position> tail= positions.subList(Math.min(index, positions.size()), positions.size());
+		return tail.toArray(new Position[tail.size()]);
+	}
+
+	/**
+	 * Restores the order by end offset of the positions from the given index on, after they have
+	 * been updated. The positions before the index must not have been changed and must not end
+	 * after any of the updated positions.
+	 *
+	 * @param category the position category
+	 * @param index the index as computed by {@link #computeEndIndex(String, int)} before the
+	 *            update
+	 */
+	void sortEndPositions(String category, int index) {
+		List<Position> positions= fEndPositions.get(category);
+		if (positions != null && index < positions.size())
+			positions.subList(index, positions.size()).sort((p1, p2) -> Integer.compare(getOffset(false, p1), getOffset(false, p2)));
+	}
+
 	@Override
 	public void addPositionUpdater(IPositionUpdater updater) {
 		insertPositionUpdater(updater, fPositionUpdaters.size());
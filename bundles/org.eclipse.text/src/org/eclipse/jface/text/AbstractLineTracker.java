@@ -203,6 +203,39 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 	 * Whether the delegate needs conversion when the line structure is modified.
 	 */
 	private boolean fNeedsConversion= true;
+	/**
+	 * Whether the lines are kept in a {@link CompactLineTracker}.
+	 *
+	 * @since 3.15
+	 */
+	private boolean fCompactLineIndex;
+
+	/**
+	 * The compact implementation that this tracker delegates to when the compact line index is
+	 * enabled.
+	 *
+	 * @since 3.15
+	 */
+	private final class CompactDelegate extends CompactLineTracker {
+
+		CompactDelegate(ListLineTracker tracker) {
+			super(tracker);
+		}
+
+		CompactDelegate(TreeLineTracker tracker) {
+			super(tracker);
+		}
+
+		@Override
+		protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+			return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+		}
+
+		@Override
+		public String[] getLegalLineDelimiters() {
+			return AbstractLineTracker.this.getLegalLineDelimiters();
+		}
+	}
 
 	/**
 	 * Creates a new line tracker.
@@ -312,6 +345,58 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 		}
 	}
 
+	/**
+	 * Sets whether this tracker keeps its lines in a compact index for documents with very many
+	 * lines.
+	 * <p>
+	 * By default, a line tracker keeps an object for each line, which takes about 40 bytes per
+	 * line. The compact index keeps the lengths of the lines in blocks of primitive arrays with
+	 * prefix sums over the blocks instead, which takes about 5 bytes per line. Queries are
+	 * <i>O(log n)</i> in both cases, adding and removing lines is slightly slower with the compact
+	 * index. Documents can enable it depending on the size of their content, preferably before
+	 * the content is set. Disabled by default.
+	 * </p>
+	 *
+	 * @param enabled <code>true</code> to enable the compact index
+	 * @since 3.15
+	 */
+	public final synchronized void setCompactLineIndex(boolean enabled) {
+		if (fCompactLineIndex == enabled)
+			return;
+		fCompactLineIndex= enabled;
+		ILineTracker delegate= fDelegate;
+		if (enabled) {
+			if (delegate instanceof ListLineTracker)
+				fDelegate= new CompactDelegate((ListLineTracker) delegate);
+			else
+				fDelegate= new CompactDelegate((TreeLineTracker) delegate);
+			fNeedsConversion= false;
+		} else {
+			fDelegate= new TreeLineTracker((CompactLineTracker) delegate) {
+				@Override
+				protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+					return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+				}
+
+				@Override
+				public String[] getLegalLineDelimiters() {
+					return AbstractLineTracker.this.getLegalLineDelimiters();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Returns whether this tracker keeps its lines in a compact index.
+	 *
+	 * @return <code>true</code> if the compact index is enabled
+	 * @see #setCompactLineIndex(boolean)
+	 * @since 3.15
+	 */
+	public final boolean isCompactLineIndex() {
+		return fCompactLineIndex;
+	}
+
 	/**
 	 * Returns the information about the first delimiter found in the given text starting at the
 	 * given offset.
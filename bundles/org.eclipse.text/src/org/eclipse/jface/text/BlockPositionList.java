@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+
+/**
+ * A list of positions stored in blocks of bounded size. Inserting or removing a position only
+ * moves the positions of one block, instead of all positions after it as in an
+ * {@link ArrayList}. Access by index needs a binary search over the blocks.
+ * <p>
+ * Used by {@link AbstractDocument} for documents with many positions, see
+ * {@link AbstractDocument#setIndexedPositionStore(boolean)}.
+ * </p>
+ */
+final class BlockPositionList extends AbstractList<Position> implements RandomAccess {
+
+	/** Blocks are split when they reach twice this size. */
+	private static final int BLOCK_SIZE= 256;
+
+	private static final class Block {
+		Position[] fItems= new Position[2 * BLOCK_SIZE];
+		int fSize;
+	}
+
+	private final List<Block> fBlocks= new ArrayList<>();
+	/** The list index of the first position of each block, valid for the blocks before {@link #fValidStarts}. */
+	private int[] fStarts= new int[16];
+	private int fValidStarts;
+	private int fSize;
+
+	BlockPositionList() {
+		fBlocks.add(new Block());
+	}
+
+	@Override
+	public int size() {
+		return fSize;
+	}
+
+	@Override
+	public Position get(int index) {
+		if (index < 0 || index >= fSize)
+			throw new IndexOutOfBoundsException(index);
+		int block= findBlock(index);
+		return fBlocks.get(block).fItems[index - fStarts[block]];
+	}
+
+	@Override
+	public Position set(int index, Position position) {
+		if (index < 0 || index >= fSize)
+			throw new IndexOutOfBoundsException(index);
+		int block= findBlock(index);
+		Position[] items= fBlocks.get(block).fItems;
+		int local= index - fStarts[block];
+		Position old= items[local];
+		items[local]= position;
+		return old;
+	}
+
+	@Override
+	public void add(int index, Position position) {
+		if (index < 0 || index > fSize)
+			throw new IndexOutOfBoundsException(index);
+		int blockIndex;
+		int local;
+		if (index == fSize) {
+			blockIndex= fBlocks.size() - 1;
+			local= fBlocks.get(blockIndex).fSize;
+		} else {
+			blockIndex= findBlock(index);
+			local= index - fStarts[blockIndex];
+		}
+		Block block= fBlocks.get(blockIndex);
+		System.arraycopy(block.fItems, local, block.fItems, local + 1, block.fSize - local);
+		block.fItems[local]= position;
+		block.fSize++;
+		if (block.fSize == block.fItems.length)
+			split(blockIndex);
+		fSize++;
+		fValidStarts= Math.min(fValidStarts, blockIndex + 1);
+		modCount++;
+	}
+
+	@Override
+	public Position remove(int index) {
+		if (index < 0 || index >= fSize)
+			throw new IndexOutOfBoundsException(index);
+		int blockIndex= findBlock(index);
+		Block block= fBlocks.get(blockIndex);
+		int local= index - fStarts[blockIndex];
+		Position removed= block.fItems[local];
+		System.arraycopy(block.fItems, local + 1, block.fItems, local, block.fSize - local - 1);
+		block.fItems[--block.fSize]= null;
+		if (block.fSize == 0 && fBlocks.size() > 1) {
+			fBlocks.remove(blockIndex);
+			fValidStarts= Math.min(fValidStarts, blockIndex);
+		} else {
+			fValidStarts= Math.min(fValidStarts, blockIndex + 1);
+		}
+		fSize--;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		fBlocks.clear();
+		fBlocks.add(new Block());
+		fValidStarts= 0;
+		fSize= 0;
+		modCount++;
+	}
+
+	@Override
+	public Object[] toArray() {
+		return toArray(new Position[fSize]);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T[] toArray(T[] array) {
+		T[] result= array.length >= fSize ? array : (T[]) Arrays.copyOf(array, fSize, array.getClass());
+		int offset= 0;
+		for (Block block : fBlocks) {
+			System.arraycopy(block.fItems, 0, result, offset, block.fSize);
+			offset+= block.fSize;
+		}
+		if (result.length > fSize)
+			result[fSize]= null;
+		return result;
+	}
+
+	private void split(int blockIndex) {
+		Block block= fBlocks.get(blockIndex);
+		Block next= new Block();
+		int half= block.fSize / 2;
+		next.fSize= block.fSize - half;
+		System.arraycopy(block.fItems, half, next.fItems, 0, next.fSize);
+		Arrays.fill(block.fItems, half, block.fSize, null);
+		block.fSize= half;
+		fBlocks.add(blockIndex + 1, next);
+	}
+
+	/**
+	 * Returns the index of the block containing the position with the given list index.
+	 */
+	private int findBlock(int index) {
+		int blockCount= fBlocks.size();
+		if (fValidStarts < blockCount) {
+			if (fStarts.length < blockCount)
+				fStarts= Arrays.copyOf(fStarts, Math.max(blockCount, 2 * fStarts.length));
+			int start= fValidStarts == 0 ? 0 : fStarts[fValidStarts - 1] + fBlocks.get(fValidStarts - 1).fSize;
+			for (int i= fValidStarts; i < blockCount; i++) {
+				fStarts[i]= start;
+				start+= fBlocks.get(i).fSize;
+			}
+			fValidStarts= blockCount;
+		}
+		int low= 0;
+		int high= blockCount - 1;
+		while (low < high) {
+			int mid= (low + high + 1) >>> 1;
+			if (fStarts[mid] <= index)
+				low= mid;
+			else
+				high= mid - 1;
+		}
+		return low;
+	}
+}
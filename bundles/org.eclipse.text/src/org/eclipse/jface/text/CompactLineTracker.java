@@ -0,0 +1,630 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+
+import org.eclipse.jface.text.AbstractLineTracker.DelimiterInfo;
+
+/**
+ * Abstract implementation of <code>ILineTracker</code> for documents with very many lines. It
+ * defines the same line scheme as {@link TreeLineTracker} and changes its lines in exactly the
+ * same way, but does not need an object per line.
+ * <p>
+ * The lengths of the lines are kept in blocks of up to {@value #BLOCK_SIZE} lines, each an
+ * <code>int[]</code> with a parallel <code>byte[]</code> of indices into the table of the line
+ * delimiters seen so far. The number of lines and characters of the blocks are summed up in two
+ * binary indexed trees, so the block of a line or offset and the offset of a block are found in
+ * <i>O(log n)</i>, and the line in the block by scanning at most {@value #BLOCK_SIZE} lengths.
+ * </p>
+ * <p>
+ * <strong>Performance:</strong> The query operations perform in <i>O(log n)</i> where
+ * <var>n</var> is the number of lines in the document. Changing the length of a line is
+ * <i>O(log n)</i>, adding or removing lines is <i>O(l)</i> where <var>l</var> is the number of
+ * added or removed lines, plus <i>O(n / {@value #BLOCK_SIZE})</i> whenever blocks are split or
+ * merged, which happens once every {@value #BLOCK_SIZE} / 2 added lines at most. A line takes 5
+ * bytes, compared to about 40 bytes for a line of {@link TreeLineTracker}.
+ * </p>
+ *
+ * @since 3.15
+ */
+abstract class CompactLineTracker implements ILineTracker {
+
+	/** The maximal number of lines of a block. */
+	private static final int BLOCK_SIZE= 256;
+
+	/** The index of the empty delimiter of the last line in {@link #fDelimiters}. */
+	private static final byte NO_DELIM= 0;
+
+	/** The line delimiters seen so far, indexed by the delimiter indices of the lines. */
+	private String[] fDelimiters= { "" }; //$NON-NLS-1$
+
+	/** The lengths of the lines, including their delimiters, by block. */
+	private int[][] fLengths= new int[16][];
+	/** The delimiter indices of the lines, by block. */
+	private byte[][] fDelimiterIndices= new byte[16][];
+	/** The number of lines of the blocks. */
+	private int[] fLineCounts= new int[16];
+	/** The number of characters of the blocks. */
+	private int[] fCharCounts= new int[16];
+	/** The number of blocks. */
+	private int fBlockCount;
+
+	/** The binary indexed tree of the number of lines of the blocks, 1-based. */
+	private int[] fLineTree;
+	/** The binary indexed tree of the number of characters of the blocks, 1-based. */
+	private int[] fCharTree;
+
+	/** The number of lines. */
+	private int fNumberOfLines;
+	/** The number of characters. */
+	private int fTextLength;
+
+	/** The block found by the last lookup. */
+	private int fFoundBlock;
+	/** The index in its block of the line found by the last lookup. */
+	private int fFoundIndex;
+	/** The offset of the line found by the last lookup. */
+	private int fFoundOffset;
+
+	/** The lengths of the lines added by a replace. */
+	private int[] fAddedLengths= new int[16];
+	/** The delimiter indices of the lines added by a replace. */
+	private byte[] fAddedDelimiters= new byte[16];
+	/** The number of lines added by a replace. */
+	private int fAddedCount;
+
+	/**
+	 * Creates a new line tracker.
+	 */
+	protected CompactLineTracker() {
+		clear();
+	}
+
+	/**
+	 * Package visible constructor for creating a compact tracker from a list tracker.
+	 *
+	 * @param tracker the list line tracker
+	 */
+	CompactLineTracker(ListLineTracker tracker) {
+		final List<Line> lines= tracker.getLines();
+		fAddedCount= 0;
+		for (Line line : lines)
+			addLine(line.length, line.delimiter);
+		if (fAddedCount == 0 || fAddedDelimiters[fAddedCount - 1] != NO_DELIM)
+			addLine(0, null);
+		setLines();
+	}
+
+	/**
+	 * Package visible constructor for creating a compact tracker from a tree tracker.
+	 *
+	 * @param tracker the tree line tracker
+	 */
+	CompactLineTracker(TreeLineTracker tracker) {
+		try {
+			int lines= tracker.getNumberOfLines();
+			fAddedCount= 0;
+			for (int line= 0; line < lines; line++)
+				addLine(tracker.getLineLength(line), tracker.getLineDelimiter(line));
+		} catch (BadLocationException x) {
+			throw new InternalError();
+		}
+		setLines();
+	}
+
+	/**
+	 * Returns the information about the first delimiter found in the given text starting at the
+	 * given offset.
+	 *
+	 * @param text the text to be searched
+	 * @param offset the offset in the given text
+	 * @return the information of the first found delimiter or <code>null</code>
+	 */
+	protected abstract DelimiterInfo nextDelimiterInfo(String text, int offset);
+
+	@Override
+	public final String getLineDelimiter(int line) throws BadLocationException {
+		findLine(line);
+		byte delimiter= fDelimiterIndices[fFoundBlock][fFoundIndex];
+		return delimiter == NO_DELIM ? null : fDelimiters[delimiter & 0xff];
+	}
+
+	@Override
+	public final int computeNumberOfLines(String text) {
+		int count= 0;
+		int start= 0;
+		DelimiterInfo delimiterInfo= nextDelimiterInfo(text, start);
+		while (delimiterInfo != null && delimiterInfo.delimiterIndex > -1) {
+			++count;
+			start= delimiterInfo.delimiterIndex + delimiterInfo.delimiterLength;
+			delimiterInfo= nextDelimiterInfo(text, start);
+		}
+		return count;
+	}
+
+	@Override
+	public final int getNumberOfLines() {
+		return fNumberOfLines;
+	}
+
+	@Override
+	public final int getNumberOfLines(int offset, int length) throws BadLocationException {
+		if (length == 0)
+			return 1;
+
+		int startLine= getLineNumberOfOffset(offset);
+		int endLine= getLineNumberOfOffset(offset + length);
+
+		return endLine - startLine + 1;
+	}
+
+	@Override
+	public final int getLineOffset(int line) throws BadLocationException {
+		findLine(line);
+		return fFoundOffset;
+	}
+
+	@Override
+	public final int getLineLength(int line) throws BadLocationException {
+		findLine(line);
+		return fLengths[fFoundBlock][fFoundIndex];
+	}
+
+	@Override
+	public final int getLineNumberOfOffset(int offset) throws BadLocationException {
+		findOffset(offset);
+		return prefixSum(fLineTree, fFoundBlock) + fFoundIndex;
+	}
+
+	@Override
+	public final IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+		findOffset(offset);
+		return new Region(fFoundOffset, pureLength(fFoundBlock, fFoundIndex));
+	}
+
+	@Override
+	public final IRegion getLineInformation(int line) throws BadLocationException {
+		try {
+			findLine(line);
+			return new Region(fFoundOffset, pureLength(fFoundBlock, fFoundIndex));
+		} catch (BadLocationException x) {
+			/*
+			 * Mandated by the previous line tracker implementation, see
+			 * TreeLineTracker#getLineInformation(int).
+			 */
+			if (line > 0 && line == getNumberOfLines()) {
+				findLine(line - 1);
+				int length= fLengths[fFoundBlock][fFoundIndex];
+				if (length > 0)
+					return new Region(fFoundOffset + length, 0);
+			}
+			throw x;
+		}
+	}
+
+	@Override
+	public final void replace(int offset, int length, String text) throws BadLocationException {
+		findOffset(offset);
+		int firstBlock= fFoundBlock;
+		int firstIndex= fFoundIndex;
+		int firstOffset= fFoundOffset;
+		int firstLength= fLengths[firstBlock][firstIndex];
+
+		int lastBlock= firstBlock;
+		int lastIndex= firstIndex;
+		int lastOffset= firstOffset;
+		int lastLength= firstLength;
+		byte lastDelimiter= fDelimiterIndices[firstBlock][firstIndex];
+		if (offset + length >= firstOffset + firstLength) {
+			findOffset(offset + length);
+			lastBlock= fFoundBlock;
+			lastIndex= fFoundIndex;
+			lastOffset= fFoundOffset;
+			lastLength= fLengths[fFoundBlock][fFoundIndex];
+			lastDelimiter= fDelimiterIndices[fFoundBlock][fFoundIndex];
+		}
+
+		boolean singleLine= firstBlock == lastBlock && firstIndex == lastIndex;
+		int firstLineDelta= firstOffset + firstLength - offset;
+		int added= text == null ? 0 : text.length();
+		DelimiterInfo info= text == null ? null : nextDelimiterInfo(text, 0);
+
+		if (info == null || info.delimiter == null) {
+			if (singleLine) {
+				// a) trivial case: insert into a single line, no line mangling
+				setLength(firstBlock, firstIndex, firstLength + added - length);
+				return;
+			}
+			// join the first and the last line if there are no lines added
+			int removed= length - (lastOffset - firstOffset - firstLength);
+			fAddedCount= 0;
+			addLine(firstLength + lastLength + added - removed, lastDelimiter);
+		} else {
+			// join the first line with the first added
+			int consumed= info.delimiterIndex + info.delimiterLength;
+			fAddedCount= 0;
+			addLine(firstLength - firstLineDelta + consumed, info.delimiter);
+
+			info= nextDelimiterInfo(text, consumed);
+			while (info != null) {
+				int lineLength= info.delimiterIndex - consumed + info.delimiterLength;
+				addLine(lineLength, info.delimiter);
+				consumed+= lineLength;
+				info= nextDelimiterInfo(text, consumed);
+			}
+
+			// add the remaining chunk merged with the last line
+			if (singleLine) {
+				addLine(firstLineDelta - length + added - consumed, lastDelimiter);
+			} else {
+				int removed= length - (lastOffset - firstOffset - firstLength) - firstLineDelta;
+				addLine(lastLength + added - consumed - removed, lastDelimiter);
+			}
+		}
+
+		// a line which lost all its characters is removed, unless it is the last line
+		if (fAddedLengths[fAddedCount - 1] == 0 && fAddedDelimiters[fAddedCount - 1] != NO_DELIM)
+			fAddedCount--;
+		replaceLines(firstBlock, firstIndex, lastBlock, lastIndex);
+	}
+
+	@Override
+	public final void set(String text) {
+		clear();
+		try {
+			replace(0, 0, text);
+		} catch (BadLocationException x) {
+			throw new InternalError();
+		}
+	}
+
+	/**
+	 * Resets this tracker to a single empty line.
+	 */
+	private void clear() {
+		fAddedCount= 0;
+		addLine(0, null);
+		setLines();
+	}
+
+	/**
+	 * Replaces the lines of this tracker by the added lines.
+	 */
+	private void setLines() {
+		fBlockCount= 0;
+		fNumberOfLines= 0;
+		fTextLength= 0;
+		replaceBlocks(0, 0);
+	}
+
+	/**
+	 * Adds a line to the lines added by a replace.
+	 *
+	 * @param length the length of the line, including its delimiter
+	 * @param delimiter the delimiter of the line, <code>null</code> for the last line
+	 */
+	private void addLine(int length, String delimiter) {
+		addLine(length, getDelimiterIndex(delimiter));
+	}
+
+	/**
+	 * Adds a line to the lines added by a replace.
+	 *
+	 * @param length the length of the line, including its delimiter
+	 * @param delimiter the index of the delimiter of the line
+	 */
+	private void addLine(int length, byte delimiter) {
+		if (fAddedCount == fAddedLengths.length) {
+			fAddedLengths= Arrays.copyOf(fAddedLengths, 2 * fAddedCount);
+			fAddedDelimiters= Arrays.copyOf(fAddedDelimiters, 2 * fAddedCount);
+		}
+		fAddedLengths[fAddedCount]= length;
+		fAddedDelimiters[fAddedCount]= delimiter;
+		fAddedCount++;
+	}
+
+	/**
+	 * Returns the index of a delimiter in {@link #fDelimiters}, adding it if needed. There are
+	 * only as many delimiters as legal line delimiters, but at most 255.
+	 *
+	 * @param delimiter the delimiter, <code>null</code> for the last line
+	 * @return the index of the delimiter
+	 */
+	private byte getDelimiterIndex(String delimiter) {
+		if (delimiter == null || delimiter.isEmpty())
+			return NO_DELIM;
+		for (int i= 1; i < fDelimiters.length; i++) {
+			if (fDelimiters[i].equals(delimiter))
+				return (byte) i;
+		}
+		Assert.isLegal(fDelimiters.length < 256);
+		fDelimiters= Arrays.copyOf(fDelimiters, fDelimiters.length + 1);
+		fDelimiters[fDelimiters.length - 1]= delimiter;
+		return (byte) (fDelimiters.length - 1);
+	}
+
+	/**
+	 * Returns the length of a line without its delimiter.
+	 *
+	 * @param block the block of the line
+	 * @param index the index of the line in the block
+	 * @return the length of the line without its delimiter
+	 */
+	private int pureLength(int block, int index) {
+		return fLengths[block][index] - fDelimiters[fDelimiterIndices[block][index] & 0xff].length();
+	}
+
+	/**
+	 * Finds the line with the given number and sets {@link #fFoundBlock}, {@link #fFoundIndex}
+	 * and {@link #fFoundOffset}.
+	 *
+	 * @param line the line number
+	 * @throws BadLocationException if the line is invalid
+	 */
+	private void findLine(int line) throws BadLocationException {
+		if (line < 0 || line >= fNumberOfLines)
+			throw new BadLocationException(Integer.toString(line));
+
+		int block= 0;
+		int remaining= line;
+		int offset= 0;
+		for (int step= Integer.highestOneBit(fBlockCount); step > 0; step>>= 1) {
+			int next= block + step;
+			if (next <= fBlockCount && fLineTree[next] <= remaining) {
+				block= next;
+				remaining-= fLineTree[next];
+				offset+= fCharTree[next];
+			}
+		}
+		int[] lengths= fLengths[block];
+		for (int i= 0; i < remaining; i++)
+			offset+= lengths[i];
+		fFoundBlock= block;
+		fFoundIndex= remaining;
+		fFoundOffset= offset;
+	}
+
+	/**
+	 * Finds the line starting at or containing the given offset and sets {@link #fFoundBlock},
+	 * {@link #fFoundIndex} and {@link #fFoundOffset}. If the offset is the text length, the last
+	 * line is found.
+	 *
+	 * @param offset the offset
+	 * @throws BadLocationException if the offset is invalid
+	 */
+	private void findOffset(int offset) throws BadLocationException {
+		if (offset < 0 || offset > fTextLength)
+			throw new BadLocationException(Integer.toString(offset));
+
+		int block= 0;
+		int remaining= offset;
+		for (int step= Integer.highestOneBit(fBlockCount); step > 0; step>>= 1) {
+			int next= block + step;
+			if (next <= fBlockCount && fCharTree[next] <= remaining) {
+				block= next;
+				remaining-= fCharTree[next];
+			}
+		}
+		if (block == fBlockCount) {
+			// the offset is the text length
+			block= fBlockCount - 1;
+			remaining= fCharCounts[block];
+		}
+		int[] lengths= fLengths[block];
+		int last= fLineCounts[block] - 1;
+		int index= 0;
+		while (index < last && remaining >= lengths[index]) {
+			remaining-= lengths[index];
+			index++;
+		}
+		fFoundBlock= block;
+		fFoundIndex= index;
+		fFoundOffset= offset - remaining;
+	}
+
+	/**
+	 * Sets the length of a line which keeps at least one character or is the last line.
+	 *
+	 * @param block the block of the line
+	 * @param index the index of the line in the block
+	 * @param length the new length of the line
+	 */
+	private void setLength(int block, int index, int length) {
+		int delta= length - fLengths[block][index];
+		if (delta == 0)
+			return;
+		fLengths[block][index]= length;
+		fCharCounts[block]+= delta;
+		fTextLength+= delta;
+		add(fCharTree, block, delta);
+	}
+
+	/**
+	 * Replaces lines by the added lines.
+	 *
+	 * @param firstBlock the block of the first line to replace
+	 * @param firstIndex the index of the first line to replace in its block
+	 * @param lastBlock the block of the last line to replace
+	 * @param lastIndex the index of the last line to replace in its block
+	 */
+	private void replaceLines(int firstBlock, int firstIndex, int lastBlock, int lastIndex) {
+		int endIndex= lastIndex + 1;
+		int count= endIndex - firstIndex;
+		int lineCount= fLineCounts[firstBlock] - count + fAddedCount;
+		if (firstBlock == lastBlock && lineCount > 0 && lineCount <= BLOCK_SIZE) {
+			// replace the lines in place
+			int[] lengths= fLengths[firstBlock];
+			byte[] delimiters= fDelimiterIndices[firstBlock];
+			int tail= fLineCounts[firstBlock] - endIndex;
+			int removedChars= 0;
+			for (int i= firstIndex; i < endIndex; i++)
+				removedChars+= lengths[i];
+			System.arraycopy(lengths, endIndex, lengths, firstIndex + fAddedCount, tail);
+			System.arraycopy(delimiters, endIndex, delimiters, firstIndex + fAddedCount, tail);
+			int addedChars= 0;
+			for (int i= 0; i < fAddedCount; i++) {
+				lengths[firstIndex + i]= fAddedLengths[i];
+				delimiters[firstIndex + i]= fAddedDelimiters[i];
+				addedChars+= fAddedLengths[i];
+			}
+			int lineDelta= fAddedCount - count;
+			fLineCounts[firstBlock]= lineCount;
+			fCharCounts[firstBlock]+= addedChars - removedChars;
+			fNumberOfLines+= lineDelta;
+			fTextLength+= addedChars - removedChars;
+			add(fLineTree, firstBlock, lineDelta);
+			add(fCharTree, firstBlock, addedChars - removedChars);
+			return;
+		}
+
+		// merge the lines before and after the replaced ones into the added lines and rebuild the
+		// affected blocks, together with the next block if they would become small
+		int endBlock= lastBlock + 1;
+		int before= firstIndex;
+		int after= fLineCounts[lastBlock] - endIndex;
+		if (before + fAddedCount + after < BLOCK_SIZE / 4 && endBlock < fBlockCount)
+			after+= fLineCounts[endBlock++];
+		int total= before + fAddedCount + after;
+		int[] lengths= new int[total];
+		byte[] delimiters= new byte[total];
+		System.arraycopy(fLengths[firstBlock], 0, lengths, 0, before);
+		System.arraycopy(fDelimiterIndices[firstBlock], 0, delimiters, 0, before);
+		System.arraycopy(fAddedLengths, 0, lengths, before, fAddedCount);
+		System.arraycopy(fAddedDelimiters, 0, delimiters, before, fAddedCount);
+		int position= before + fAddedCount;
+		for (int block= lastBlock; block < endBlock; block++) {
+			int start= block == lastBlock ? endIndex : 0;
+			int length= fLineCounts[block] - start;
+			System.arraycopy(fLengths[block], start, lengths, position, length);
+			System.arraycopy(fDelimiterIndices[block], start, delimiters, position, length);
+			position+= length;
+		}
+		fAddedLengths= lengths;
+		fAddedDelimiters= delimiters;
+		fAddedCount= total;
+		replaceBlocks(firstBlock, endBlock);
+	}
+
+	/**
+	 * Replaces blocks by new blocks holding the added lines, and rebuilds the binary indexed trees.
+	 *
+	 * @param start the first block to replace
+	 * @param end the block after the last block to replace
+	 */
+	private void replaceBlocks(int start, int end) {
+		int lineCount= fAddedCount;
+		int blocks= (lineCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		int blockCount= fBlockCount - (end - start) + blocks;
+		if (blockCount > fLengths.length) {
+			int capacity= Math.max(blockCount, 2 * fLengths.length);
+			fLengths= Arrays.copyOf(fLengths, capacity);
+			fDelimiterIndices= Arrays.copyOf(fDelimiterIndices, capacity);
+			fLineCounts= Arrays.copyOf(fLineCounts, capacity);
+			fCharCounts= Arrays.copyOf(fCharCounts, capacity);
+		}
+
+		for (int block= start; block < end; block++) {
+			fNumberOfLines-= fLineCounts[block];
+			fTextLength-= fCharCounts[block];
+		}
+		int tail= fBlockCount - end;
+		System.arraycopy(fLengths, end, fLengths, start + blocks, tail);
+		System.arraycopy(fDelimiterIndices, end, fDelimiterIndices, start + blocks, tail);
+		System.arraycopy(fLineCounts, end, fLineCounts, start + blocks, tail);
+		System.arraycopy(fCharCounts, end, fCharCounts, start + blocks, tail);
+		if (fBlockCount > blockCount) {
+			Arrays.fill(fLengths, blockCount, fBlockCount, null);
+			Arrays.fill(fDelimiterIndices, blockCount, fBlockCount, null);
+		}
+
+		// distribute the lines evenly over the new blocks
+		int index= 0;
+		for (int i= 0; i < blocks; i++) {
+			int count= lineCount / blocks + (i < lineCount % blocks ? 1 : 0);
+			int[] lengths= new int[BLOCK_SIZE];
+			byte[] delimiters= new byte[BLOCK_SIZE];
+			System.arraycopy(fAddedLengths, index, lengths, 0, count);
+			System.arraycopy(fAddedDelimiters, index, delimiters, 0, count);
+			int chars= 0;
+			for (int j= 0; j < count; j++)
+				chars+= lengths[j];
+			int block= start + i;
+			fLengths[block]= lengths;
+			fDelimiterIndices[block]= delimiters;
+			fLineCounts[block]= count;
+			fCharCounts[block]= chars;
+			fNumberOfLines+= count;
+			fTextLength+= chars;
+			index+= count;
+		}
+		fBlockCount= blockCount;
+
+		if (fAddedLengths.length < 16 || fAddedLengths.length > 1024) {
+			fAddedLengths= new int[16];
+			fAddedDelimiters= new byte[16];
+		}
+		fAddedCount= 0;
+
+		fLineTree= buildTree(fLineCounts, fBlockCount);
+		fCharTree= buildTree(fCharCounts, fBlockCount);
+	}
+
+	/**
+	 * Builds a binary indexed tree of the given counts.
+	 *
+	 * @param counts the counts
+	 * @param size the number of counts
+	 * @return the tree, 1-based
+	 */
+	private static int[] buildTree(int[] counts, int size) {
+		int[] tree= new int[size + 1];
+		System.arraycopy(counts, 0, tree, 1, size);
+		for (int i= 1; i <= size; i++) {
+			int parent= i + (i & -i);
+			if (parent <= size)
+				tree[parent]+= tree[i];
+		}
+		return tree;
+	}
+
+	/**
+	 * Adds a delta to the count of a block in a binary indexed tree.
+	 *
+	 * @param tree the tree
+	 * @param block the block
+	 * @param delta the delta
+	 */
+	private void add(int[] tree, int block, int delta) {
+		for (int i= block + 1; i <= fBlockCount; i+= i & -i)
+			tree[i]+= delta;
+	}
+
+	/**
+	 * Returns the sum of the counts of the blocks before the given block in a binary indexed tree.
+	 *
+	 * @param tree the tree
+	 * @param block the block
+	 * @return the sum of the counts before the block
+	 */
+	private static int prefixSum(int[] tree, int block) {
+		int sum= 0;
+		for (int i= block; i > 0; i-= i & -i)
+			sum+= tree[i];
+		return sum;
+	}
+}
@@ -212,21 +212,32 @@ public class DefaultPositionUpdater implements IPositionUpdater {
 			fReplaceLength= (event.getText() == null ? 0 : event.getText().length());
 			fDocument= event.getDocument();
 
-			Position[] category= fDocument.getPositions(fCategory);
-			for (Position element : category) {
-
-				fPosition= element;
-				fOriginalPosition.offset= fPosition.offset;
-				fOriginalPosition.length= fPosition.length;
-
-				if (notDeleted())
-					adaptToReplace();
+			if (getClass() == DefaultPositionUpdater.class && fDocument instanceof AbstractDocument document && document.isIndexedPositionStore()) {
+				// positions ending before the change are not affected, only visit the others
+				int index= document.computeEndIndex(fCategory, fOffset);
+				update(document.getEndPositions(fCategory, index));
+				document.sortEndPositions(fCategory, index);
+				return;
 			}
 
+			update(fDocument.getPositions(fCategory));
+
 		} catch (BadPositionCategoryException x) {
 			// do nothing
 		} finally {
 			fDocument= null;
 		}
 	}
+
+	private void update(Position[] category) {
+		for (Position element : category) {
+
+			fPosition= element;
+			fOriginalPosition.offset= fPosition.offset;
+			fOriginalPosition.length= fPosition.length;
+
+			if (notDeleted())
+				adaptToReplace();
+		}
+	}
 }
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -36,6 +39,11 @@ public class MultiStringMatcher {
 	// CACM 18(6), 1975.
 	//
 	// The algorithm has been modified to support reporting either all matches or only leftmost longest matches.
+	//
+	// The trie is built from Nodes, which are then compiled into a double-array trie: the transition of
+	// state s on character c leads to state t = base[s] + c if check[t] == s. The fail and output links,
+	// depths and matches of the states are kept in arrays indexed by state, so that matching neither
+	// boxes characters nor looks up hash maps, even for thousands of search strings.
 
 	/**
 	 * Describes a match result of {@link MultiStringMatcher#indexOf(CharSequence, int)}, giving
@@ -59,6 +67,24 @@ public class MultiStringMatcher {
 
 	}
 
+	/**
+	 * Receives the matches of {@link MultiStringMatcher#findMatches(CharSequence, int, MatchConsumer)}
+	 * as offset and length in the text, without a {@link Match} object being created per match.
+	 *
+	 * @since 3.15
+	 */
+	@FunctionalInterface
+	public static interface MatchConsumer {
+
+		/**
+		 * Accepts a match.
+		 *
+		 * @param offset the offset the match was found at
+		 * @param length the length of the matched search string
+		 */
+		void accept(int offset, int length);
+	}
+
 	/** A Builder for creating a {@link MultiStringMatcher}. */
 	public static interface Builder {
 
@@ -121,6 +147,11 @@ public class MultiStringMatcher {
 						return;
 					}
 
+					@Override
+					public void findMatches(CharSequence text, int offset, MatchConsumer matches) {
+						return;
+					}
+
 					@Override
 					public Match indexOf(CharSequence text, int offset) {
 						return null;
@@ -128,6 +159,7 @@ public class MultiStringMatcher {
 				};
 			}
 			result.buildLinks();
+			result.compile();
 			return result;
 		}
 	}
@@ -197,6 +229,9 @@ public class MultiStringMatcher {
 
 		final int depth;
 
+		/** The state of this node in the compiled automaton. */
+		int state;
+
 		Node(int depth) {
 			this.depth= depth;
 		}
@@ -224,8 +259,14 @@ public class MultiStringMatcher {
 		}
 	}
 
-	/** Root node of the trie. */
-	private final Node root= new Node(0) {
+	/** The state of the root node in the compiled automaton. */
+	private static final int ROOT= 0;
+
+	/** Marks a free entry in {@link #check} and a missing output link. */
+	private static final int NONE= -1;
+
+	/** Root node of the trie; {@code null} once the trie has been compiled. */
+	private Node root= new Node(0) {
 		@Override
 		Node next(Character c) {
 			// Implements the sentinel loop on the root node for all non-matching characters.
@@ -234,6 +275,24 @@ public class MultiStringMatcher {
 		}
 	};
 
+	/** Per state: offset of its transitions in {@link #check}, or 0 if it has none. */
+	private int[] base;
+
+	/** Per state: the state the transition leading to it starts at, {@link #NONE} for free entries. */
+	private int[] check;
+
+	/** Per state: the state of its fail link. */
+	private int[] fail;
+
+	/** Per state: the state of its output link, or {@link #NONE}. */
+	private int[] output;
+
+	/** Per state: the length of the path leading to it. */
+	private int[] depth;
+
+	/** Per state: the search string matched, or {@code null}. */
+	private String[] match;
+
 	private MultiStringMatcher() {
 		// Always use a Builder or the static helper methods to create a MultiStringMatcher
 	}
@@ -289,6 +348,103 @@ public class MultiStringMatcher {
 		}
 	}
 
+	private void compile() {
+		// Place the transitions of the nodes in breadth-first order at the lowest offset where
+		// the entries for all their characters are still free. Only the free entries are tried
+		// for the first character, so most nodes, which have a single child, are placed at once.
+		// Entries below the first character of the root's children remain free unless a smaller
+		// character needs them, so the search starts at the first free entry after them.
+		base= new int[256];
+		check= new int[256];
+		Arrays.fill(check, NONE);
+		BitSet used= new BitSet();
+		List<Node> nodes= new ArrayList<>();
+		nodes.add(root);
+		root.state= ROOT;
+		used.set(ROOT);
+		int firstFree= ROOT + 1;
+		int size= ROOT + 1;
+		for (int i= 0; i < nodes.size(); i++) {
+			Node node= nodes.get(i);
+			if (!node.hasChildren()) {
+				continue;
+			}
+			char[] chars= new char[node.children.size()];
+			int n= 0;
+			for (Character c : node.children.keySet()) {
+				chars[n++]= c.charValue();
+			}
+			Arrays.sort(chars);
+			int t= used.nextClearBit(Math.max(chars[0] + 1, firstFree));
+			while (!isFree(t - chars[0], chars)) {
+				t= used.nextClearBit(t + 1);
+			}
+			int b= t - chars[0];
+			size= Math.max(size, b + chars[chars.length - 1] + 1);
+			ensureCapacity(size);
+			base[node.state]= b;
+			for (char c : chars) {
+				Node child= node.children.get(Character.valueOf(c));
+				child.state= b + c;
+				check[child.state]= node.state;
+				used.set(child.state);
+				nodes.add(child);
+			}
+			firstFree= used.nextClearBit(i == 0 ? chars[0] + 1 : firstFree);
+		}
+		base= Arrays.copyOf(base, size);
+		check= Arrays.copyOf(check, size);
+		fail= new int[size];
+		output= new int[size];
+		depth= new int[size];
+		match= new String[size];
+		for (Node node : nodes) {
+			int s= node.state;
+			fail[s]= node.fail == null ? ROOT : node.fail.state;
+			output[s]= node.output == null ? NONE : node.output.state;
+			depth[s]= node.depth;
+			match[s]= node.match;
+		}
+		root= null;
+	}
+
+	private boolean isFree(int b, char[] chars) {
+		for (char c : chars) {
+			int t= b + c;
+			if (t < check.length && check[t] != NONE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void ensureCapacity(int size) {
+		int length= check.length;
+		if (size > length) {
+			int newLength= Math.max(size, 2 * length);
+			base= Arrays.copyOf(base, newLength);
+			check= Arrays.copyOf(check, newLength);
+			Arrays.fill(check, length, newLength, NONE);
+		}
+	}
+
+	/**
+	 * Returns the state reached from the given state on the given character.
+	 *
+	 * @param state to start at
+	 * @param c the character
+	 * @return the next state, or -1 if there is no transition; the root state has a transition on
+	 *         every character
+	 */
+	private int next(int state, char c) {
+		int t= base[state] + c;
+		if (t < check.length && check[t] == state) {
+			return t;
+		}
+		// Implements the sentinel loop on the root state for all non-matching characters.
+		return state == ROOT ? ROOT : -1;
+	}
+
 	/**
 	 * Finds all occurrences of any of the search strings of the {@link MultiStringMatcher} in the
 	 * given {@code text} starting at the given {@code offset}, including overlapping occurrences.
@@ -302,21 +458,50 @@ public class MultiStringMatcher {
 	public void find(CharSequence text, int offset, Consumer<Match> matches) {
 		// Main search loop of the standard Aho-Corasick algorithm.
 		int textEnd= text.length();
-		Node node= root;
+		int state= ROOT;
 		for (int i= offset; i < textEnd; i++) {
-			Character c= Character.valueOf(text.charAt(i));
-			Node next;
-			while ((next= node.next(c)) == null) {
-				node= node.fail;
+			char c= text.charAt(i);
+			int next;
+			while ((next= next(state, c)) < 0) {
+				state= fail[state];
 			}
-			node= next;
-			if (node.match != null) {
-				matches.accept(new MatchResult(node.match, i - node.depth + 1));
+			state= next;
+			if (match[state] != null) {
+				matches.accept(new MatchResult(match[state], i - depth[state] + 1));
 			}
-			Node out= node.output;
-			while (out != null) {
-				matches.accept(new MatchResult(out.match, i - out.depth + 1));
-				out= out.output;
+			for (int out= output[state]; out != NONE; out= output[out]) {
+				matches.accept(new MatchResult(match[out], i - depth[out] + 1));
+			}
+		}
+	}
+
+	/**
+	 * Finds all occurrences of any of the search strings of the {@link MultiStringMatcher} in the
+	 * given {@code text} starting at the given {@code offset}, including overlapping occurrences.
+	 * Unlike {@link #find(CharSequence, int, Consumer)}, this method does not create any objects
+	 * for the matches; the matched text can be obtained from the {@code text} if needed.
+	 *
+	 * @param text to search (not {@code null})
+	 * @param offset to start searching at
+	 * @param matches {@link MatchConsumer} the offsets and lengths of all matches are fed to
+	 *
+	 * @since 3.15
+	 */
+	public void findMatches(CharSequence text, int offset, MatchConsumer matches) {
+		int textEnd= text.length();
+		int state= ROOT;
+		for (int i= offset; i < textEnd; i++) {
+			char c= text.charAt(i);
+			int next;
+			while ((next= next(state, c)) < 0) {
+				state= fail[state];
+			}
+			state= next;
+			if (match[state] != null) {
+				matches.accept(i - depth[state] + 1, depth[state]);
+			}
+			for (int out= output[state]; out != NONE; out= output[out]) {
+				matches.accept(i - depth[out] + 1, depth[out]);
 			}
 		}
 	}
@@ -372,62 +557,71 @@ public class MultiStringMatcher {
 		// again from the top). If we have any match, we may stop and return it. If we _do_
 		// change to an alternate path but there's a sub-match with a lower offset, we also
 		// may return that. Otherwise we continue normally on the new path.
+		//
+		// Matches are tracked by their state and offset, and a Match is only created for the result.
 		int textEnd= text.length();
-		Match primaryMatch= null;
-		Match subMatch= null;
-		Node node= root;
+		int primaryMatch= NONE;
+		int primaryOffset= 0;
+		int subMatch= NONE;
+		int subOffset= 0;
+		int state= ROOT;
 		for (int i= offset; i < textEnd; i++) {
-			Character c= Character.valueOf(text.charAt(i));
-			Node next= node.next(c);
-			if (next == null) {
+			char c= text.charAt(i);
+			int next= next(state, c);
+			if (next < 0) {
 				// Can't continue on this path.
-				if (primaryMatch != null) {
+				if (primaryMatch != NONE) {
 					// Return primary match because any other match must have a higher offset.
-					return primaryMatch;
+					return new MatchResult(match[primaryMatch], primaryOffset);
 				}
 				// Search for another path to continue matching.
 				do {
-					node= node.fail;
-				} while ((next= node.next(c)) == null);
-				if (subMatch != null) {
-					if (next == root) {
+					state= fail[state];
+				} while ((next= next(state, c)) < 0);
+				if (subMatch != NONE) {
+					if (next == ROOT) {
 						// We fell off the trie and could not switch to another. Return the best
 						// sub-match.
-						return subMatch;
-					} else if (subMatch.getOffset() < i - node.depth) {
+						return new MatchResult(match[subMatch], subOffset);
+					} else if (subOffset < i - depth[state]) {
 						// The new path starts at i - node.depth == i - next.depth + 1, so if a
 						// sub-match is earlier, we may return it. Any primary match on this path
 						// or on any other path we might switch to later on will have a higher
 						// offset, and so will any sub-matches we might discover on these paths.
-						return subMatch;
+						return new MatchResult(match[subMatch], subOffset);
 					}
 				}
 			}
-			node= next;
-			if (node.match != null) {
+			state= next;
+			if (match[state] != null) {
 				// Any new primary match is better because all have the same offset but any new one
 				// must be longer. An existing sub-match from a previous path is checked above.
-				primaryMatch= new MatchResult(node.match, i - node.depth + 1);
-				if (!node.hasChildren()) {
+				primaryMatch= state;
+				primaryOffset= i - depth[state] + 1;
+				if (base[state] == 0) {
 					// We will fall off the trie on the next character, so we can return right here.
-					return primaryMatch;
+					return new MatchResult(match[primaryMatch], primaryOffset);
 				}
 			}
 			// Check for sub matches but only if there is no primary match because only another
 			// primary match can be better.
-			if (primaryMatch == null) {
-				Node out= node.output;
-				if (out != null) {
-					int newOffset= i - out.depth + 1;
-					if (subMatch == null
-							|| newOffset < subMatch.getOffset()
-							|| (newOffset == subMatch.getOffset() && out.depth > subMatch.getText().length())) {
-						subMatch= new MatchResult(out.match, newOffset);
+			if (primaryMatch == NONE) {
+				int out= output[state];
+				if (out != NONE) {
+					int newOffset= i - depth[out] + 1;
+					if (subMatch == NONE
+							|| newOffset < subOffset
+							|| (newOffset == subOffset && depth[out] > depth[subMatch])) {
+						subMatch= out;
+						subOffset= newOffset;
 					}
 				}
 			}
 		}
-		return primaryMatch != null ? primaryMatch : subMatch;
+		if (primaryMatch != NONE) {
+			return new MatchResult(match[primaryMatch], primaryOffset);
+		}
+		return subMatch != NONE ? new MatchResult(match[subMatch], subOffset) : null;
 	}
 
 	/**
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.Assert;
+
+
+/**
+ * Implements a piece table text store for very large documents. The content set by
+ * {@link #set(String)} is kept as is, inserted text is appended to a separate buffer, and the
+ * document is described by a sequence of pieces referring to ranges of these two buffers. The
+ * pieces are kept in a balanced tree (a randomized treap) ordered by document offset, so no
+ * change ever copies the content of the document.
+ * <p>
+ * <strong>Performance:</strong> Let <var>p</var> be the number of pieces, which grows by at most
+ * two with each change. {@link #replace(int, int, String)} performs in expected <i>O(log p)</i>
+ * plus the length of the inserted text; consecutive typing at the end of the last insertion only
+ * extends the last piece. {@linkplain #get(int, int) get(int, <var>length</var>)} performs in
+ * expected <i>O(log p + length)</i>, {@link #get(int)} in expected <i>O(log p)</i>, and in
+ * <i>O(1)</i> for consecutive offsets within one piece.
+ * <p>
+ * Compared to {@link GapTextStore}, a change far away from the previous one does not move the
+ * text in between, and setting the content does not copy it. This makes the store suitable for
+ * documents of hundreds of megabytes; for small documents {@link GapTextStore} is faster.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed.
+ * </p>
+ *
+ * @see GapTextStore
+ * @since 3.15
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PieceTableTextStore implements ITextStore {
+
+	/** A piece of the document and the root of the subtree of the following pieces. */
+	private static final class Piece {
+		/** <code>true</code> if the piece refers to the original content, else to the added text */
+		final boolean fOriginal;
+		/** The start of the piece in its buffer */
+		final int fStart;
+		/** The length of the piece */
+		int fLength;
+		/** The heap priority of the piece in the treap */
+		final int fPriority;
+		Piece fLeft;
+		Piece fRight;
+		/** The length of all pieces in this subtree */
+		int fSubtreeLength;
+
+		Piece(boolean original, int start, int length, int priority) {
+			fOriginal= original;
+			fStart= start;
+			fLength= length;
+			fPriority= priority;
+			fSubtreeLength= length;
+		}
+	}
+
+	/**
+	 * A piece and its document offset. Immutable, so that concurrent readers can share the last
+	 * looked up piece without seeing the offset of another piece.
+	 */
+	private static final class Cursor {
+		final Piece fPiece;
+		final int fOffset;
+
+		Cursor(Piece piece, int offset) {
+			fPiece= piece;
+			fOffset= offset;
+		}
+	}
+
+	/** The content set by {@link #set(String)} */
+	private String fOriginalContent= ""; //$NON-NLS-1$
+	/** The append-only buffer of inserted text */
+	private char[] fAdded= new char[0];
+	/** The used length of {@link #fAdded} */
+	private int fAddedLength= 0;
+	/** The root of the piece tree, <code>null</code> if the store is empty */
+	private Piece fRoot;
+	/** State of the pseudo random generator for the piece priorities */
+	private int fSeed= 0x2545F491;
+
+	/** The piece inserted by the last change, or <code>null</code> */
+	private Piece fLastInsertion;
+	/** The document offset after the text inserted by the last change */
+	private int fLastInsertionEnd;
+
+	/** The piece of the last {@link #get(int)} call, or <code>null</code> */
+	private Cursor fCursor;
+
+	/** The left result of {@link #split(Piece, int)} */
+	private Piece fSplitLeft;
+	/** The right result of {@link #split(Piece, int)} */
+	private Piece fSplitRight;
+
+	/**
+	 * Creates a new empty text store.
+	 */
+	public PieceTableTextStore() {
+	}
+
+	@Override
+	public final char get(int offset) {
+		Cursor cursor= fCursor;
+		Piece piece;
+		int pieceOffset;
+		if (cursor != null && offset >= cursor.fOffset && offset < cursor.fOffset + cursor.fPiece.fLength) {
+			piece= cursor.fPiece;
+			pieceOffset= cursor.fOffset;
+		} else {
+			if (offset < 0 || offset >= getLength())
+				throw new IndexOutOfBoundsException(offset);
+			piece= fRoot;
+			pieceOffset= 0;
+			while (true) {
+				int leftLength= length(piece.fLeft);
+				if (offset < pieceOffset + leftLength) {
+					piece= piece.fLeft;
+				} else if (offset < pieceOffset + leftLength + piece.fLength) {
+					pieceOffset+= leftLength;
+					break;
+				} else {
+					pieceOffset+= leftLength + piece.fLength;
+					piece= piece.fRight;
+				}
+			}
+			fCursor= new Cursor(piece, pieceOffset);
+		}
+		int index= piece.fStart + offset - pieceOffset;
+		return piece.fOriginal ? fOriginalContent.charAt(index) : fAdded[index];
+	}
+
+	@Override
+	public final String get(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > getLength())
+			throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		if (length == 0)
+			return ""; //$NON-NLS-1$
+		StringBuilder builder= new StringBuilder(length);
+		append(fRoot, offset, offset + length, builder);
+		return builder.toString();
+	}
+
+	@Override
+	public final int getLength() {
+		return length(fRoot);
+	}
+
+	@Override
+	public final void set(String text) {
+		if (text == null)
+			text= ""; //$NON-NLS-1$
+		fOriginalContent= text;
+		fAdded= new char[0];
+		fAddedLength= 0;
+		fRoot= text.isEmpty() ? null : new Piece(true, 0, text.length(), nextPriority());
+		fLastInsertion= null;
+		fCursor= null;
+	}
+
+	@Override
+	public final void replace(int offset, int length, String text) {
+		if (text == null)
+			text= ""; //$NON-NLS-1$
+		if (offset < 0 || length < 0 || offset + length > getLength())
+			throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		if (length == 0 && text.isEmpty())
+			return;
+
+		fCursor= null;
+		if (length == 0 && offset == fLastInsertionEnd && fLastInsertion != null
+				&& fLastInsertion.fStart + fLastInsertion.fLength == fAddedLength) {
+			extendLastInsertion(offset, text);
+			return;
+		}
+
+		split(fRoot, offset);
+		Piece left= fSplitLeft;
+		split(fSplitRight, length);
+		Piece right= fSplitRight;
+
+		fLastInsertion= null;
+		if (!text.isEmpty()) {
+			Piece inserted= new Piece(false, appendToBuffer(text), text.length(), nextPriority());
+			left= merge(left, inserted);
+			fLastInsertion= inserted;
+			fLastInsertionEnd= offset + text.length();
+		}
+		fRoot= merge(left, right);
+	}
+
+	/**
+	 * Appends the text to the piece of the last insertion, which ends at the given offset and at
+	 * the end of the added text buffer.
+	 *
+	 * @param offset the document offset after the last insertion
+	 * @param text the text to append
+	 */
+	private void extendLastInsertion(int offset, String text) {
+		appendToBuffer(text);
+		int delta= text.length();
+		int position= offset - 1;
+		Piece piece= fRoot;
+		while (true) {
+			piece.fSubtreeLength+= delta;
+			int leftLength= length(piece.fLeft);
+			if (position < leftLength) {
+				piece= piece.fLeft;
+			} else if (position < leftLength + piece.fLength) {
+				break;
+			} else {
+				position-= leftLength + piece.fLength;
+				piece= piece.fRight;
+			}
+		}
+		Assert.isTrue(piece == fLastInsertion);
+		piece.fLength+= delta;
+		fLastInsertionEnd+= delta;
+	}
+
+	/**
+	 * Appends the text to the added text buffer.
+	 *
+	 * @param text the text
+	 * @return the start of the text in the buffer
+	 */
+	private int appendToBuffer(String text) {
+		int start= fAddedLength;
+		int newLength= start + text.length();
+		if (newLength > fAdded.length)
+			fAdded= Arrays.copyOf(fAdded, Math.max(newLength, Math.max(256, 2 * fAdded.length)));
+		text.getChars(0, text.length(), fAdded, start);
+		fAddedLength= newLength;
+		return start;
+	}
+
+	/**
+	 * Splits the tree so that the left part has the given length. The results are stored in
+	 * {@link #fSplitLeft} and {@link #fSplitRight}. A piece containing the split offset is split in
+	 * two.
+	 *
+	 * @param piece the root of the tree to split
+	 * @param offset the split offset, relative to the tree
+	 */
+	private void split(Piece piece, int offset) {
+		if (piece == null) {
+			fSplitLeft= null;
+			fSplitRight= null;
+			return;
+		}
+		int leftLength= length(piece.fLeft);
+		if (offset <= leftLength) {
+			split(piece.fLeft, offset);
+			piece.fLeft= fSplitRight;
+			update(piece);
+			fSplitRight= piece;
+		} else if (offset >= leftLength + piece.fLength) {
+			split(piece.fRight, offset - leftLength - piece.fLength);
+			piece.fRight= fSplitLeft;
+			update(piece);
+			fSplitLeft= piece;
+		} else {
+			int inner= offset - leftLength;
+			Piece tail= new Piece(piece.fOriginal, piece.fStart + inner, piece.fLength - inner, nextPriority());
+			Piece right= piece.fRight;
+			piece.fLength= inner;
+			piece.fRight= null;
+			update(piece);
+			fSplitLeft= piece;
+			fSplitRight= merge(tail, right);
+		}
+	}
+
+	/**
+	 * Concatenates two trees.
+	 *
+	 * @param left the tree with the leading pieces, may be <code>null</code>
+	 * @param right the tree with the trailing pieces, may be <code>null</code>
+	 * @return the root of the concatenated tree
+	 */
+	private static Piece merge(Piece left, Piece right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		if (left.fPriority > right.fPriority) {
+			left.fRight= merge(left.fRight, right);
+			update(left);
+			return left;
+		}
+		right.fLeft= merge(left, right.fLeft);
+		update(right);
+		return right;
+	}
+
+	/**
+	 * Appends the text of the given range of a tree to the builder.
+	 *
+	 * @param piece the root of the tree
+	 * @param from the start of the range, relative to the tree
+	 * @param to the end of the range, relative to the tree
+	 * @param builder the builder
+	 */
+	private void append(Piece piece, int from, int to, StringBuilder builder) {
+		if (piece == null || from >= to)
+			return;
+		int leftLength= length(piece.fLeft);
+		if (from < leftLength)
+			append(piece.fLeft, from, Math.min(to, leftLength), builder);
+		int pieceEnd= leftLength + piece.fLength;
+		int start= Math.max(from, leftLength);
+		int end= Math.min(to, pieceEnd);
+		if (start < end) {
+			int bufferStart= piece.fStart + start - leftLength;
+			if (piece.fOriginal)
+				builder.append(fOriginalContent, bufferStart, bufferStart + end - start);
+			else
+				builder.append(fAdded, bufferStart, end - start);
+		}
+		if (to > pieceEnd)
+			append(piece.fRight, Math.max(from, pieceEnd) - pieceEnd, to - pieceEnd, builder);
+	}
+
+	private static int length(Piece piece) {
+		return piece == null ? 0 : piece.fSubtreeLength;
+	}
+
+	private static void update(Piece piece) {
+		piece.fSubtreeLength= length(piece.fLeft) + piece.fLength + length(piece.fRight);
+	}
+
+	private int nextPriority() {
+		// xorshift, the priorities only need to be unrelated to the offsets
+		int seed= fSeed;
+		seed^= seed << 13;
+		seed^= seed >>> 17;
+		seed^= seed << 5;
+		fSeed= seed;
+		return seed;
+	}
+}
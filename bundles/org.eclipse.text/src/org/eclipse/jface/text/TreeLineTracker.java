@@ -201,6 +201,30 @@ abstract class TreeLineTracker implements ILineTracker {
 		if (ASSERT) checkTree();
 	}
 
+	/**
+	 * Package visible constructor for creating a tree tracker from a compact tracker.
+	 *
+	 * @param tracker the compact line tracker
+	 * @since 3.15
+	 */
+	TreeLineTracker(CompactLineTracker tracker) {
+		try {
+			final int n= tracker.getNumberOfLines();
+			String delim= tracker.getLineDelimiter(0);
+			fRoot= new Node(tracker.getLineLength(0), delim == null ? NO_DELIM : delim);
+			Node node= fRoot;
+
+			for (int i= 1; i < n; i++) {
+				delim= tracker.getLineDelimiter(i);
+				node= insertAfter(node, tracker.getLineLength(i), delim == null ? NO_DELIM : delim);
+			}
+		} catch (BadLocationException x) {
+			throw new InternalError();
+		}
+
+		if (ASSERT) checkTree();
+	}
+
 	/**
 	 * Returns the node (line) including a certain offset. If the offset is between two
 	 * lines, the line starting at <code>offset</code> is returned.
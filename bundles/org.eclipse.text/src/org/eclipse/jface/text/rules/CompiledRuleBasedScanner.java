@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.rules;
+
+import java.util.Arrays;
+
+
+/**
+ * A buffered rule based scanner which dispatches on the first character of a token. When the
+ * rules change, the scanner compiles a table which holds for each character the rules that can
+ * match a token starting with it. {@link #nextToken()} then only evaluates these rules, in the
+ * configured order, instead of trying every rule. The returned tokens are the same as the ones
+ * of {@link BufferedRuleBasedScanner}.
+ * <p>
+ * The possible first characters are known for the rules of this package:
+ * {@link PatternRule}, {@link SingleLineRule}, {@link MultiLineRule}, {@link EndOfLineRule},
+ * {@link WordPatternRule}, {@link WordRule}, {@link NumberRule} and {@link WhitespaceRule}.
+ * Subclasses of these rules and all other rules are evaluated for every token, like in
+ * {@link RuleBasedScanner}. The word and whitespace detectors of the rules must always answer the
+ * same for the same character. A rule which does not match but leaves the scanner at a different
+ * offset makes the scanner evaluate all following rules, as {@link RuleBasedScanner} does.
+ * </p>
+ *
+ * @since 3.15
+ */
+public class CompiledRuleBasedScanner extends BufferedRuleBasedScanner {
+
+	/** The number of characters with an own entry in the dispatch table */
+	private static final int TABLE_SIZE= 256;
+
+	/** The rules the dispatch table has been compiled for */
+	private IRule[] fCompiledRules;
+	/**
+	 * The indices of the rules to evaluate for a token starting with a character below
+	 * {@link #TABLE_SIZE}, and at index {@link #TABLE_SIZE} for all other characters and the end
+	 * of the range.
+	 */
+	private int[][] fDispatchTable;
+
+
+	/**
+	 * Creates a new compiled rule based scanner which does not have any rule and a default buffer
+	 * size of 500 characters.
+	 */
+	public CompiledRuleBasedScanner() {
+		super();
+	}
+
+	/**
+	 * Creates a new compiled rule based scanner which does not have any rule. The buffer size is
+	 * set to the given number of characters.
+	 *
+	 * @param size the buffer size
+	 */
+	public CompiledRuleBasedScanner(int size) {
+		super(size);
+	}
+
+	@Override
+	public IToken nextToken() {
+		if (fRules != fCompiledRules)
+			compile();
+
+		fTokenOffset= fOffset;
+		fColumn= UNDEFINED;
+
+		if (fDispatchTable != null) {
+			int c= read();
+			unread();
+			int[] candidates= fDispatchTable[c >= 0 && c < TABLE_SIZE ? c : TABLE_SIZE];
+			for (int candidate : candidates) {
+				IToken token= fRules[candidate].evaluate(this);
+				if (!token.isUndefined())
+					return token;
+				if (fOffset != fTokenOffset) {
+					// the rule has not restored the offset, the first character is no longer known
+					for (int i= candidate + 1; i < fRules.length; i++) {
+						token= fRules[i].evaluate(this);
+						if (!token.isUndefined())
+							return token;
+					}
+					break;
+				}
+			}
+		}
+
+		if (read() == EOF)
+			return Token.EOF;
+		return fDefaultReturnToken;
+	}
+
+	/**
+	 * Compiles the dispatch table for the current rules.
+	 */
+	private void compile() {
+		fCompiledRules= fRules;
+		if (fRules == null) {
+			fDispatchTable= null;
+			return;
+		}
+
+		int[][] candidates= new int[TABLE_SIZE + 1][fRules.length];
+		int[] counts= new int[TABLE_SIZE + 1];
+		boolean[] firstCharacters= new boolean[TABLE_SIZE + 1];
+		for (int rule= 0; rule < fRules.length; rule++) {
+			computeFirstCharacters(fRules[rule], firstCharacters);
+			for (int i= 0; i <= TABLE_SIZE; i++) {
+				if (firstCharacters[i])
+					candidates[i][counts[i]++]= rule;
+			}
+		}
+
+		int[][] table= new int[TABLE_SIZE + 1][];
+		for (int i= 0; i <= TABLE_SIZE; i++) {
+			int[] rules= Arrays.copyOf(candidates[i], counts[i]);
+			// characters of the same class usually have the same candidates, share their arrays
+			for (int j= 0; j < i && table[i] == null; j++) {
+				if (Arrays.equals(table[j], rules))
+					table[i]= table[j];
+			}
+			if (table[i] == null)
+				table[i]= rules;
+		}
+		fDispatchTable= table;
+	}
+
+	/**
+	 * Computes the characters with which a token matched by the given rule can start. The entry
+	 * at {@link #TABLE_SIZE} stands for all other characters and the end of the range.
+	 *
+	 * @param rule the rule
+	 * @param firstCharacters the array to fill
+	 */
+	private static void computeFirstCharacters(IRule rule, boolean[] firstCharacters) {
+		Class<?> type= rule.getClass();
+		if (type == PatternRule.class || type == SingleLineRule.class || type == MultiLineRule.class
+				|| type == EndOfLineRule.class || type == WordPatternRule.class) {
+			Arrays.fill(firstCharacters, false);
+			char start= ((PatternRule) rule).fStartSequence[0];
+			firstCharacters[start < TABLE_SIZE ? start : TABLE_SIZE]= true;
+		} else if (type == WordRule.class) {
+			IWordDetector detector= ((WordRule) rule).fDetector;
+			for (int c= 0; c < TABLE_SIZE; c++)
+				firstCharacters[c]= detector.isWordStart((char) c);
+			firstCharacters[TABLE_SIZE]= true;
+		} else if (type == NumberRule.class) {
+			for (int c= 0; c < TABLE_SIZE; c++)
+				firstCharacters[c]= Character.isDigit((char) c);
+			firstCharacters[TABLE_SIZE]= true;
+		} else if (type == WhitespaceRule.class) {
+			IWhitespaceDetector detector= ((WhitespaceRule) rule).fDetector;
+			for (int c= 0; c < TABLE_SIZE; c++)
+				firstCharacters[c]= detector.isWhitespace((char) c);
+			firstCharacters[TABLE_SIZE]= true;
+		} else {
+			Arrays.fill(firstCharacters, true);
+		}
+	}
+}
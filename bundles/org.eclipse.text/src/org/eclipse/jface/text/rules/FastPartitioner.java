@@ -16,6 +16,8 @@ package org.eclipse.jface.text.rules;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.Platform;
@@ -31,6 +33,7 @@ import org.eclipse.jface.text.IDocumentPartitionerExtension;
 import org.eclipse.jface.text.IDocumentPartitionerExtension2;
 import org.eclipse.jface.text.IDocumentPartitionerExtension3;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
@@ -54,6 +57,15 @@ import org.eclipse.jface.text.TypedRegion;
  * {@link #clearPositionCache()} after modifying the partitioner's positions.
  * The cached positions may be accessed through {@link #getPositions()}.
  * </p>
+ * <p>
+ * With {@link #setLazyScanning(int)} the partitioner only partitions the document as far as
+ * it is asked for partitions, plus one chunk. A change is rescanned for at most one chunk, so an
+ * unclosed comment does not rescan the rest of the document. If the document is
+ * {@link ISynchronizable} and has a lock object, the rest of the document is partitioned in the
+ * background while holding the lock. Partition queries then scan and read the partitions while
+ * holding the same lock. In this mode {@link #getPositions()} only returns the partitions found
+ * so far.
+ * </p>
  *
  * Originally since 3.1, but moved to org.eclipse.text in 3.14
  *
@@ -99,6 +111,24 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 * someone requests partition information.
 	 */
 	private Position[] fCachedPositions= null;
+	/**
+	 * The length of the chunks in which the document is partitioned lazily, or 0 if the whole
+	 * document is partitioned on initialization.
+	 * @since 3.15
+	 */
+	private int fScanChunkSize= 0;
+	/**
+	 * In lazy mode, the offset up to which the document has been partitioned. The scan always
+	 * stops between two tokens, so the partitioning can continue at this offset like after the
+	 * end of a partition.
+	 * @since 3.15
+	 */
+	private int fScannedEnd;
+	/**
+	 * Incremented whenever a background scan becomes obsolete.
+	 * @since 3.15
+	 */
+	private volatile int fScanGeneration;
 	/** Debug option for cache consistency checking. */
 	private static final boolean CHECK_CACHE_CONSISTENCY= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.jface.text/debug/FastPartitioner/PositionCache"));  //$NON-NLS-1$//$NON-NLS-2$;
 
@@ -116,6 +146,55 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		fPositionUpdater= new DefaultPositionUpdater(fPositionCategory);
 	}
 
+	/**
+	 * Holder of the executor partitioning documents in the background.
+	 * @since 3.15
+	 */
+	private static class BackgroundScanner {
+		static final ExecutorService EXECUTOR= Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread= new Thread(runnable, "Partitioner Background Scanner"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+	}
+
+	/**
+	 * Sets whether this partitioner partitions the document lazily. Instead of scanning the
+	 * whole document on initialization and, after a change, until the scanner resynchronizes with
+	 * the previous partitioning, the document is scanned in chunks of the given length:
+	 * <ul>
+	 * <li>on initialization, only the first chunk is scanned,</li>
+	 * <li>queries for partitions scan up to the requested region plus one chunk, so they only block
+	 * if they ask for a region that has not been partitioned yet,</li>
+	 * <li>a change is rescanned for at most one chunk after the changed text, the partitions after it
+	 * are dropped and scanned again when needed,</li>
+	 * <li>the rest is scanned in the background if the document is {@link ISynchronizable} and has a
+	 * lock object.</li>
+	 * </ul>
+	 * Must be called before the partitioner is connected.
+	 *
+	 * @param chunkSize the number of characters to scan at once, or 0 to partition the whole
+	 *            document on initialization
+	 * @since 3.15
+	 */
+	public void setLazyScanning(int chunkSize) {
+		Assert.isLegal(chunkSize >= 0);
+		Assert.isTrue(fDocument == null);
+		fScanChunkSize= chunkSize;
+	}
+
+	/**
+	 * Returns whether the whole document has been partitioned. This is always the case unless
+	 * {@linkplain #setLazyScanning(int) lazy scanning} is enabled.
+	 *
+	 * @return <code>true</code> if the partitioning of the whole document is known
+	 * @since 3.15
+	 */
+	public boolean isScanComplete() {
+		return fScanChunkSize == 0 || fIsInitialized && fScannedEnd >= fDocument.getLength();
+	}
+
 	@Override
 	public String[] getManagingPositionCategories() {
 		return new String[] { fPositionCategory };
@@ -141,6 +220,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		fDocument.addPositionCategory(fPositionCategory);
 
 		fIsInitialized= false;
+		fScannedEnd= 0;
 		if (!delayInitialization)
 			checkInitialization();
 	}
@@ -162,6 +242,20 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	protected void initialize() {
 		fIsInitialized= true;
 		clearPositionCache();
+		if (fScanChunkSize > 0) {
+			Object lockObject= getScanLockObject();
+			if (lockObject == null) {
+				fScannedEnd= 0;
+				scan(fScanChunkSize);
+				return;
+			}
+			synchronized (lockObject) {
+				fScannedEnd= 0;
+				scan(fScanChunkSize);
+				scheduleBackgroundScan();
+			}
+			return;
+		}
 		fScanner.setRange(fDocument, 0, fDocument.getLength());
 
 		try {
@@ -184,6 +278,119 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		}
 	}
 
+	/**
+	 * In lazy mode, makes sure that the partitioning of the document is known up to the given
+	 * offset. If it is not, the document is scanned up to the offset plus one chunk. Does nothing
+	 * if the whole document has been partitioned.
+	 * <p>
+	 * Subclasses that access the {@linkplain #getPositions() positions} directly have to call this
+	 * method first.
+	 * </p>
+	 *
+	 * @param offset the offset up to which the partitioning has to be known
+	 * @since 3.15
+	 */
+	protected final void ensureScanned(int offset) {
+		if (fScanChunkSize == 0 || !fIsInitialized)
+			return;
+		Object lockObject= getScanLockObject();
+		if (lockObject == null) {
+			if (offset > fScannedEnd)
+				scan(offset + fScanChunkSize);
+			return;
+		}
+		synchronized (lockObject) {
+			if (offset > fScannedEnd) {
+				scan(offset + fScanChunkSize);
+				scheduleBackgroundScan();
+			}
+		}
+	}
+
+	/**
+	 * Returns the lock object held while the document is partitioned, or <code>null</code> if
+	 * the document is not partitioned in the background.
+	 *
+	 * @return the lock object of the document in lazy mode, or <code>null</code>
+	 */
+	private Object getScanLockObject() {
+		if (fScanChunkSize == 0 || !(fDocument instanceof ISynchronizable))
+			return null;
+		return ((ISynchronizable) fDocument).getLockObject();
+	}
+
+	/**
+	 * Continues the partitioning at {@link #fScannedEnd} until the end of the first token that
+	 * ends at or after the given offset.
+	 *
+	 * @param offset the offset up to which to scan
+	 */
+	private void scan(int offset) {
+		int length= fDocument.getLength();
+		if (fScannedEnd >= length || offset <= fScannedEnd)
+			return;
+
+		clearPositionCache();
+		fScanner.setPartialRange(fDocument, fScannedEnd, length - fScannedEnd, IDocument.DEFAULT_CONTENT_TYPE, fScannedEnd);
+		int scannedEnd= length;
+		try {
+			IToken token= fScanner.nextToken();
+			while (!token.isEOF()) {
+
+				String contentType= getTokenContentType(token);
+				int start= fScanner.getTokenOffset();
+				int end= start + fScanner.getTokenLength();
+
+				if (isSupportedContentType(contentType))
+					fDocument.addPosition(fPositionCategory, new TypedPosition(start, end - start, contentType));
+
+				if (end >= offset) {
+					scannedEnd= end;
+					break;
+				}
+				token= fScanner.nextToken();
+			}
+		} catch (BadLocationException x) {
+			// cannot happen as offsets come from scanner
+		} catch (BadPositionCategoryException x) {
+			// cannot happen if document has been connected before
+		}
+		fScannedEnd= scannedEnd;
+	}
+
+	/**
+	 * In lazy mode, schedules the partitioning of the rest of the document in the background if
+	 * the document can be locked.
+	 */
+	private void scheduleBackgroundScan() {
+		Object lockObject= getScanLockObject();
+		if (lockObject == null || isScanComplete())
+			return;
+		IDocument document= fDocument;
+		int generation= ++fScanGeneration;
+		BackgroundScanner.EXECUTOR.execute(() -> scanInBackground(document, lockObject, generation));
+	}
+
+	/**
+	 * Partitions the next chunk of the document and reschedules itself until the whole document
+	 * has been partitioned, or the scan has become obsolete.
+	 *
+	 * @param document the document to scan
+	 * @param lockObject the lock object of the document
+	 * @param generation the generation of the scan
+	 */
+	private void scanInBackground(IDocument document, Object lockObject, int generation) {
+		synchronized (lockObject) {
+			if (generation != fScanGeneration || document != fDocument || !fIsInitialized || fActiveRewriteSession != null)
+				return;
+			scan(fScannedEnd + fScanChunkSize);
+			if (isScanComplete())
+				return;
+		}
+		// let other documents and the lock holders continue between chunks
+		BackgroundScanner.EXECUTOR.execute(() -> scanInBackground(document, lockObject, generation));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -194,6 +401,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	public void disconnect() {
 
 		Assert.isTrue(fDocument.containsPositionCategory(fPositionCategory));
+		fScanGeneration++;
 
 		try {
 			fDocument.removePositionCategory(fPositionCategory);
@@ -295,15 +503,23 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		if (!fIsInitialized)
 			return null;
 
-		try {
-			Assert.isTrue(e.getDocument() == fDocument);
+		Assert.isTrue(e.getDocument() == fDocument);
+
+		int newLength= e.getText() == null ? 0 : e.getText().length();
+		if (fScanChunkSize > 0) {
+			// the change is behind the partitioned range
+			if (e.getOffset() > fScannedEnd)
+				return null;
+			int changeEnd= e.getOffset() + e.getLength();
+			fScannedEnd= fScannedEnd > changeEnd ? fScannedEnd + newLength - e.getLength() : e.getOffset();
+		}
 
+		try {
 			Position[] category= getPositions();
 			IRegion line= fDocument.getLineInformationOfOffset(e.getOffset());
 			int reparseStart= line.getOffset();
 			int partitionStart= -1;
 			String contentType= null;
-			int newLength= e.getText() == null ? 0 : e.getText().length();
 
 			int first= fDocument.computeIndexInCategory(fPositionCategory, reparseStart);
 			if (first > 0)	{
@@ -341,6 +557,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 			fScanner.setPartialRange(fDocument, reparseStart, fDocument.getLength() - reparseStart, contentType, partitionStart);
 
 			int behindLastScannedPosition= reparseStart;
+			boolean isScanStopped= false;
 			IToken token= fScanner.nextToken();
 
 			while (!token.isEOF()) {
@@ -390,6 +607,11 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 					}
 				}
 
+				if (fScanChunkSize > 0 && isLazyRescanDone(e, behindLastScannedPosition)) {
+					isScanStopped= true;
+					break;
+				}
+
 				token= fScanner.nextToken();
 			}
 
@@ -398,12 +620,25 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 			clearPositionCache();
 			category= getPositions();
 			TypedPosition p;
-			while (first < category.length) {
-				p= (TypedPosition) category[first++];
+			// remove from the end, which does not move the remaining positions
+			for (int i= category.length - 1; i >= first; i--) {
+				p= (TypedPosition) category[i];
 				fDocument.removePosition(fPositionCategory, p);
 				rememberRegion(p.offset, p.length);
 			}
 
+			if (fScanChunkSize > 0) {
+				if (isScanStopped) {
+					// the partitioning after the scan is unknown now
+					if (fScannedEnd > behindLastScannedPosition)
+						rememberRegion(behindLastScannedPosition, fScannedEnd - behindLastScannedPosition);
+					fScannedEnd= behindLastScannedPosition;
+					scheduleBackgroundScan();
+				} else {
+					fScannedEnd= fDocument.getLength();
+				}
+			}
+
 		} catch (BadPositionCategoryException x) {
 			// should never happen on connected documents
 		} catch (BadLocationException x) {
@@ -414,6 +649,23 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		return createRegion();
 	}
 
+	/**
+	 * Tells whether the rescan after a change in lazy mode can stop at the given offset. If there
+	 * are no partitions after the offset, the rescan stops after one chunk past the change offset.
+	 * Otherwise it stops after one chunk past the changed text, if the scanner has not
+	 * resynchronized with the previous partitioning by then.
+	 *
+	 * @param e the document event
+	 * @param behindLastScannedPosition the offset after the last scanned token
+	 * @return <code>true</code> if the rescan can stop
+	 */
+	private boolean isLazyRescanDone(DocumentEvent e, int behindLastScannedPosition) {
+		if (behindLastScannedPosition >= fScannedEnd)
+			return behindLastScannedPosition >= e.getOffset() + fScanChunkSize;
+		int changeEnd= e.getOffset() + (e.getText() == null ? 0 : e.getText().length());
+		return behindLastScannedPosition >= changeEnd + fScanChunkSize;
+	}
+
 	/**
 	 * Returns the position in the partitoner's position category which is
 	 * close to the given offset. This is, the position has either an offset which
@@ -463,6 +715,22 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	@Override
 	public String getContentType(int offset) {
 		checkInitialization();
+		Object lockObject= getScanLockObject();
+		if (lockObject == null)
+			return findContentType(offset);
+		synchronized (lockObject) {
+			return findContentType(offset);
+		}
+	}
+
+	/**
+	 * Returns the content type at the given offset, scanning up to it first in lazy mode.
+	 *
+	 * @param offset the offset
+	 * @return the content type
+	 */
+	private String findContentType(int offset) {
+		ensureScanned(offset + 1);
 
 		TypedPosition p= findClosestPosition(offset);
 		if (p != null && p.includes(offset))
@@ -480,7 +748,40 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	@Override
 	public ITypedRegion getPartition(int offset) {
 		checkInitialization();
+		Object lockObject= getScanLockObject();
+		if (lockObject == null)
+			return findScannedPartition(offset);
+		synchronized (lockObject) {
+			return findScannedPartition(offset);
+		}
+	}
 
+	/**
+	 * Returns the partition containing the given offset, scanning up to its end first in lazy
+	 * mode.
+	 *
+	 * @param offset the offset
+	 * @return the partition
+	 */
+	private ITypedRegion findScannedPartition(int offset) {
+		ensureScanned(offset + 1);
+
+		ITypedRegion partition= findPartition(offset);
+		// in lazy mode, a partition reaching into the unscanned range may end there
+		while (!isScanComplete() && partition.getOffset() + partition.getLength() > fScannedEnd) {
+			scan(fScannedEnd + fScanChunkSize);
+			partition= findPartition(offset);
+		}
+		return partition;
+	}
+
+	/**
+	 * Returns the partition containing the given offset according to the partitions found so far.
+	 *
+	 * @param offset the offset
+	 * @return the partition
+	 */
+	private ITypedRegion findPartition(int offset) {
 		try {
 
 			Position[] category = getPositions();
@@ -620,6 +921,24 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	@Override
 	public ITypedRegion[] computePartitioning(int offset, int length, boolean includeZeroLengthPartitions) {
 		checkInitialization();
+		Object lockObject= getScanLockObject();
+		if (lockObject == null)
+			return computeScannedPartitioning(offset, length, includeZeroLengthPartitions);
+		synchronized (lockObject) {
+			return computeScannedPartitioning(offset, length, includeZeroLengthPartitions);
+		}
+	}
+
+	/**
+	 * Computes the partitioning of the given range, scanning up to its end first in lazy mode.
+	 *
+	 * @param offset the offset of the range
+	 * @param length the length of the range
+	 * @param includeZeroLengthPartitions whether to include zero-length partitions
+	 * @return the partitioning of the range
+	 */
+	private ITypedRegion[] computeScannedPartitioning(int offset, int length, boolean includeZeroLengthPartitions) {
+		ensureScanned(offset + length + 1);
 		List<TypedRegion> list= new ArrayList<>();
 
 		try {
@@ -773,6 +1092,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 */
 	protected final void flushRewriteSession() {
 		fActiveRewriteSession= null;
+		fScanGeneration++;
 
 		// remove all position belonging to the partitioner position category
 		try {
@@ -727,7 +727,7 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 		cleanup(true);
 
 		try {
-			Position[] positions= document.getPositions(IDocument.DEFAULT_CATEGORY, offset, length, canStartBefore, canEndAfter);
+			Position[] positions= getRegionPositions(document, offset, length, canStartBefore, canEndAfter);
 			return new AnnotationsInterator(positions, fPositions);
 		} catch (BadPositionCategoryException e) {
 			// can happen if e.g. the document doesn't contain such a category, or when removed in a different thread
@@ -735,6 +735,24 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 		}
 	}
 
+	/**
+	 * Returns the document positions in the given region, as specified in
+	 * {@link IAnnotationModelExtension2#getAnnotationIterator(int, int, boolean, boolean)}. The
+	 * result may contain positions which are not managed by this model.
+	 *
+	 * @param document the connected document
+	 * @param offset region start
+	 * @param length region length
+	 * @param canStartBefore position can start before region
+	 * @param canEndAfter position can end after region
+	 * @return the positions in the region
+	 * @throws BadPositionCategoryException if the positions are not available
+	 * @since 3.15
+	 */
+	Position[] getRegionPositions(AbstractDocument document, int offset, int length, boolean canStartBefore, boolean canEndAfter) throws BadPositionCategoryException {
+		return document.getPositions(IDocument.DEFAULT_CATEGORY, offset, length, canStartBefore, canEndAfter);
+	}
+
 	/**
 	 * Returns all annotations managed by this model. <code>cleanup</code>
 	 * indicates whether all annotations whose associated positions are
@@ -883,11 +901,11 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 			if (p != null) {
 
 				if (position.getOffset() != p.getOffset() || position.getLength() != p.getLength()) {
-					fDocument.removePosition(p);
+					removePosition(fDocument, p);
 					p.setOffset(position.getOffset());
 					p.setLength(position.getLength());
 					try {
-						fDocument.addPosition(p);
+						addPosition(fDocument, p);
 					} catch (BadLocationException e) {
 						// ignore invalid position
 					}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.source;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.AbstractDocument;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IPositionUpdater;
+import org.eclipse.jface.text.Position;
+
+
+/**
+ * An annotation model for large numbers of annotations, which answers
+ * {@link #getAnnotationIterator(int, int, boolean, boolean) region queries} without visiting all
+ * positions of the document.
+ * <p>
+ * When connected to an {@link AbstractDocument}, the positions of the annotations are not added to
+ * the default position category, but to position categories of this model which are ordered by
+ * offset and each hold positions up to a maximal length. A position overlapping a region can then
+ * only start within the maximal length before the region, so a region query costs
+ * <i>O(log n + k)</i> for <var>k</var> positions near the region, plus the number of positions
+ * longer than 256K characters. The categories are kept up to date by {@link DefaultPositionUpdater}s,
+ * and positions whose length changed with a document change are moved to the matching category
+ * while the document updates its positions.
+ * </p>
+ * <p>
+ * Together with {@link AbstractDocument#setIndexedPositionStore(boolean) the indexed position
+ * store} of the document, adding, removing and replacing annotations does not move the positions
+ * behind them either. Clients must not change the positions of the annotations other than through
+ * {@link #modifyAnnotationPosition(Annotation, Position)}.
+ * </p>
+ *
+ * @since 3.15
+ */
+public class IndexedAnnotationModel extends AnnotationModel {
+
+	/** The maximal length of the positions in each category, except for the last category */
+	private static final int[] MAX_LENGTHS= { 64, 4 * 1024, 256 * 1024 };
+
+	/**
+	 * Moves the positions whose length changed with a document change to the matching category.
+	 * Runs after the default position updaters of the categories.
+	 */
+	private class CategoryUpdater implements IPositionUpdater {
+
+		@Override
+		public void update(DocumentEvent event) {
+			IDocument document= event.getDocument();
+			if (!(document instanceof AbstractDocument))
+				return;
+
+			int offset= event.getOffset();
+			int end= offset + (event.getText() == null ? 0 : event.getText().length());
+			for (int i= 0; i < fCategories.length; i++) {
+				int start= i < MAX_LENGTHS.length ? Math.max(0, offset - MAX_LENGTHS[i]) : 0;
+				try {
+					for (Position position : ((AbstractDocument) document).getPositions(fCategories[i], start, end + 1 - start, false, true)) {
+						int index= getCategoryIndex(position.getLength());
+						if (index != i && !position.isDeleted()) {
+							document.removePosition(fCategories[i], position);
+							document.addPosition(fCategories[index], position);
+						}
+					}
+				} catch (BadPositionCategoryException | BadLocationException e) {
+					// cannot happen, the categories are installed and the positions valid
+				}
+			}
+		}
+	}
+
+	/** The position categories, by maximal length of their positions */
+	private final String[] fCategories;
+	/** The position updaters of the categories */
+	private final IPositionUpdater[] fPositionUpdaters;
+	/** The updater moving positions between the categories */
+	private final IPositionUpdater fCategoryUpdater= new CategoryUpdater();
+
+
+	/**
+	 * Creates a new, empty indexed annotation model.
+	 */
+	public IndexedAnnotationModel() {
+		String prefix= "__indexed_annotations_" + System.identityHashCode(this) + '_'; //$NON-NLS-1$
+		fCategories= new String[MAX_LENGTHS.length + 1];
+		fPositionUpdaters= new IPositionUpdater[fCategories.length];
+		for (int i= 0; i < fCategories.length; i++) {
+			fCategories[i]= prefix + i;
+			fPositionUpdaters[i]= new DefaultPositionUpdater(fCategories[i]);
+		}
+	}
+
+	@Override
+	protected void addPosition(IDocument document, Position position) throws BadLocationException {
+		if (!(document instanceof AbstractDocument)) {
+			super.addPosition(document, position);
+			return;
+		}
+
+		if (!document.containsPositionCategory(fCategories[0])) {
+			for (int i= 0; i < fCategories.length; i++) {
+				document.addPositionCategory(fCategories[i]);
+				document.addPositionUpdater(fPositionUpdaters[i]);
+			}
+			document.addPositionUpdater(fCategoryUpdater);
+		}
+
+		try {
+			document.addPosition(fCategories[getCategoryIndex(position.getLength())], position);
+		} catch (BadPositionCategoryException e) {
+			// cannot happen, the categories have been added
+		}
+	}
+
+	@Override
+	protected void removePosition(IDocument document, Position position) {
+		if (!(document instanceof AbstractDocument)) {
+			super.removePosition(document, position);
+			return;
+		}
+
+		try {
+			document.removePosition(fCategories[getCategoryIndex(position.getLength())], position);
+		} catch (BadPositionCategoryException e) {
+			// no position has been added yet
+		}
+	}
+
+	@Override
+	public void disconnect(IDocument document) {
+		super.disconnect(document);
+
+		if (fDocument == null && document.containsPositionCategory(fCategories[0])) {
+			document.removePositionUpdater(fCategoryUpdater);
+			for (int i= 0; i < fCategories.length; i++) {
+				document.removePositionUpdater(fPositionUpdaters[i]);
+				try {
+					document.removePositionCategory(fCategories[i]);
+				} catch (BadPositionCategoryException e) {
+					// cannot happen, the category is contained
+				}
+			}
+		}
+	}
+
+	@Override
+	Position[] getRegionPositions(AbstractDocument document, int offset, int length, boolean canStartBefore, boolean canEndAfter) throws BadPositionCategoryException {
+		if (!document.containsPositionCategory(fCategories[0]))
+			return new Position[0];
+
+		int documentLength= document.getLength();
+		List<Position> result= new ArrayList<>();
+		for (int i= 0; i < fCategories.length; i++) {
+			int start= offset;
+			if (canStartBefore)
+				start= i < MAX_LENGTHS.length ? Math.max(0, offset - MAX_LENGTHS[i]) : 0;
+			for (Position position : document.getPositions(fCategories[i], start, offset + length + 1 - start, false, true)) {
+				if (isInRegion(position, offset, length, documentLength, canStartBefore, canEndAfter))
+					result.add(position);
+			}
+		}
+		return result.toArray(new Position[result.size()]);
+	}
+
+	/**
+	 * Returns whether the position is in the region, exactly like
+	 * {@link AbstractDocument#getPositions(String, int, int, boolean, boolean)} decides it.
+	 *
+	 * @param position the position
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @param documentLength the length of the document
+	 * @param canStartBefore position can start before region
+	 * @param canEndAfter position can end after region
+	 * @return <code>true</code> if the position is in the region
+	 */
+	private static boolean isInRegion(Position position, int offset, int length, int documentLength, boolean canStartBefore, boolean canEndAfter) {
+		int start= position.getOffset();
+		int end= start + position.getLength();
+		// the document orders the ends of empty positions by their offset
+		int last= position.getLength() == 0 ? start : end - 1;
+		int regionEnd= offset + length;
+		if (canStartBefore && canEndAfter) {
+			// the document only visits the positions starting before the region end in its first half
+			return position.overlapsWith(offset, length) && (offset >= documentLength / 2 || start < regionEnd);
+		} else if (canStartBefore) {
+			return offset <= last && last < regionEnd;
+		} else if (canEndAfter) {
+			return offset <= start && start < regionEnd;
+		} else {
+			return offset <= start && start < regionEnd && offset <= end - 1 && end - 1 < regionEnd;
+		}
+	}
+
+	/**
+	 * Returns the index of the category holding positions of the given length.
+	 *
+	 * @param length the length of the position
+	 * @return the index of the category
+	 */
+	private static int getCategoryIndex(int length) {
+		int index= 0;
+		while (index < MAX_LENGTHS.length && length > MAX_LENGTHS[index])
+			index++;
+		return index;
+	}
+}
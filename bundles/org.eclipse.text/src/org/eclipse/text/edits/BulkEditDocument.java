@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.edits;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.DocumentRewriteSession;
+import org.eclipse.jface.text.DocumentRewriteSessionType;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IDocumentListener;
+
+/**
+ * A document collecting the changes of an edit tree to a region of another document, which
+ * are then applied to that document as one change.
+ * <p>
+ * The text of the region is kept in a gap buffer. Edit trees change the document from the
+ * last edit to the first and undo edits from the first to the last, so each change only moves
+ * the gap by the distance to the previous change, and the text is rebuilt in one pass. The
+ * listeners of this document receive the same events as the listeners of the other document
+ * would receive if the edits were applied one by one.
+ * </p>
+ *
+ * @since 3.15
+ */
+class BulkEditDocument extends EditDocument {
+
+	/** The document to change. */
+	private final IDocument fDocument;
+	/** The offset of the region in the document. */
+	private final int fOffset;
+	/** The original length of the region. */
+	private final int fOriginalLength;
+	/** The number of characters of the document after the region. */
+	private final int fTailLength;
+
+	/** The text of the region with a gap. */
+	private char[] fContent;
+	/** The start of the gap in {@link #fContent}. */
+	private int fGapStart;
+	/** The end of the gap in {@link #fContent}. */
+	private int fGapEnd;
+
+	/** The start of the changed text relative to the region, <code>-1</code> if not changed. */
+	private int fChangeStart= -1;
+	/** The number of unchanged characters at the end of the region. */
+	private int fUnchangedSuffix;
+
+	/** The document listeners. */
+	private final List<IDocumentListener> fListeners= new ArrayList<>(1);
+
+	/**
+	 * Creates a new document for the changes to the given region of a document.
+	 *
+	 * @param document the document to change
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @throws BadLocationException if the region is not in the document
+	 */
+	public BulkEditDocument(IDocument document, int offset, int length) throws BadLocationException {
+		super(""); //$NON-NLS-1$
+		fDocument= document;
+		fOffset= offset;
+		fOriginalLength= length;
+		fTailLength= document.getLength() - offset - length;
+		String text= document.get(offset, length);
+		fContent= new char[length + Math.max(16, length >> 3)];
+		text.getChars(0, length, fContent, 0);
+		fGapStart= length;
+		fGapEnd= fContent.length;
+		fUnchangedSuffix= length;
+	}
+
+	@Override
+	public void addDocumentListener(IDocumentListener listener) {
+		if (!fListeners.contains(listener))
+			fListeners.add(listener);
+	}
+
+	@Override
+	public void removeDocumentListener(IDocumentListener listener) {
+		fListeners.remove(listener);
+	}
+
+	@Override
+	public String get() {
+		try {
+			return fDocument.get(0, fOffset) + get(fOffset, getContentLength()) + fDocument.get(fOffset + fOriginalLength, fTailLength);
+		} catch (BadLocationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String get(int offset, int length) throws BadLocationException {
+		int start= offset - fOffset;
+		int end= start + length;
+		if (start < 0 || length < 0 || end > getContentLength())
+			throw new BadLocationException();
+
+		if (end <= fGapStart)
+			return new String(fContent, start, length);
+		int gapLength= fGapEnd - fGapStart;
+		if (start >= fGapStart)
+			return new String(fContent, start + gapLength, length);
+		StringBuilder buffer= new StringBuilder(length);
+		buffer.append(fContent, start, fGapStart - start);
+		buffer.append(fContent, fGapEnd, end - fGapStart);
+		return buffer.toString();
+	}
+
+	@Override
+	public int getLength() {
+		return fOffset + getContentLength() + fTailLength;
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) throws BadLocationException {
+		int start= offset - fOffset;
+		int contentLength= getContentLength();
+		if (start < 0 || length < 0 || start + length > contentLength)
+			throw new BadLocationException();
+		if (text == null)
+			text= ""; //$NON-NLS-1$
+
+		DocumentEvent event= new DocumentEvent(this, offset, length, text);
+		for (IDocumentListener listener : fListeners)
+			listener.documentAboutToBeChanged(event);
+
+		moveGap(start);
+		fGapEnd+= length;
+		int textLength= text.length();
+		if (fGapEnd - fGapStart < textLength)
+			growGap(textLength);
+		text.getChars(0, textLength, fContent, fGapStart);
+		fGapStart+= textLength;
+
+		fChangeStart= fChangeStart == -1 ? start : Math.min(fChangeStart, start);
+		fUnchangedSuffix= Math.min(fUnchangedSuffix, contentLength - start - length);
+
+		for (IDocumentListener listener : fListeners)
+			listener.documentChanged(event);
+	}
+
+	/**
+	 * Applies the collected changes to the document as one change. The change is done in a
+	 * rewrite session if the document supports them and none is active.
+	 *
+	 * @throws BadLocationException if the document changed in the meantime
+	 */
+	public void commit() throws BadLocationException {
+		if (fChangeStart == -1)
+			return;
+
+		int contentLength= getContentLength();
+		String text= get(fOffset + fChangeStart, contentLength - fUnchangedSuffix - fChangeStart);
+		int length= fOriginalLength - fUnchangedSuffix - fChangeStart;
+
+		DocumentRewriteSession session= null;
+		if (fDocument instanceof IDocumentExtension4 && ((IDocumentExtension4) fDocument).getActiveRewriteSession() == null)
+			session= ((IDocumentExtension4) fDocument).startRewriteSession(DocumentRewriteSessionType.UNRESTRICTED);
+		try {
+			fDocument.replace(fOffset + fChangeStart, length, text);
+		} finally {
+			if (session != null)
+				((IDocumentExtension4) fDocument).stopRewriteSession(session);
+		}
+	}
+
+	/**
+	 * Returns the current length of the region.
+	 *
+	 * @return the length of the region
+	 */
+	private int getContentLength() {
+		return fContent.length - (fGapEnd - fGapStart);
+	}
+
+	/**
+	 * Moves the gap to the given offset in the region.
+	 *
+	 * @param offset the offset relative to the region
+	 */
+	private void moveGap(int offset) {
+		if (offset < fGapStart) {
+			int count= fGapStart - offset;
+			System.arraycopy(fContent, offset, fContent, fGapEnd - count, count);
+			fGapStart= offset;
+			fGapEnd-= count;
+		} else if (offset > fGapStart) {
+			int count= offset - fGapStart;
+			System.arraycopy(fContent, fGapEnd, fContent, fGapStart, count);
+			fGapStart= offset;
+			fGapEnd+= count;
+		}
+	}
+
+	/**
+	 * Grows the gap such that it can hold at least the given number of characters.
+	 *
+	 * @param size the minimal size of the gap
+	 */
+	private void growGap(int size) {
+		int contentLength= getContentLength();
+		char[] content= new char[contentLength + size + Math.max(16, (contentLength + size) >> 3)];
+		System.arraycopy(fContent, 0, content, 0, fGapStart);
+		int tailLength= fContent.length - fGapEnd;
+		System.arraycopy(fContent, fGapEnd, content, content.length - tailLength, tailLength);
+		fGapEnd= content.length - tailLength;
+		fContent= content;
+	}
+}
@@ -105,6 +105,22 @@ public abstract class TextEdit {
 	 */
 	public static final int UPDATE_REGIONS= 1 << 1;
 
+	/**
+	 * Flag indicating that the document is changed once for the whole edit
+	 * tree instead of once per edit. The text of the region affected by the
+	 * edits is rebuilt in one pass and replaces the region of the document,
+	 * inside a rewrite session if the document supports them. The created undo
+	 * edit is the same as without this flag.
+	 * <p>
+	 * Document listeners and position updaters are informed about a single
+	 * change of the affected region, so positions between the edits are
+	 * updated as if the whole region was replaced.
+	 * </p>
+	 *
+	 * @since 3.15
+	 */
+	public static final int BULK_UPDATE= 1 << 2;
+
 	private static class InsertionComparator implements Comparator<TextEdit> {
 		@Override
 		public int compare(TextEdit edit1, TextEdit edit2) throws MalformedTreeException {
@@ -695,7 +711,8 @@ public abstract class TextEdit {
 	 *
 	 * @param document the document to be manipulated
 	 * @param style flags controlling the execution of the edit tree. Valid
-	 *  flags are: <code>CREATE_UNDO</code> and <code>UPDATE_REGIONS</code>.
+	 *  flags are: <code>CREATE_UNDO</code>, <code>UPDATE_REGIONS</code> and
+	 *  <code>BULK_UPDATE</code>.
 	 * @return a undo edit, if <code>CREATE_UNDO</code> is specified. Otherwise
 	 *  <code>null</code> is returned.
 	 *
@@ -55,7 +55,8 @@ public class TextEditProcessor {
 	 *  text edit processors. Clients must not modify the edit
 	 *  (e.g adding new children) any longer.
 	 *
-	 * @param style {@link TextEdit#NONE}, {@link TextEdit#CREATE_UNDO} or {@link TextEdit#UPDATE_REGIONS})
+	 * @param style {@link TextEdit#NONE} or a combination of {@link TextEdit#CREATE_UNDO},
+	 *  {@link TextEdit#UPDATE_REGIONS} and {@link TextEdit#BULK_UPDATE}
 	 */
 	public TextEditProcessor(IDocument document, TextEdit root, int style) {
 		this(document, root, style, false);
@@ -113,6 +114,7 @@ public class TextEditProcessor {
 	 * @return the style bits
 	 * @see TextEdit#CREATE_UNDO
 	 * @see TextEdit#UPDATE_REGIONS
+	 * @see TextEdit#BULK_UPDATE
 	 */
 	public int getStyle() {
 		return fStyle;
@@ -189,20 +191,36 @@ public class TextEditProcessor {
 
 	UndoEdit executeDo() throws BadLocationException {
 		UndoCollector collector= new UndoCollector(fRoot);
+		IDocument document= createDocumentForUpdating();
 		try {
 			if (createUndo())
-				collector.connect(fDocument);
+				collector.connect(document);
 			computeSources();
-			fRoot.traverseDocumentUpdating(this, fDocument);
+			fRoot.traverseDocumentUpdating(this, document);
+			if (document instanceof BulkEditDocument)
+				((BulkEditDocument) document).commit();
 			if (updateRegions()) {
 				fRoot.traverseRegionUpdating(this, fDocument, 0, false);
 			}
 		} finally {
-			collector.disconnect(fDocument);
+			collector.disconnect(document);
 		}
 		return collector.undo;
 	}
 
+	/**
+	 * Returns the document the edits are performed on. In bulk update mode this
+	 * is a document collecting the changes to the region of the root edit.
+	 *
+	 * @return the document to update
+	 * @throws BadLocationException if the root edit is not inside the document
+	 */
+	private IDocument createDocumentForUpdating() throws BadLocationException {
+		if (bulkUpdate())
+			return new BulkEditDocument(fDocument, fRoot.getOffset(), fRoot.getLength());
+		return fDocument;
+	}
+
 	private void computeSources() {
 		for (List<TextEdit> list : fSourceEdits) {
 			if (list != null) {
@@ -215,15 +233,18 @@ public class TextEditProcessor {
 
 	UndoEdit executeUndo() throws BadLocationException {
 		UndoCollector collector= new UndoCollector(fRoot);
+		IDocument document= createDocumentForUpdating();
 		try {
 			if (createUndo())
-				collector.connect(fDocument);
+				collector.connect(document);
 			TextEdit[] edits= fRoot.getChildren();
 			for (int i= edits.length - 1; i >= 0; i--) {
-				edits[i].performDocumentUpdating(fDocument);
+				edits[i].performDocumentUpdating(document);
 			}
+			if (document instanceof BulkEditDocument)
+				((BulkEditDocument) document).commit();
 		} finally {
-			collector.disconnect(fDocument);
+			collector.disconnect(document);
 		}
 		return collector.undo;
 	}
@@ -235,4 +256,8 @@ public class TextEditProcessor {
 	private boolean updateRegions() {
 		return (fStyle & TextEdit.UPDATE_REGIONS) != 0;
 	}
+
+	private boolean bulkUpdate() {
+		return (fStyle & TextEdit.BULK_UPDATE) != 0;
+	}
 }
@@ -14,7 +14,9 @@
  *******************************************************************************/
 package org.eclipse.text.undo;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -57,6 +59,11 @@ import org.eclipse.jface.text.TextUtilities;
  * were promoted from inner types to their own classes in order to support
  * reassignment to a different undo manager.</p>
  * <p>
+ * The texts of committed changes are kept in a store shared by all changes of the
+ * manager, which can write long texts to a temporary file, see
+ * {@link #setSpillThreshold(int)}. Besides the number of changes, the undo history
+ * can be limited by the size of their texts, see {@link #setMaximalUndoSize(long)}.</p>
+ * <p>
  * This class is not intended to be subclassed.
  * </p>
  *
@@ -69,6 +76,8 @@ import org.eclipse.jface.text.TextUtilities;
  */
 public class DocumentUndoManager implements IDocumentUndoManager {
 
+	/** The capacity up to which the text buffers are reused after a commit. */
+	private static final int MAX_REUSED_BUFFER_CAPACITY= 64 * 1024;
 
 	/**
 	 * Represents an undo-able text change, described as the
@@ -85,12 +94,21 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The end index of the replaced text. */
 		protected int fEnd= -1;
 
-		/** The newly inserted text. */
+		/** The newly inserted text, until the change is committed. */
 		protected String fText;
 
-		/** The replaced text. */
+		/** The replaced text, until the change is committed. */
 		protected String fPreservedText;
 
+		/** The record of the newly inserted text in the text store, once the change is committed. */
+		protected int fTextRecord= UndoTextStore.NONE;
+
+		/** The record of the replaced text in the text store, once the change is committed. */
+		protected int fPreservedTextRecord= UndoTextStore.NONE;
+
+		/** The store keeping the texts of the committed change. */
+		protected UndoTextStore fTextStore;
+
 		/** The undo modification stamp. */
 		protected long fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
@@ -108,6 +126,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		UndoableTextChange(DocumentUndoManager manager) {
 			super(UndoMessages.getString("DocumentUndoManager.operationLabel")); //$NON-NLS-1$
 			this.fDocumentUndoManager= manager;
+			this.fTextStore= manager.fTextStore;
 			addContext(manager.getUndoContext());
 		}
 
@@ -117,6 +136,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void reinitialize() {
 			fStart= fEnd= -1;
 			fText= fPreservedText= null;
+			fTextRecord= fPreservedTextRecord= UndoTextStore.NONE;
 			fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 			fRedoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
@@ -132,24 +152,69 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			fEnd= end;
 			fText= null;
 			fPreservedText= null;
+			fTextRecord= fPreservedTextRecord= UndoTextStore.NONE;
 		}
 
 		@Override
 		public void dispose() {
+			fTextStore.release(fTextRecord);
+			fTextStore.release(fPreservedTextRecord);
 			reinitialize();
 		}
 
 		/**
-		 * Undo the change described by this change.
+		 * Hands this change over to the given undo manager and moves its committed texts to the
+		 * text store of that manager.
+		 *
+		 * @param manager the undo manager taking over this change
+		 * @throws IOException if the texts cannot be read from the text store, the change keeps
+		 *             its texts in its current store then
+		 */
+		protected void transferTo(DocumentUndoManager manager) throws IOException {
+			if (fTextStore != manager.fTextStore) {
+				int[] records= { fTextRecord, fPreservedTextRecord };
+				fTextStore.moveTo(records, manager.fTextStore);
+				fTextRecord= records[0];
+				fPreservedTextRecord= records[1];
+				fTextStore= manager.fTextStore;
+			}
+			fDocumentUndoManager= manager;
+		}
+
+		/**
+		 * Returns the newly inserted text.
+		 *
+		 * @return the inserted text
+		 * @throws IOException if the text cannot be read from the text store
+		 */
+		protected String getText() throws IOException {
+			return fText != null ? fText : fTextStore.get(fTextRecord);
+		}
+
+		/**
+		 * Returns the replaced text.
+		 *
+		 * @return the replaced text
+		 * @throws IOException if the text cannot be read from the text store
 		 */
-		protected void undoTextChange() {
+		protected String getPreservedText() throws IOException {
+			return fPreservedText != null ? fPreservedText : fTextStore.get(fPreservedTextRecord);
+		}
+
+		/**
+		 * Replaces text of the document of the undo manager.
+		 *
+		 * @param offset the document offset
+		 * @param length the length of the replaced text
+		 * @param text the new text
+		 * @param modificationStamp the modification stamp of the document after the replacement
+		 */
+		protected void replace(int offset, int length, String text, long modificationStamp) {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fText
-							.length(), fPreservedText, fUndoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(offset, length, text, modificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fText.length(),
-							fPreservedText);
+					fDocumentUndoManager.fDocument.replace(offset, length, text);
 				}
 			} catch (BadLocationException x) {
 			}
@@ -258,29 +323,22 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
-				undoTextChange();
+				String text, preservedText;
+				try {
+					text= getText();
+					preservedText= getPreservedText();
+				} catch (IOException x) {
+					return createReadErrorStatus(x);
+				}
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
+				replace(fStart, text.length(), preservedText, fUndoModificationStamp);
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.UNDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.UNDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
 		}
 
-		/**
-		 * Re-applies the change described by this change.
-		 */
-		protected void redoTextChange() {
-			try {
-				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, fText, fRedoModificationStamp);
-				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, fText);
-				}
-			} catch (BadLocationException x) {
-			}
-		}
-
 		/**
 		 * Re-applies the change described by this change that was previously
 		 * undone. Also notifies clients about the redo.
@@ -292,24 +350,32 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
-				redoTextChange();
+				String text, preservedText;
+				try {
+					text= getText();
+					preservedText= getPreservedText();
+				} catch (IOException x) {
+					return createReadErrorStatus(x);
+				}
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
+				replace(fStart, fEnd - fStart, text, fRedoModificationStamp);
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.REDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.REDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
 		}
 
 		/**
-		 * Update the change in response to a commit.
+		 * Update the change in response to a commit. The texts are moved from the
+		 * buffers to the text store.
 		 */
 
 		protected void updateTextChange() {
-			fText= fDocumentUndoManager.fTextBuffer.toString();
-			fDocumentUndoManager.fTextBuffer.setLength(0);
-			fPreservedText= fDocumentUndoManager.fPreservedTextBuffer.toString();
-			fDocumentUndoManager.fPreservedTextBuffer.setLength(0);
+			fTextRecord= fTextStore.add(fDocumentUndoManager.fTextBuffer);
+			fPreservedTextRecord= fTextStore.add(fDocumentUndoManager.fPreservedTextBuffer);
+			fText= fPreservedText= null;
+			fDocumentUndoManager.clearTextBuffers();
 		}
 
 		/**
@@ -375,7 +441,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * @return <code>true</code> if the change is valid for undo or redo
 		 */
 		protected boolean isValid() {
-			return fStart > -1 && fEnd > -1 && fText != null;
+			return fStart > -1 && fEnd > -1 && (fText != null || fTextRecord != UndoTextStore.NONE);
 		}
 
 		@Override
@@ -395,15 +461,32 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			text.append(fEnd);
 			text.append(delimiter);
 			text.append("text: '"); //$NON-NLS-1$
-			text.append(fText);
+			text.append(toString(fText, fTextRecord));
 			text.append('\'');
 			text.append(delimiter);
 			text.append("preservedText: '"); //$NON-NLS-1$
-			text.append(fPreservedText);
+			text.append(toString(fPreservedText, fPreservedTextRecord));
 			text.append('\'');
 			return text.toString();
 		}
 
+		/**
+		 * Returns the given text, or the text of the given record if the change is committed.
+		 *
+		 * @param value the text of the uncommitted change
+		 * @param record the record of the text in the text store
+		 * @return the text
+		 */
+		private String toString(String value, int record) {
+			if (value != null || record == UndoTextStore.NONE)
+				return value;
+			try {
+				return fTextStore.get(record);
+			} catch (IOException x) {
+				return x.toString();
+			}
+		}
+
 		/**
 		 * Return the undo modification stamp
 		 *
@@ -426,12 +509,31 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 	/**
 	 * Represents an undo-able text change consisting of several individual
-	 * changes.
+	 * changes. The individual changes are kept in primitive arrays rather than
+	 * as text change objects.
 	 */
 	private static class UndoableCompoundTextChange extends UndoableTextChange {
 
-		/** The list of individual changes */
-		private List<UndoableTextChange> fChanges= new ArrayList<>();
+		/** The start indices of the individual changes */
+		private int[] fStarts= new int[4];
+
+		/** The end indices of the individual changes */
+		private int[] fEnds= new int[4];
+
+		/** The records of the inserted texts of the individual changes */
+		private int[] fTextRecords= new int[4];
+
+		/** The records of the replaced texts of the individual changes */
+		private int[] fPreservedTextRecords= new int[4];
+
+		/** The undo modification stamps of the individual changes */
+		private long[] fUndoModificationStamps= new long[4];
+
+		/** The redo modification stamps of the individual changes */
+		private long[] fRedoModificationStamps= new long[4];
+
+		/** The number of individual changes */
+		private int fChangeCount;
 
 		/**
 		 * Creates a new compound text change.
@@ -443,94 +545,143 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		}
 
 		/**
-		 * Adds a new individual change to this compound change.
-		 *
-		 * @param change the change to be added
+		 * Adds the committed text of this change as a new individual change.
 		 */
-		protected void add(UndoableTextChange change) {
-			fChanges.add(change);
+		protected void add() {
+			if (fChangeCount == fStarts.length) {
+				int capacity= 2 * fChangeCount;
+				fStarts= Arrays.copyOf(fStarts, capacity);
+				fEnds= Arrays.copyOf(fEnds, capacity);
+				fTextRecords= Arrays.copyOf(fTextRecords, capacity);
+				fPreservedTextRecords= Arrays.copyOf(fPreservedTextRecords, capacity);
+				fUndoModificationStamps= Arrays.copyOf(fUndoModificationStamps, capacity);
+				fRedoModificationStamps= Arrays.copyOf(fRedoModificationStamps, capacity);
+			}
+			fStarts[fChangeCount]= fStart;
+			fEnds[fChangeCount]= fEnd;
+			fTextRecords[fChangeCount]= fTextRecord;
+			fPreservedTextRecords[fChangeCount]= fPreservedTextRecord;
+			fUndoModificationStamps[fChangeCount]= fUndoModificationStamp;
+			fRedoModificationStamps[fChangeCount]= fRedoModificationStamp;
+			fChangeCount++;
 		}
 
 		@Override
-		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
-
-			int size= fChanges.size();
-			if (size > 0) {
-				UndoableTextChange c;
-
-				c= fChanges.get(0);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
-
-				DocumentRewriteSession rewriteSession= null;
-				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
-						&& ((IDocumentExtension4) fDocumentUndoManager.fDocument).getActiveRewriteSession() == null) {
-					DocumentRewriteSessionType sessionType= size > 1000 ? DocumentRewriteSessionType.UNRESTRICTED : DocumentRewriteSessionType.UNRESTRICTED_SMALL;
-					rewriteSession= ((IDocumentExtension4) fDocumentUndoManager.fDocument).startRewriteSession(sessionType);
-				}
+		public void dispose() {
+			for (int i= 0; i < fChangeCount; i++) {
+				fTextStore.release(fTextRecords[i]);
+				fTextStore.release(fPreservedTextRecords[i]);
+			}
+			fChangeCount= 0;
+			super.dispose();
+		}
 
-				for (int i= size - 1; i >= 0; --i) {
-					c= fChanges.get(i);
-					c.undoTextChange();
+		@Override
+		protected void transferTo(DocumentUndoManager manager) throws IOException {
+			if (fTextStore != manager.fTextStore) {
+				int[] records= new int[2 * fChangeCount + 2];
+				for (int i= 0; i < fChangeCount; i++) {
+					records[2 * i]= fTextRecords[i];
+					records[2 * i + 1]= fPreservedTextRecords[i];
 				}
-
-				if (rewriteSession != null) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
+				records[2 * fChangeCount]= fTextRecord;
+				records[2 * fChangeCount + 1]= fPreservedTextRecord;
+				fTextStore.moveTo(records, manager.fTextStore);
+				for (int i= 0; i < fChangeCount; i++) {
+					fTextRecords[i]= records[2 * i];
+					fPreservedTextRecords[i]= records[2 * i + 1];
 				}
-				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo,
-						DocumentUndoEvent.UNDONE, size > 1);
+				fTextRecord= records[2 * fChangeCount];
+				fPreservedTextRecord= records[2 * fChangeCount + 1];
+				fTextStore= manager.fTextStore;
 			}
-			return Status.OK_STATUS;
+			fDocumentUndoManager= manager;
 		}
 
 		@Override
-		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
+		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
 
-			int size= fChanges.size();
+			int size= fChangeCount;
 			if (size > 0) {
+				try {
+					fDocumentUndoManager.fireDocumentUndo(fStarts[0], fTextStore.get(fPreservedTextRecords[0]), fTextStore.get(fTextRecords[0]), uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
 
-				UndoableTextChange c;
-				c= fChanges.get(size - 1);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
-
-				DocumentRewriteSession rewriteSession= null;
-				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
-						&& ((IDocumentExtension4) fDocumentUndoManager.fDocument).getActiveRewriteSession() == null) {
-					DocumentRewriteSessionType sessionType= size > 1000 ? DocumentRewriteSessionType.UNRESTRICTED : DocumentRewriteSessionType.UNRESTRICTED_SMALL;
-					rewriteSession= ((IDocumentExtension4) fDocumentUndoManager.fDocument).startRewriteSession(sessionType);
+					DocumentRewriteSession rewriteSession= startRewriteSession(size);
+					try {
+						for (int i= size - 1; i >= 0; --i) {
+							replace(fStarts[i], fTextStore.getLength(fTextRecords[i]), fTextStore.get(fPreservedTextRecords[i]), fUndoModificationStamps[i]);
+						}
+					} finally {
+						if (rewriteSession != null) {
+							((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
+						}
+					}
+					fDocumentUndoManager.resetProcessChangeState();
+					fDocumentUndoManager.fireDocumentUndo(fStarts[0], fTextStore.get(fPreservedTextRecords[0]), fTextStore.get(fTextRecords[0]), uiInfo,
+							DocumentUndoEvent.UNDONE, size > 1);
+				} catch (IOException x) {
+					fDocumentUndoManager.resetProcessChangeState();
+					return createReadErrorStatus(x);
 				}
+			}
+			return Status.OK_STATUS;
+		}
 
-				for (int i= 0; i < size; ++i) {
-					c= fChanges.get(i);
-					c.redoTextChange();
-				}
+		@Override
+		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
 
-				if (rewriteSession != null) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
+			int size= fChangeCount;
+			if (size > 0) {
+				int last= size - 1;
+				try {
+					fDocumentUndoManager.fireDocumentUndo(fStarts[last], fTextStore.get(fTextRecords[last]), fTextStore.get(fPreservedTextRecords[last]), uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
+
+					DocumentRewriteSession rewriteSession= startRewriteSession(size);
+					try {
+						for (int i= 0; i < size; ++i) {
+							replace(fStarts[i], fEnds[i] - fStarts[i], fTextStore.get(fTextRecords[i]), fRedoModificationStamps[i]);
+						}
+					} finally {
+						if (rewriteSession != null) {
+							((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
+						}
+					}
+					fDocumentUndoManager.resetProcessChangeState();
+					fDocumentUndoManager.fireDocumentUndo(fStarts[last], fTextStore.get(fTextRecords[last]), fTextStore.get(fPreservedTextRecords[last]), uiInfo, DocumentUndoEvent.REDONE, size > 1);
+				} catch (IOException x) {
+					fDocumentUndoManager.resetProcessChangeState();
+					return createReadErrorStatus(x);
 				}
-				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.REDONE, size > 1);
 			}
 
 			return Status.OK_STATUS;
 		}
 
+		/**
+		 * Starts a rewrite session for undoing or redoing the given number of
+		 * individual changes, if there are enough of them.
+		 *
+		 * @param size the number of individual changes
+		 * @return the rewrite session, or <code>null</code> if none was started
+		 */
+		private DocumentRewriteSession startRewriteSession(int size) {
+			if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
+					&& ((IDocumentExtension4) fDocumentUndoManager.fDocument).getActiveRewriteSession() == null) {
+				DocumentRewriteSessionType sessionType= size > 1000 ? DocumentRewriteSessionType.UNRESTRICTED : DocumentRewriteSessionType.UNRESTRICTED_SMALL;
+				return ((IDocumentExtension4) fDocumentUndoManager.fDocument).startRewriteSession(sessionType);
+			}
+			return null;
+		}
+
 		@Override
 		protected void updateTextChange() {
 			// first gather the data from the buffers
 			super.updateTextChange();
 
-			// the result of the update is stored as a child change
-			UndoableTextChange c= new UndoableTextChange(fDocumentUndoManager);
-			c.fStart= fStart;
-			c.fEnd= fEnd;
-			c.fText= fText;
-			c.fPreservedText= fPreservedText;
-			c.fUndoModificationStamp= fUndoModificationStamp;
-			c.fRedoModificationStamp= fRedoModificationStamp;
-			add(c);
-
-			// clear out all indexes now that the child is added
+			// the result of the update is stored as an individual change
+			add();
+
+			// clear out all indexes now that the individual change is added
 			reinitialize();
 		}
 
@@ -557,16 +708,15 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 		@Override
 		protected boolean isValid() {
-			return fStart > -1 || !fChanges.isEmpty();
+			return fStart > -1 || fChangeCount > 0;
 		}
 
 		@Override
 		protected long getUndoModificationStamp() {
 			if (fStart > -1) {
 				return super.getUndoModificationStamp();
-			} else if (!fChanges.isEmpty()) {
-				return fChanges.get(0)
-						.getUndoModificationStamp();
+			} else if (fChangeCount > 0) {
+				return fUndoModificationStamps[0];
 			}
 
 			return fUndoModificationStamp;
@@ -576,9 +726,8 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected long getRedoModificationStamp() {
 			if (fStart > -1) {
 				return super.getRedoModificationStamp();
-			} else if (!fChanges.isEmpty()) {
-				return fChanges.get(fChanges.size() - 1)
-						.getRedoModificationStamp();
+			} else if (fChangeCount > 0) {
+				return fRedoModificationStamps[fChangeCount - 1];
 			}
 
 			return fRedoModificationStamp;
@@ -773,6 +922,12 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 	/** The list of clients connected. */
 	private List<Object> fConnected;
 
+	/** The store keeping the texts of the committed changes. */
+	private final UndoTextStore fTextStore= new UndoTextStore();
+
+	/** The maximal size of the texts of the undo history in bytes, <code>-1</code> for no limit. */
+	private long fMaximalUndoSize= -1;
+
 	/**
 	 *
 	 * Create a DocumentUndoManager for the given document.
@@ -816,6 +971,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			}
 		}
 		fCurrent.commit();
+		enforceMaximalUndoSize();
 	}
 
 	@Override
@@ -895,6 +1051,84 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		fHistory.setLimit(fUndoContext, undoLimit);
 	}
 
+	/**
+	 * Sets the maximal size of the texts kept by the undo history, in addition to the
+	 * {@link #setMaximalUndoLevel(int) maximal number of changes}. When the texts of the
+	 * committed changes take more bytes, the oldest changes are removed from the undo
+	 * history. The latest change is always kept.
+	 *
+	 * @param size the maximal size in bytes, <code>-1</code> for no limit, which is the default
+	 * @since 3.15
+	 */
+	public void setMaximalUndoSize(long size) {
+		fMaximalUndoSize= size;
+		if (isConnected()) {
+			enforceMaximalUndoSize();
+		}
+	}
+
+	/**
+	 * Sets the length from which the texts of committed changes are written to a temporary
+	 * file instead of being kept in memory. The file is deleted once none of its texts is
+	 * referenced by the undo history anymore. If the file cannot be written, the texts are
+	 * kept in memory.
+	 *
+	 * @param length the minimal length of the texts written to the file, <code>-1</code> to keep
+	 *            all texts in memory, which is the default
+	 * @since 3.15
+	 */
+	public void setSpillThreshold(int length) {
+		fTextStore.setSpillThreshold(length);
+	}
+
+	/**
+	 * Removes the oldest changes from the undo history until the texts of the
+	 * committed changes do not exceed the maximal undo size anymore.
+	 */
+	private void enforceMaximalUndoSize() {
+		if (fMaximalUndoSize < 0 || fTextStore.getSize() <= fMaximalUndoSize) {
+			return;
+		}
+
+		IUndoableOperation[] operations= fHistory.getUndoHistory(fUndoContext);
+		IUndoableOperation[] noReplacements= new IUndoableOperation[0];
+		for (int i= 0; i < operations.length - 1 && fTextStore.getSize() > fMaximalUndoSize; i++) {
+			IUndoableOperation operation= operations[i];
+			// the history disposes the removed change, which releases its texts
+			if (operation instanceof UndoableTextChange && operation != fCurrent && operation != fLastAddedTextEdit
+					&& operation.getContexts().length == 1) {
+				fHistory.replaceOperation(operation, noReplacements);
+			}
+		}
+	}
+
+	/**
+	 * Clears the text buffers after a commit. Buffers which grew large are not reused.
+	 */
+	private void clearTextBuffers() {
+		if (fTextBuffer.capacity() > MAX_REUSED_BUFFER_CAPACITY) {
+			fTextBuffer= new StringBuilder();
+		} else {
+			fTextBuffer.setLength(0);
+		}
+		if (fPreservedTextBuffer.capacity() > MAX_REUSED_BUFFER_CAPACITY) {
+			fPreservedTextBuffer= new StringBuilder();
+		} else {
+			fPreservedTextBuffer.setLength(0);
+		}
+	}
+
+	/**
+	 * Creates the status of an undo or redo which failed since the texts of the change
+	 * could not be read.
+	 *
+	 * @param exception the exception reading the texts
+	 * @return the error status
+	 */
+	static IStatus createReadErrorStatus(IOException exception) {
+		return new Status(IStatus.ERROR, "org.eclipse.text", UndoMessages.getString("DocumentUndoManager.readError"), exception); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	/**
 	 * Fires a document undo event to all registered document undo listeners.
 	 * Uses a robust iterator.
@@ -1226,6 +1460,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		fPreservedTextBuffer= null;
 
 		disposeUndoHistory();
+		fTextStore.dispose();
 	}
 
 	/**
@@ -1255,11 +1490,18 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				op.addContext(getUndoContext());
 				op.removeContext(oldUndoContext);
 			}
-			// Now update the manager that owns the text edit.
+			// Now update the manager that owns the text edit and keeps its texts.
 			if (op instanceof UndoableTextChange) {
-				((UndoableTextChange)op).fDocumentUndoManager= this;
+				try {
+					((UndoableTextChange)op).transferTo(this);
+				} catch (IOException x) {
+					// the change keeps reading its texts from the store of the old manager
+					((UndoableTextChange)op).fDocumentUndoManager= this;
+				}
 			}
 		}
+		// The transferred texts count towards the maximal undo size of this manager.
+		enforceMaximalUndoSize();
 
 		IUndoableOperation op= OperationHistoryFactory.getOperationHistory().getUndoOperation(getUndoContext());
 		if (op != null && !(op instanceof UndoableTextChange)) {
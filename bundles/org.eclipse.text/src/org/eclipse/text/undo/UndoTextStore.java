@@ -0,0 +1,420 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.undo;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+
+/**
+ * Keeps the texts of the changes of a {@link DocumentUndoManager}.
+ * <p>
+ * All texts share one character array, a text is referenced by a record whose offset and length
+ * are kept in primitive arrays. A change thus does not need own objects for its texts. The array
+ * is compacted once less than half of it holds texts which have not been released. Texts of at
+ * least the spill threshold are written to a temporary file instead, which is rewritten without
+ * the released texts once less than half of it holds texts which have not been released, and
+ * deleted once none of its texts is referenced anymore or the store is disposed.
+ * </p>
+ *
+ * @since 3.15
+ */
+class UndoTextStore {
+
+	/** The record of the empty text, which is not stored. */
+	static final int EMPTY= -1;
+
+	/** The record of no text. */
+	static final int NONE= -2;
+
+	/** The minimal length of the character array. */
+	private static final int MIN_CAPACITY= 1024;
+
+	/** The number of characters read or written to the spill file at once. */
+	private static final int CHUNK_SIZE= 64 * 1024;
+
+	/** The minimal length in bytes of a spill file which is compacted. */
+	private static final long MIN_SPILL_COMPACT_LENGTH= 1024 * 1024;
+
+	/** The shared characters of the texts kept in memory. */
+	private char[] fChars= new char[0];
+
+	/** The number of used characters in {@link #fChars}. */
+	private int fCharsLength;
+
+	/** The number of characters of the texts kept in memory. */
+	private long fMemoryLength;
+
+	/** The number of characters of the texts written to the spill file. */
+	private long fSpilledLength;
+
+	/**
+	 * The offsets of the texts in {@link #fChars}, or for a text in the spill file
+	 * <code>-1 - position</code>.
+	 */
+	private long[] fOffsets= new long[16];
+
+	/** The lengths of the texts, <code>-1</code> for a free record. */
+	private int[] fLengths= new int[16];
+
+	/** The number of records ever allocated. */
+	private int fRecordCount;
+
+	/** The free records below {@link #fRecordCount}. */
+	private int[] fFreeRecords= new int[16];
+
+	/** The number of free records. */
+	private int fFreeCount;
+
+	/** The length from which texts are spilled, <code>-1</code> if texts are not spilled. */
+	private int fSpillThreshold= -1;
+
+	/** The spill file, <code>null</code> if no text is spilled. */
+	private RandomAccessFile fSpillFile;
+
+	/** The path of the spill file. */
+	private File fSpillPath;
+
+	/** The length of the spill file. */
+	private long fSpillFileLength;
+
+	/** The number of texts in the spill file. */
+	private int fSpilledCount;
+
+
+	/**
+	 * Sets the length from which texts are written to a temporary file.
+	 *
+	 * @param threshold the length, <code>-1</code> to keep all texts in memory
+	 */
+	void setSpillThreshold(int threshold) {
+		fSpillThreshold= threshold;
+	}
+
+	/**
+	 * Adds a text to this store.
+	 *
+	 * @param text the text
+	 * @return the record of the text
+	 */
+	int add(CharSequence text) {
+		int length= text.length();
+		if (length == 0)
+			return EMPTY;
+
+		int record= allocateRecord();
+		fLengths[record]= length;
+		if (fSpillThreshold >= 0 && length >= fSpillThreshold) {
+			try {
+				fOffsets[record]= -1 - spill(text);
+				fSpilledLength+= length;
+				fSpilledCount++;
+				return record;
+			} catch (IOException x) {
+				// keep this and all following texts in memory
+				fSpillThreshold= -1;
+				if (fSpilledCount == 0)
+					closeSpillFile();
+			}
+		}
+
+		ensureCapacity(fCharsLength + length);
+		if (text instanceof String)
+			((String) text).getChars(0, length, fChars, fCharsLength);
+		else if (text instanceof StringBuilder)
+			((StringBuilder) text).getChars(0, length, fChars, fCharsLength);
+		else {
+			for (int i= 0; i < length; i++)
+				fChars[fCharsLength + i]= text.charAt(i);
+		}
+		fOffsets[record]= fCharsLength;
+		fCharsLength+= length;
+		fMemoryLength+= length;
+		return record;
+	}
+
+	/**
+	 * Returns the text of the given record.
+	 *
+	 * @param record the record
+	 * @return the text
+	 * @throws IOException if the text cannot be read from the spill file
+	 */
+	String get(int record) throws IOException {
+		if (record == EMPTY)
+			return ""; //$NON-NLS-1$
+		long offset= fOffsets[record];
+		if (offset >= 0)
+			return new String(fChars, (int) offset, fLengths[record]);
+		return unspill(-1 - offset, fLengths[record]);
+	}
+
+	/**
+	 * Returns the length of the text of the given record.
+	 *
+	 * @param record the record
+	 * @return the length of the text
+	 */
+	int getLength(int record) {
+		return record == EMPTY ? 0 : fLengths[record];
+	}
+
+	/**
+	 * Returns the number of bytes taken by the texts of this store, in memory and in the spill
+	 * file.
+	 *
+	 * @return the size of the texts in bytes
+	 */
+	long getSize() {
+		return 2 * (fMemoryLength + fSpilledLength);
+	}
+
+	/**
+	 * Releases the given record. Its text is removed once the store is compacted.
+	 *
+	 * @param record the record, may be {@link #EMPTY} or {@link #NONE}
+	 */
+	void release(int record) {
+		if (record < 0)
+			return;
+
+		int length= fLengths[record];
+		if (fOffsets[record] >= 0) {
+			fMemoryLength-= length;
+			if (fMemoryLength == 0) {
+				fChars= new char[0];
+				fCharsLength= 0;
+			}
+		} else {
+			fSpilledLength-= length;
+			if (--fSpilledCount == 0)
+				closeSpillFile();
+			else if (fSpillFileLength > MIN_SPILL_COMPACT_LENGTH && 2 * fSpilledLength < fSpillFileLength / 2)
+				compactSpillFile();
+		}
+		fLengths[record]= -1;
+		if (fFreeCount == fFreeRecords.length)
+			fFreeRecords= Arrays.copyOf(fFreeRecords, 2 * fFreeCount);
+		fFreeRecords[fFreeCount++]= record;
+
+		if (fCharsLength > MIN_CAPACITY && fMemoryLength < fCharsLength / 2)
+			compact();
+	}
+
+	/**
+	 * Deletes the spill file. Texts which have been spilled and not released cannot be read
+	 * anymore.
+	 */
+	void dispose() {
+		closeSpillFile();
+	}
+
+	/**
+	 * Moves the texts of the given records to another store and releases them in this store.
+	 *
+	 * @param records the records, may contain {@link #EMPTY} and {@link #NONE}; replaced by the
+	 *            records of the texts in the target store
+	 * @param target the store to move the texts to
+	 * @throws IOException if a text cannot be read from the spill file, the records are left
+	 *             unchanged then
+	 */
+	void moveTo(int[] records, UndoTextStore target) throws IOException {
+		int[] moved= new int[records.length];
+		int count= 0;
+		try {
+			for (; count < records.length; count++)
+				moved[count]= records[count] < 0 ? records[count] : target.add(get(records[count]));
+		} catch (IOException x) {
+			for (int i= 0; i < count; i++)
+				target.release(moved[i]);
+			throw x;
+		}
+		for (int i= 0; i < records.length; i++) {
+			release(records[i]);
+			records[i]= moved[i];
+		}
+	}
+
+	/**
+	 * Returns a free record.
+	 *
+	 * @return the record
+	 */
+	private int allocateRecord() {
+		if (fFreeCount > 0)
+			return fFreeRecords[--fFreeCount];
+		if (fRecordCount == fLengths.length) {
+			fOffsets= Arrays.copyOf(fOffsets, 2 * fRecordCount);
+			fLengths= Arrays.copyOf(fLengths, 2 * fRecordCount);
+		}
+		return fRecordCount++;
+	}
+
+	/**
+	 * Ensures that the character array can hold the given number of characters.
+	 *
+	 * @param capacity the number of characters
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > fChars.length)
+			fChars= Arrays.copyOf(fChars, Math.max(MIN_CAPACITY, Math.max(capacity, fChars.length + (fChars.length >> 1))));
+	}
+
+	/**
+	 * Moves the texts kept in memory to a new character array without the released texts.
+	 */
+	private void compact() {
+		char[] chars= new char[Math.max(MIN_CAPACITY, (int) (fMemoryLength + (fMemoryLength >> 1)))];
+		int length= 0;
+		for (int record= 0; record < fRecordCount; record++) {
+			long offset= fOffsets[record];
+			if (fLengths[record] > 0 && offset >= 0) {
+				System.arraycopy(fChars, (int) offset, chars, length, fLengths[record]);
+				fOffsets[record]= length;
+				length+= fLengths[record];
+			}
+		}
+		fChars= chars;
+		fCharsLength= length;
+	}
+
+	/**
+	 * Appends the given text to the spill file.
+	 *
+	 * @param text the text
+	 * @return the position of the text in the spill file
+	 * @throws IOException if the text cannot be written
+	 */
+	private long spill(CharSequence text) throws IOException {
+		if (fSpillFile == null) {
+			fSpillPath= File.createTempFile("undo", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+			fSpillFile= new RandomAccessFile(fSpillPath, "rw"); //$NON-NLS-1$
+			fSpillFileLength= 0;
+		}
+
+		FileChannel channel= fSpillFile.getChannel();
+		long position= fSpillFileLength;
+		int length= text.length();
+		ByteBuffer buffer= ByteBuffer.allocate(2 * Math.min(length, CHUNK_SIZE));
+		CharBuffer chars= buffer.asCharBuffer();
+		for (int start= 0; start < length; start+= CHUNK_SIZE) {
+			int end= Math.min(length, start + CHUNK_SIZE);
+			chars.clear();
+			chars.append(text, start, end);
+			buffer.clear();
+			buffer.limit(2 * (end - start));
+			while (buffer.hasRemaining())
+				channel.write(buffer, position + 2L * start + buffer.position());
+		}
+		fSpillFileLength+= 2L * length;
+		return position;
+	}
+
+	/**
+	 * Reads a text from the spill file.
+	 *
+	 * @param position the position of the text in the spill file
+	 * @param length the length of the text
+	 * @return the text
+	 * @throws IOException if the text cannot be read
+	 */
+	private String unspill(long position, int length) throws IOException {
+		if (fSpillFile == null)
+			throw new IOException("The spill file has been deleted"); //$NON-NLS-1$
+		FileChannel channel= fSpillFile.getChannel();
+		char[] result= new char[length];
+		ByteBuffer buffer= ByteBuffer.allocate(2 * Math.min(length, CHUNK_SIZE));
+		for (int start= 0; start < length; start+= CHUNK_SIZE) {
+			int end= Math.min(length, start + CHUNK_SIZE);
+			buffer.clear();
+			buffer.limit(2 * (end - start));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, position + 2L * start + buffer.position()) < 0)
+					throw new EOFException();
+			}
+			buffer.flip();
+			buffer.asCharBuffer().get(result, start, end - start);
+		}
+		return new String(result);
+	}
+
+	/**
+	 * Moves the spilled texts to a new spill file without the released texts. The old file is
+	 * kept if the new one cannot be written.
+	 */
+	private void compactSpillFile() {
+		File path= null;
+		RandomAccessFile file= null;
+		try {
+			path= File.createTempFile("undo", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+			file= new RandomAccessFile(path, "rw"); //$NON-NLS-1$
+			FileChannel source= fSpillFile.getChannel();
+			FileChannel target= file.getChannel();
+			long[] offsets= fOffsets.clone();
+			long length= 0;
+			for (int record= 0; record < fRecordCount; record++) {
+				long offset= fOffsets[record];
+				if (fLengths[record] > 0 && offset < 0) {
+					long position= -1 - offset;
+					long size= 2L * fLengths[record];
+					for (long copied= 0; copied < size;) {
+						long transferred= source.transferTo(position + copied, size - copied, target);
+						if (transferred <= 0)
+							throw new EOFException();
+						copied+= transferred;
+					}
+					offsets[record]= -1 - length;
+					length+= size;
+				}
+			}
+			closeSpillFile();
+			fOffsets= offsets;
+			fSpillFile= file;
+			fSpillPath= path;
+			fSpillFileLength= length;
+		} catch (IOException x) {
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException e) {
+					// the file is deleted anyway
+				}
+			}
+			if (path != null)
+				path.delete();
+		}
+	}
+
+	/**
+	 * Closes and deletes the spill file.
+	 */
+	private void closeSpillFile() {
+		if (fSpillFile != null) {
+			try {
+				fSpillFile.close();
+			} catch (IOException x) {
+				// the file is deleted anyway
+			}
+			fSpillPath.delete();
+			fSpillFile= null;
+			fSpillPath= null;
+		}
+	}
+}
@@ -134,6 +134,58 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		}
 	}
 
+	/**
+	 * The line hashes of a document, which can be taken over by a later initialization as long
+	 * as the document has not been modified since.
+	 *
+	 * @since 3.18
+	 */
+	private static final class ReusableHashes {
+
+		/** The document */
+		private final IDocument fDocument;
+		/** The line hashes, up to date with the document at {@link #fModificationStamp} */
+		private final DocumentEquivalenceClass fEquivalent;
+		/** The modification stamp of the document */
+		private final long fModificationStamp;
+
+		private ReusableHashes(IDocument document, DocumentEquivalenceClass equivalent, long modificationStamp) {
+			fDocument= document;
+			fEquivalent= equivalent;
+			fModificationStamp= modificationStamp;
+		}
+
+		/**
+		 * Remembers the line hashes of a document, if its modifications can be detected.
+		 *
+		 * @param document the document, may be <code>null</code>
+		 * @param equivalent the line hashes up to date with the document, may be <code>null</code>
+		 * @return the reusable hashes, or <code>null</code>
+		 */
+		static ReusableHashes create(IDocument document, DocumentEquivalenceClass equivalent) {
+			long modificationStamp= getModificationStamp(document);
+			if (equivalent == null || modificationStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+				return null;
+			return new ReusableHashes(document, equivalent, modificationStamp);
+		}
+
+		/**
+		 * Returns the line hashes for a copy of the document, taking over the remembered hashes if
+		 * the document has not been modified.
+		 *
+		 * @param document the document
+		 * @param modificationStamp the modification stamp of the document when it was copied
+		 * @param copy the copy of the document
+		 * @return the line hashes for the copy, or <code>null</code> if the hashes cannot be
+		 *         reused
+		 */
+		DocumentEquivalenceClass reuse(IDocument document, long modificationStamp, IDocument copy) {
+			if (document != fDocument || modificationStamp != fModificationStamp || copy.getNumberOfLines() != fEquivalent.getCount())
+				return null;
+			return new DocumentEquivalenceClass(copy, fEquivalent);
+		}
+	}
+
 	/** Tells whether this class is in debug mode. */
 	private static boolean DEBUG= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.ui.workbench.texteditor/debug/DocumentLineDiffer"));  //$NON-NLS-1$//$NON-NLS-2$
 
@@ -249,6 +301,18 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 	private RangeDifferenceFactory fRangeDiffFactory= new RangeDifferenceFactory();
 
+	/**
+	 * The line hashes of the reference document of the last synchronized state, or
+	 * <code>null</code>.
+	 * @since 3.18
+	 */
+	private ReusableHashes fReusableLeftHashes;
+	/**
+	 * The line hashes of the document of the last synchronized state, or <code>null</code>.
+	 * @since 3.18
+	 */
+	private ReusableHashes fReusableRightHashes;
+
 
 	/**
 	 * Creates a new differ.
@@ -486,6 +550,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 * @since 3.2 protected for testing reasons, package visible before
 	 */
 	protected synchronized void initialize() {
+		rememberHashes();
+
 		// make new incoming changes go into the queue of stored events, plus signal we can't restore.
 		fState= INITIALIZING;
 
@@ -584,12 +650,16 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 				// create the reference copy - note that any changes on the
 				// reference will trigger re-initialization anyway
+				long leftStamp= getModificationStamp(left);
 				reference= createCopy(left);
 				if (reference == null)
 					return Status.CANCEL_STATUS;
+				if (getModificationStamp(left) != leftStamp)
+					leftStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
 				// create the actual copy
 
+				long rightStamp;
 				Object lock= null;
 				if (right instanceof ISynchronizable)
 					lock= ((ISynchronizable) right).getLockObject();
@@ -602,6 +672,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 							if (isCanceled(monitor))
 								return Status.CANCEL_STATUS;
 							fStoredEvents.clear();
+							rightStamp= getModificationStamp(right);
 							actual= createUnprotectedCopy(right);
 						}
 					}
@@ -627,6 +698,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 						// access documents non synchronized:
 						// get an exclusive copy of the actual document
+						rightStamp= getModificationStamp(right);
 						actual= createCopy(right);
 
 						synchronized (DocumentLineDiffer.this) {
@@ -639,15 +711,28 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 					Objects.requireNonNull(actual); // fulfilled by break condition
 				}
 
+				// take over the line hashes of documents not modified since the last synchronization
+				DocumentEquivalenceClass leftEquivalent= null;
+				DocumentEquivalenceClass rightEquivalent= null;
+				synchronized (DocumentLineDiffer.this) {
+					if (isCanceled(monitor))
+						return Status.CANCEL_STATUS;
+
+					if (fReusableLeftHashes != null)
+						leftEquivalent= fReusableLeftHashes.reuse(left, leftStamp, reference);
+					if (fReusableRightHashes != null)
+						rightEquivalent= fReusableRightHashes.reuse(right, rightStamp, actual);
+				}
+
 				IHashFunction hash= new DJBHashFunction();
-				DocumentEquivalenceClass leftEquivalent= new DocumentEquivalenceClass(reference, hash);
+				if (leftEquivalent == null)
+					leftEquivalent= new DocumentEquivalenceClass(reference, hash);
 				fLeftEquivalent= leftEquivalent;
-				IRangeComparator ref= new DocEquivalenceComparator(leftEquivalent, null);
 
-				DocumentEquivalenceClass rightEquivalent= new DocumentEquivalenceClass(actual, hash);
+				if (rightEquivalent == null)
+					rightEquivalent= new DocumentEquivalenceClass(actual, hash);
 				fRightEquivalent= rightEquivalent;
-				IRangeComparator act= new DocEquivalenceComparator(rightEquivalent, null);
-				ArrayList<QuickDiffRangeDifference> diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, monitor, ref, act));
+				ArrayList<QuickDiffRangeDifference> diffs= computeDifferences(monitor, leftEquivalent, rightEquivalent);
 				// 7:	Reset the model to the just gotten differences
 				// 		re-inject stored events to get up to date.
 				synchronized (DocumentLineDiffer.this) {
@@ -671,6 +756,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 								fInitializationJob= null;
 								fState= SYNCHRONIZED;
 								fLastDifference= null;
+								fReusableLeftHashes= null;
+								fReusableRightHashes= null;
 
 								// replace the private documents with the actual
 								leftEquivalent.setDocument(left);
@@ -905,6 +992,9 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	private void reinitOnError(Exception e) {
 		if (DEBUG)
 			System.err.println("reinitializing quickdiff:\n" + e.getLocalizedMessage() + "\n" + Arrays.toString(e.getStackTrace()));  //$NON-NLS-1$//$NON-NLS-2$
+		// the line hashes may be out of sync with the documents
+		fLeftEquivalent= null;
+		fRightEquivalent= null;
 		initialize();
 	}
 
@@ -1142,6 +1232,88 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		fLastDifference= null;
 	}
 
+	/**
+	 * Computes the differences between the reference and the actual document. Only the lines
+	 * between the common prefix and suffix of the documents are diffed, so after changes in one
+	 * region of a large document the diff costs a pass over the line hashes plus the diff of the
+	 * changed lines.
+	 *
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @param leftEquivalent the line hashes of the reference document
+	 * @param rightEquivalent the line hashes of the actual document
+	 * @return the differences covering both documents
+	 * @since 3.18
+	 */
+	private ArrayList<QuickDiffRangeDifference> computeDifferences(IProgressMonitor monitor, DocumentEquivalenceClass leftEquivalent, DocumentEquivalenceClass rightEquivalent) {
+		int leftCount= leftEquivalent.getCount();
+		int rightCount= rightEquivalent.getCount();
+		int max= Math.min(leftCount, rightCount);
+		int prefix= 0;
+		while (prefix < max && leftEquivalent.hashEquals(prefix, rightEquivalent, prefix))
+			prefix++;
+		int suffix= 0;
+		while (suffix < max - prefix && leftEquivalent.hashEquals(leftCount - 1 - suffix, rightEquivalent, rightCount - 1 - suffix))
+			suffix++;
+
+		int leftLength= leftCount - prefix - suffix;
+		int rightLength= rightCount - prefix - suffix;
+		IRangeComparator ref= new DocEquivalenceComparator(leftEquivalent, new LineRange(prefix, leftLength));
+		IRangeComparator act= new DocEquivalenceComparator(rightEquivalent, new LineRange(prefix, rightLength));
+		ArrayList<QuickDiffRangeDifference> diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, monitor, ref, act));
+		if (diffs.isEmpty())
+			diffs.add(new QuickDiffRangeDifference(leftLength == 0 && rightLength == 0 ? RangeDifference.NOCHANGE : RangeDifference.CHANGE, 0, rightLength, 0, leftLength));
+
+		// shift the diffs to the absolute document positions and add the common prefix and suffix
+		for (QuickDiffRangeDifference d : diffs) {
+			d.shiftLeft(prefix);
+			d.shiftRight(prefix);
+		}
+
+		if (prefix > 0) {
+			QuickDiffRangeDifference first= diffs.get(0);
+			if (first.kind() == RangeDifference.NOCHANGE)
+				first.extendStart(-prefix);
+			else
+				diffs.add(0, new QuickDiffRangeDifference(RangeDifference.NOCHANGE, 0, prefix, 0, prefix));
+		}
+
+		if (suffix > 0) {
+			QuickDiffRangeDifference last= diffs.get(diffs.size() - 1);
+			if (last.kind() == RangeDifference.NOCHANGE)
+				last.extendEnd(suffix);
+			else
+				diffs.add(new QuickDiffRangeDifference(RangeDifference.NOCHANGE, last.rightEnd(), suffix, last.leftEnd(), suffix));
+		}
+
+		return diffs;
+	}
+
+	/**
+	 * Remembers the line hashes of the documents if the differ is synchronized, so the next
+	 * initialization can take them over for documents which have not been modified meanwhile.
+	 *
+	 * @since 3.18
+	 */
+	private synchronized void rememberHashes() {
+		if (fState == SYNCHRONIZED) {
+			fReusableLeftHashes= ReusableHashes.create(fLeftDocument, fLeftEquivalent);
+			fReusableRightHashes= ReusableHashes.create(fRightDocument, fRightEquivalent);
+		}
+	}
+
+	/**
+	 * Returns the modification stamp of a document.
+	 *
+	 * @param document the document, may be <code>null</code>
+	 * @return the modification stamp, or {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP}
+	 * @since 3.18
+	 */
+	private static long getModificationStamp(IDocument document) {
+		if (document instanceof IDocumentExtension4)
+			return ((IDocumentExtension4) document).getModificationStamp();
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
 	/**
 	 * Converts a {@code RangeDifference[]} into an {@code ArrayList<QuickDiffRangeDifference>}.
 	 * This is unsafe in general, but OK if used carefully.
@@ -1456,6 +1628,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			}
 			fRightDocument= null;
 			fRightEquivalent= null;
+			fReusableLeftHashes= null;
+			fReusableRightHashes= null;
 
 			fDifferences.clear();
 		}
@@ -1553,6 +1727,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			job.cancel();
 
 		synchronized (this) {
+			rememberHashes();
+
 			fInitializationJob= null;
 			if (fRightDocument != null)
 				fRightDocument.removeDocumentListener(this);
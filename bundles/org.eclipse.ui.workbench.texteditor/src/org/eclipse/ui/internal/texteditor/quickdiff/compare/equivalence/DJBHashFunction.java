@@ -25,9 +25,21 @@ public final class DJBHashFunction implements IHashFunction {
 	}
 
 	private int hash(CharSequence seq){
+		return hash(seq, 0, seq.length());
+	}
+
+	/**
+	 * Computes the hash of a part of a character sequence, without copying it.
+	 *
+	 * @param seq the character sequence
+	 * @param start the start of the part, inclusive
+	 * @param end the end of the part, exclusive
+	 * @return the hash of the part
+	 * @since 3.18
+	 */
+	static int hash(CharSequence seq, int start, int end) {
 		int hash = 5381;
-		int len= seq.length();
-		for (int i= 0; i < len; i++) {
+		for (int i= start; i < end; i++) {
 			char ch= seq.charAt(i);
 			hash = ((hash << 5) + hash) + ch; /* hash * 33 + ch */
 		}
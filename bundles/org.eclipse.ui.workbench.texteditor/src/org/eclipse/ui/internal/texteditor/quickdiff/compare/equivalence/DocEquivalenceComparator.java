@@ -77,9 +77,7 @@ public final class DocEquivalenceComparator implements IRangeComparator {
 		if (other instanceof DocEquivalenceComparator) {
 			DocEquivalenceComparator dec= (DocEquivalenceComparator) other;
 			try {
-				Hash ourHash= getHash(thisIndex);
-				Hash otherHash= dec.getHash(otherIndex);
-				return ourHash.equals(otherHash);
+				return fEquivalenceClass.hashEquals(fLineOffset + thisIndex, dec.fEquivalenceClass, dec.fLineOffset + otherIndex);
 			} catch (ConcurrentModificationException e) {
 				fSkip= true;
 			} catch (IndexOutOfBoundsException e) {
@@ -89,10 +87,6 @@ public final class DocEquivalenceComparator implements IRangeComparator {
 		return false;
 	}
 
-	Hash getHash(int index) {
-		return fEquivalenceClass.getHash(fLineOffset + index);
-	}
-
 	/**
 	 * Aborts the comparison if the number of tokens is too large.
 	 *
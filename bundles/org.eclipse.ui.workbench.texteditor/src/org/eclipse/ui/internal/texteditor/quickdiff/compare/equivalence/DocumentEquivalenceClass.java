@@ -13,9 +13,7 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.ConcurrentModificationException;
 
 import org.eclipse.core.runtime.Assert;
@@ -26,13 +24,32 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 
 /**
+ * The line hashes of a document. The hashes are computed lazily, for a chunk of consecutive lines
+ * at once, and stored as <code>int</code> values in a gap buffer, so the hash function must compute
+ * {@link IntHash}es.
+ *
  * @since 3.2
  */
 public final class DocumentEquivalenceClass {
 
 	private static final boolean DEBUG= false;
 
-	private final ArrayList<Hash> fHashes;
+	/** Marks a computed hash in {@link #fHashes}, the entries of unknown hashes are zero. */
+	private static final long KNOWN= 1L << 32;
+	/** The maximal number of lines hashed at once. */
+	private static final int CHUNK_LINES= 1024;
+	/** The maximal number of characters copied from the document to hash a chunk of lines. */
+	private static final int CHUNK_LENGTH= 64 * 1024;
+
+	/**
+	 * The hashes of the lines, or'ed with {@link #KNOWN}, with a gap at the lines of the last
+	 * update.
+	 */
+	private long[] fHashes;
+	/** The start of the gap in {@link #fHashes} */
+	private int fGapStart;
+	/** The end of the gap in {@link #fHashes} */
+	private int fGapEnd;
 	private IDocument fDocument;
 	private final IHashFunction fHashFunction;
 
@@ -42,14 +59,37 @@ public final class DocumentEquivalenceClass {
 
 	public DocumentEquivalenceClass(IDocument document, IHashFunction hashFunction) {
 		fDocument= document;
-		Hash[] nulls= new Hash[fDocument.getNumberOfLines()];
-		fHashes= new ArrayList<>(Arrays.asList(nulls));
+		int count= fDocument.getNumberOfLines();
+		fHashes= new long[count];
+		fGapStart= count;
+		fGapEnd= count;
 
 		if (hashFunction == null)
 			throw new NullPointerException("hashFunction"); //$NON-NLS-1$
 		fHashFunction= hashFunction;
 	}
 
+	/**
+	 * Creates the equivalence class of a document which has the same content as the document of
+	 * another equivalence class, taking over the hashes computed so far.
+	 *
+	 * @param document the document, must have the same content as the document of
+	 *            <code>original</code>
+	 * @param original the equivalence class to take the hashes and the hash function from
+	 * @since 3.18
+	 */
+	public DocumentEquivalenceClass(IDocument document, DocumentEquivalenceClass original) {
+		fDocument= document;
+		fHashFunction= original.fHashFunction;
+		int count= original.getCount();
+		Assert.isLegal(count == document.getNumberOfLines());
+		fHashes= new long[count];
+		System.arraycopy(original.fHashes, 0, fHashes, 0, original.fGapStart);
+		System.arraycopy(original.fHashes, original.fGapEnd, fHashes, original.fGapStart, count - original.fGapStart);
+		fGapStart= count;
+		fGapEnd= count;
+	}
+
 	/**
 	 * Returns the equivalence hash for line <code>line</code>.
 	 *
@@ -62,26 +102,88 @@ public final class DocumentEquivalenceClass {
 	 *         modified concurrently to this method call
 	 */
 	public Hash getHash(int line) {
-		try {
-			return internalGetHash(line);
-		} catch (BadLocationException x) {
-			throw new ConcurrentModificationException();
+		return new IntHash(getIntHash(line));
+	}
+
+	/**
+	 * Returns whether a line has the same hash as a line of another equivalence class, without
+	 * creating {@link Hash} objects.
+	 *
+	 * @param line the line of this equivalence class
+	 * @param other the other equivalence class
+	 * @param otherLine the line of the other equivalence class
+	 * @return <code>true</code> if the hashes of the lines are equal
+	 * @throws IndexOutOfBoundsException if a line is not a legal document line
+	 * @throws ConcurrentModificationException if a document is modified concurrently to this
+	 *             method call
+	 * @since 3.18
+	 */
+	public boolean hashEquals(int line, DocumentEquivalenceClass other, int otherLine) {
+		return getIntHash(line) == other.getIntHash(otherLine);
+	}
+
+	private int getIntHash(int line) {
+		if (line < 0 || line >= getCount())
+			throw new IndexOutOfBoundsException(line);
+
+		long hash= fHashes[index(line)];
+		if (hash == 0) {
+			try {
+				computeHashes(line);
+			} catch (BadLocationException x) {
+				throw new ConcurrentModificationException();
+			}
+			hash= fHashes[index(line)];
 		}
+		return (int) hash;
 	}
 
-	private Hash internalGetHash(int line) throws BadLocationException {
-		Hash hash= fHashes.get(line);
-		if (hash == null) {
-			if (fDocument == null)
-				throw new AssertionError("hash cannot be null after loadAndForget"); //$NON-NLS-1$
+	/**
+	 * Computes the hashes of the given line and the following lines with unknown hashes, up to
+	 * {@link #CHUNK_LINES} lines and {@link #CHUNK_LENGTH} characters, from one copy of their
+	 * content.
+	 *
+	 * @param line the first line to hash
+	 * @throws BadLocationException if the document is modified concurrently
+	 */
+	private void computeHashes(int line) throws BadLocationException {
+		if (fDocument == null)
+			throw new AssertionError("hash cannot be null after loadAndForget"); //$NON-NLS-1$
+
+		int count= getCount();
+		int[] offsets= new int[Math.min(CHUNK_LINES, count - line)];
+		int[] lengths= new int[offsets.length];
+		IRegion region= fDocument.getLineInformation(line);
+		int start= region.getOffset();
+		int end;
+		int lines= 0;
+		while (true) {
+			offsets[lines]= region.getOffset();
+			lengths[lines]= region.getLength();
+			end= region.getOffset() + region.getLength();
+			lines++;
+			int next= line + lines;
+			if (lines == offsets.length || fHashes[index(next)] != 0)
+				break;
+			region= fDocument.getLineInformation(next);
+			if (region.getOffset() + region.getLength() - start > CHUNK_LENGTH)
+				break;
+		}
 
-			IRegion lineRegion= fDocument.getLineInformation(line);
-			String lineContents= fDocument.get(lineRegion.getOffset(), lineRegion.getLength());
-			hash= fHashFunction.computeHash(lineContents);
-			fHashes.set(line, hash);
+		String text= fDocument.get(start, end - start);
+		for (int i= 0; i < lines; i++) {
+			int from= offsets[i] - start;
+			fHashes[index(line + i)]= KNOWN | (computeHash(text, from, from + lengths[i]) & 0xFFFFFFFFL);
 		}
+	}
 
-		return hash;
+	private int computeHash(String text, int start, int end) {
+		if (fHashFunction instanceof DJBHashFunction)
+			return DJBHashFunction.hash(text, start, end);
+
+		Hash hash= fHashFunction.computeHash(text.substring(start, end));
+		Assert.isLegal(hash instanceof IntHash);
+		return hash.hashCode();
 	}
 
 	/**
@@ -107,23 +209,57 @@ public final class DocumentEquivalenceClass {
 		int linesAfter= (text == null ? 0 : fDocument.computeNumberOfLines(text)) + 1;
 		int firstLine= fDocument.getLineOfOffset(event.getOffset());
 
-		int delta= linesAfter - linesBefore;
-		int changed= Math.min(linesAfter, linesBefore);
+		// remove the hashes of the changed lines and insert unknown hashes for the new lines
+		moveGap(firstLine + linesBefore);
+		fGapStart= firstLine;
+		if (fGapEnd - fGapStart < linesAfter)
+			growGap(linesAfter);
+		Arrays.fill(fHashes, fGapStart, fGapStart + linesAfter, 0);
+		fGapStart+= linesAfter;
+	}
 
-		if (delta > 0) {
-			Hash[] nulls= new Hash[delta];
-			fHashes.addAll(firstLine + changed, Arrays.asList(nulls));
-		} else if (delta < 0) {
-			fHashes.subList(firstLine, firstLine - delta).clear();
+	/**
+	 * Moves the gap to the given line.
+	 *
+	 * @param line the line before which the gap starts
+	 */
+	private void moveGap(int line) {
+		if (line < fGapStart) {
+			int length= fGapStart - line;
+			System.arraycopy(fHashes, line, fHashes, fGapEnd - length, length);
+			fGapEnd-= length;
+		} else if (line > fGapStart) {
+			int length= line - fGapStart;
+			System.arraycopy(fHashes, fGapEnd, fHashes, fGapStart, length);
+			fGapEnd+= length;
 		}
-		Collections.fill(fHashes.subList(firstLine, firstLine + changed), null);
+		fGapStart= line;
+	}
+
+	/**
+	 * Enlarges the gap to at least the given size.
+	 *
+	 * @param size the minimal size of the gap
+	 */
+	private void growGap(int size) {
+		int gap= size + Math.max(64, getCount() / 8);
+		long[] hashes= new long[getCount() + gap];
+		int tail= fHashes.length - fGapEnd;
+		System.arraycopy(fHashes, 0, hashes, 0, fGapStart);
+		System.arraycopy(fHashes, fGapEnd, hashes, hashes.length - tail, tail);
+		fHashes= hashes;
+		fGapEnd= hashes.length - tail;
+	}
+
+	private int index(int line) {
+		return line < fGapStart ? line : line + fGapEnd - fGapStart;
 	}
 
 	/**
 	 * @return the number of items
 	 */
 	public int getCount() {
-		return fHashes.size();
+		return fHashes.length - fGapEnd + fGapStart;
 	}
 
 	public void setDocument(IDocument document) {
@@ -140,7 +276,7 @@ public final class DocumentEquivalenceClass {
 	public void loadAndForget() {
 		int count= getCount();
 		for (int line= 0; line < count; line++)
-			getHash(line);
+			getIntHash(line);
 
 		fDocument= null;
 	}
@@ -123,6 +123,92 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	void testRuleHash() throws Exception {
+		// rules found through the buckets of the id, the classes, the element name
+		// and the universal bucket keep their precedence
+		String css = """
+			* { color: red; }
+			Button { color: blue; background-color: white; }
+			.primary { color: green; }
+			#ok { font-weight: bold; }
+			Shell .primary { background-color: black; }
+			Label, Button.secondary { color: gray; }
+			""";
+		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(css);
+		DocumentCSSImpl docCss = new DocumentCSSImpl();
+		docCss.addStyleSheet(styleSheet);
+		ViewCSS viewCSS = new ViewCSSImpl(docCss);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement composite = new TestElement("Composite", shell, engine);
+		final TestElement button = new TestElement("Button", composite, engine);
+		button.setClass("primary  secondary primary");
+		button.setId("ok");
+		final TestElement label = new TestElement("Label", composite, engine);
+
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertEquals(3, buttonStyle.getLength());
+		assertEquals("gray", buttonStyle.getPropertyValue("color"));
+		assertEquals("black", buttonStyle.getPropertyValue("background-color"));
+		assertEquals("bold", buttonStyle.getPropertyValue("font-weight"));
+
+		CSSStyleDeclaration compositeStyle = viewCSS.getComputedStyle(composite, null);
+		assertEquals("color: red;", compositeStyle.getCssText());
+
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertEquals(1, labelStyle.getLength());
+		assertEquals("gray", labelStyle.getPropertyValue("color"));
+
+		// add a new stylesheet => the rules are hashed again
+		docCss.addStyleSheet(ParserTestUtil.parseCss("#ok { color: yellow; }"));
+		assertEquals("yellow", viewCSS.getComputedStyle(button, null).getPropertyValue("color"));
+	}
+
+	@Test
+	void testStyleSharing() throws Exception {
+		String css = """
+			* { font-weight: normal; }
+			Button { color: blue; }
+			.primary Button { color: green; }
+			Button[style='flat'] { background-color: white; }
+			""";
+		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(css);
+		DocumentCSSImpl docCss = new DocumentCSSImpl();
+		docCss.addStyleSheet(styleSheet);
+		ViewCSS viewCSS = new ViewCSSImpl(docCss);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement composite = new TestElement("Composite", shell, engine);
+		final TestElement button1 = new TestElement("Button", composite, engine);
+		final TestElement button2 = new TestElement("Button", composite, engine);
+		final TestElement flatButton = new TestElement("Button", composite, engine);
+		flatButton.setAttribute("style", "flat");
+		final TestElement primary = new TestElement("Composite", shell, engine);
+		primary.setClass("primary");
+		final TestElement primaryButton = new TestElement("Button", primary, engine);
+
+		// siblings the rules cannot tell apart share their merged style
+		CSSStyleDeclaration style = viewCSS.getComputedStyle(button1, null);
+		assertEquals("blue", style.getPropertyValue("color"));
+		assertSame(style, viewCSS.getComputedStyle(button2, null));
+
+		// the attributes and ancestors used by the selectors are part of the key
+		CSSStyleDeclaration flatStyle = viewCSS.getComputedStyle(flatButton, null);
+		assertNotSame(style, flatStyle);
+		assertEquals("white", flatStyle.getPropertyValue("background-color"));
+		assertEquals("green", viewCSS.getComputedStyle(primaryButton, null).getPropertyValue("color"));
+		assertEquals("normal", viewCSS.getComputedStyle(composite, null).getPropertyValue("font-weight"));
+
+		// add a new stylesheet => the shared styles are computed again
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button { color: yellow; }"));
+		assertEquals("yellow", viewCSS.getComputedStyle(button2, null).getPropertyValue("color"));
+
+		// sibling selectors disable the sharing
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button + Button { color: red; }"));
+		assertNotSame(viewCSS.getComputedStyle(button1, null), viewCSS.getComputedStyle(button2, null));
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	void testRuleCaching() throws Exception {
@@ -37,6 +37,7 @@ import org.eclipse.e4.ui.tests.css.swt.CTabFolderTest;
 import org.eclipse.e4.ui.tests.css.swt.CTabItemTest;
 import org.eclipse.e4.ui.tests.css.swt.ColorDefinitionTest;
 import org.eclipse.e4.ui.tests.css.swt.DescendentTest;
+import org.eclipse.e4.ui.tests.css.swt.DirtyRestyleTest;
 import org.eclipse.e4.ui.tests.css.swt.FontDefinitionTest;
 import org.eclipse.e4.ui.tests.css.swt.GradientTest;
 import org.eclipse.e4.ui.tests.css.swt.IEclipsePreferencesTest;
@@ -69,7 +70,7 @@ import org.junit.platform.suite.api.Suite;
 		ButtonTextTransformTest.class, LabelTextTransformTest.class, TextTextTransformTest.class, DescendentTest.class,
 		ThemeTest.class, Bug459961Test.class, Bug419482Test.class, ShellActiveTest.class, InheritTest.class,
 		TableTest.class, TreeTest.class, TabbedPropertiesListTest.class, TabbedPropertiesTitleTest.class,
-		ExpandableCompositeTest.class, SectionTest.class })
+		ExpandableCompositeTest.class, SectionTest.class, DirtyRestyleTest.class })
 public class CssSwtTestSuite {
 
 }
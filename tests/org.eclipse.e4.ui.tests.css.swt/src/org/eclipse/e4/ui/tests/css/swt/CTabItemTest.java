@@ -531,6 +531,32 @@ public class CTabItemTest extends CSSSWTTestCase {
 		}
 	}
 
+	@Test
+	void testItemColorsAfterFolderThemeSwitch() {
+		CTabFolder folder = createTestTabFolder("""
+				CTabFolder { background-color: #ff0000; color: #ff0000; }
+				CTabFolder.dark { background-color: #00ff00; color: #00ff00; }
+				CTabItem { background-color: #0000ff; color: #0000ff; }
+				CTabItem:selected { background-color: #0000ff; color: #0000ff; }
+				""", false);
+		assertEquals(BLUE, folder.getBackground().getRGB());
+		assertEquals(BLUE, folder.getForeground().getRGB());
+
+		// the values of the item rules are the same, but have to be applied to
+		// the folder again after its own rules changed
+		WidgetElement.setCSSClass(folder, "dark");
+		engine.applyStyles(folder, true);
+		assertEquals(BLUE, folder.getBackground().getRGB());
+		assertEquals(BLUE, folder.getForeground().getRGB());
+		assertEquals(BLUE, folder.getSelectionBackground().getRGB());
+		assertEquals(BLUE, folder.getSelectionForeground().getRGB());
+
+		WidgetElement.setCSSClass(folder, null);
+		engine.applyStyles(folder, true);
+		assertEquals(BLUE, folder.getBackground().getRGB());
+		assertEquals(BLUE, folder.getForeground().getRGB());
+	}
+
 	@Test
 	void testParent() {
 		CTabFolder folder = createTestTabFolder("CTabItem:selected { color: #00ff00 }", false);
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Widget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a change of the class or id of a widget restyles only the widgets
+ * whose styles may depend on it, before the change returns, and in one pass
+ * for the changes of a batch.
+ */
+public class DirtyRestyleTest extends CSSSWTTestCase {
+
+	private CSSSWTEngineImpl swtEngine;
+	private Composite part1;
+	private Composite part2;
+	private Label label1;
+	private Label label2;
+
+	@Override
+	@BeforeEach
+	public void setUp() {
+		super.setUp();
+		engine = createEngine("""
+				Label { color: #00FF00; }
+				.active Label { color: #FF0000; }
+				Label.status { color: #0000FF; }
+				#main { background-color: #FF0000; }
+				""", display);
+		swtEngine = (CSSSWTEngineImpl) engine;
+
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		part1 = createPart(shell);
+		label1 = (Label) part1.getChildren()[0];
+		part2 = createPart(shell);
+		label2 = (Label) part2.getChildren()[0];
+		engine.applyStyles(shell, true);
+		swtEngine.resetRestyleStatistics();
+	}
+
+	private static Composite createPart(Shell shell) {
+		Composite part = new Composite(shell, SWT.NONE);
+		part.setLayout(new FillLayout());
+		new Label(part, SWT.NONE);
+		new Label(part, SWT.NONE);
+		new Label(part, SWT.NONE);
+		return part;
+	}
+
+	@Test
+	void testAncestorClassRestylesSubtree() {
+		setCSSClass(part1, "active");
+		assertEquals(RED, label1.getForeground().getRGB());
+		assertEquals(GREEN, label2.getForeground().getRGB());
+		// the part and its labels
+		assertEquals(4, swtEngine.getRestyleStatistics().get("class"));
+	}
+
+	@Test
+	void testSubjectClassRestylesWidget() {
+		setCSSClass(label2, "status");
+		assertEquals(BLUE, label2.getForeground().getRGB());
+		assertEquals(1, swtEngine.getRestyleStatistics().get("class"));
+	}
+
+	@Test
+	void testUnusedClassRestylesNothing() {
+		setCSSClass(part1, "unused");
+		setCSSClass(label1, "unused");
+		assertNull(swtEngine.getRestyleStatistics().get("class"));
+	}
+
+	@Test
+	void testChangesAreBatched() {
+		swtEngine.batchAttributeChanges(() -> {
+			setCSSClass(label1, "status");
+			setCSSClass(part1, "active");
+			setID(part2, "main");
+			setCSSClass(part1, "active other");
+			// restyled at the end of the batch
+			assertEquals(GREEN, label1.getForeground().getRGB());
+		});
+		// the label is restyled with its part only
+		assertEquals(BLUE, label1.getForeground().getRGB());
+		assertEquals(RED, ((Label) part1.getChildren()[1]).getForeground().getRGB());
+		assertEquals(4, swtEngine.getRestyleStatistics().get("class"));
+		assertEquals(RED, part2.getBackground().getRGB());
+		assertEquals(1, swtEngine.getRestyleStatistics().get("id"));
+	}
+
+	@Test
+	void testStyleSheetChange() throws Exception {
+		swtEngine.parseStyleSheet(new StringReader(".unused { color: #FFFFFF; }"));
+		setCSSClass(label1, "unused");
+		assertEquals(WHITE, label1.getForeground().getRGB());
+		assertTrue(swtEngine.getRestyleStatistics().containsKey("class"));
+	}
+
+	private void setCSSClass(Widget widget, String className) {
+		String oldClassName = WidgetElement.getCSSClass(widget);
+		WidgetElement.setCSSClass(widget, className);
+		engine.attributeChanged(widget, "class", oldClassName, className);
+	}
+
+	private void setID(Widget widget, String id) {
+		String oldId = WidgetElement.getID(widget);
+		WidgetElement.setID(widget, id);
+		engine.attributeChanged(widget, "id", oldId, id);
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.jface.viewers.IElementComparer;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Widget;
+import org.junit.Test;
+
+/**
+ * Tests the map from the elements of a viewer to their items when hash lookup
+ * is enabled.
+ */
+public class ElementMapTest extends ViewerTestCase {
+
+	private TreeViewer getTreeViewer() {
+		return (TreeViewer) fViewer;
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		TreeViewer viewer = new TreeViewer(parent);
+		viewer.setContentProvider(new TestModelContentProvider());
+		return viewer;
+	}
+
+	@Override
+	protected void setUpModel() {
+		fRootElement = TestElement.createModel(2, 30);
+		fModel = fRootElement.getModel();
+	}
+
+	@Test
+	public void testAllElementsMapped() {
+		getTreeViewer().expandAll();
+		for (TestElement child : fRootElement.getChildren()) {
+			assertMapped(child);
+			for (TestElement grandChild : child.getChildren()) {
+				assertMapped(grandChild);
+			}
+		}
+	}
+
+	@Test
+	public void testRemoveElements() {
+		getTreeViewer().expandAll();
+		TestElement[] children = fRootElement.getChildren();
+		for (int i = 0; i < children.length; i += 2) {
+			fRootElement.deleteChild(children[i]);
+		}
+		for (int i = 0; i < children.length; i++) {
+			if (i % 2 == 0) {
+				assertEquals(0, fViewer.testFindItems(children[i]).length);
+				assertEquals(0, fViewer.testFindItems(children[i].getFirstChild()).length);
+			} else {
+				assertMapped(children[i]);
+				assertMapped(children[i].getLastChild());
+			}
+		}
+		TestElement added = fRootElement.addChild(TestModelChange.INSERT);
+		assertMapped(added);
+	}
+
+	@Test
+	public void testSetComparer() {
+		getTreeViewer().expandAll();
+		fViewer.setComparer(new IElementComparer() {
+			@Override
+			public boolean equals(Object a, Object b) {
+				return ((TestElement) a).getID().equalsIgnoreCase(((TestElement) b).getID());
+			}
+
+			@Override
+			public int hashCode(Object element) {
+				return ((TestElement) element).getID().length();
+			}
+		});
+		// all elements of a level collide in the hash codes of the comparer
+		for (TestElement child : fRootElement.getChildren()) {
+			assertMapped(child);
+			assertMapped(child.getLastChild());
+		}
+		TestElement child = fRootElement.getFirstChild();
+		fRootElement.deleteChild(child);
+		assertEquals(0, fViewer.testFindItems(child).length);
+		assertMapped(fRootElement.getLastChild());
+	}
+
+	private void assertMapped(TestElement element) {
+		Widget[] items = fViewer.testFindItems(element);
+		assertEquals(1, items.length);
+		assertSame(element, items[0].getData());
+	}
+}
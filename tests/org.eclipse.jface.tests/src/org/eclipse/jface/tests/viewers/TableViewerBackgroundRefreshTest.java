@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jface.tests.viewers.StructuredViewerTest.TestLabelComparator;
+import org.eclipse.jface.tests.viewers.StructuredViewerTest.TestLabelFilter;
+import org.eclipse.jface.tests.viewers.StructuredViewerTest.TestLabelFilter2;
+import org.eclipse.jface.tests.viewers.StructuredViewerTest.TestLabelProvider;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.junit.Test;
+
+/**
+ * Tests filtering and sorting the elements of a table viewer on a background
+ * thread.
+ */
+public class TableViewerBackgroundRefreshTest extends ViewerTestCase {
+
+	private static final long TIMEOUT = 5000;
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		TableViewer viewer = new TableViewer(parent);
+		viewer.setContentProvider(new TestModelContentProvider());
+		viewer.setLabelProvider(new TestLabelProvider());
+		return viewer;
+	}
+
+	private Table getTable() {
+		return ((TableViewer) fViewer).getTable();
+	}
+
+	@Test
+	public void testFilterInBackground() {
+		fViewer.setUseBackgroundRefresh(true);
+		fViewer.addFilter(new TestLabelFilter());
+		// the items are updated once the filter ran
+		assertEquals(10, getTable().getItemCount());
+		assertTrue(DisplayHelper.waitForCondition(fDisplay, TIMEOUT, () -> getTable().getItemCount() == 5));
+		assertSame(fRootElement.getChildAt(8), getTable().getItem(4).getData());
+		assertSame(fRootElement.getChildAt(8), fViewer.testFindItem(fRootElement.getChildAt(8)).getData());
+	}
+
+	@Test
+	public void testNewerRefreshWins() {
+		fViewer.setUseBackgroundRefresh(true);
+		fViewer.setFilters(new TestLabelFilter());
+		fViewer.setFilters(new TestLabelFilter2());
+		assertTrue(DisplayHelper.waitForCondition(fDisplay, TIMEOUT, () -> getTable().getItemCount() == 1));
+		// the result of the first refresh is never applied
+		DisplayHelper.sleep(fDisplay, 200);
+		assertEquals(1, getTable().getItemCount());
+		assertSame(fRootElement.getFirstChild(), getTable().getItem(0).getData());
+	}
+
+	@Test
+	public void testModelChangeWhileSorting() {
+		fViewer.setUseBackgroundRefresh(true);
+		fViewer.setComparator(new TestLabelComparator());
+		TestElement added = fRootElement.addChild(TestModelChange.INSERT);
+		// the pending refresh includes the added element
+		assertEquals(10, getTable().getItemCount());
+		TestElement last = fRootElement.getChildAt(9);
+		assertTrue(DisplayHelper.waitForCondition(fDisplay, TIMEOUT, () -> getTable().getItem(0).getData() == last));
+		assertEquals(11, getTable().getItemCount());
+		assertSame(added, getTable().getItem(10).getData());
+	}
+
+	@Test
+	public void testFailingFilterFallsBackToUIThread() {
+		List<IStatus> logged = Collections.synchronizedList(new ArrayList<>());
+		Policy.setLog(logged::add);
+		fViewer.setUseBackgroundRefresh(true);
+		Thread uiThread = fDisplay.getThread();
+		fViewer.addFilter(new TestLabelFilter() {
+			@Override
+			public boolean select(Viewer viewer, Object parent, Object element) {
+				if (Thread.currentThread() != uiThread) {
+					throw new IllegalStateException("not thread safe");
+				}
+				return super.select(viewer, parent, element);
+			}
+		});
+		// the refresh is computed on the UI thread after it failed in the background
+		assertTrue(DisplayHelper.waitForCondition(fDisplay, TIMEOUT, () -> getTable().getItemCount() == 5));
+		assertEquals(1, logged.size());
+		assertSame(fRootElement.getChildAt(8), getTable().getItem(4).getData());
+	}
+
+	@Test
+	public void testDisableBackgroundRefresh() {
+		fViewer.setUseBackgroundRefresh(true);
+		fViewer.setUseBackgroundRefresh(false);
+		fViewer.addFilter(new TestLabelFilter());
+		assertEquals(5, getTable().getItemCount());
+	}
+}
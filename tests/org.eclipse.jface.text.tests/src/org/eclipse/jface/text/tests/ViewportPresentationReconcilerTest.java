@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.TextPresentation;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.Token;
+
+/**
+ * Tests repairing only the lines around the viewport in {@link PresentationReconciler}.
+ */
+public class ViewportPresentationReconcilerTest {
+
+	private static final String COMMENT= "comment";
+
+	private static final int VISIBLE_LINES= 20;
+
+	private static final int PREFETCH= 10;
+
+	/**
+	 * A viewer showing {@link ViewportPresentationReconcilerTest#VISIBLE_LINES} lines, which
+	 * remembers the applied presentations.
+	 */
+	private static class ViewportTextViewer extends TestTextViewer {
+
+		private final List<IViewportListener> fViewportListeners= new ArrayList<>();
+
+		private final List<TextPresentation> fPresentations= new ArrayList<>();
+
+		private int fTopLine;
+
+		@Override
+		public void changeTextPresentation(TextPresentation presentation, boolean p1) {
+			super.changeTextPresentation(presentation, p1);
+			fPresentations.add(presentation);
+		}
+
+		@Override
+		public int getTopIndexStartOffset() {
+			try {
+				return fDocument.getLineOffset(fTopLine);
+			} catch (BadLocationException e) {
+				return -1;
+			}
+		}
+
+		@Override
+		public int getBottomIndexEndOffset() {
+			try {
+				int bottomLine= Math.min(fDocument.getNumberOfLines(), fTopLine + VISIBLE_LINES) - 1;
+				return fDocument.getLineOffset(bottomLine) + fDocument.getLineLength(bottomLine) - 1;
+			} catch (BadLocationException e) {
+				return -1;
+			}
+		}
+
+		@Override
+		public void addViewportListener(IViewportListener listener) {
+			fViewportListeners.add(listener);
+		}
+
+		@Override
+		public void removeViewportListener(IViewportListener listener) {
+			fViewportListeners.remove(listener);
+		}
+
+		void scrollTo(int topLine) {
+			fTopLine= topLine;
+			for (IViewportListener listener : new ArrayList<>(fViewportListeners))
+				listener.viewportChanged(topLine * 16);
+		}
+
+		List<TextPresentation> takePresentations() {
+			List<TextPresentation> presentations= new ArrayList<>(fPresentations);
+			fPresentations.clear();
+			return presentations;
+		}
+	}
+
+	private ViewportTextViewer fViewer;
+
+	private PresentationReconciler fReconciler;
+
+	@After
+	public void tearDown() {
+		if (fReconciler != null)
+			fReconciler.uninstall();
+		fReconciler= null;
+		fViewer= null;
+	}
+
+	@Test
+	public void testRepairsOnlyVisibleLines() throws Exception {
+		IDocument document= setUp(1000, PREFETCH);
+		List<TextPresentation> presentations= fViewer.takePresentations();
+		assertEquals(1, presentations.size());
+		assertEquals(0, presentations.get(0).getExtent().getOffset());
+		assertEquals(document.getLineOffset(VISIBLE_LINES + PREFETCH), end(presentations.get(0).getExtent()));
+	}
+
+	@Test
+	public void testRepairsDamageScrolledIntoView() throws Exception {
+		IDocument document= setUp(1000, PREFETCH);
+		fViewer.takePresentations();
+
+		fViewer.scrollTo(500);
+		List<TextPresentation> presentations= fViewer.takePresentations();
+		assertEquals(1, presentations.size());
+		IRegion extent= presentations.get(0).getExtent();
+		assertEquals(document.getLineOffset(500 - PREFETCH), extent.getOffset());
+		assertEquals(document.getLineOffset(500 + VISIBLE_LINES + PREFETCH), end(extent));
+
+		fViewer.scrollTo(505);
+		presentations= fViewer.takePresentations();
+		assertEquals(1, presentations.size());
+		extent= presentations.get(0).getExtent();
+		assertEquals(document.getLineOffset(500 + VISIBLE_LINES + PREFETCH), extent.getOffset());
+		assertEquals(document.getLineOffset(505 + VISIBLE_LINES + PREFETCH), end(extent));
+
+		fViewer.scrollTo(0);
+		assertTrue(fViewer.takePresentations().isEmpty());
+	}
+
+	@Test
+	public void testPartitioningChangeRepairedLazily() throws Exception {
+		IDocument document= setUp(1000, PREFETCH);
+		fViewer.takePresentations();
+
+		document.replace(document.getLineOffset(2), 0, "/*");
+		List<TextPresentation> presentations= fViewer.takePresentations();
+		assertTrue(!presentations.isEmpty());
+		for (TextPresentation presentation : presentations)
+			assertTrue(end(presentation.getExtent()) <= document.getLineOffset(VISIBLE_LINES + PREFETCH));
+
+		fViewer.scrollTo(600);
+		presentations= fViewer.takePresentations();
+		assertEquals(1, presentations.size());
+		assertAllComment(presentations.get(0));
+
+		fViewer.scrollTo(0);
+		document.replace(document.getLineOffset(2), 2, "");
+		fViewer.takePresentations();
+		fViewer.scrollTo(600);
+		presentations= fViewer.takePresentations();
+		assertEquals(1, presentations.size());
+		Iterator<StyleRange> e= presentations.get(0).getAllStyleRangeIterator();
+		while (e.hasNext())
+			assertEquals(SWT.NORMAL, e.next().fontStyle);
+	}
+
+	@Test
+	public void testRepairsCompleteDamageByDefault() throws Exception {
+		IDocument document= setUp(1000, -1);
+		fViewer.takePresentations();
+
+		document.replace(document.getLineOffset(2), 0, "/*");
+		List<TextPresentation> presentations= fViewer.takePresentations();
+		assertEquals(document.getLength(), end(presentations.get(presentations.size() - 1).getExtent()));
+	}
+
+	private IDocument setUp(int lines, int prefetch) {
+		IDocument document= createDocument(lines);
+
+		fReconciler= new PresentationReconciler();
+		fReconciler.setViewportPrefetch(prefetch);
+		DefaultDamagerRepairer code= new DefaultDamagerRepairer(createScanner(SWT.NORMAL));
+		fReconciler.setDamager(code, IDocument.DEFAULT_CONTENT_TYPE);
+		fReconciler.setRepairer(code, IDocument.DEFAULT_CONTENT_TYPE);
+		DefaultDamagerRepairer comment= new DefaultDamagerRepairer(createScanner(SWT.BOLD));
+		fReconciler.setDamager(comment, COMMENT);
+		fReconciler.setRepairer(comment, COMMENT);
+
+		fViewer= new ViewportTextViewer();
+		fReconciler.install(fViewer);
+		fViewer.setDocument(document);
+		return document;
+	}
+
+	private static IDocument createDocument(int lines) {
+		StringBuilder builder= new StringBuilder();
+		for (int i= 0; i < lines; i++)
+			builder.append("\tint field").append(i).append(";\n");
+		IDocument document= new Document(builder.toString());
+
+		IDocumentPartitioner partitioner= new FastPartitioner(createPartitionScanner(), new String[] { COMMENT });
+		partitioner.connect(document);
+		document.setDocumentPartitioner(partitioner);
+		return document;
+	}
+
+	private static RuleBasedPartitionScanner createPartitionScanner() {
+		RuleBasedPartitionScanner scanner= new RuleBasedPartitionScanner();
+		scanner.setPredicateRules(new IPredicateRule[] { new MultiLineRule("/*", "*/", new Token(COMMENT), (char) 0, true) });
+		return scanner;
+	}
+
+	private static RuleBasedScanner createScanner(int style) {
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setDefaultReturnToken(new Token(new TextAttribute(null, null, style)));
+		return scanner;
+	}
+
+	private static void assertAllComment(TextPresentation presentation) {
+		Iterator<StyleRange> e= presentation.getAllStyleRangeIterator();
+		assertTrue(e.hasNext());
+		while (e.hasNext())
+			assertEquals(SWT.BOLD, e.next().fontStyle);
+	}
+
+	private static int end(IRegion region) {
+		return region.getOffset() + region.getLength();
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.function.Supplier;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.BufferedRuleBasedScanner;
+import org.eclipse.jface.text.rules.CompiledRuleBasedScanner;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.tests.rules.CompiledRuleBasedScannerTest;
+
+/**
+ * Measures scanning 2MB of Java and XML with the {@link CompiledRuleBasedScanner}, compared to
+ * the {@link RuleBasedScanner} and the {@link BufferedRuleBasedScanner}.
+ */
+public class CompiledRuleBasedScannerPerformanceTest extends PerformanceTestCase {
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 10;
+
+	public void testJavaRuleBasedScanner() {
+		measureScan(new RuleBasedScanner(), CompiledRuleBasedScannerTest::createJavaRules, CompiledRuleBasedScannerTest.JAVA_SAMPLE);
+	}
+
+	public void testJavaBufferedRuleBasedScanner() {
+		measureScan(new BufferedRuleBasedScanner(500), CompiledRuleBasedScannerTest::createJavaRules, CompiledRuleBasedScannerTest.JAVA_SAMPLE);
+	}
+
+	public void testJavaCompiledRuleBasedScanner() {
+		measureScan(new CompiledRuleBasedScanner(), CompiledRuleBasedScannerTest::createJavaRules, CompiledRuleBasedScannerTest.JAVA_SAMPLE);
+	}
+
+	public void testXmlRuleBasedScanner() {
+		measureScan(new RuleBasedScanner(), CompiledRuleBasedScannerTest::createXmlRules, CompiledRuleBasedScannerTest.XML_SAMPLE);
+	}
+
+	public void testXmlBufferedRuleBasedScanner() {
+		measureScan(new BufferedRuleBasedScanner(500), CompiledRuleBasedScannerTest::createXmlRules, CompiledRuleBasedScannerTest.XML_SAMPLE);
+	}
+
+	public void testXmlCompiledRuleBasedScanner() {
+		measureScan(new CompiledRuleBasedScanner(), CompiledRuleBasedScannerTest::createXmlRules, CompiledRuleBasedScannerTest.XML_SAMPLE);
+	}
+
+	private void measureScan(RuleBasedScanner scanner, Supplier<IRule[]> rules, String sample) {
+		StringBuilder builder= new StringBuilder();
+		while (builder.length() < 2 * 1024 * 1024)
+			builder.append(sample);
+		IDocument document= new Document(builder.toString());
+		scanner.setRules(rules.get());
+		scanner.setDefaultReturnToken(new Token("default"));
+
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			scanner.setRange(document, 0, document.getLength());
+			while (!scanner.nextToken().isEOF()) {
+				// scan
+			}
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.swt.SWT;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.tests.TestTextViewer;
+
+/**
+ * Measures the typing latency near the top of a document with 100000 lines. Keystrokes which
+ * change the partitioning of the rest of the document are measured in a document without
+ * comments, plain keystrokes in a document with a comment on each line. The partitioning without
+ * presentation reconciler is the baseline for the reconciler repairing the complete damage and
+ * the reconciler repairing only the lines around the viewport.
+ */
+public class ViewportPresentationReconcilerPerformanceTest extends PerformanceTestCase {
+
+	private static final String COMMENT= "comment";
+
+	private static final int LINES= 100000;
+
+	private static final int VISIBLE_LINES= 20;
+
+	private static final int PREFETCH= 10;
+
+	/** Measures the partitioning without presentation reconciler. */
+	private static final int NO_RECONCILER= -2;
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 5;
+
+	/**
+	 * A viewer showing the first {@link ViewportPresentationReconcilerPerformanceTest#VISIBLE_LINES}
+	 * lines.
+	 */
+	private static class ViewportTextViewer extends TestTextViewer {
+
+		@Override
+		public int getTopIndexStartOffset() {
+			return 0;
+		}
+
+		@Override
+		public int getBottomIndexEndOffset() {
+			try {
+				return fDocument.getLineOffset(VISIBLE_LINES) - 1;
+			} catch (BadLocationException e) {
+				return -1;
+			}
+		}
+	}
+
+	private PresentationReconciler fReconciler;
+
+	@Override
+	protected void tearDown() throws Exception {
+		uninstall();
+		super.tearDown();
+	}
+
+	public void testPartitioningOnlyPartitioningChange() throws Exception {
+		measurePartitioningChange(NO_RECONCILER);
+	}
+
+	public void testCompleteDamagePartitioningChange() throws Exception {
+		measurePartitioningChange(-1);
+	}
+
+	public void testViewportPartitioningChange() throws Exception {
+		measurePartitioningChange(PREFETCH);
+	}
+
+	public void testPartitioningOnlyTyping() throws Exception {
+		measureTyping(NO_RECONCILER);
+	}
+
+	public void testCompleteDamageTyping() throws Exception {
+		measureTyping(-1);
+	}
+
+	public void testViewportTyping() throws Exception {
+		measureTyping(PREFETCH);
+	}
+
+	/**
+	 * Opens and closes a comment near the top of a document without comments, which changes the
+	 * partitioning of the rest of the document.
+	 *
+	 * @param prefetch the viewport prefetch of the reconciler, <code>-1</code> to repair the
+	 *            complete damage, or {@link #NO_RECONCILER}
+	 * @throws BadLocationException if the document is too short
+	 */
+	private void measurePartitioningChange(int prefetch) throws BadLocationException {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			IDocument document= setUp(prefetch, false);
+			int offset= document.getLineOffset(5);
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			for (int i= 0; i < 20; i++) {
+				document.replace(offset, 0, "/*");
+				document.replace(offset, 2, "");
+			}
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			uninstall();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Types near the top of a document with a comment on each line.
+	 *
+	 * @param prefetch the viewport prefetch of the reconciler, <code>-1</code> to repair the
+	 *            complete damage, or {@link #NO_RECONCILER}
+	 * @throws BadLocationException if the document is too short
+	 */
+	private void measureTyping(int prefetch) throws BadLocationException {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			IDocument document= setUp(prefetch, true);
+			int offset= document.getLineOffset(5);
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			for (int i= 0; i < 1000; i++)
+				document.replace(offset + i, 0, "x");
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			uninstall();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private IDocument setUp(int prefetch, boolean comments) {
+		IDocument document= createDocument(comments);
+		if (prefetch == NO_RECONCILER)
+			return document;
+
+		fReconciler= new PresentationReconciler();
+		fReconciler.setViewportPrefetch(prefetch);
+		DefaultDamagerRepairer code= new DefaultDamagerRepairer(createScanner(SWT.NORMAL));
+		fReconciler.setDamager(code, IDocument.DEFAULT_CONTENT_TYPE);
+		fReconciler.setRepairer(code, IDocument.DEFAULT_CONTENT_TYPE);
+		DefaultDamagerRepairer comment= new DefaultDamagerRepairer(createScanner(SWT.BOLD));
+		fReconciler.setDamager(comment, COMMENT);
+		fReconciler.setRepairer(comment, COMMENT);
+
+		TestTextViewer viewer= new ViewportTextViewer();
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+		return document;
+	}
+
+	private void uninstall() {
+		if (fReconciler != null)
+			fReconciler.uninstall();
+		fReconciler= null;
+	}
+
+	private static IDocument createDocument(boolean comments) {
+		StringBuilder builder= new StringBuilder();
+		for (int i= 0; i < LINES; i++) {
+			builder.append("\tint field").append(i).append(";");
+			if (comments)
+				builder.append(" /* field ").append(i).append(" */");
+			builder.append("\n");
+		}
+		IDocument document= new Document(builder.toString());
+
+		IDocumentPartitioner partitioner= new FastPartitioner(createPartitionScanner(), new String[] { COMMENT });
+		partitioner.connect(document);
+		document.setDocumentPartitioner(partitioner);
+		return document;
+	}
+
+	private static RuleBasedPartitionScanner createPartitionScanner() {
+		RuleBasedPartitionScanner scanner= new RuleBasedPartitionScanner();
+		scanner.setPredicateRules(new IPredicateRule[] { new MultiLineRule("/*", "*/", new Token(COMMENT), (char) 0, true) });
+		return scanner;
+	}
+
+	private static RuleBasedScanner createScanner(int style) {
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setDefaultReturnToken(new Token(new TextAttribute(null, null, style)));
+		return scanner;
+	}
+}
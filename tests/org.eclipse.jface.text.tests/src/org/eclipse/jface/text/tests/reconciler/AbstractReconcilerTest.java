@@ -21,6 +21,7 @@ import static org.junit.Assert.fail;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.junit.After;
 import org.junit.Before;
@@ -182,6 +183,7 @@ public class AbstractReconcilerTest {
 				};
 		fReconciler.setIsIncrementalReconciler(false);
 		fReconciler.setDelay(getDelay());
+		fReconciler.setExecutor(getExecutor());
 
 		fProgressMonitor= new NullProgressMonitor();
 		fReconciler.setProgressMonitor(fProgressMonitor);
@@ -198,6 +200,10 @@ public class AbstractReconcilerTest {
 		return 50; // make tests run faster
 	}
 
+	ScheduledExecutorService getExecutor() {
+		return null; // dedicated thread
+	}
+
 	void aboutToWork(@SuppressWarnings("unused") AbstractReconciler reconciler) {
 		// nothing
 	}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.reconciler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.reconciler.AbstractReconciler;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
+import org.eclipse.jface.text.tests.TestTextViewer;
+
+/**
+ * Runs the reconciler tests with the reconcilers' background activity on the shared executor.
+ */
+public class SharedExecutorReconcilerTest extends AbstractReconcilerTest {
+
+	@Override
+	ScheduledExecutorService getExecutor() {
+		return AbstractReconciler.getSharedExecutor();
+	}
+
+	@Test
+	public void testManyReconcilersShareThreads() throws Exception {
+		int count= 100;
+		int threadsBefore= Thread.activeCount();
+		CountDownLatch initialized= new CountDownLatch(count);
+		CountDownLatch processed= new CountDownLatch(count);
+		AtomicInteger running= new AtomicInteger();
+		AtomicInteger maxRunning= new AtomicInteger();
+		AtomicIntegerArray processCounts= new AtomicIntegerArray(count);
+		Set<Thread> processThreads= ConcurrentHashMap.newKeySet();
+		List<AbstractReconciler> reconcilers= new ArrayList<>();
+		List<IDocument> documents= new ArrayList<>();
+		try {
+			for (int i= 0; i < count; i++) {
+				int index= i;
+				AbstractReconciler reconciler= new AbstractReconciler() {
+					@Override
+					protected void initialProcess() {
+						initialized.countDown();
+					}
+					@Override
+					protected void process(DirtyRegion dirtyRegion) {
+						maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+						processCounts.incrementAndGet(index);
+						processThreads.add(Thread.currentThread());
+						processed.countDown();
+						running.decrementAndGet();
+					}
+					@Override
+					protected void reconcilerDocumentChanged(IDocument newDocument) {
+					}
+					@Override
+					public IReconcilingStrategy getReconcilingStrategy(String contentType) {
+						return null;
+					}
+				};
+				reconciler.setIsIncrementalReconciler(false);
+				reconciler.setDelay(20);
+				reconciler.setExecutor(getExecutor());
+				TestTextViewer viewer= new TestTextViewer();
+				reconciler.install(viewer);
+				Document document= new Document("foo");
+				viewer.setDocument(document);
+				reconcilers.add(reconciler);
+				documents.add(document);
+			}
+			assertTrue(initialized.await(5, TimeUnit.SECONDS));
+			for (IDocument document : documents)
+				document.replace(0, 0, "bar");
+			assertTrue(processed.await(5, TimeUnit.SECONDS));
+			// give a duplicate run time to happen
+			Thread.sleep(10 * 20);
+
+			// each reconciler processed the change exactly once
+			for (int i= 0; i < count; i++)
+				assertEquals("reconciler " + i, 1, processCounts.get(i));
+
+			// on the threads of the shared executor, not threads of their own
+			for (Thread thread : processThreads)
+				assertTrue(thread.getName(), thread.getName().startsWith("Reconciler Worker-"));
+			assertTrue(processThreads.size() <= ((ThreadPoolExecutor) getExecutor()).getCorePoolSize());
+			assertTrue(Thread.activeCount() - threadsBefore < count / 2);
+			assertTrue(maxRunning.get() <= processThreads.size());
+
+			// and the steps didn't queue up behind each other for long
+			for (int i= 0; i < count; i++) {
+				long latency= reconcilers.get(i).getMaxQueueLatency();
+				assertTrue("reconciler " + i + " waited " + latency + " ms", latency < 1000);
+			}
+		} finally {
+			for (AbstractReconciler reconciler : reconcilers)
+				reconciler.uninstall();
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.BufferedRuleBasedScanner;
+import org.eclipse.jface.text.rules.CompiledRuleBasedScanner;
+import org.eclipse.jface.text.rules.EndOfLineRule;
+import org.eclipse.jface.text.rules.ICharacterScanner;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.NumberRule;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WhitespaceRule;
+import org.eclipse.jface.text.rules.WordRule;
+
+/**
+ * Tests that {@link CompiledRuleBasedScanner} returns the same tokens as the other rule based
+ * scanners.
+ */
+public class CompiledRuleBasedScannerTest {
+
+	private static final IToken KEYWORD= new Token("keyword");
+	private static final IToken WORD= new Token("word");
+	private static final IToken STRING= new Token("string");
+	private static final IToken COMMENT= new Token("comment");
+	private static final IToken NUMBER= new Token("number");
+	private static final IToken WHITESPACE= new Token("whitespace");
+	private static final IToken ANNOTATION= new Token("annotation");
+	private static final IToken TAG= new Token("tag");
+	private static final IToken DEFAULT= new Token("default");
+
+	public static final String JAVA_SAMPLE= """
+			/*
+			 * Copyright (c) 2026 and others.
+			 */
+			package org.example; // the package
+
+			@SuppressWarnings("unchecked")
+			public class Größe extends Object {
+				private static final String π= "3.14\\" rest";
+				private int count= 42;
+				char c= 'x';
+
+				public int compute(int value) {
+					if (value > 0x1F && value < 1000)
+						return count * value + 17; /* inline */
+					return -1;
+				}
+			}
+			""";
+
+	public static final String XML_SAMPLE= """
+			<?xml version="1.0" encoding="UTF-8"?>
+			<!-- a comment with <tags> -->
+			<project name="example" default="build">
+				<target name="build" depends="init, compile">
+					<echo message="Größe: 42 &amp; more"/>
+					<javac srcdir="src" destdir="bin"/>
+				</target>
+			</project>
+			""";
+
+	private static final String[] KEYWORDS= { "package", "public", "class", "extends", "private", "static", "final", "int", "char", "if", "return" };
+
+	private static class JavaWordDetector implements IWordDetector {
+		@Override
+		public boolean isWordStart(char c) {
+			return Character.isJavaIdentifierStart(c);
+		}
+
+		@Override
+		public boolean isWordPart(char c) {
+			return Character.isJavaIdentifierPart(c);
+		}
+	}
+
+	/** A rule unknown to the compiled scanner, matching an annotation. */
+	private static class AnnotationRule implements IRule {
+		@Override
+		public IToken evaluate(ICharacterScanner scanner) {
+			if (scanner.read() == '@') {
+				int c;
+				do {
+					c= scanner.read();
+				} while (c != ICharacterScanner.EOF && Character.isJavaIdentifierPart((char) c));
+				scanner.unread();
+				return ANNOTATION;
+			}
+			scanner.unread();
+			return Token.UNDEFINED;
+		}
+	}
+
+	public static IRule[] createJavaRules() {
+		WordRule words= new WordRule(new JavaWordDetector(), WORD);
+		for (String keyword : KEYWORDS)
+			words.addWord(keyword, KEYWORD);
+		return new IRule[] {
+				new EndOfLineRule("//", COMMENT),
+				new MultiLineRule("/*", "*/", COMMENT, (char) 0, true),
+				new SingleLineRule("\"", "\"", STRING, '\\'),
+				new SingleLineRule("'", "'", STRING, '\\'),
+				new AnnotationRule(),
+				new WhitespaceRule(Character::isWhitespace, WHITESPACE),
+				new NumberRule(NUMBER),
+				words
+		};
+	}
+
+	public static IRule[] createXmlRules() {
+		WordRule names= new WordRule(new IWordDetector() {
+			@Override
+			public boolean isWordStart(char c) {
+				return Character.isLetter(c);
+			}
+
+			@Override
+			public boolean isWordPart(char c) {
+				return Character.isLetterOrDigit(c) || c == '-' || c == ':';
+			}
+		}, TAG, true);
+		return new IRule[] {
+				new MultiLineRule("<!--", "-->", COMMENT),
+				new MultiLineRule("<?", "?>", KEYWORD),
+				new SingleLineRule("\"", "\"", STRING),
+				new SingleLineRule("&", ";", NUMBER),
+				new WhitespaceRule(Character::isWhitespace, WHITESPACE),
+				names
+		};
+	}
+
+	@Test
+	public void testJavaSample() {
+		assertSameTokens(createJavaRules(), JAVA_SAMPLE);
+	}
+
+	@Test
+	public void testXmlSample() {
+		assertSameTokens(createXmlRules(), XML_SAMPLE);
+	}
+
+	@Test
+	public void testRandomText() {
+		Random random= new Random(17);
+		String alphabet= "ab1 \t\n/*\"'\\@<>!-?&;äπ";
+		for (int i= 0; i < 200; i++) {
+			StringBuilder builder= new StringBuilder();
+			int length= random.nextInt(200);
+			for (int j= 0; j < length; j++)
+				builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			assertSameTokens(createJavaRules(), builder.toString());
+			assertSameTokens(createXmlRules(), builder.toString());
+		}
+	}
+
+	/*
+	 * An unterminated pattern with an escape character does not restore the scanner offset, the
+	 * following rules then start inside the pattern.
+	 */
+	@Test
+	public void testRuleNotRestoringOffset() {
+		assertSameTokens(createJavaRules(), "'ab\\c\nx 'y\\'");
+	}
+
+	@Test
+	public void testColumnConstraint() {
+		IRule[] rules= { new EndOfLineRule("#", COMMENT, (char) 0), new WhitespaceRule(Character::isWhitespace, WHITESPACE) };
+		((EndOfLineRule) rules[0]).setColumnConstraint(0);
+		assertSameTokens(rules, "# comment\n  # no comment\n#comment");
+	}
+
+	@Test
+	public void testRulesChanged() {
+		IDocument document= new Document("abc 123");
+		CompiledRuleBasedScanner scanner= new CompiledRuleBasedScanner();
+		scanner.setDefaultReturnToken(DEFAULT);
+		scanner.setRules(new NumberRule(NUMBER));
+		scanner.setRange(document, 4, 3);
+		assertSame(NUMBER, scanner.nextToken());
+
+		scanner.setRules(new WordRule(new JavaWordDetector(), WORD));
+		scanner.setRange(document, 0, 7);
+		assertSame(WORD, scanner.nextToken());
+		assertEquals(3, scanner.getTokenLength());
+	}
+
+	@Test
+	public void testSubrange() {
+		IDocument document= new Document(JAVA_SAMPLE);
+		for (int offset= 0; offset < JAVA_SAMPLE.length(); offset+= 37)
+			assertSameTokens(createJavaRules(), document, offset, Math.min(120, JAVA_SAMPLE.length() - offset));
+	}
+
+	private static void assertSameTokens(IRule[] rules, String text) {
+		IDocument document= new Document(text);
+		assertSameTokens(rules, document, 0, document.getLength());
+	}
+
+	private static void assertSameTokens(IRule[] rules, IDocument document, int offset, int length) {
+		RuleBasedScanner expected= new RuleBasedScanner();
+		RuleBasedScanner buffered= new BufferedRuleBasedScanner(16);
+		RuleBasedScanner compiled= new CompiledRuleBasedScanner(16);
+		for (RuleBasedScanner scanner : new RuleBasedScanner[] { expected, buffered, compiled }) {
+			scanner.setRules(rules);
+			scanner.setDefaultReturnToken(DEFAULT);
+			scanner.setRange(document, offset, length);
+		}
+
+		IToken token;
+		do {
+			token= expected.nextToken();
+			for (RuleBasedScanner scanner : new RuleBasedScanner[] { buffered, compiled }) {
+				assertSame(token, scanner.nextToken());
+				assertEquals(expected.getTokenOffset(), scanner.getTokenOffset());
+				assertEquals(expected.getTokenLength(), scanner.getTokenLength());
+			}
+		} while (!token.isEOF());
+	}
+}
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.rules;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.ISynchronizable;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPartitionTokenScanner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+
+/**
+ * Runs the partitioner tests with lazy scanning, and compares lazy with full partitioning.
+ */
+public class LazyFastPartitionerTest extends FastPartitionerTest {
+
+	private static final String STRING= "string";
+	private static final String TEMPLATE= "template";
+
+	@Override
+	protected IDocumentPartitioner createPartitioner(IPartitionTokenScanner scanner) {
+		FastPartitioner partitioner= new FastPartitioner(scanner, new String[] { DEFAULT, COMMENT });
+		partitioner.setLazyScanning(4);
+		return partitioner;
+	}
+
+	@Test
+	public void testRandomEditsSameAsFullPartitioning() throws Exception {
+		Random random= new Random(815);
+		String[] snippets= { "/*", "*/", "\"", "`", "x", "\n", " ", "/* c */", "\"s\"", "`t`" };
+		for (int run= 0; run < 20; run++) {
+			StringBuilder text= new StringBuilder();
+			for (int i= 0; i < 200; i++)
+				text.append(snippets[random.nextInt(snippets.length)]);
+			IDocument full= createDocument(text.toString(), 0);
+			IDocument lazy= createDocument(text.toString(), 8);
+
+			for (int edit= 0; edit < 100; edit++) {
+				int offset= random.nextInt(full.getLength() + 1);
+				int length= random.nextInt(Math.min(5, full.getLength() - offset) + 1);
+				String snippet= snippets[random.nextInt(snippets.length)];
+				full.replace(offset, length, snippet);
+				lazy.replace(offset, length, snippet);
+
+				int query= random.nextInt(full.getLength() + 1);
+				assertEquals(full.getPartition(query), lazy.getPartition(query));
+				int queryLength= random.nextInt(full.getLength() - query + 1);
+				assertArrayEquals(full.computePartitioning(query, queryLength), lazy.computePartitioning(query, queryLength));
+			}
+			assertArrayEquals(full.computePartitioning(0, full.getLength()), lazy.computePartitioning(0, lazy.getLength()));
+		}
+	}
+
+	@Test
+	public void testUnclosedTemplateDoesNotRescanDocument() throws Exception {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 1000; i++)
+			text.append("code `template` /* comment */\n");
+		IDocument full= createDocument(text.toString(), 0);
+		IDocument lazy= createDocument(text.toString(), 64);
+		FastPartitioner partitioner= (FastPartitioner) lazy.getDocumentPartitioner();
+		assertFalse(partitioner.isScanComplete());
+
+		lazy.computePartitioning(0, lazy.getLength());
+		assertTrue(partitioner.isScanComplete());
+
+		// every following template delimiter now opens a template instead of closing one
+		full.replace(0, 0, "`");
+		lazy.replace(0, 0, "`");
+		assertFalse(partitioner.isScanComplete());
+
+		assertEquals(full.getPartition(15000), lazy.getPartition(15000));
+		assertArrayEquals(full.computePartitioning(0, full.getLength()), lazy.computePartitioning(0, lazy.getLength()));
+		assertTrue(partitioner.isScanComplete());
+	}
+
+	@Test
+	public void testBackgroundScan() throws Exception {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 1000; i++)
+			text.append("code \"string\" /* comment */\n");
+		SynchronizedDocument document= new SynchronizedDocument();
+		document.setLockObject(new Object());
+		document.set(text.toString());
+		FastPartitioner partitioner= createLazyPartitioner(64);
+		document.setDocumentPartitioner(partitioner);
+		partitioner.connect(document);
+		document.getPartition(0);
+
+		long end= System.currentTimeMillis() + 5000;
+		while (!isScanComplete(document, partitioner) && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertTrue(isScanComplete(document, partitioner));
+
+		IDocument full= createDocument(text.toString(), 0);
+		synchronized (document.getLockObject()) {
+			assertEquals(Arrays.asList(full.computePartitioning(0, full.getLength())), Arrays.asList(document.computePartitioning(0, document.getLength())));
+		}
+	}
+
+	@Test
+	public void testQueriesDuringBackgroundScan() throws Exception {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 2000; i++)
+			text.append("code \"string\" /* comment */\n");
+		SynchronizedDocument document= new SynchronizedDocument();
+		document.setLockObject(new Object());
+		document.set(text.toString());
+		FastPartitioner partitioner= createLazyPartitioner(16);
+		document.setDocumentPartitioner(partitioner);
+		partitioner.connect(document);
+		IDocument full= createDocument(text.toString(), 0);
+
+		// the queries don't hold the lock, they must not race with the background scan
+		Random random= new Random(4711);
+		for (int i= 0; i < 2000; i++) {
+			int offset= random.nextInt(full.getLength());
+			assertEquals(full.getContentType(offset), document.getContentType(offset));
+			int length= random.nextInt(Math.min(200, full.getLength() - offset) + 1);
+			assertArrayEquals(full.computePartitioning(offset, length), document.computePartitioning(offset, length));
+		}
+
+		long end= System.currentTimeMillis() + 5000;
+		while (!isScanComplete(document, partitioner) && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertTrue(isScanComplete(document, partitioner));
+		// duplicate positions would show up as duplicate regions
+		assertArrayEquals(full.computePartitioning(0, full.getLength()), document.computePartitioning(0, document.getLength()));
+	}
+
+	private static boolean isScanComplete(SynchronizedDocument document, FastPartitioner partitioner) {
+		synchronized (document.getLockObject()) {
+			return partitioner.isScanComplete();
+		}
+	}
+
+	private static IDocument createDocument(String text, int chunkSize) {
+		IDocument document= new Document(text);
+		FastPartitioner partitioner= createLazyPartitioner(chunkSize);
+		document.setDocumentPartitioner(partitioner);
+		partitioner.connect(document);
+		return document;
+	}
+
+	private static FastPartitioner createLazyPartitioner(int chunkSize) {
+		RuleBasedPartitionScanner scanner= new RuleBasedPartitionScanner();
+		scanner.setPredicateRules(new IPredicateRule[] {
+				new MultiLineRule("/*", "*/", new Token(COMMENT)),
+				new SingleLineRule("\"", "\"", new Token(STRING), '\\'),
+				new MultiLineRule("`", "`", new Token(TEMPLATE)) });
+		FastPartitioner partitioner= new FastPartitioner(scanner, new String[] { DEFAULT, COMMENT, STRING, TEMPLATE });
+		partitioner.setLazyScanning(chunkSize);
+		return partitioner;
+	}
+
+	private static class SynchronizedDocument extends Document implements ISynchronizable {
+		private Object fLockObject;
+
+		@Override
+		public void setLockObject(Object lockObject) {
+			fLockObject= lockObject;
+		}
+
+		@Override
+		public Object getLockObject() {
+			return fLockObject;
+		}
+
+		@Override
+		public ITypedRegion getPartition(int offset) throws BadLocationException {
+			synchronized (fLockObject) {
+				return super.getPartition(offset);
+			}
+		}
+	}
+}
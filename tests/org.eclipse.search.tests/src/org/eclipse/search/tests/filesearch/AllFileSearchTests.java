@@ -21,12 +21,15 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
 		AnnotationManagerTest.class,
+		ChunkedSearchResultTest.class,
+		CompactMatchStoreTest.class,
 		FileSearchTests.class,
 		LineAnnotationManagerTest.class,
 		PositionTrackerTest.class,
 		ResultUpdaterTest.class,
 		SearchResultPageTest.class,
-		SortingTest.class
+		SortingTest.class,
+		TrigramIndexTest.class
 })
 public class AllFileSearchTests {
 	@ClassRule
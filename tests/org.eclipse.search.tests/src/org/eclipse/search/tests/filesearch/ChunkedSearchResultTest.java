@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.filesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.Widget;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jface.viewers.AbstractTreeViewer;
+
+import org.eclipse.search.internal.ui.Messages;
+import org.eclipse.search.internal.ui.SearchMessages;
+import org.eclipse.search.internal.ui.text.FileMatch;
+import org.eclipse.search.internal.ui.text.FileSearchQuery;
+import org.eclipse.search.internal.ui.text.LineElement;
+import org.eclipse.search.tests.ResourceHelper;
+import org.eclipse.search.tests.SearchTestPlugin;
+import org.eclipse.search.ui.ISearchResultListener;
+import org.eclipse.search.ui.ISearchResultViewPart;
+import org.eclipse.search.ui.NewSearchUI;
+import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.AbstractTextSearchViewPage;
+import org.eclipse.search.ui.text.FileTextSearchScope;
+import org.eclipse.search.ui.text.Match;
+import org.eclipse.search.ui.text.MatchEvent;
+
+/**
+ * Tests that the matches of a large search are published in chunks, and that a search reporting
+ * matches faster than the search view can show them waits for the view.
+ */
+public class ChunkedSearchResultTest {
+
+	private IProject fProject;
+	private FileSearchQuery fQuery;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= ResourceHelper.createProject("my-project"); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (fQuery != null)
+			NewSearchUI.removeQuery(fQuery);
+		ResourceHelper.deleteProject("my-project"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testMatchesOfLargeFileArePublishedInChunks() throws Exception {
+		int count= 2500;
+		String line= "hello\n";
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file1", line.repeat(count));
+
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] { fProject }, (String[]) null, false);
+		fQuery= new FileSearchQuery("hello", false, true, scope);
+		AbstractTextSearchResult result= (AbstractTextSearchResult) fQuery.getSearchResult();
+		List<Match[]> chunks= new ArrayList<>();
+		ISearchResultListener listener= e -> {
+			if (e instanceof MatchEvent && ((MatchEvent) e).getKind() == MatchEvent.ADDED) {
+				synchronized (chunks) {
+					chunks.add(((MatchEvent) e).getMatches());
+				}
+			}
+		};
+		result.addListener(listener);
+		try {
+			fQuery.run(new NullProgressMonitor());
+		} finally {
+			result.removeListener(listener);
+		}
+
+		// the matches arrived before the end of the file, in bounded chunks
+		assertTrue("chunks: " + chunks.size(), chunks.size() > 1);
+		Set<Integer> offsets= new HashSet<>();
+		for (Match[] chunk : chunks) {
+			assertTrue("chunk of " + chunk.length, chunk.length <= 1000);
+			for (Match match : chunk) {
+				FileMatch fileMatch= (FileMatch) match;
+				assertSame(file, fileMatch.getFile());
+				// the line of a match following a chunk is still correct
+				assertEquals(fileMatch.getOffset() / line.length() + 1, fileMatch.getLineElement().getLine());
+				assertTrue("published twice: " + match.getOffset(), offsets.add(Integer.valueOf(match.getOffset())));
+			}
+		}
+		assertEquals(count, offsets.size());
+		assertEquals(count, result.getMatchCount());
+	}
+
+	@Test
+	public void testProducerWaitsForSearchView() throws Exception {
+		int lines= 100;
+		int matchesPerLine= 500;
+		int total= lines * matchesPerLine;
+		String contents= "a".repeat(matchesPerLine) + "\n";
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file1", contents.repeat(lines));
+
+		SearchTestPlugin.ensureWelcomePageClosed();
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] { fProject }, (String[]) null, false);
+		fQuery= new FileSearchQuery("no match", false, true, scope);
+		NewSearchUI.runQueryInForeground(null, fQuery);
+		AbstractTextSearchResult result= (AbstractTextSearchResult) fQuery.getSearchResult();
+		ISearchResultViewPart view= NewSearchUI.getSearchResultView();
+		AbstractTextSearchViewPage page= (AbstractTextSearchViewPage) view.getActivePage();
+		assertSame(result, page.getInput());
+		page.setLayout(AbstractTextSearchViewPage.FLAG_LAYOUT_TREE);
+		consumeEvents();
+
+		// report the matches one by one, like a search with a match on every line
+		AtomicInteger added= new AtomicInteger();
+		Thread producer= new Thread(() -> {
+			for (int i= 0; i < lines; i++) {
+				LineElement lineElement= new LineElement(file, i + 1, i * contents.length(), contents.substring(0, matchesPerLine));
+				for (int j= 0; j < matchesPerLine; j++) {
+					result.addMatch(new FileMatch(file, lineElement.getOffset() + j, 1, lineElement));
+					added.incrementAndGet();
+				}
+			}
+		}, "Search Producer");
+		producer.start();
+		try {
+			// this thread is the UI thread and doesn't dispatch: the producer must stop and wait
+			long deadline= System.currentTimeMillis() + 10000;
+			while (producer.getState() != Thread.State.TIMED_WAITING && producer.isAlive() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(Thread.State.TIMED_WAITING, producer.getState());
+			int addedWhileBlocked= added.get();
+			Thread.sleep(500);
+			assertEquals(addedWhileBlocked, added.get());
+			assertTrue(addedWhileBlocked < total);
+
+			// once the UI catches up, the producer finishes
+			deadline= System.currentTimeMillis() + 30000;
+			while (producer.isAlive() && System.currentTimeMillis() < deadline) {
+				consumeEvents();
+				Thread.sleep(10);
+			}
+			assertFalse(producer.isAlive());
+		} finally {
+			producer.interrupt();
+			producer.join();
+		}
+		assertEquals(total, added.get());
+		assertEquals(total, result.getMatchCount());
+
+		// and all matches were delivered to the viewer
+		AbstractTreeViewer viewer= (AbstractTreeViewer) page.getViewer();
+		String countInfo= Messages.format(SearchMessages.FileLabelProvider_count_format, Integer.valueOf(total));
+		long deadline= System.currentTimeMillis() + 30000;
+		while (!isShown(viewer, file, countInfo) && System.currentTimeMillis() < deadline) {
+			consumeEvents();
+			Thread.sleep(10);
+		}
+		Widget widget= viewer.testFindItem(file);
+		assertNotNull(widget);
+		assertTrue(((Item) widget).getText(), ((Item) widget).getText().contains(countInfo));
+	}
+
+	private static boolean isShown(AbstractTreeViewer viewer, IFile file, String countInfo) {
+		viewer.reveal(file);
+		Widget widget= viewer.testFindItem(file);
+		return widget instanceof Item && ((Item) widget).getText().contains(countInfo);
+	}
+
+	private static void consumeEvents() {
+		while (Display.getDefault().readAndDispatch()) {
+		}
+	}
+}
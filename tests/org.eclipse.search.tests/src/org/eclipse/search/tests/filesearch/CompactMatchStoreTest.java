@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.filesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.search.internal.ui.text.FileMatch;
+import org.eclipse.search.internal.ui.text.FileSearchQuery;
+import org.eclipse.search.internal.ui.text.FileSearchResult;
+import org.eclipse.search.internal.ui.text.LineElement;
+import org.eclipse.search.tests.ResourceHelper;
+import org.eclipse.search.ui.ISearchResult;
+import org.eclipse.search.ui.text.FileTextSearchScope;
+import org.eclipse.search.ui.text.Match;
+
+import org.eclipse.search2.internal.ui.InternalSearchUI;
+import org.eclipse.search2.internal.ui.text.PositionTracker;
+
+public class CompactMatchStoreTest {
+
+	private static class CompactSearchQuery extends FileSearchQuery {
+		private FileSearchResult fResult;
+
+		CompactSearchQuery(FileTextSearchScope scope) {
+			super("Test", false, true, scope); //$NON-NLS-1$
+		}
+
+		@Override
+		public ISearchResult getSearchResult() {
+			if (fResult == null) {
+				fResult= new FileSearchResult(this, true);
+			}
+			return fResult;
+		}
+	}
+
+	private IProject fProject;
+	private FileSearchQuery fQuery;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= ResourceHelper.createProject("compact-project"); //$NON-NLS-1$
+		fQuery= new FileSearchQuery("Test", false, true, FileTextSearchScope.newWorkspaceScope(null, false)); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ResourceHelper.deleteProject("compact-project"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testSameContentAsDefaultResult() {
+		FileSearchResult standard= new FileSearchResult(fQuery, false);
+		FileSearchResult compact= new FileSearchResult(fQuery, true);
+		// add in reverse order, both results have to sort
+		List<FileMatch> matches= createMatches(100, 20, true);
+		for (Match match : matches) {
+			standard.addMatch(match);
+			compact.addMatch(match);
+		}
+		assertEquals(standard.getMatchCount(), compact.getMatchCount());
+		assertEquals(standard.getElementsCount(), compact.getElementsCount());
+		for (Object element : standard.getElements()) {
+			Match[] expected= standard.getMatches(element);
+			Match[] actual= compact.getMatches(element);
+			assertEquals(expected.length, actual.length);
+			assertEquals(expected.length, compact.getMatchCount(element));
+			for (int i= 0; i < expected.length; i++) {
+				assertEquals(expected[i].getOffset(), actual[i].getOffset());
+				assertEquals(expected[i].getLength(), actual[i].getLength());
+				assertSame(((FileMatch) expected[i]).getLineElement(), ((FileMatch) actual[i]).getLineElement());
+			}
+		}
+	}
+
+	@Test
+	public void testDuplicatesAndRemoval() {
+		FileSearchResult compact= new FileSearchResult(fQuery, true);
+		IFile file= fProject.getFile("file.txt"); //$NON-NLS-1$
+		LineElement line= new LineElement(file, 1, 0, "a Test line"); //$NON-NLS-1$
+		compact.addMatch(new FileMatch(file, 2, 4, line));
+		compact.addMatch(new FileMatch(file, 2, 4, line));
+		assertEquals(1, compact.getMatchCount());
+
+		Match[] matches= compact.getMatches(file);
+		compact.removeMatch(matches[0]);
+		assertEquals(0, compact.getMatchCount());
+		assertFalse(compact.hasMatches());
+		assertEquals(0, compact.getElements().length);
+	}
+
+	@Test
+	public void testOffsetUpdatesSurviveEviction() {
+		FileSearchResult compact= new FileSearchResult(fQuery, true);
+		List<FileMatch> all= createMatches(200, 1, false);
+		compact.addMatches(all.toArray(new Match[all.size()]));
+
+		IFile first= all.get(0).getFile();
+		Match match= compact.getMatches(first)[0];
+		match.setOffset(match.getOffset() + 7);
+		// touch all other files so that the first one is evicted
+		for (Object element : compact.getElements()) {
+			compact.getMatches(element);
+		}
+		for (FileMatch other : all) {
+			compact.getMatches(other.getFile());
+		}
+		assertEquals(match.getOffset(), compact.getMatches(first)[0].getOffset());
+	}
+
+	@Test
+	public void testOpenBufferKeepsTrackedMatches() throws Exception {
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1")); //$NON-NLS-1$
+		IFile file= ResourceHelper.createFile(folder, "open.txt", "a Test line\nTest\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		CompactSearchQuery query= new CompactSearchQuery(FileTextSearchScope.newWorkspaceScope(null, false));
+		FileSearchResult compact= (FileSearchResult) query.getSearchResult();
+		PositionTracker tracker= InternalSearchUI.getInstance().getPositionTracker();
+		ITextFileBufferManager manager= FileBuffers.getTextFileBufferManager();
+		tracker.queryAdded(query);
+		manager.connect(file.getFullPath(), LocationKind.IFILE, null);
+		try {
+			FileMatch first= new FileMatch(file, 2, 4, new LineElement(file, 1, 0, "a Test line")); //$NON-NLS-1$
+			FileMatch second= new FileMatch(file, 12, 4, new LineElement(file, 2, 12, "Test")); //$NON-NLS-1$
+			compact.addMatches(new Match[] { first, second });
+			// touch other files so that the open file would be evicted if it wasn't tracked
+			List<FileMatch> others= createMatches(200, 1, false);
+			compact.addMatches(others.toArray(new Match[others.size()]));
+			for (FileMatch other : others) {
+				compact.getMatches(other.getFile());
+			}
+
+			ITextFileBuffer buffer= manager.getTextFileBuffer(file.getFullPath(), LocationKind.IFILE);
+			buffer.getDocument().replace(0, 0, "new "); //$NON-NLS-1$
+			// saving writes the tracked positions to the match objects
+			buffer.commit(null, true);
+
+			Match[] matches= compact.getMatches(file);
+			assertEquals(2, matches.length);
+			assertSame(first, matches[0]);
+			assertSame(second, matches[1]);
+			assertEquals(6, matches[0].getOffset());
+			assertEquals(16, matches[1].getOffset());
+			assertNotNull(tracker.getCurrentPosition(matches[0]));
+
+			compact.removeMatch(first);
+			assertEquals(1, compact.getMatchCount(file));
+			assertSame(second, compact.getMatches(file)[0]);
+		} finally {
+			manager.disconnect(file.getFullPath(), LocationKind.IFILE, null);
+			tracker.queryRemoved(query);
+		}
+	}
+
+	private List<FileMatch> createMatches(int fileCount, int matchesPerFile, boolean reverse) {
+		List<FileMatch> result= new ArrayList<>(fileCount * matchesPerFile);
+		for (int f= 0; f < fileCount; f++) {
+			IFile file= fProject.getFile("file" + f + ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+			LineElement line= null;
+			for (int m= 0; m < matchesPerFile; m++) {
+				int offset= reverse ? (matchesPerFile - m) * 10 : m * 10;
+				// two matches per line
+				if (line == null || m % 2 == 0) {
+					line= new LineElement(file, offset / 20 + 1, offset - offset % 20, "Test line Test line"); //$NON-NLS-1$
+				}
+				result.add(new FileMatch(file, offset, 4, line));
+			}
+		}
+		return result;
+	}
+}
@@ -318,6 +318,42 @@ public class FileSearchTests {
 		assertEquals("Number of partial-word results", 22, collector.getNumberOfResults());
 	}
 
+	@Test
+	public void testEncodedFilesSerial() throws Exception {
+		testEncodedFiles(new SerialTestResultCollector());
+	}
+
+	@Test
+	public void testEncodedFilesParallel() throws Exception {
+		testEncodedFiles(new ParallelTestResultCollector());
+	}
+
+	private void testEncodedFiles(TestResultCollector collector) throws Exception {
+		String content= "\u00e4\u00f6\u00fc \u20ac\n\u2126 Kilo and \u212Aelvin\nwork KILO\n";
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile utf8= ResourceHelper.createFile(folder, "utf8", content, "UTF-8");
+		String latin1Content= content.replace("\u20ac", "E").replace("\u2126", "O").replace("\u212A", "K");
+		IFile latin1= ResourceHelper.createFile(folder, "latin1", latin1Content, "ISO-8859-1");
+		ResourceHelper.createFile(folder, "other", "nothing here\n", "UTF-8");
+
+		// offsets must be character offsets, the non-ASCII prefix must not shift them
+		Pattern searchPattern= PatternConstructor.createPattern("Kilo", true, false);
+		TestResult[] results= performSearch(collector, null, searchPattern);
+		assertEquals("Number of total results", 2, results.length);
+		assertMatches(results, 1, utf8, content, "Kilo");
+
+		// the Kelvin sign matches 'k' case insensitively
+		searchPattern= PatternConstructor.createPattern("kelvin", false, false);
+		results= performSearch(collector, null, searchPattern);
+		assertEquals("Number of total results", 2, results.length);
+		assertMatches(results, 1, utf8, content, "\u212Aelvin");
+		assertMatches(results, 1, latin1, latin1Content, "Kelvin");
+
+		searchPattern= PatternConstructor.createPattern("kilo", false, false);
+		results= performSearch(collector, null, searchPattern);
+		assertEquals("Number of total results", 4, results.length);
+	}
+
 	@Test
 	public void testFileOpenInEditorSerial() throws Exception {
 		testFileOpenInEditor(new SerialTestResultCollector());
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.filesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.search.core.text.TextSearchMatchAccess;
+import org.eclipse.search.core.text.TextSearchRequestor;
+import org.eclipse.search.internal.core.text.PatternConstructor;
+import org.eclipse.search.internal.core.text.TextSearchVisitor;
+import org.eclipse.search.internal.core.text.TrigramIndex;
+import org.eclipse.search.internal.core.text.TrigramQuery;
+import org.eclipse.search.tests.ResourceHelper;
+import org.eclipse.search.tests.SearchTestPlugin;
+import org.eclipse.search.ui.text.FileTextSearchScope;
+
+public class TrigramIndexTest {
+
+	private static class MatchCollector extends TextSearchRequestor {
+		final List<String> fMatches= Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public boolean canRunInParallel() {
+			return true;
+		}
+
+		@Override
+		public boolean acceptPatternMatch(TextSearchMatchAccess match) throws CoreException {
+			fMatches.add(match.getFile().getFullPath() + ":" + match.getMatchOffset() + ":" + match.getMatchLength());
+			return true;
+		}
+
+		List<String> getSortedMatches() {
+			List<String> result= new ArrayList<>(fMatches);
+			Collections.sort(result);
+			return result;
+		}
+	}
+
+	@ClassRule
+	public static JUnitSourceSetup fgJUnitSource= new JUnitSourceSetup();
+
+	@Rule
+	public TemporaryFolder fTempFolder= new TemporaryFolder();
+
+	private IProject fProject;
+	private TrigramIndex fIndex;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= ResourceHelper.createProject("trigram-project"); //$NON-NLS-1$
+		fIndex= new TrigramIndex(IPath.fromOSString(fTempFolder.getRoot().getAbsolutePath()));
+		fIndex.startup();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fIndex.shutdown();
+		ResourceHelper.deleteProject("trigram-project"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLiteralQueries() {
+		assertTrue(query("ab", true, false).isUnconstrained());
+		assertFalse(query("hello", true, false).isUnconstrained());
+		assertTrue(query("foo|barbaz", true, true).isUnconstrained());
+		assertTrue(query("(?x)hello", true, true).isUnconstrained());
+		assertFalse(query("hel*lo", false, false).isUnconstrained());
+		assertTrue(query("he*lo", false, false).isUnconstrained());
+		assertFalse(query("\\w*\\(\\)abc", true, true).isUnconstrained());
+	}
+
+	@Test
+	public void testEscapesAreNotLiterals() {
+		String[] escapes= { "\\x41", "\\x{41}", "\\u0041", "\\0101", "\\01", "\\cA", "(?<n>A)\\k<n>", "\\p{Lu}", "\\pL", "\\P{L}",
+				"\\N{LATIN CAPITAL LETTER A}", "\\b{g}", "(A)\\1", "\\t" };
+		for (String escape : escapes) {
+			Pattern pattern= PatternConstructor.createPattern(escape + "BCD", true, true, true, false);
+			assertEquals(escape, Arrays.asList("BCD"), TrigramQuery.requiredLiterals(pattern));
+		}
+		// a back reference followed by a digit is ambiguous
+		assertNull(TrigramQuery.requiredLiterals(Pattern.compile("(A)\\12BCD")));
+	}
+
+	@Test
+	public void testEscapedCharacterNotPruned() throws Exception {
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file.txt", "value ABCD\n");
+		fIndex.update(Arrays.asList(file), null);
+
+		IFile[] files= { file };
+		String[] patterns= { "\\x41BCD", "\\x{41}BCD", "\\u0041BCD", "\\0101BCD", "\\x41\\x42CD" };
+		for (String string : patterns) {
+			Pattern pattern= PatternConstructor.createPattern(string, true, true);
+			assertEquals(string, 1, fIndex.filterCandidates(files, pattern, f -> false).length);
+			assertEquals(string, 1, search(files, pattern, fIndex).size());
+		}
+	}
+
+	@Test
+	public void testPrunesFilesWithoutMatch() throws Exception {
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile match= ResourceHelper.createFile(folder, "match.txt", "some Needle in a haystack\n");
+		IFile noMatch= ResourceHelper.createFile(folder, "nomatch.txt", "only hay here\n");
+		fIndex.update(Arrays.asList(match, noMatch), null);
+
+		IFile[] files= { match, noMatch };
+		Pattern pattern= PatternConstructor.createPattern("needle", false, false);
+		assertEquals(Arrays.asList(match), Arrays.asList(fIndex.filterCandidates(files, pattern, f -> false)));
+
+		Pattern caseSensitive= PatternConstructor.createPattern("Needle", true, false);
+		assertEquals(Arrays.asList(match), Arrays.asList(fIndex.filterCandidates(files, caseSensitive, f -> false)));
+
+		assertEquals(Arrays.asList(files), Arrays.asList(fIndex.filterCandidates(files, pattern, f -> true)));
+	}
+
+	@Test
+	public void testPersistedIndex() throws Exception {
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile match= ResourceHelper.createFile(folder, "match.txt", "some Needle in a haystack\n");
+		IFile noMatch= ResourceHelper.createFile(folder, "nomatch.txt", "only hay here\n");
+		IFile removed= ResourceHelper.createFile(folder, "removed.txt", "more hay\n");
+		fIndex.update(Arrays.asList(match, noMatch, removed), null);
+		removed.delete(true, null);
+		fIndex.shutdown();
+
+		fIndex= new TrigramIndex(IPath.fromOSString(fTempFolder.getRoot().getAbsolutePath()));
+		fIndex.startup();
+		fIndex.update(Collections.emptyList(), null);
+		IFile[] files= { match, noMatch };
+		Pattern pattern= PatternConstructor.createPattern("needle", false, false);
+		assertEquals(Arrays.asList(match), Arrays.asList(fIndex.filterCandidates(files, pattern, f -> false)));
+	}
+
+	@Test
+	public void testStaleEntriesAreSearched() throws Exception {
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file.txt", "nothing to see\n");
+		fIndex.update(Arrays.asList(file), null);
+
+		Pattern pattern= PatternConstructor.createPattern("needle", false, false);
+		assertEquals(0, fIndex.filterCandidates(new IFile[] { file }, pattern, f -> false).length);
+
+		file.setContents("a needle\n".getBytes(), IResource.FORCE, null); //$NON-NLS-1$
+		assertEquals(1, fIndex.filterCandidates(new IFile[] { file }, pattern, f -> false).length);
+	}
+
+	@Test
+	public void testSameResultsAsFullScan() throws Exception {
+		IProject project= fgJUnitSource.getStandardProject();
+		IFile[] files= evaluateFiles(project);
+		fIndex.update(Arrays.asList(files), null);
+
+		String[] patterns= { "assertEquals", "TestCase", "\\w*\\(\\)", "fail\\(\"", "run.*Test", "NoSuchThing" };
+		for (String string : patterns) {
+			Pattern pattern= PatternConstructor.createPattern(string, false, true);
+			assertEquals(string, search(files, pattern, null), search(files, pattern, fIndex));
+		}
+	}
+
+	private static IFile[] evaluateFiles(IProject project) {
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] { project }, (String[]) null, false);
+		return scope.evaluateFilesInScope(new MultiStatus(SearchTestPlugin.getDefault().getBundle().getSymbolicName(), IStatus.OK, "", null));
+	}
+
+	private static List<String> search(IFile[] files, Pattern pattern, TrigramIndex index) {
+		MatchCollector collector= new MatchCollector();
+		new TextSearchVisitor(collector, pattern, null, index).search(files, null);
+		return collector.getSortedMatches();
+	}
+
+	private static TrigramQuery query(String string, boolean isRegex, boolean isCaseSensitive) {
+		return TrigramQuery.create(PatternConstructor.createPattern(string, isRegex, true, isCaseSensitive, false));
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.performance;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+
+import org.eclipse.search.internal.ui.text.FileMatch;
+import org.eclipse.search.internal.ui.text.FileSearchQuery;
+import org.eclipse.search.internal.ui.text.FileSearchResult;
+import org.eclipse.search.internal.ui.text.LineElement;
+import org.eclipse.search.tests.ResourceHelper;
+import org.eclipse.search.ui.text.FileTextSearchScope;
+import org.eclipse.search.ui.text.Match;
+
+/**
+ * Compares the heap retained by the matches of a large File Search result in the default and in
+ * the compact match store. The {@link Dimension#USED_JAVA_HEAP used Java heap} is the dimension
+ * of interest, the garbage is collected before each measurement starts and stops.
+ */
+public class CompactMatchStorePerformanceTest extends PerformanceTestCase {
+
+	private static final int FILES= 2_000;
+
+	private static final int MATCHES_PER_FILE= 100;
+
+	private static final int RUNS= 5;
+
+	private IProject fProject;
+	private FileSearchQuery fQuery;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fProject= ResourceHelper.createProject("compact-project"); //$NON-NLS-1$
+		fQuery= new FileSearchQuery("Test", false, true, FileTextSearchScope.newWorkspaceScope(null, false)); //$NON-NLS-1$
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ResourceHelper.deleteProject("compact-project"); //$NON-NLS-1$
+		super.tearDown();
+	}
+
+	public void testDefaultResultHeap() {
+		measureHeap(false);
+	}
+
+	public void testCompactResultHeap() {
+		measureHeap(true);
+	}
+
+	private void measureHeap(boolean compact) {
+		for (int i= 0; i < RUNS; i++) {
+			collectGarbage();
+			startMeasuring();
+			FileSearchResult result= new FileSearchResult(fQuery, compact);
+			result.addMatches(createMatches());
+			collectGarbage();
+			stopMeasuring();
+			assertEquals(FILES * MATCHES_PER_FILE, result.getMatchCount());
+			result.removeAll();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private Match[] createMatches() {
+		Match[] result= new Match[FILES * MATCHES_PER_FILE];
+		for (int f= 0; f < FILES; f++) {
+			IFile file= fProject.getFile("file" + f + ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+			LineElement line= null;
+			for (int m= 0; m < MATCHES_PER_FILE; m++) {
+				int offset= m * 10;
+				// two matches per line
+				if (line == null || m % 2 == 0) {
+					line= new LineElement(file, offset / 20 + 1, offset - offset % 20, "Test line Test line"); //$NON-NLS-1$
+				}
+				result[f * MATCHES_PER_FILE + m]= new FileMatch(file, offset, 4, line);
+			}
+		}
+		return result;
+	}
+
+	private static void collectGarbage() {
+		for (int i= 0; i < 3; i++) {
+			System.gc();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.performance;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.search.core.text.TextSearchMatchAccess;
+import org.eclipse.search.core.text.TextSearchRequestor;
+import org.eclipse.search.internal.core.text.PatternConstructor;
+import org.eclipse.search.internal.core.text.TextSearchVisitor;
+import org.eclipse.search.internal.core.text.TrigramIndex;
+import org.eclipse.search.tests.SearchTestPlugin;
+import org.eclipse.search.tests.filesearch.JUnitSourceSetup;
+import org.eclipse.search.ui.text.FileTextSearchScope;
+
+/**
+ * Compares the time of a File Search on the JUnit sources with and without the trigram index.
+ */
+public class TrigramIndexPerformanceTest extends PerformanceTestCase {
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 10;
+
+	private final JUnitSourceSetup fJUnitSource= new JUnitSourceSetup();
+
+	private IPath fIndexLocation;
+	private TrigramIndex fIndex;
+	private IFile[] fFiles;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fJUnitSource.before();
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] { fJUnitSource.getStandardProject() }, (String[]) null, false);
+		fFiles= scope.evaluateFilesInScope(new MultiStatus(SearchTestPlugin.getDefault().getBundle().getSymbolicName(), IStatus.OK, "", null)); //$NON-NLS-1$
+		fIndexLocation= IPath.fromOSString(Files.createTempDirectory("trigram-index").toString()); //$NON-NLS-1$
+		fIndex= new TrigramIndex(fIndexLocation);
+		fIndex.startup();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fIndex.shutdown();
+		fIndex.clear();
+		fIndexLocation.toFile().delete();
+		fJUnitSource.after();
+		super.tearDown();
+	}
+
+	public void testUpdateIndex() throws Exception {
+		for (int i= 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			fIndex.clear();
+			if (i >= WARM_UP_RUNS)
+				startMeasuring();
+			fIndex.update(Arrays.asList(fFiles), null);
+			if (i >= WARM_UP_RUNS)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testUnindexedSearch() throws Exception {
+		measureSearch(null);
+	}
+
+	public void testIndexedSearch() throws Exception {
+		fIndex.update(Arrays.asList(fFiles), null);
+		measureSearch(fIndex);
+	}
+
+	private void measureSearch(TrigramIndex index) {
+		Pattern pattern= PatternConstructor.createPattern("ComparisonFailure", true, false); //$NON-NLS-1$
+		for (int i= 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			AtomicInteger matches= new AtomicInteger();
+			TextSearchRequestor collector= new TextSearchRequestor() {
+				@Override
+				public boolean canRunInParallel() {
+					return true;
+				}
+
+				@Override
+				public boolean acceptPatternMatch(TextSearchMatchAccess match) {
+					matches.incrementAndGet();
+					return true;
+				}
+			};
+			if (i >= WARM_UP_RUNS)
+				startMeasuring();
+			new TextSearchVisitor(collector, pattern, null, index).search(fFiles, null);
+			if (i >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertTrue(matches.get() > 0);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.quicksearch.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.text.quicksearch.internal.util.FileLineCache;
+import org.eclipse.text.quicksearch.internal.util.FileLineCache.Lines;
+import org.eclipse.text.quicksearch.internal.util.LineIndex;
+import org.junit.Test;
+
+@SuppressWarnings("restriction")
+public class FileLineCacheTest {
+
+	private static final String UTF_8 = "UTF-8";
+
+	@Test
+	public void invalidatedByStampAndCharset() {
+		FileLineCache cache = new FileLineCache(1024 * 1024);
+		IFile file = file("a.txt");
+		Lines lines = lines(1, 10, "foo", "bar");
+		cache.put(file, lines);
+
+		assertSame(lines, cache.get(file, 1, UTF_8, 10));
+		assertNull(cache.get(file, 1, UTF_8, 20));
+		assertNull(cache.get(file, 1, "ISO-8859-1", 10));
+		// the entry was dropped on the charset mismatch
+		assertNull(cache.get(file, 1, UTF_8, 10));
+
+		cache.put(file, lines);
+		assertNull(cache.get(file, 2, UTF_8, 10));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		Lines lines = lines(1, 2000, "x".repeat(1000));
+		FileLineCache cache = new FileLineCache(lines.estimatedSize() * 4);
+		IFile a = file("a.txt");
+		IFile b = file("b.txt");
+		IFile c = file("c.txt");
+		IFile d = file("d.txt");
+		IFile e = file("e.txt");
+		cache.put(a, lines);
+		cache.put(b, lines);
+		cache.put(c, lines);
+		cache.put(d, lines);
+		assertNotNull(cache.get(a, 1, UTF_8, 2000));
+		cache.put(e, lines);
+
+		assertNotNull(cache.get(a, 1, UTF_8, 2000));
+		assertNull(cache.get(b, 1, UTF_8, 2000));
+		assertNotNull(cache.get(e, 1, UTF_8, 2000));
+		assertTrue(cache.getSize() <= lines.estimatedSize() * 4);
+	}
+
+	private static Lines lines(long stamp, int maxLineLength, String... lines) {
+		String content = String.join("\n", lines);
+		return new Lines(stamp, UTF_8, maxLineLength, content, LineIndex.create(content, maxLineLength));
+	}
+
+	private static IFile file(String name) {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IProject project = root.getProject("FileLineCacheTest");
+		return project.getFile(name);
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.quicksearch.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.text.quicksearch.internal.util.LineIndex;
+import org.eclipse.text.quicksearch.internal.util.LineReader;
+import org.junit.Test;
+
+@SuppressWarnings("restriction")
+public class LineIndexTest {
+
+	private static final String[] TEXTS = { //
+			"", //
+			"one", //
+			"one\n", //
+			"one\ntwo", //
+			"one\r\ntwo\r\n", //
+			"one\rtwo\r", //
+			"\n\n\r\n\r", //
+			"short\n" + "x".repeat(20) + "\nafter", //
+			"x".repeat(10) + "\nafter", //
+			"x".repeat(9) + "\nafter", //
+	};
+
+	private static final String[] PATTERNS = { "o", "^t", "e$", "\\bwo", "(?<=n)e", "x+", "^$", "after" };
+
+	@Test
+	public void sameLinesAsLineReader() throws Exception {
+		for (String text : TEXTS) {
+			LineIndex index = LineIndex.create(text, 10);
+			List<String> expected = readLines(text, 10);
+			assertEquals(text, expected.size(), index.getLineCount());
+			try (LineReader reader = new LineReader(new StringReader(text), 10)) {
+				for (int i = 0; i < expected.size(); i++) {
+					reader.readLine();
+					assertEquals(text, expected.get(i), index.getLine(i));
+					assertEquals(text, reader.getLastLineOffset(), index.getLineStart(i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sameMatchesAsLineStrings() throws Exception {
+		for (String text : TEXTS) {
+			LineIndex index = LineIndex.create(text, 100);
+			for (String regex : PATTERNS) {
+				Pattern pattern = Pattern.compile(regex);
+				Matcher matcher = index.matcher(pattern);
+				for (int i = 0; i < index.getLineCount(); i++) {
+					assertEquals(regex + " in " + text, pattern.matcher(index.getLine(i)).find(), index.find(matcher, i));
+				}
+			}
+		}
+	}
+
+	private static List<String> readLines(String text, int maxLineLength) throws Exception {
+		List<String> lines = new ArrayList<>();
+		try (LineReader reader = new LineReader(new StringReader(text), maxLineLength)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.quicksearch.tests.performance;
+
+import java.io.StringReader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.eclipse.text.quicksearch.internal.util.LineIndex;
+import org.eclipse.text.quicksearch.internal.util.LineReader;
+
+/**
+ * Compares scanning a 4MB text line by line with a {@link LineReader}, which allocates a string
+ * per line, and matching in place with a {@link LineIndex}.
+ */
+@SuppressWarnings("restriction")
+public class LineIndexPerformanceTest extends PerformanceTestCase {
+
+	private static final int WARM_UP_RUNS = 3;
+
+	private static final int MEASURED_RUNS = 10;
+
+	private static final int MAX_LINE_LENGTH = 1000;
+
+	private static final Pattern PATTERN = Pattern.compile("CONSTANT_12345\\b"); //$NON-NLS-1$
+
+	private String text;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; builder.length() < 4 * 1024 * 1024; i++) {
+			builder.append("\tprivate static final int CONSTANT_").append(i).append(" = ").append(i).append(";\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		text = builder.toString();
+	}
+
+	public void testLineReaderScan() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			if (i >= WARM_UP_RUNS)
+				startMeasuring();
+			int matches = 0;
+			try (LineReader reader = new LineReader(new StringReader(text), MAX_LINE_LENGTH)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (PATTERN.matcher(line).find()) {
+						matches++;
+					}
+				}
+			}
+			if (i >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertEquals(1, matches);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testLineIndexScan() {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			if (i >= WARM_UP_RUNS)
+				startMeasuring();
+			int matches = 0;
+			LineIndex index = LineIndex.create(text, MAX_LINE_LENGTH);
+			Matcher matcher = index.matcher(PATTERN);
+			for (int line = 0; line < index.getLineCount(); line++) {
+				if (index.find(matcher, line)) {
+					matches++;
+				}
+			}
+			if (i >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertEquals(1, matches);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MoveSourceEdit;
+import org.eclipse.text.edits.MoveTargetEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.RangeMarker;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.TextEditCopier;
+import org.eclipse.text.edits.UndoEdit;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Tests that applying edit trees with {@link TextEdit#BULK_UPDATE} has the same result as
+ * applying them edit by edit.
+ */
+public class BulkTextEditTest {
+
+	private static class CountingListener implements IDocumentListener {
+
+		int fChanges;
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+			fChanges++;
+		}
+	}
+
+	@Test
+	public void testRandomTrees() throws Exception {
+		Random random= new Random(3);
+		for (int i= 0; i < 200; i++) {
+			String content= createContent(random, random.nextInt(500));
+			TextEdit root= createTree(random, content.length(), 1 + random.nextInt(30));
+			for (int style : new int[] { TextEdit.NONE, TextEdit.CREATE_UNDO, TextEdit.UPDATE_REGIONS, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS })
+				assertSameResult(content, root, style);
+		}
+	}
+
+	@Test
+	public void testUndoRedo() throws Exception {
+		Random random= new Random(5);
+		for (int i= 0; i < 100; i++) {
+			String content= createContent(random, 1 + random.nextInt(500));
+			IDocument document= new Document(content);
+			UndoEdit undo= createTree(random, content.length(), 1 + random.nextInt(30)).apply(document, TextEdit.CREATE_UNDO | TextEdit.BULK_UPDATE);
+			String changed= document.get();
+
+			IDocument expected= new Document(changed);
+			UndoEdit expectedRedo= new TextEditCopier(undo).perform().apply(expected, TextEdit.CREATE_UNDO);
+			UndoEdit redo= undo.apply(document, TextEdit.CREATE_UNDO | TextEdit.BULK_UPDATE);
+			assertEquals(content, document.get());
+			assertEquals(expected.get(), document.get());
+			assertEquals(expectedRedo.toString(), redo.toString());
+
+			redo.apply(document, TextEdit.BULK_UPDATE);
+			assertEquals(changed, document.get());
+		}
+	}
+
+	@Test
+	public void testSingleDocumentChange() throws Exception {
+		IDocument document= new Document("a b c d e f");
+		CountingListener listener= new CountingListener();
+		document.addDocumentListener(listener);
+		MultiTextEdit root= new MultiTextEdit();
+		root.addChild(new ReplaceEdit(2, 1, "x"));
+		root.addChild(new DeleteEdit(6, 2));
+		root.addChild(new InsertEdit(10, "y"));
+		root.apply(document, TextEdit.BULK_UPDATE);
+		assertEquals("a x c e yf", document.get());
+		assertEquals(1, listener.fChanges);
+	}
+
+	@Test
+	public void testPositionsOutsideAffectedRegion() throws Exception {
+		IDocument document= new Document("0123456789");
+		Position before= new Position(0, 2);
+		Position after= new Position(8, 2);
+		document.addPosition(before);
+		document.addPosition(after);
+		MultiTextEdit root= new MultiTextEdit();
+		root.addChild(new InsertEdit(3, "abc"));
+		root.addChild(new ReplaceEdit(5, 2, "X"));
+		root.apply(document, TextEdit.BULK_UPDATE);
+		assertEquals("012abc34X789", document.get());
+		assertEquals(new Position(0, 2), before);
+		assertEquals(new Position(10, 2), after);
+	}
+
+	@Test
+	public void testNoChange() throws Exception {
+		IDocument document= new Document("0123456789");
+		CountingListener listener= new CountingListener();
+		document.addDocumentListener(listener);
+		MultiTextEdit root= new MultiTextEdit();
+		root.addChild(new RangeMarker(2, 3));
+		UndoEdit undo= root.apply(document, TextEdit.CREATE_UNDO | TextEdit.BULK_UPDATE);
+		assertEquals(0, listener.fChanges);
+		assertFalse(undo.hasChildren());
+	}
+
+	private static void assertSameResult(String content, TextEdit root, int style) throws Exception {
+		TextEdit expectedRoot= new TextEditCopier(root).perform();
+		TextEdit bulkRoot= new TextEditCopier(root).perform();
+		IDocument expected= new Document(content);
+		IDocument document= new Document(content);
+		UndoEdit expectedUndo= expectedRoot.apply(expected, style);
+		UndoEdit undo= bulkRoot.apply(document, style | TextEdit.BULK_UPDATE);
+		assertEquals(expected.get(), document.get());
+		assertEquals(String.valueOf(expectedUndo), String.valueOf(undo));
+		if ((style & TextEdit.UPDATE_REGIONS) != 0)
+			assertEquals(expectedRoot.toString(), bulkRoot.toString());
+		if (undo != null) {
+			undo.apply(document, TextEdit.BULK_UPDATE);
+			assertEquals(content, document.get());
+		}
+	}
+
+	private static String createContent(Random random, int length) {
+		StringBuilder builder= new StringBuilder(length);
+		for (int i= 0; i < length; i++)
+			builder.append((char) ('a' + random.nextInt(26)));
+		return builder.toString();
+	}
+
+	/**
+	 * Creates a tree of random edits on a document of the given length.
+	 *
+	 * @param random the random generator
+	 * @param length the length of the document
+	 * @param slots the maximal number of edits
+	 * @return the root edit
+	 */
+	private static TextEdit createTree(Random random, int length, int slots) {
+		List<int[]> regions= new ArrayList<>();
+		int offset= 0;
+		for (int i= 0; i < slots && offset <= length; i++) {
+			int start= offset + random.nextInt(Math.max(1, (length - offset) / slots + 1));
+			if (start > length)
+				break;
+			int regionLength= Math.min(random.nextInt(10), length - start);
+			regions.add(new int[] { start, regionLength });
+			offset= start + regionLength + 1;
+		}
+
+		MultiTextEdit root= new MultiTextEdit();
+		for (int i= 0; i < regions.size(); i++) {
+			int start= regions.get(i)[0];
+			int regionLength= regions.get(i)[1];
+			switch (random.nextInt(7)) {
+				case 0:
+					root.addChild(new InsertEdit(start, createContent(random, 1 + random.nextInt(5))));
+					break;
+				case 1:
+					root.addChild(new DeleteEdit(start, regionLength));
+					break;
+				case 2:
+					if (regionLength > 2) {
+						MultiTextEdit multi= new MultiTextEdit();
+						multi.addChild(new ReplaceEdit(start, 1, createContent(random, random.nextInt(4))));
+						multi.addChild(new DeleteEdit(start + 2, regionLength - 2));
+						root.addChild(multi);
+					}
+					break;
+				case 3:
+					if (regionLength > 1 && i + 1 < regions.size()) {
+						MoveSourceEdit source= new MoveSourceEdit(start, regionLength);
+						source.addChild(new ReplaceEdit(start, 1, "M"));
+						root.addChild(source);
+						int[] target= regions.get(++i);
+						root.addChild(new MoveTargetEdit(target[0], source));
+					}
+					break;
+				case 4:
+					root.addChild(new RangeMarker(start, regionLength));
+					break;
+				default:
+					root.addChild(new ReplaceEdit(start, regionLength, createContent(random, random.nextInt(12))));
+			}
+		}
+		return root;
+	}
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.AbstractLineTracker;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.ConfigurableLineTracker;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * Tests that a line tracker with {@link AbstractLineTracker#setCompactLineIndex(boolean) a compact
+ * line index} answers the same as one without.
+ */
+public class CompactLineTrackerTest {
+
+	private static final String[] DELIMITERS= { "\n", "\r", "\r\n", "x", "\n\n" };
+
+	@Test
+	public void testRandomEdits() throws Exception {
+		Random random= new Random(13);
+		for (int round= 0; round < 20; round++) {
+			AbstractLineTracker expected= new DefaultLineTracker();
+			AbstractLineTracker tracker= new DefaultLineTracker();
+			tracker.setCompactLineIndex(true);
+			assertRandomEdits(random, expected, tracker, new StringBuilder(), 300);
+		}
+	}
+
+	@Test
+	public void testRandomEditsWithConfiguredDelimiters() throws Exception {
+		Random random= new Random(17);
+		for (int round= 0; round < 20; round++) {
+			String[] delimiters= { "\r\n", "x" };
+			AbstractLineTracker expected= new ConfigurableLineTracker(delimiters);
+			AbstractLineTracker tracker= new ConfigurableLineTracker(delimiters);
+			tracker.setCompactLineIndex(true);
+			assertRandomEdits(random, expected, tracker, new StringBuilder(), 300);
+		}
+	}
+
+	@Test
+	public void testManyLines() throws Exception {
+		Random random= new Random(19);
+		StringBuilder text= new StringBuilder(createText(random, 100000));
+		AbstractLineTracker expected= new DefaultLineTracker();
+		AbstractLineTracker tracker= new DefaultLineTracker();
+		tracker.setCompactLineIndex(true);
+		expected.set(text.toString());
+		tracker.set(text.toString());
+		assertSameLines(expected, tracker, text.length());
+
+		// large deletions and insertions split and merge blocks
+		for (int i= 0; i < 50; i++) {
+			int offset= random.nextInt(text.length() + 1);
+			int length= Math.min(random.nextInt(20000), text.length() - offset);
+			String replacement= random.nextInt(3) == 0 ? createText(random, random.nextInt(20000)) : "";
+			replace(expected, tracker, text, offset, length, replacement);
+			assertSameLines(expected, tracker, text.length());
+		}
+	}
+
+	@Test
+	public void testConversion() throws Exception {
+		Random random= new Random(23);
+		StringBuilder text= new StringBuilder(createText(random, 5000));
+		AbstractLineTracker expected= new DefaultLineTracker();
+		AbstractLineTracker tracker= new DefaultLineTracker();
+		expected.set(text.toString());
+		tracker.set(text.toString());
+		// compare with the tree, which answers some queries beyond the last line differently
+		expected.replace(0, 0, "");
+
+		// from the initial list, from the tree and back to the tree
+		tracker.setCompactLineIndex(true);
+		assertTrue(tracker.isCompactLineIndex());
+		assertSameLines(expected, tracker, text.length());
+		tracker.setCompactLineIndex(false);
+		assertFalse(tracker.isCompactLineIndex());
+		assertRandomEdits(random, expected, tracker, text, 50);
+		tracker.setCompactLineIndex(true);
+		assertSameLines(expected, tracker, text.length());
+		assertRandomEdits(random, expected, tracker, text, 50);
+		tracker.setCompactLineIndex(false);
+		assertSameLines(expected, tracker, text.length());
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		AbstractLineTracker tracker= new DefaultLineTracker();
+		tracker.setCompactLineIndex(true);
+		assertEquals(1, tracker.getNumberOfLines());
+		assertEquals(0, tracker.getLineOffset(0));
+		assertEquals(0, tracker.getLineLength(0));
+		assertEquals(null, tracker.getLineDelimiter(0));
+		assertEquals(0, tracker.getLineNumberOfOffset(0));
+		try {
+			tracker.getLineNumberOfOffset(1);
+			fail();
+		} catch (BadLocationException e) {
+			// expected
+		}
+		tracker.set("a\nb\n");
+		assertEquals(3, tracker.getNumberOfLines());
+		assertEquals("\n", tracker.getLineDelimiter(1));
+		assertEquals(4, tracker.getLineInformation(2).getOffset());
+	}
+
+	@Test
+	public void testDocument() throws Exception {
+		Document document= new Document() {
+			{
+				((AbstractLineTracker) getTracker()).setCompactLineIndex(true);
+			}
+		};
+		document.set("a\nbc\r\n\nd");
+		document.replace(1, 3, "\n\n");
+		assertEquals("a\n\n\r\n\nd", document.get());
+		assertEquals(5, document.getNumberOfLines());
+		assertEquals(5, document.getLineOffset(3));
+		assertEquals("\r\n", document.getLineDelimiter(2));
+		assertEquals(4, document.getLineOfOffset(6));
+	}
+
+	private static void assertRandomEdits(Random random, ILineTracker expected, ILineTracker tracker, StringBuilder text, int edits) throws Exception {
+		for (int i= 0; i < edits; i++) {
+			if (random.nextInt(50) == 0) {
+				String content= createText(random, random.nextInt(200));
+				text.setLength(0);
+				text.append(content);
+				expected.set(content);
+				tracker.set(content);
+			} else {
+				int offset= random.nextInt(text.length() + 1);
+				int length= Math.min(random.nextInt(4) == 0 ? random.nextInt(40) : random.nextInt(3), text.length() - offset);
+				replace(expected, tracker, text, offset, length, random.nextInt(5) == 0 ? null : createText(random, random.nextInt(6)));
+			}
+			assertSameLines(expected, tracker, text.length());
+		}
+	}
+
+	private static void replace(ILineTracker expected, ILineTracker tracker, StringBuilder text, int offset, int length, String replacement) throws Exception {
+		expected.replace(offset, length, replacement);
+		tracker.replace(offset, length, replacement);
+		text.replace(offset, offset + length, replacement == null ? "" : replacement);
+	}
+
+	private static String createText(Random random, int length) {
+		StringBuilder builder= new StringBuilder(length);
+		while (builder.length() < length) {
+			if (random.nextInt(4) == 0)
+				builder.append(DELIMITERS[random.nextInt(DELIMITERS.length)]);
+			else
+				builder.append((char) ('a' + random.nextInt(3)));
+		}
+		return builder.toString();
+	}
+
+	private static void assertSameLines(ILineTracker expected, ILineTracker tracker, int length) throws Exception {
+		int lines= expected.getNumberOfLines();
+		assertEquals(lines, tracker.getNumberOfLines());
+		int step= Math.max(1, lines / 500);
+		for (int line= 0; line <= lines + 1; line+= line + step <= lines ? step : 1) {
+			int l= line;
+			assertSameResult(() -> expected.getLineInformation(l), () -> tracker.getLineInformation(l));
+			assertSameResult(() -> expected.getLineOffset(l), () -> tracker.getLineOffset(l));
+			assertSameResult(() -> expected.getLineLength(l), () -> tracker.getLineLength(l));
+			assertSameResult(() -> expected.getLineDelimiter(l), () -> tracker.getLineDelimiter(l));
+		}
+		step= Math.max(1, length / 500);
+		for (int offset= -1; offset <= length + 1; offset+= offset + step <= length ? step : 1) {
+			int o= offset;
+			assertSameResult(() -> expected.getLineNumberOfOffset(o), () -> tracker.getLineNumberOfOffset(o));
+			assertSameResult(() -> expected.getLineInformationOfOffset(o), () -> tracker.getLineInformationOfOffset(o));
+			if (o >= 0 && o <= length)
+				assertSameResult(() -> expected.getNumberOfLines(o, (length - o) / 2), () -> tracker.getNumberOfLines(o, (length - o) / 2));
+		}
+	}
+
+	private interface Query {
+		Object run() throws BadLocationException;
+	}
+
+	private static void assertSameResult(Query expected, Query query) {
+		String expectedResult;
+		try {
+			expectedResult= toString(expected.run());
+		} catch (BadLocationException e) {
+			expectedResult= "BadLocationException";
+		}
+		String result;
+		try {
+			result= toString(query.run());
+		} catch (BadLocationException e) {
+			result= "BadLocationException";
+		}
+		assertEquals(expectedResult, result);
+	}
+
+	private static String toString(Object result) {
+		if (result instanceof IRegion)
+			return ((IRegion) result).getOffset() + "," + ((IRegion) result).getLength();
+		return String.valueOf(result);
+	}
+}
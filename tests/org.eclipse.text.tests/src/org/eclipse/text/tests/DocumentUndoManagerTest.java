@@ -384,6 +384,152 @@ public class DocumentUndoManagerTest {
 
 	}
 
+	@Test
+	public void testMaximalUndoSize() throws BadLocationException, ExecutionException {
+		final Document document = new Document("x".repeat(1000));
+		final DocumentUndoManager undoManager = new DocumentUndoManager(document);
+		fUndoManager = undoManager;
+		fUndoManager.connect(this);
+		undoManager.setMaximalUndoSize(2 * 250);
+
+		final String[] contents = new String[11];
+		for (int i = 0; i < 10; i++) {
+			contents[i] = document.get();
+			document.replace(i * 100, 100, String.valueOf(i).repeat(100));
+		}
+		contents[10] = document.get();
+		fUndoManager.commit();
+
+		int undone = 0;
+		while (fUndoManager.undoable()) {
+			fUndoManager.undo();
+			undone++;
+			assertEquals(contents[10 - undone], document.get());
+		}
+		assertTrue(undone >= 1 && undone < 10);
+
+		while (fUndoManager.redoable())
+			fUndoManager.redo();
+		assertEquals(contents[10], document.get());
+
+		undoManager.setMaximalUndoSize(0);
+		fUndoManager.undo();
+		assertEquals(contents[9], document.get());
+		assertFalse(fUndoManager.undoable());
+	}
+
+	@Test
+	public void testTransferUndoHistoryMaximalUndoSize() throws BadLocationException, ExecutionException {
+		final Document oldDocument = new Document("x".repeat(1000));
+		final DocumentUndoManager oldUndoManager = new DocumentUndoManager(oldDocument);
+		oldUndoManager.connect(this);
+
+		final String[] contents = new String[11];
+		for (int i = 0; i < 10; i++) {
+			contents[i] = oldDocument.get();
+			oldDocument.replace(i * 100, 100, String.valueOf(i).repeat(100));
+		}
+		contents[10] = oldDocument.get();
+		oldUndoManager.commit();
+
+		final Document document = new Document(contents[10]);
+		final DocumentUndoManager undoManager = new DocumentUndoManager(document);
+		fUndoManager = undoManager;
+		fUndoManager.connect(this);
+		undoManager.setMaximalUndoSize(2 * 250);
+		undoManager.transferUndoHistory(oldUndoManager);
+		oldUndoManager.disconnect(this);
+
+		// the transfer itself is recorded as an empty change
+		assertTrue(fUndoManager.undoable());
+		fUndoManager.undo();
+		assertEquals(contents[10], document.get());
+
+		int undone = 0;
+		while (fUndoManager.undoable()) {
+			fUndoManager.undo();
+			undone++;
+			assertEquals(contents[10 - undone], document.get());
+		}
+		assertTrue(undone >= 1 && undone < 10);
+
+		while (fUndoManager.redoable())
+			fUndoManager.redo();
+		assertEquals(contents[10], document.get());
+	}
+
+	@Test
+	public void testSpillThreshold() throws BadLocationException, ExecutionException {
+		final Document document = new Document("abc".repeat(10000));
+		final DocumentUndoManager undoManager = new DocumentUndoManager(document);
+		fUndoManager = undoManager;
+		fUndoManager.connect(this);
+		undoManager.setMaximalUndoLevel(10000);
+		undoManager.setSpillThreshold(100);
+		assertUndoRedo(document, false);
+		assertUndoRedo(document, true);
+	}
+
+	@Test
+	public void testSpillFileCompaction() throws BadLocationException, ExecutionException {
+		final Document document = new Document("");
+		final DocumentUndoManager undoManager = new DocumentUndoManager(document);
+		fUndoManager = undoManager;
+		fUndoManager.connect(this);
+		undoManager.setMaximalUndoLevel(10000);
+		undoManager.setSpillThreshold(100);
+		// keeps the last few changes only, the texts of the others are released
+		undoManager.setMaximalUndoSize(4 * 2 * 10000);
+		final String[] contents = new String[1000];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = document.get();
+			document.replace(0, document.getLength(), Character.toString('a' + i % 26).repeat(10000));
+		}
+		final String last = document.get();
+		int undone = 0;
+		while (fUndoManager.undoable()) {
+			fUndoManager.undo();
+			undone++;
+			assertEquals(contents[contents.length - undone], document.get());
+		}
+		assertTrue(undone > 0);
+		while (fUndoManager.redoable())
+			fUndoManager.redo();
+		assertEquals(last, document.get());
+	}
+
+	@Test
+	public void testCompoundWithManyChanges() throws BadLocationException, ExecutionException {
+		final Document document = new Document("abc".repeat(10000));
+		createUndoManager(document);
+		assertUndoRedo(document, true);
+	}
+
+	private void assertUndoRedo(Document document, boolean compound) throws BadLocationException, ExecutionException {
+		final java.util.Random random = new java.util.Random(17);
+		final String original = document.get();
+		if (compound)
+			fUndoManager.beginCompoundChange();
+		for (int i = 0; i < 2000; i++) {
+			final int offset = random.nextInt(document.getLength() + 1);
+			final int length = Math.min(random.nextInt(5) == 0 ? random.nextInt(500) : random.nextInt(3), document.getLength() - offset);
+			document.replace(offset, length, random.nextInt(2) == 0 ? createRandomString(random.nextInt(300)) : "");
+		}
+		if (compound)
+			fUndoManager.endCompoundChange();
+		final String changed = document.get();
+
+		while (fUndoManager.undoable())
+			fUndoManager.undo();
+		assertEquals(original, document.get());
+		while (fUndoManager.redoable())
+			fUndoManager.redo();
+		assertEquals(changed, document.get());
+		while (fUndoManager.undoable())
+			fUndoManager.undo();
+		assertEquals(original, document.get());
+	}
+
 	private static String createRandomString(int length) {
 		final StringBuilder buffer = new StringBuilder();
 
@@ -34,13 +34,17 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		LineTrackerTest4.class,
 		DocumentExtensionTest.class,
 		LineTrackerTest3.class,
+		CompactLineTrackerTest.class,
 		DocumentTest.class,
 		FindReplaceDocumentAdapterTest.class,
 		PositionUpdatingCornerCasesTest.class,
+		IndexedPositionStoreTest.class,
 		ExclusivePositionUpdaterTest.class,
 		TextEditTests.class,
+		BulkTextEditTest.class,
 		GapTextTest.class,
 		GapTextStoreTest.class,
+		PieceTableTextStoreTest.class,
 		ChildDocumentTest.class,
 		ProjectionTestSuite.class,
 		LinkTestSuite.class,
@@ -48,6 +52,7 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		TextUtilitiesTest.class,
 		AnnotationModelStressTest.class,
 		AnnotationModelExtension2Test.class,
+		IndexedAnnotationModelTest.class,
 		TemplatesTestSuite.class
 })
 public class EclipseTextTestSuite {
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.IndexedAnnotationModel;
+
+/**
+ * Tests that {@link IndexedAnnotationModel} answers the same region queries as
+ * {@link AnnotationModel}.
+ */
+public class IndexedAnnotationModelTest {
+
+	private static final int[] LENGTHS= { 0, 1, 10, 64, 65, 100, 4096, 5000, 300000 };
+
+	@Test
+	public void testRandomEditsAndQueries() throws Exception {
+		Random random= new Random(42);
+		for (boolean indexedStore : new boolean[] { false, true }) {
+			Document expectedDocument= createDocument(500000, indexedStore);
+			Document document= createDocument(500000, indexedStore);
+			AnnotationModel expected= new AnnotationModel();
+			IndexedAnnotationModel model= new IndexedAnnotationModel();
+			expected.connect(expectedDocument);
+			model.connect(document);
+
+			List<Annotation> annotations= new ArrayList<>();
+			for (int i= 0; i < 2000; i++)
+				annotations.add(addAnnotation(random, expected, model, document.getLength()));
+
+			for (int round= 0; round < 300; round++) {
+				int action= random.nextInt(10);
+				if (action < 5) {
+					int offset= random.nextInt(document.getLength());
+					int length= Math.min(random.nextInt(2) == 0 ? random.nextInt(10) : random.nextInt(10000), document.getLength() - offset);
+					String text= random.nextInt(3) == 0 ? "" : "x".repeat(random.nextInt(200));
+					expectedDocument.replace(offset, length, text);
+					document.replace(offset, length, text);
+				} else if (action < 7) {
+					annotations.add(addAnnotation(random, expected, model, document.getLength()));
+				} else if (action < 8 && !annotations.isEmpty()) {
+					Annotation annotation= annotations.remove(random.nextInt(annotations.size()));
+					expected.removeAnnotation(annotation);
+					model.removeAnnotation(annotation);
+				} else if (!annotations.isEmpty()) {
+					Annotation annotation= annotations.get(random.nextInt(annotations.size()));
+					Position position= createPosition(random, document.getLength());
+					expected.modifyAnnotationPosition(annotation, new Position(position.offset, position.length));
+					model.modifyAnnotationPosition(annotation, position);
+				}
+
+				for (int query= 0; query < 5; query++) {
+					int offset= random.nextInt(document.getLength());
+					int length= Math.min(random.nextInt(3) == 0 ? random.nextInt(20) : random.nextInt(100000), document.getLength() - offset);
+					assertSameAnnotations(expected, model, offset, length);
+				}
+			}
+			assertSameAnnotations(expected, model, 0, document.getLength());
+		}
+	}
+
+	@Test
+	public void testPositionsGrowingAndShrinking() throws Exception {
+		Document document= createDocument(10000, false);
+		AnnotationModel expected= new AnnotationModel();
+		IndexedAnnotationModel model= new IndexedAnnotationModel();
+		Document expectedDocument= createDocument(10000, false);
+		expected.connect(expectedDocument);
+		model.connect(document);
+		Annotation annotation= new Annotation(false);
+		expected.addAnnotation(annotation, new Position(1000, 10));
+		model.addAnnotation(annotation, new Position(1000, 10));
+
+		String text= "x".repeat(300000);
+		expectedDocument.replace(1005, 0, text);
+		document.replace(1005, 0, text);
+		assertSameAnnotations(expected, model, 200000, 10);
+		assertSameAnnotations(expected, model, 301005, 10);
+		assertSameAnnotations(expected, model, 0, 1001);
+
+		expectedDocument.replace(1001, 300000, "");
+		document.replace(1001, 300000, "");
+		assertSameAnnotations(expected, model, 1005, 10);
+		assertSameAnnotations(expected, model, 200000, 10);
+
+		expected.removeAnnotation(annotation);
+		model.removeAnnotation(annotation);
+		assertSameAnnotations(expected, model, 0, document.getLength());
+	}
+
+	@Test
+	public void testReplaceAnnotations() throws Exception {
+		Random random= new Random(7);
+		Document document= createDocument(100000, true);
+		IndexedAnnotationModel model= new IndexedAnnotationModel();
+		model.connect(document);
+
+		Map<Annotation, Position> added= new HashMap<>();
+		for (int i= 0; i < 1000; i++)
+			added.put(new Annotation(false), createPosition(random, document.getLength()));
+		model.replaceAnnotations(null, added);
+		assertEquals(added.keySet(), toSet(model.getAnnotationIterator()));
+
+		Annotation[] removed= added.keySet().toArray(new Annotation[0]);
+		model.replaceAnnotations(removed, null);
+		assertFalse(model.getAnnotationIterator(0, document.getLength(), true, true).hasNext());
+	}
+
+	@Test
+	public void testDisconnect() throws Exception {
+		Document document= createDocument(1000, false);
+		IndexedAnnotationModel model= new IndexedAnnotationModel();
+		model.connect(document);
+		model.addAnnotation(new Annotation(false), new Position(10, 10));
+		assertEquals(5, document.getPositionCategories().length);
+		model.disconnect(document);
+		assertEquals(1, document.getPositionCategories().length);
+	}
+
+	private static Document createDocument(int length, boolean indexedStore) {
+		Document document= new Document("a\n".repeat(length / 2));
+		document.setIndexedPositionStore(indexedStore);
+		return document;
+	}
+
+	private static Annotation addAnnotation(Random random, AnnotationModel expected, IndexedAnnotationModel model, int documentLength) {
+		Annotation annotation= new Annotation(false);
+		Position position= createPosition(random, documentLength);
+		expected.addAnnotation(annotation, new Position(position.offset, position.length));
+		model.addAnnotation(annotation, position);
+		return annotation;
+	}
+
+	private static Position createPosition(Random random, int documentLength) {
+		int length= Math.min(LENGTHS[random.nextInt(LENGTHS.length)] + random.nextInt(2), documentLength);
+		return new Position(random.nextInt(documentLength - length + 1), length);
+	}
+
+	private static void assertSameAnnotations(AnnotationModel expected, IndexedAnnotationModel model, int offset, int length) {
+		for (int flags= 0; flags < 4; flags++) {
+			boolean canStartBefore= (flags & 1) != 0;
+			boolean canEndAfter= (flags & 2) != 0;
+			Set<String> expectedPositions= toPositions(expected, expected.getAnnotationIterator(offset, length, canStartBefore, canEndAfter));
+			Set<String> positions= toPositions(model, model.getAnnotationIterator(offset, length, canStartBefore, canEndAfter));
+			assertEquals("offset: " + offset + ", length: " + length + ", flags: " + flags, expectedPositions, positions);
+		}
+	}
+
+	private static Set<String> toPositions(AnnotationModel model, Iterator<Annotation> e) {
+		Set<String> positions= new HashSet<>();
+		while (e.hasNext()) {
+			Annotation annotation= e.next();
+			Position position= model.getPosition(annotation);
+			positions.add(System.identityHashCode(annotation) + "@" + position.offset + "," + position.length + (position.isDeleted() ? "d" : ""));
+		}
+		return positions;
+	}
+
+	private static Set<Annotation> toSet(Iterator<Annotation> e) {
+		Set<Annotation> annotations= new HashSet<>();
+		e.forEachRemaining(annotations::add);
+		return annotations;
+	}
+}
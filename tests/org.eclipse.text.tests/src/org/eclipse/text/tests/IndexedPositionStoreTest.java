@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Tests that a document with the indexed position store updates positions exactly like a
+ * document without it.
+ */
+public class IndexedPositionStoreTest {
+
+	private static final String CATEGORY= "test.category";
+
+	@Test
+	public void testRandomEditsKeepSamePositions() throws Exception {
+		Random random= new Random(4711);
+		for (int run= 0; run < 20; run++) {
+			Document plain= createDocument(random.nextLong(), false);
+			Document indexed= createDocument(-1, true);
+			indexed.set(plain.get());
+			copyPositions(plain, indexed);
+
+			for (int edit= 0; edit < 200; edit++) {
+				int length= plain.getLength();
+				int offset= random.nextInt(length + 1);
+				int replaced= random.nextInt(Math.min(20, length - offset) + 1);
+				String text= "abcdefghij".substring(0, random.nextInt(11));
+				plain.replace(offset, replaced, text);
+				indexed.replace(offset, replaced, text);
+				assertSamePositions(plain, indexed);
+
+				if (edit % 10 == 0) {
+					int start= random.nextInt(plain.getLength() + 1);
+					int posLength= random.nextInt(plain.getLength() - start + 1);
+					plain.addPosition(CATEGORY, new Position(start, posLength));
+					indexed.addPosition(CATEGORY, new Position(start, posLength));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRangeQueries() throws Exception {
+		Document document= createDocument(42, true);
+		for (int i= 0; i < 50; i++) {
+			int editOffset= i * 7 % document.getLength();
+			document.replace(editOffset, Math.min(3, document.getLength() - editOffset), "xy");
+		}
+		Position[] all= document.getPositions(CATEGORY);
+		// in the second half of the document the positions ordered by end offset are used
+		int offset= document.getLength() * 2 / 3;
+		int length= document.getLength() / 4;
+		Position[] overlapping= document.getPositions(CATEGORY, offset, length, true, true);
+		long expected= Arrays.stream(all).filter(p -> new Position(offset, length).overlapsWith(p.getOffset(), p.getLength())).count();
+		assertEquals(expected, overlapping.length);
+	}
+
+	@Test
+	public void testEnableWithExistingPositions() throws Exception {
+		Document plain= createDocument(7, false);
+		Document indexed= createDocument(7, false);
+		indexed.setIndexedPositionStore(true);
+		assertTrue(indexed.isIndexedPositionStore());
+		for (int i= 0; i < 100; i++) {
+			int offset= i * 13 % plain.getLength();
+			int length= Math.min(2, plain.getLength() - offset);
+			plain.replace(offset, length, "abc");
+			indexed.replace(offset, length, "abc");
+		}
+		assertSamePositions(plain, indexed);
+	}
+
+	private static Document createDocument(long seed, boolean indexed) throws Exception {
+		Document document= new Document();
+		document.setIndexedPositionStore(indexed);
+		document.addPositionCategory(CATEGORY);
+		document.addPositionUpdater(new DefaultPositionUpdater(CATEGORY));
+		if (seed == -1)
+			return document;
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 200; i++)
+			text.append("line ").append(i).append('\n');
+		document.set(text.toString());
+		Random random= new Random(seed);
+		for (int i= 0; i < 500; i++) {
+			int offset= random.nextInt(document.getLength() + 1);
+			int length= random.nextInt(Math.min(30, document.getLength() - offset) + 1);
+			document.addPosition(CATEGORY, new Position(offset, length));
+			if (i % 5 == 0)
+				document.addPosition(new Position(offset, 0));
+		}
+		return document;
+	}
+
+	private static void copyPositions(Document from, Document to) throws Exception {
+		for (String category : new String[] { CATEGORY, IDocument.DEFAULT_CATEGORY }) {
+			for (Position position : from.getPositions(category))
+				to.addPosition(category, new Position(position.getOffset(), position.getLength()));
+		}
+	}
+
+	private static void assertSamePositions(Document expected, Document actual) throws BadPositionCategoryException {
+		for (String category : new String[] { CATEGORY, IDocument.DEFAULT_CATEGORY }) {
+			assertEquals(toString(expected.getPositions(category)), toString(actual.getPositions(category)));
+		}
+	}
+
+	private static String toString(Position[] positions) {
+		Position[] sorted= positions.clone();
+		Arrays.sort(sorted, Comparator.comparingInt(Position::getOffset).thenComparingInt(Position::getLength).thenComparing(Position::isDeleted));
+		StringBuilder builder= new StringBuilder();
+		for (Position position : sorted)
+			builder.append('[').append(position.getOffset()).append(',').append(position.getLength()).append(position.isDeleted() ? ",d" : "").append(']');
+		return builder.toString();
+	}
+}
@@ -14,9 +14,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -474,6 +479,80 @@ public class MultiStringMatcherTest {
 		assertEquals("Scanned too far", 5, text.getLastIndex());
 	}
 
+	@Test
+	public void findMatches001() throws Exception {
+		MultiStringMatcher m = MultiStringMatcher.create("he", "she", "his", "hers");
+		List<String> matches = new ArrayList<>();
+		m.findMatches("ushers", 0, (offset, length) -> matches.add(offset + ":" + length));
+		assertEquals("[1:3, 2:2, 2:4]", matches.toString());
+	}
+
+	@Test
+	public void findMatchesNothing() throws Exception {
+		MultiStringMatcher m = MultiStringMatcher.create("", null);
+		m.findMatches("ushers", 0, (offset, length) -> fail("Unexpected match"));
+	}
+
+	@Test
+	public void manySearchStrings() throws Exception {
+		Random random = new Random(11);
+		for (String alphabet : new String[] { "ab", "abcdefgh", "a\u00e4\u03c0\u4e2d\uffff" }) {
+			Set<String> searchStrings = new HashSet<>();
+			for (int i = 0; i < 2000; i++) {
+				searchStrings.add(randomString(random, alphabet, 1 + random.nextInt(8)));
+			}
+			MultiStringMatcher m = MultiStringMatcher.create(searchStrings.toArray(new String[0]));
+			for (int i = 0; i < 50; i++) {
+				String text = randomString(random, alphabet, random.nextInt(200));
+				int offset = text.isEmpty() ? 0 : random.nextInt(text.length());
+				List<String> expected = new ArrayList<>();
+				for (int start = offset; start < text.length(); start++) {
+					for (int end = start + 1; end <= text.length(); end++) {
+						if (searchStrings.contains(text.substring(start, end))) {
+							expected.add(start + ":" + (end - start));
+						}
+					}
+				}
+				List<String> found = new ArrayList<>();
+				m.find(text, offset, match -> found.add(match.getOffset() + ":" + match.getText().length()));
+				List<String> foundMatches = new ArrayList<>();
+				m.findMatches(text, offset, (matchOffset, length) -> foundMatches.add(matchOffset + ":" + length));
+				Collections.sort(expected);
+				Collections.sort(found);
+				Collections.sort(foundMatches);
+				assertEquals(expected, found);
+				assertEquals(expected, foundMatches);
+
+				Match match = m.indexOf(text, offset);
+				if (expected.isEmpty()) {
+					assertNull(match);
+				} else {
+					// leftmost longest: lowest offset, then the longest string at that offset
+					int matchOffset = Integer.MAX_VALUE;
+					int length = 0;
+					for (String e : expected) {
+						String[] parts = e.split(":");
+						int o = Integer.parseInt(parts[0]);
+						int l = Integer.parseInt(parts[1]);
+						if (o < matchOffset || o == matchOffset && l > length) {
+							matchOffset = o;
+							length = l;
+						}
+					}
+					test(match, text.substring(matchOffset, matchOffset + length), matchOffset);
+				}
+			}
+		}
+	}
+
+	private static String randomString(Random random, String alphabet, int length) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return builder.toString();
+	}
+
 	private static class TestCharSequence implements CharSequence {
 
 		private final String value;
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.GapTextStore;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.PieceTableTextStore;
+
+public class PieceTableTextStoreTest extends TextStoreTest {
+
+	@Override
+	protected ITextStore createTextStore() {
+		return new PieceTableTextStore();
+	}
+
+	@Test
+	public void testRandomEditsSameAsGapTextStore() {
+		Random random= new Random(1234);
+		ITextStore expected= new GapTextStore();
+		ITextStore actual= new PieceTableTextStore();
+		expected.set("0123456789\nabcdefghij\n");
+		actual.set("0123456789\nabcdefghij\n");
+		int previousEnd= 0;
+		for (int i= 0; i < 5000; i++) {
+			int length= expected.getLength();
+			int offset= random.nextInt(length + 1);
+			int replaced= random.nextInt(Math.min(8, length - offset) + 1);
+			String text= "klmnopq\n".substring(0, random.nextInt(9));
+			if (i % 3 == 0) {
+				// typing after the previous insertion
+				offset= Math.min(previousEnd, length);
+				replaced= 0;
+			}
+			previousEnd= offset + text.length();
+			expected.replace(offset, replaced, text);
+			actual.replace(offset, replaced, text);
+
+			assertEquals(expected.getLength(), actual.getLength());
+			int from= random.nextInt(actual.getLength() + 1);
+			int to= from + random.nextInt(actual.getLength() - from + 1);
+			assertEquals(expected.get(from, to - from), actual.get(from, to - from));
+			if (from < actual.getLength())
+				assertEquals(expected.get(from), actual.get(from));
+		}
+		assertEquals(expected.get(0, expected.getLength()), actual.get(0, actual.getLength()));
+		for (int i= 0; i < expected.getLength(); i++)
+			assertEquals(expected.get(i), actual.get(i));
+	}
+
+	@Test
+	public void testTyping() {
+		ITextStore store= new PieceTableTextStore();
+		store.set("ab");
+		for (int i= 0; i < 100; i++)
+			store.replace(1 + i, 0, "x");
+		store.replace(100, 1, "");
+		store.replace(50, 0, "y");
+		assertEquals("a" + "x".repeat(49) + "y" + "x".repeat(50) + "b", store.get(0, store.getLength()));
+	}
+
+	@Test
+	public void testConcurrentReads() throws Exception {
+		ITextStore store= new PieceTableTextStore();
+		store.set("0123456789".repeat(100));
+		for (int i= 0; i < 100; i++)
+			store.replace(i * 11, 0, "x");
+		String expected= store.get(0, store.getLength());
+		AtomicInteger mismatches= new AtomicInteger();
+		Thread[] readers= new Thread[4];
+		for (int r= 0; r < readers.length; r++) {
+			Random random= new Random(r);
+			readers[r]= new Thread(() -> {
+				for (int i= 0; i < 200000; i++) {
+					int offset= random.nextInt(expected.length());
+					if (store.get(offset) != expected.charAt(offset))
+						mismatches.incrementAndGet();
+				}
+			});
+			readers[r].start();
+		}
+		for (Thread reader : readers)
+			reader.join();
+		assertEquals(0, mismatches.get());
+	}
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Measures applying replace all like edit trees edit by edit and with
+ * {@link TextEdit#BULK_UPDATE}.
+ */
+public class BulkTextEditPerformanceTest extends PerformanceTestCase {
+
+	private static final String LINE= "\tfield= value;\n";
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 5;
+
+	public void testEditByEdit10000() throws Exception {
+		measureApply(10000, TextEdit.CREATE_UNDO);
+	}
+
+	public void testBulk10000() throws Exception {
+		measureApply(10000, TextEdit.CREATE_UNDO | TextEdit.BULK_UPDATE);
+	}
+
+	public void testEditByEdit100000() throws Exception {
+		measureApply(100000, TextEdit.CREATE_UNDO);
+	}
+
+	public void testBulk100000() throws Exception {
+		measureApply(100000, TextEdit.CREATE_UNDO | TextEdit.BULK_UPDATE);
+	}
+
+	public void testEditByEdit1000000() throws Exception {
+		measureApply(1000000, TextEdit.CREATE_UNDO);
+	}
+
+	public void testBulk1000000() throws Exception {
+		measureApply(1000000, TextEdit.CREATE_UNDO | TextEdit.BULK_UPDATE);
+	}
+
+	private void measureApply(int edits, int style) throws Exception {
+		String content= LINE.repeat(edits);
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			MultiTextEdit root= new MultiTextEdit();
+			for (int i= 0; i < edits; i++)
+				root.addChild(new ReplaceEdit(i * LINE.length() + 8, 5, "result"));
+			IDocument document= new Document(content);
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			root.apply(document, style);
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertEquals(content.length() + edits, document.getLength());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
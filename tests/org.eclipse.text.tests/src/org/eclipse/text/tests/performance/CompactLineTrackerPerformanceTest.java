@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.jface.text.AbstractLineTracker;
+import org.eclipse.jface.text.DefaultLineTracker;
+
+/**
+ * Measures setting a text with one million lines, editing and querying it, with and without the
+ * compact line index of the {@link AbstractLineTracker}. For setting the text the
+ * {@link org.eclipse.test.performance.Dimension#USED_JAVA_HEAP used Java heap} shows the memory
+ * taken by the line index, the garbage is collected before the measurement starts and stops.
+ */
+public class CompactLineTrackerPerformanceTest extends PerformanceTestCase {
+
+	private static final String TEXT= "\tlog line with some content\n".repeat(1000000);
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 5;
+
+	public void testTreeSet() throws Exception {
+		measureSet(false);
+	}
+
+	public void testCompactSet() throws Exception {
+		measureSet(true);
+	}
+
+	public void testTreeEdit() throws Exception {
+		measureEdit(false);
+	}
+
+	public void testCompactEdit() throws Exception {
+		measureEdit(true);
+	}
+
+	public void testTreeQuery() throws Exception {
+		measureQuery(false);
+	}
+
+	public void testCompactQuery() throws Exception {
+		measureQuery(true);
+	}
+
+	private void measureSet(boolean compact) throws Exception {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			collectGarbage();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			AbstractLineTracker tracker= createTracker(compact);
+			collectGarbage();
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertEquals(1000001, tracker.getNumberOfLines());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureEdit(boolean compact) throws Exception {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			AbstractLineTracker tracker= createTracker(compact);
+			Random random= new Random(1);
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			for (int i= 0; i < 100000; i++)
+				tracker.replace(random.nextInt(TEXT.length()), 0, random.nextInt(10) == 0 ? "\n" : "y");
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureQuery(boolean compact) throws Exception {
+		AbstractLineTracker tracker= createTracker(compact);
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			Random random= new Random(1);
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			for (int i= 0; i < 1000000; i++) {
+				tracker.getLineOffset(random.nextInt(1000000));
+				tracker.getLineNumberOfOffset(random.nextInt(TEXT.length()));
+			}
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static AbstractLineTracker createTracker(boolean compact) throws Exception {
+		AbstractLineTracker tracker= new DefaultLineTracker();
+		tracker.setCompactLineIndex(compact);
+		tracker.set(TEXT);
+		tracker.replace(0, 0, "x");
+		return tracker;
+	}
+
+	private static void collectGarbage() {
+		for (int i= 0; i < 3; i++)
+			System.gc();
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.core.commands.ExecutionException;
+
+import org.eclipse.text.undo.DocumentUndoManager;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+
+/**
+ * Measures the time and the heap taken by the undo history of 200000 replacements in a compound
+ * change, like a replace all, in the {@link DocumentUndoManager}.
+ */
+public class DocumentUndoManagerPerformanceTest extends PerformanceTestCase {
+
+	private static final String LINE= "a word\n";
+
+	private static final int REPLACEMENTS= 200000;
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 5;
+
+	public void testReplaceAll() throws Exception {
+		measureReplaceAll(false);
+	}
+
+	/**
+	 * Measures the heap retained by the undo history, the garbage is collected before the
+	 * measurement starts and stops.
+	 *
+	 * @throws Exception if the replace all fails
+	 */
+	public void testReplaceAllUndoHistory() throws Exception {
+		measureReplaceAll(true);
+	}
+
+	private void measureReplaceAll(boolean collectGarbage) throws BadLocationException, ExecutionException {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			Document document= new Document(LINE.repeat(REPLACEMENTS));
+			DocumentUndoManager undoManager= new DocumentUndoManager(document);
+			undoManager.connect(this);
+			undoManager.setMaximalUndoLevel(10);
+			if (collectGarbage)
+				collectGarbage();
+
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			undoManager.beginCompoundChange();
+			for (int i= 0; i < REPLACEMENTS; i++)
+				document.replace(i * LINE.length() + 2, 4, "text");
+			undoManager.endCompoundChange();
+			if (collectGarbage)
+				collectGarbage();
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+
+			undoManager.undo();
+			assertEquals(LINE.repeat(REPLACEMENTS), document.get());
+			undoManager.disconnect(this);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void collectGarbage() {
+		for (int i= 0; i < 3; i++)
+			System.gc();
+	}
+}
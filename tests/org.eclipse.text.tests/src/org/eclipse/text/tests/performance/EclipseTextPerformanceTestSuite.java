@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+
+/**
+ * Performance Test Suite for org.eclipse.text.
+ */
+@RunWith(Suite.class)
+@SuiteClasses({
+		PieceTableTextStorePerformanceTest.class,
+		IndexedAnnotationModelPerformanceTest.class,
+		DocumentUndoManagerPerformanceTest.class,
+		BulkTextEditPerformanceTest.class,
+		MultiStringMatcherPerformanceTest.class,
+		CompactLineTrackerPerformanceTest.class
+})
+public class EclipseTextPerformanceTestSuite {
+	// see @SuiteClasses
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.IndexedAnnotationModel;
+
+/**
+ * Measures adding 200000 annotations, region queries and edits in the
+ * {@link IndexedAnnotationModel}, with and without the indexed position store of the document,
+ * compared to the {@link AnnotationModel}.
+ */
+public class IndexedAnnotationModelPerformanceTest extends PerformanceTestCase {
+
+	private static final int DOCUMENT_LENGTH= 10000000;
+
+	private static final int ANNOTATIONS= 200000;
+
+	private static final int WARM_UP_RUNS= 1;
+
+	private static final int MEASURED_RUNS= 3;
+
+	private static final int ADD= 0;
+
+	private static final int QUERY= 1;
+
+	private static final int EDIT= 2;
+
+	public void testAnnotationModelAdd() throws Exception {
+		measure(AnnotationModel::new, false, ADD);
+	}
+
+	public void testIndexedAdd() throws Exception {
+		measure(IndexedAnnotationModel::new, false, ADD);
+	}
+
+	public void testIndexedWithIndexedStoreAdd() throws Exception {
+		measure(IndexedAnnotationModel::new, true, ADD);
+	}
+
+	public void testAnnotationModelQuery() throws Exception {
+		measure(AnnotationModel::new, false, QUERY);
+	}
+
+	public void testIndexedQuery() throws Exception {
+		measure(IndexedAnnotationModel::new, false, QUERY);
+	}
+
+	public void testIndexedWithIndexedStoreQuery() throws Exception {
+		measure(IndexedAnnotationModel::new, true, QUERY);
+	}
+
+	public void testAnnotationModelEdit() throws Exception {
+		measure(AnnotationModel::new, false, EDIT);
+	}
+
+	public void testIndexedEdit() throws Exception {
+		measure(IndexedAnnotationModel::new, false, EDIT);
+	}
+
+	public void testIndexedWithIndexedStoreEdit() throws Exception {
+		measure(IndexedAnnotationModel::new, true, EDIT);
+	}
+
+	/**
+	 * Measures one operation on a model with {@link #ANNOTATIONS} annotations.
+	 *
+	 * @param factory creates the annotation model
+	 * @param indexedStore whether the document uses the indexed position store
+	 * @param operation {@link #ADD}, {@link #QUERY} or {@link #EDIT}
+	 * @throws BadLocationException if an edit fails
+	 */
+	private void measure(Supplier<AnnotationModel> factory, boolean indexedStore, int operation) throws BadLocationException {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			Random random= new Random(1);
+			Document document= new Document("a\n".repeat(DOCUMENT_LENGTH / 2));
+			document.setIndexedPositionStore(indexedStore);
+			AnnotationModel model= factory.get();
+			model.connect(document);
+
+			Map<Annotation, Position> added= new HashMap<>();
+			for (int i= 0; i < ANNOTATIONS; i++) {
+				int offset= random.nextInt(document.getLength() - 100);
+				added.put(new Annotation(false), new Position(offset, random.nextInt(100)));
+			}
+
+			boolean measured= run >= WARM_UP_RUNS;
+			if (measured && operation == ADD)
+				startMeasuring();
+			model.replaceAnnotations(null, added);
+			if (measured && operation == ADD)
+				stopMeasuring();
+
+			if (measured && operation == QUERY)
+				startMeasuring();
+			int count= 0;
+			for (int i= 0; i < 1000; i++) {
+				Iterator<Annotation> e= model.getAnnotationIterator(random.nextInt(document.getLength() - 2000), 2000, true, true);
+				while (e.hasNext()) {
+					e.next();
+					count++;
+				}
+			}
+			if (measured && operation == QUERY)
+				stopMeasuring();
+			assertTrue(count > 0);
+
+			if (measured && operation == EDIT)
+				startMeasuring();
+			for (int i= 0; i < 100; i++)
+				document.replace(random.nextInt(document.getLength()), 0, "x");
+			if (measured && operation == EDIT)
+				stopMeasuring();
+
+			model.disconnect(document);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.jface.text.MultiStringMatcher;
+import org.eclipse.jface.text.MultiStringMatcher.Match;
+
+/**
+ * Measures building a {@link MultiStringMatcher} for 5000 identifiers and finding them in a text
+ * of one million characters with
+ * {@link MultiStringMatcher#find(CharSequence, int, java.util.function.Consumer)},
+ * {@link MultiStringMatcher#findMatches(CharSequence, int, MultiStringMatcher.MatchConsumer)} and
+ * {@link MultiStringMatcher#indexOf(CharSequence, int)}.
+ */
+public class MultiStringMatcherPerformanceTest extends PerformanceTestCase {
+
+	private static final String ALPHABET= "abcdefghijklmnopqrstuvwxyz_";
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 10;
+
+	private String[] fIdentifiers;
+
+	private String fText;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Random random= new Random(1);
+		fIdentifiers= new String[5000];
+		for (int i= 0; i < fIdentifiers.length; i++)
+			fIdentifiers[i]= randomString(random, 4 + random.nextInt(12));
+		StringBuilder builder= new StringBuilder();
+		while (builder.length() < 1000000) {
+			builder.append(random.nextInt(4) == 0 ? fIdentifiers[random.nextInt(fIdentifiers.length)] : randomString(random, 1 + random.nextInt(10)));
+			builder.append(random.nextInt(8) == 0 ? "(); \n" : " ");
+		}
+		fText= builder.toString();
+	}
+
+	public void testCreate() {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			MultiStringMatcher.create(fIdentifiers);
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testFind() {
+		MultiStringMatcher matcher= MultiStringMatcher.create(fIdentifiers);
+		int[] count= new int[1];
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			count[0]= 0;
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			matcher.find(fText, 0, match -> count[0]++);
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertTrue(count[0] > 0);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testFindMatches() {
+		MultiStringMatcher matcher= MultiStringMatcher.create(fIdentifiers);
+		int[] count= new int[1];
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			count[0]= 0;
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			matcher.findMatches(fText, 0, (offset, length) -> count[0]++);
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertTrue(count[0] > 0);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testIndexOf() {
+		MultiStringMatcher matcher= MultiStringMatcher.create(fIdentifiers);
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			int count= 0;
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			for (Match match= matcher.indexOf(fText, 0); match != null; match= matcher.indexOf(fText, match.getOffset() + match.getText().length()))
+				count++;
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertTrue(count > 0);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static String randomString(Random random, int length) {
+		StringBuilder builder= new StringBuilder(length);
+		for (int i= 0; i < length; i++)
+			builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		return builder.toString();
+	}
+}
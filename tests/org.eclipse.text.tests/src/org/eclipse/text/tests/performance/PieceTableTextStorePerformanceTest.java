@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests.performance;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.jface.text.CopyOnWriteTextStore;
+import org.eclipse.jface.text.GapTextStore;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.PieceTableTextStore;
+
+/**
+ * Measures random and sequential edits on a 4MB document in the {@link PieceTableTextStore},
+ * compared to the {@link GapTextStore} and the {@link CopyOnWriteTextStore}.
+ */
+public class PieceTableTextStorePerformanceTest extends PerformanceTestCase {
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 5;
+
+	private String fContent;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		StringBuilder builder= new StringBuilder();
+		for (int i= 0; builder.length() < 4 * 1024 * 1024; i++)
+			builder.append("\tprivate static final int CONSTANT_").append(i).append(" = ").append(i).append(";\n");
+		fContent= builder.toString();
+	}
+
+	public void testPieceTableRandomEdits() {
+		measureRandomEdits(PieceTableTextStore::new);
+	}
+
+	public void testGapRandomEdits() {
+		measureRandomEdits(GapTextStore::new);
+	}
+
+	public void testCopyOnWriteRandomEdits() {
+		measureRandomEdits(() -> new CopyOnWriteTextStore(new GapTextStore()));
+	}
+
+	public void testPieceTableSequentialEdits() {
+		measureSequentialEdits(PieceTableTextStore::new);
+	}
+
+	public void testGapSequentialEdits() {
+		measureSequentialEdits(GapTextStore::new);
+	}
+
+	public void testCopyOnWriteSequentialEdits() {
+		measureSequentialEdits(() -> new CopyOnWriteTextStore(new GapTextStore()));
+	}
+
+	private void measureRandomEdits(Supplier<ITextStore> factory) {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			ITextStore store= factory.get();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			store.set(fContent);
+			Random random= new Random(42);
+			for (int i= 0; i < 2000; i++) {
+				int offset= random.nextInt(store.getLength() - 10);
+				store.replace(offset, random.nextInt(10), "edit");
+				store.get(offset, 100);
+			}
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureSequentialEdits(Supplier<ITextStore> factory) {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			ITextStore store= factory.get();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			store.set(fContent);
+			int offset= fContent.length() / 2;
+			for (int i= 0; i < 100000; i++) {
+				store.replace(offset++, 0, "x");
+				if (i % 10 == 9)
+					store.replace(--offset, 1, "");
+				store.get(offset - 1);
+			}
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			assertEquals(fContent.length() + 90000, store.getLength());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
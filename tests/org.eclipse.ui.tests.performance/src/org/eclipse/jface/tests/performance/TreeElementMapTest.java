@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * Measures mapping the items of a large tree to their elements and looking up
+ * the items of the elements when hash lookup is enabled.
+ */
+public class TreeElementMapTest extends TreeTest {
+
+	static int TEST_COUNT = 20000;
+
+	public TreeElementMapTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Test setting an input with many children, which maps all their items.
+	 */
+	public void testMapItems() {
+		openBrowser();
+
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			TestTreeElement input = new TestTreeElement(0, null);
+			input.createChildren(TEST_COUNT);
+			startMeasuring();
+			viewer.setInput(input);
+			processEvents();
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test looking up the items of all children ten times.
+	 */
+	public void testLookupItems() {
+		openBrowser();
+
+		TestTreeElement input = new TestTreeElement(0, null);
+		input.createChildren(TEST_COUNT);
+		viewer.setInput(input);
+		processEvents();
+
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			startMeasuring();
+			for (int j = 0; j < 10; j++) {
+				for (TestTreeElement child : input.children) {
+					viewer.testFindItems(child);
+				}
+			}
+			stopMeasuring();
+		}
+		Widget[] items = viewer.testFindItems(input.children[TEST_COUNT - 1]);
+		assertEquals(1, items.length);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * Measures switching between a light and a dark theme with several hundred
+ * rules on a shell with many parts.
+ */
+public class ThemeSwitchTest extends BasicPerformanceTest {
+
+	private static final int PARTS = 500;
+
+	private static final int RULES = 100;
+
+	private static final int WARM_UP_RUNS = 2;
+
+	private static final int MEASURED_RUNS = 10;
+
+	private static final RGB BLUE = new RGB(0, 0, 255);
+
+	public ThemeSwitchTest(String testName) {
+		super(testName);
+	}
+
+	public void testThemeSwitch() throws IOException {
+		String light = createTheme("#FFFFFF", "#000000");
+		String dark = createTheme("#202020", "#E0E0E0");
+		Display display = Display.getCurrent();
+		CSSEngine engine = new CSSSWTEngineImpl(display);
+		engine.parseStyleSheet(new StringReader(light));
+
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		try {
+			shell.setLayout(new FillLayout());
+			Label lastLabel = null;
+			for (int i = 0; i < PARTS; i++) {
+				Composite part = new Composite(shell, SWT.NONE);
+				WidgetElement.setCSSClass(part, "MPart view" + (i % RULES));
+				WidgetElement.setID(part, "part" + i);
+				Composite toolbar = new Composite(part, SWT.NONE);
+				WidgetElement.setCSSClass(toolbar, "toolbar");
+				new Button(toolbar, SWT.PUSH);
+				new Button(toolbar, SWT.CHECK);
+				Composite content = new Composite(part, SWT.NONE);
+				new Text(content, SWT.BORDER);
+				new Label(content, SWT.NONE);
+				lastLabel = new Label(content, SWT.NONE);
+				WidgetElement.setCSSClass(lastLabel, "status");
+			}
+			engine.applyStyles(shell, true);
+
+			for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+				if (i >= WARM_UP_RUNS) {
+					startMeasuring();
+				}
+				engine.reset();
+				engine.parseStyleSheet(new StringReader(i % 2 == 0 ? dark : light));
+				engine.applyStyles(shell, true);
+				if (i >= WARM_UP_RUNS) {
+					stopMeasuring();
+				}
+			}
+			assertEquals(BLUE, lastLabel.getForeground().getRGB());
+		} finally {
+			shell.dispose();
+			engine.dispose();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static String createTheme(String background, String foreground) {
+		StringBuilder css = new StringBuilder();
+		css.append("* { background-color: ").append(background).append("; }\n");
+		css.append("Label { color: ").append(foreground).append("; }\n");
+		for (int i = 0; i < RULES; i++) {
+			css.append(".MPart.view").append(i).append(" Label { color: ").append(foreground).append("; }\n");
+			css.append("#part").append(i).append(" { background-color: ").append(background).append("; }\n");
+			css.append(".view").append(i).append(" > Composite > Button { color: ").append(foreground).append("; }\n");
+			css.append("Shell .toolbar.style").append(i).append(" { background-color: ").append(background)
+					.append("; }\n");
+			css.append("Text.style").append(i).append(":focus { color: ").append(foreground).append("; }\n");
+		}
+		css.append(".MPart Label.status { color: #0000FF; }\n");
+		return css.toString();
+	}
+}
@@ -14,21 +14,69 @@
 package org.eclipse.ui.workbench.texteditor.tests;
 
 import static org.eclipse.jface.text.DocumentRewriteSessionType.SEQUENTIAL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
 import org.junit.Test;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentRewriteSession;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.source.ILineDiffInfo;
 
 import org.eclipse.ui.internal.texteditor.quickdiff.DocumentLineDiffer;
 
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
+
 /**
  * Tests for the {@link DocumentLineDiffer}.
  */
 public class DocumentLineDifferTest {
 
+	/** A reference provider returning a fixed document. */
+	private static class DocumentReferenceProvider implements IQuickDiffReferenceProvider {
+
+		private final IDocument fReference;
+
+		DocumentReferenceProvider(IDocument reference) {
+			fReference= reference;
+		}
+
+		@Override
+		public IDocument getReference(IProgressMonitor monitor) {
+			return fReference;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String getId() {
+			return "test";
+		}
+
+		@Override
+		public void setActiveEditor(ITextEditor editor) {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setId(String id) {
+		}
+	}
+
 	/** The document to connect to the {@link #fLineDiffer}. */
 	private final Document fDocument= new Document();
 
@@ -169,4 +217,93 @@ public class DocumentLineDifferTest {
 		assertFalse(fLineDiffer.isSuspended());
 	}
 
+	/**
+	 * Test that the differences after small edits, large edits, rewrite sessions and reference
+	 * changes are the same as the differences computed from scratch.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void differencesAfterEditsEqualInitialDifferences() throws Exception {
+		// given
+		Random random= new Random(3);
+		Document reference= new Document(createLines(0, 2000));
+		fDocument.set(reference.get());
+		replaceLines(fDocument, 100, 5, createLines(10000, 3));
+		replaceLines(fDocument, 1500, 0, createLines(10100, 20));
+		fLineDiffer.setReferenceProvider(new DocumentReferenceProvider(reference));
+		fLineDiffer.connect(fDocument);
+		waitForSynchronization(fLineDiffer);
+		assertSameDifferences(reference);
+
+		int next= 20000;
+		for (int i= 0; i < 12; i++) {
+			// when
+			int line= random.nextInt(fDocument.getNumberOfLines() - 100);
+			switch (i % 4) {
+				case 0: // incremental
+					for (int j= 0; j < 20; j++, next+= 100)
+						replaceLines(fDocument, line + random.nextInt(20), random.nextInt(3), createLines(next, random.nextInt(3)));
+					break;
+				case 1: // reinitialization
+					replaceLines(fDocument, line, random.nextInt(80), createLines(next, 60 + random.nextInt(80)));
+					next+= 1000;
+					break;
+				case 2: // rewrite session
+					DocumentRewriteSession session= fDocument.startRewriteSession(SEQUENTIAL);
+					replaceLines(fDocument, line, 10, createLines(next, 5));
+					replaceLines(fDocument, line + 50, 0, createLines(next + 100, 5));
+					fDocument.stopRewriteSession(session);
+					next+= 1000;
+					break;
+				default: // reference change
+					replaceLines(reference, random.nextInt(reference.getNumberOfLines() - 10), 3, createLines(next, 1));
+					next+= 100;
+					break;
+			}
+			waitForSynchronization(fLineDiffer);
+
+			// then
+			assertSameDifferences(reference);
+		}
+	}
+
+	private void assertSameDifferences(IDocument reference) throws InterruptedException {
+		DocumentLineDiffer expected= new DocumentLineDiffer();
+		expected.setReferenceProvider(new DocumentReferenceProvider(new Document(reference.get())));
+		expected.connect(new Document(fDocument.get()));
+		waitForSynchronization(expected);
+		try {
+			for (int line= 0; line < fDocument.getNumberOfLines(); line++) {
+				ILineDiffInfo expectedInfo= expected.getLineInfo(line);
+				ILineDiffInfo info= fLineDiffer.getLineInfo(line);
+				String message= "line " + line;
+				assertEquals(message, expectedInfo.getChangeType(), info.getChangeType());
+				assertEquals(message, expectedInfo.getRemovedLinesAbove(), info.getRemovedLinesAbove());
+				assertEquals(message, expectedInfo.getRemovedLinesBelow(), info.getRemovedLinesBelow());
+			}
+		} finally {
+			expected.suspend();
+		}
+	}
+
+	private static void waitForSynchronization(DocumentLineDiffer differ) throws InterruptedException {
+		long timeout= System.currentTimeMillis() + 30000;
+		while (!differ.isSynchronized() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertTrue(differ.isSynchronized());
+	}
+
+	private static void replaceLines(IDocument document, int line, int count, String text) throws BadLocationException {
+		int offset= document.getLineOffset(line);
+		int end= document.getLineOffset(line + count);
+		document.replace(offset, end - offset, text);
+	}
+
+	private static String createLines(int first, int count) {
+		StringBuilder builder= new StringBuilder();
+		for (int i= first; i < first + count; i++)
+			builder.append("\tint line").append(i).append(";\n");
+		return builder.toString();
+	}
 }
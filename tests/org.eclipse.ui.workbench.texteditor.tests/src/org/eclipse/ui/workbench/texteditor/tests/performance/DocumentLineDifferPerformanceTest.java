@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.workbench.texteditor.tests.performance;
+
+import static org.eclipse.jface.text.DocumentRewriteSessionType.SEQUENTIAL;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentRewriteSession;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.ui.internal.texteditor.quickdiff.DocumentLineDiffer;
+
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
+
+/**
+ * Measures synchronizing a {@link DocumentLineDiffer} for a document with 1000000 lines,
+ * initially and after a large paste, a rewrite session and a reference change. The times include
+ * the initialization delay of the differ.
+ */
+public class DocumentLineDifferPerformanceTest extends PerformanceTestCase {
+
+	private static final int LINES= 1000000;
+
+	private static final int WARM_UP_RUNS= 1;
+
+	private static final int MEASURED_RUNS= 3;
+
+	/** A reference provider returning a fixed document. */
+	private static class DocumentReferenceProvider implements IQuickDiffReferenceProvider {
+
+		private final IDocument fReference;
+
+		DocumentReferenceProvider(IDocument reference) {
+			fReference= reference;
+		}
+
+		@Override
+		public IDocument getReference(IProgressMonitor monitor) {
+			return fReference;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String getId() {
+			return "test";
+		}
+
+		@Override
+		public void setActiveEditor(ITextEditor editor) {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setId(String id) {
+		}
+	}
+
+	private Document fReference;
+
+	private Document fDocument;
+
+	private DocumentLineDiffer fLineDiffer;
+
+	@Override
+	protected void tearDown() throws Exception {
+		disconnect();
+		super.tearDown();
+	}
+
+	public void testInitialSynchronization() throws Exception {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			createDocuments();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			connect();
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			disconnect();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testPaste() throws Exception {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			createDocuments();
+			connect();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			replaceLines(fDocument, 500000, 0, createLines(3000000, 100));
+			waitForSynchronization();
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			disconnect();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testRewriteSession() throws Exception {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			createDocuments();
+			connect();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			DocumentRewriteSession session= fDocument.startRewriteSession(SEQUENTIAL);
+			for (int line= 0; line < LINES; line+= 200000)
+				replaceLines(fDocument, line, 1, createLines(4000000 + line, 1));
+			fDocument.stopRewriteSession(session);
+			waitForSynchronization();
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			disconnect();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testReferenceChange() throws Exception {
+		for (int run= 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+			createDocuments();
+			connect();
+			if (run >= WARM_UP_RUNS)
+				startMeasuring();
+			replaceLines(fReference, 700000, 1, "");
+			waitForSynchronization();
+			if (run >= WARM_UP_RUNS)
+				stopMeasuring();
+			disconnect();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void createDocuments() throws BadLocationException {
+		fReference= new Document(createLines(0, LINES));
+		fDocument= new Document(fReference.get());
+		for (int line= 1000; line < LINES; line+= 100000)
+			replaceLines(fDocument, line, 3, createLines(2000000 + line, 4));
+	}
+
+	private void connect() throws InterruptedException {
+		fLineDiffer= new DocumentLineDiffer();
+		fLineDiffer.setReferenceProvider(new DocumentReferenceProvider(fReference));
+		fLineDiffer.connect(fDocument);
+		waitForSynchronization();
+	}
+
+	private void disconnect() {
+		if (fLineDiffer != null)
+			fLineDiffer.disconnect(fDocument);
+		fLineDiffer= null;
+	}
+
+	private void waitForSynchronization() throws InterruptedException {
+		long timeout= System.currentTimeMillis() + 30000;
+		while (!fLineDiffer.isSynchronized() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertTrue(fLineDiffer.isSynchronized());
+	}
+
+	private static void replaceLines(IDocument document, int line, int count, String text) throws BadLocationException {
+		int offset= document.getLineOffset(line);
+		int end= document.getLineOffset(line + count);
+		document.replace(offset, end - offset, text);
+	}
+
+	private static String createLines(int first, int count) {
+		StringBuilder builder= new StringBuilder();
+		for (int i= first; i < first + count; i++)
+			builder.append("\tint line").append(i).append(";\n");
+		return builder.toString();
+	}
+}